@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import robocode.BattleResults;
+import robocode.control.BattleSpecification;
+import robocode.control.events.IBattleListener;
+
+import java.util.Random;
+
+
+/**
+ * Runs battles independently of the battle manager, so several battles can run at the same time.
+ *
+ * @see robocode.control.RobocodeBatchEngine
+ */
+public interface IBattleRunnerBase {
+
+	/**
+	 * Runs a battle and waits till it is over.
+	 *
+	 * @param spec     the specification of the battle.
+	 * @param random   the random number generator used by this battle only.
+	 * @param listener the listener receiving the events of this battle only, or {@code null}.
+	 * @return the results of the battle sorted by ranking, or {@code null} if the battle was aborted.
+	 */
+	BattleResults[] runBattle(BattleSpecification spec, Random random, IBattleListener listener);
+}
@@ -290,6 +290,21 @@ public class FileUtil {
 		return new File(getConfigDir(), "robocode.properties");
 	}
 
+	/**
+	 * Returns the file caching the CPU constants measured on different systems.
+	 * The file can be given by the CPUCONSTANTCACHE system property, e.g. for sharing it between installations.
+	 *
+	 * @return a File that is the CPU constant cache file.
+	 */
+	public static File getCpuConstantCacheFile() {
+		String cachePath = System.getProperty("CPUCONSTANTCACHE");
+
+		if (cachePath != null) {
+			return new File(cachePath);
+		}
+		return new File(getConfigDir(), "cpuconstant.properties");
+	}
+
 	/**
 	 * Returns the window configuration file.
 	 *
@@ -47,6 +47,10 @@ public final class RbSerializer {
 	public final static byte BattleResults_TYPE = 8;
 	public final static byte Bullet_TYPE = 9;
 	public final static byte RobotStatics_TYPE = 10;
+	public final static byte TurnSnapshot_TYPE = 11;
+	public final static byte RobotSnapshot_TYPE = 12;
+	public final static byte BulletSnapshot_TYPE = 13;
+	public final static byte ScoreSnapshot_TYPE = 14;
 
 	public final static byte BattleEndedEvent_TYPE = 32;
 	public final static byte BulletHitBulletEvent_TYPE = 33;
@@ -233,6 +237,14 @@ public final class RbSerializer {
 	public void serialize(ByteBuffer buffer, String data) {
 		if (data == null) {
 			buffer.putInt(-1);
+		} else if (isAscii(data)) {
+			// ASCII is encoded as is by UTF-8, so the encoder is not needed
+			final int length = data.length();
+
+			buffer.putInt(length);
+			for (int i = 0; i < length; i++) {
+				buffer.put((byte) data.charAt(i));
+			}
 		} else {
 			ByteBuffer slice = encode(data);
 
@@ -442,7 +454,10 @@ public final class RbSerializer {
 	}
 
 	public int sizeOf(String data) {
-		return (data == null) ? SIZEOF_INT : SIZEOF_INT + encode(data).limit();
+		if (data == null) {
+			return SIZEOF_INT;
+		}
+		return SIZEOF_INT + (isAscii(data) ? data.length() : encode(data).limit());
 	}
 
 	public int sizeOf(byte[] data) {
@@ -466,6 +481,15 @@ public final class RbSerializer {
 		return helper;
 	}
 
+	private static boolean isAscii(String data) {
+		for (int i = 0; i < data.length(); i++) {
+			if (data.charAt(i) >= 0x80) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private ByteBuffer encode(String data) {
 		final ByteBuffer slice = ByteBuffer.allocate(data.length() * 3);
 
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control;
+
+
+import net.sf.robocode.battle.IBattleRunnerBase;
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.repository.IRepositoryManagerBase;
+import net.sf.robocode.security.HiddenAccess;
+import robocode.BattleResults;
+import robocode.control.events.IBattleListener;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * The RobocodeBatchEngine runs many battles at the same time within one JVM, which is useful for
+ * e.g. RoboRumble clients or tuning robots against a large set of opponents.
+ * <p>
+ * Battles are queued with {@link #submit(BattleSpecification, IBattleListener) submit()} and run by
+ * a fixed number of battle threads. Each battle has its own listeners, thread groups for its robots
+ * and random number generator for the engine, so the battles do not see each other. If the
+ * {@code RANDOMSEED} system property is set, battle number n (counting from 0 in the order the
+ * battles were submitted) uses the seed {@code RANDOMSEED + n}.
+ * <p>
+ * Note that the robots themselves still share the JVM wide {@link Math#random()}, and that battles
+ * run by this engine are never recorded nor shown in the user interface.
+ * This engine can be used next to a {@link RobocodeEngine}, which keeps running one battle at a time.
+ *
+ * @see RobocodeEngine
+ * @since 1.9.5.1
+ */
+public class RobocodeBatchEngine {
+
+	private final ExecutorService executor;
+	private final AtomicInteger battleCount = new AtomicInteger();
+	private final Long randomSeed;
+
+	/**
+	 * Creates a new RobocodeBatchEngine for running battles at the same time.
+	 * In order for this constructor to work, the current working directory must be the
+	 * home directory directory of Robocode, e.g. C:\Robocode
+	 *
+	 * @param parallelism the maximum number of battles running at the same time.
+	 * @see #RobocodeBatchEngine(File, int)
+	 * @see #close()
+	 */
+	public RobocodeBatchEngine(int parallelism) {
+		this(null, parallelism);
+	}
+
+	/**
+	 * Creates a new RobocodeBatchEngine for running battles at the same time.
+	 *
+	 * @param robocodeHome the home directory of Robocode, e.g. C:\Robocode.
+	 * @param parallelism  the maximum number of battles running at the same time.
+	 * @see #RobocodeBatchEngine(int)
+	 * @see #close()
+	 */
+	public RobocodeBatchEngine(File robocodeHome, int parallelism) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("parallelism must be at least 1");
+		}
+		HiddenAccess.initContainerForRobotEngine(robocodeHome, null);
+
+		final String seed = System.getProperty("RANDOMSEED", "none");
+
+		randomSeed = seed.equals("none") ? null : Long.valueOf(seed);
+
+		executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+			private final AtomicInteger threadCount = new AtomicInteger();
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "Batch Engine Thread " + threadCount.incrementAndGet());
+
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+	}
+
+	/**
+	 * Returns the robots and teams found in the local robot repository matching the given list.
+	 *
+	 * @param selectedRobots a comma or space separated list of robots or teams to return.
+	 * @return an array of specifications of the selected robots and teams, which can be put into a
+	 *         {@link BattleSpecification}.
+	 * @see RobocodeEngine#getLocalRepository(String)
+	 */
+	public RobotSpecification[] getLocalRepository(String selectedRobots) {
+		final IRepositoryManagerBase repository = ContainerBase.getComponent(IRepositoryManagerBase.class);
+
+		synchronized (repository) {
+			repository.refresh(); // Bug fix [2972932]
+			return repository.loadSelectedRobots(selectedRobots);
+		}
+	}
+
+	/**
+	 * Queues a battle to be run as soon as a battle thread is free.
+	 *
+	 * @param battleSpecification the specification of the battle.
+	 * @return a future holding the results of the battle sorted by ranking, or {@code null} if the battle was aborted.
+	 */
+	public Future<BattleResults[]> submit(BattleSpecification battleSpecification) {
+		return submit(battleSpecification, null);
+	}
+
+	/**
+	 * Queues a battle to be run as soon as a battle thread is free.
+	 * <p>
+	 * Cancelling the returned future with interruption aborts the battle if it is running already.
+	 *
+	 * @param battleSpecification the specification of the battle.
+	 * @param listener            the listener receiving the events of this battle only, or {@code null}.
+	 *                            It is called from the thread running the battle.
+	 * @return a future holding the results of the battle sorted by ranking, or {@code null} if the battle was aborted.
+	 */
+	public Future<BattleResults[]> submit(final BattleSpecification battleSpecification, final IBattleListener listener) {
+		final int battleNum = battleCount.getAndIncrement();
+		final Random random = (randomSeed == null) ? new Random() : new Random(randomSeed + battleNum);
+
+		return executor.submit(new Callable<BattleResults[]>() {
+			public BattleResults[] call() {
+				return ContainerBase.getComponent(IBattleRunnerBase.class).runBattle(battleSpecification, random,
+						listener);
+			}
+		});
+	}
+
+	/**
+	 * Runs the battles and waits till all of them are over.
+	 *
+	 * @param battleSpecifications the specifications of the battles.
+	 * @return the results of each battle in the order of the specifications, where the results of a battle
+	 *         are sorted by ranking, or {@code null} if the battle was aborted.
+	 * @throws InterruptedException if the current thread was interrupted while waiting.
+	 */
+	public List<BattleResults[]> runBattles(Collection<BattleSpecification> battleSpecifications) throws InterruptedException {
+		final List<Future<BattleResults[]>> futures = new ArrayList<Future<BattleResults[]>>();
+
+		for (BattleSpecification battleSpecification : battleSpecifications) {
+			futures.add(submit(battleSpecification));
+		}
+
+		final List<BattleResults[]> results = new ArrayList<BattleResults[]>();
+
+		for (Future<BattleResults[]> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (ExecutionException e) {
+				throw new RuntimeException(e.getCause());
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Aborts the running battles, cancels the battles that have not started yet, and waits till the
+	 * battle threads have ended.
+	 */
+	public void close() {
+		for (Runnable pendingBattle : executor.shutdownNow()) {
+			((Future<?>) pendingBattle).cancel(false);
+		}
+		try {
+			executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			// Immediately reasserts the exception by interrupting the caller thread itself
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -360,10 +360,20 @@ public class RobocodeEngine implements IRobocodeEngine {
 	/**
 	 * Registered only if listener in not null.
 	 */
-	private class BattleObserver extends BattleAdaptor {
+	private class BattleObserver extends BattleAdaptor implements ISelectiveBattleListener {
 		@SuppressWarnings("deprecation") // We must still support deprecated RobocodeListener
 		private RobocodeListener listener;
 
+		public boolean isListening(Class<? extends BattleEvent> eventClass) {
+			return eventClass == BattleFinishedEvent.class
+					|| eventClass == BattleCompletedEvent.class
+					|| eventClass == BattleMessageEvent.class;
+		}
+
+		public TurnSnapshotDetail getTurnSnapshotDetail() {
+			return TurnSnapshotDetail.NONE;
+		}
+
 		@SuppressWarnings("deprecation") // We must still support deprecated RobocodeListener
 		@Override
 		public void onBattleFinished(BattleFinishedEvent event) {
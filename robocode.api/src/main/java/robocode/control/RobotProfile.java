@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control;
+
+
+/**
+ * Contains how much time a robot has taken for its turns in a battle, which tells which robots are slowing
+ * down the battle, and how close the robots are to the time allowed per turn.
+ * <p>
+ * The time of a turn is the time from the robot being woken up for the turn until the robot has taken its
+ * action, i.e. when it is waiting for the next turn. The times are measured within 25%. For a team, the
+ * profile contains the turns of all members of the team.
+ *
+ * @see RobotResults#getProfile()
+ *
+ * @since 1.9.5.1
+ */
+public class RobotProfile implements java.io.Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long turns;
+	private final long medianTurnNanos;
+	private final long percentile99TurnNanos;
+	private final long maxTurnNanos;
+	private final long cpuTimeNanos;
+	private final int skippedTurns;
+	private final int maxEventQueueSize;
+
+	/**
+	 * Constructs a new RobotProfile.
+	 *
+	 * @param turns is the number of turns the robot has taken its action in
+	 * @param medianTurnNanos is the median time of the turns in nanoseconds
+	 * @param percentile99TurnNanos is the time 99% of the turns are within in nanoseconds
+	 * @param maxTurnNanos is the longest time of a turn in nanoseconds
+	 * @param cpuTimeNanos is the CPU time of the robot in nanoseconds, or -1 if not measured
+	 * @param skippedTurns is the number of turns the robot has skipped
+	 * @param maxEventQueueSize is the largest number of events handed to the robot in a turn
+	 */
+	public RobotProfile(
+			long turns,
+			long medianTurnNanos,
+			long percentile99TurnNanos,
+			long maxTurnNanos,
+			long cpuTimeNanos,
+			int skippedTurns,
+			int maxEventQueueSize
+			) {
+		this.turns = turns;
+		this.medianTurnNanos = medianTurnNanos;
+		this.percentile99TurnNanos = percentile99TurnNanos;
+		this.maxTurnNanos = maxTurnNanos;
+		this.cpuTimeNanos = cpuTimeNanos;
+		this.skippedTurns = skippedTurns;
+		this.maxEventQueueSize = maxEventQueueSize;
+	}
+
+	/**
+	 * Returns the number of turns the robot has taken its action in, where the first turn of every round
+	 * is not included, as it contains the initialization of the robot.
+	 *
+	 * @return the number of measured turns.
+	 */
+	public long getTurns() {
+		return turns;
+	}
+
+	/**
+	 * Returns the median time of the turns.
+	 *
+	 * @return the median time of the turns in nanoseconds.
+	 */
+	public long getMedianTurnNanos() {
+		return medianTurnNanos;
+	}
+
+	/**
+	 * Returns the time 99% of the turns have been within.
+	 *
+	 * @return the 99th percentile of the times of the turns in nanoseconds.
+	 */
+	public long getPercentile99TurnNanos() {
+		return percentile99TurnNanos;
+	}
+
+	/**
+	 * Returns the longest time of a turn, which includes the turns the robot has skipped while taking it.
+	 *
+	 * @return the longest time of a turn in nanoseconds.
+	 */
+	public long getMaxTurnNanos() {
+		return maxTurnNanos;
+	}
+
+	/**
+	 * Returns the CPU time consumed by the thread of the robot in all rounds, where threads started by the
+	 * robot are not included.
+	 *
+	 * @return the CPU time in nanoseconds, or -1 if the CPU time of threads is not supported by the JVM.
+	 */
+	public long getCpuTimeNanos() {
+		return cpuTimeNanos;
+	}
+
+	/**
+	 * Returns the number of turns the robot has skipped, i.e. the number of {@link robocode.SkippedTurnEvent}s.
+	 *
+	 * @return the number of skipped turns.
+	 */
+	public int getSkippedTurns() {
+		return skippedTurns;
+	}
+
+	/**
+	 * Returns the largest number of events that have been handed to the robot at once.
+	 *
+	 * @return the high-water mark of the event queue.
+	 */
+	public int getMaxEventQueueSize() {
+		return maxEventQueueSize;
+	}
+
+	@Override
+	public String toString() {
+		return "turns=" + turns + ", median=" + medianTurnNanos + " ns, 99%=" + percentile99TurnNanos + " ns, max="
+				+ maxTurnNanos + " ns, cpu=" + cpuTimeNanos + " ns, skipped=" + skippedTurns + ", maxEvents="
+				+ maxEventQueueSize;
+	}
+}
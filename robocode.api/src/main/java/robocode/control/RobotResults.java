@@ -22,6 +22,7 @@ public class RobotResults extends BattleResults {
 	private static final long serialVersionUID = 2L;
 
 	private final RobotSpecification robot;
+	private final RobotProfile profile;
 
 	/**
 	 * Constructs a new RobotResults.
@@ -58,6 +59,7 @@ public class RobotResults extends BattleResults {
 		super(teamLeaderName, rank, score, survival, lastSurvivorBonus, bulletDamage, bulletDamageBonus, ramDamage,
 				ramDamageBonus, firsts, seconds, thirds);
 		this.robot = robot;
+		this.profile = null;
 	}
 
 	/**
@@ -75,6 +77,28 @@ public class RobotResults extends BattleResults {
 				results.getRamDamage(), results.getRamDamageBonus(), results.getFirsts(), results.getSeconds(),
 				results.getThirds());
 		this.robot = robot;
+		this.profile = null;
+	}
+
+	/**
+	 * Constructs new RobotResults based on a {@link RobotSpecification}, {@link robocode.BattleResults
+	 * BattleResults}, and the {@link RobotProfile} of the robot.
+	 *
+	 * @param robot   the robot these results are for
+	 * @param results the battle results for the robot
+	 * @param profile the time the robot has taken for its turns
+	 * @since 1.9.5.1
+	 */
+	public RobotResults(
+			RobotSpecification robot,
+			BattleResults results,
+			RobotProfile profile) {
+		super(results.getTeamLeaderName(), results.getRank(), results.getScore(), results.getSurvival(),
+				results.getLastSurvivorBonus(), results.getBulletDamage(), results.getBulletDamageBonus(),
+				results.getRamDamage(), results.getRamDamageBonus(), results.getFirsts(), results.getSeconds(),
+				results.getThirds());
+		this.robot = robot;
+		this.profile = profile;
 	}
 
 	/**
@@ -86,6 +110,17 @@ public class RobotResults extends BattleResults {
 		return robot;
 	}
 
+	/**
+	 * Returns the time the robot has taken for its turns. The profile is not part of the results when
+	 * comparing them, as it differs between runs of the same battle.
+	 *
+	 * @return the profile of the robot, or {@code null} if not known, e.g. when the battle is replayed.
+	 * @since 1.9.5.1
+	 */
+	public RobotProfile getProfile() {
+		return profile;
+	}
+
 	/**
 	 * Converts an array of {@link BattleResults} into an array of {@link RobotResults}.
 	 *
@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.events;
+
+
+/**
+ * A battle listener telling which battle events it needs, and how much of each turn it needs. The events are only
+ * sent to the listener when it is listening to them, and the battle does not create the events or the snapshots of
+ * the turns when none of its listeners need them. A battle listener that does not implement this interface receives
+ * all events with the full snapshots of the turns.
+ *
+ * @since 1.9.5.1
+ */
+public interface ISelectiveBattleListener extends IBattleListener {
+
+	/**
+	 * Returns true if this listener is listening to the battle events of the given class.
+	 *
+	 * @param eventClass the class of the battle events, e.g. TurnEndedEvent.class.
+	 * @return true if the events must be sent to this listener; false otherwise.
+	 */
+	boolean isListening(Class<? extends BattleEvent> eventClass);
+
+	/**
+	 * Returns how much of each turn this listener needs in its {@link #onTurnEnded(TurnEndedEvent) onTurnEnded()}
+	 * events. Only used when this listener is listening to {@link TurnEndedEvent}.
+	 *
+	 * @return the detail of the turn snapshots needed by this listener.
+	 */
+	TurnSnapshotDetail getTurnSnapshotDetail();
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.events;
+
+
+/**
+ * A battle listener receiving the time spent in the phases of every turn. The phases of the turns are only timed
+ * when a listener like this is added, or when enabled by the TURNTIMING system property, where the timings are
+ * also available from the net.sf.robocode:type=BattleTimings MBean.
+ * <p>
+ * A listener that is only interested in the timings should extend {@link BattleAdaptor}.
+ *
+ * @see TurnTimedEvent
+ *
+ * @since 1.9.5.1
+ */
+public interface ITurnTimingListener extends IBattleListener {
+
+	/**
+	 * This method is called at the end of every turn, after {@link #onTurnEnded(TurnEndedEvent)}.
+	 * It is called on the battle thread, so it should return quickly.
+	 *
+	 * @param event the event details.
+	 */
+	void onTurnTimed(TurnTimedEvent event);
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.events;
+
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * A histogram of times in nanoseconds, which is written by one thread and can be read by any thread.
+ * <p>
+ * Every power of two is split into four buckets, so the times are known within 25%. Recording a time costs
+ * a few nanoseconds and no memory.
+ *
+ * @see TurnTimedEvent
+ *
+ * @since 1.9.5.1
+ */
+public final class TimingHistogram {
+
+	private static final int SUB_BUCKET_BITS = 2;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = 64 * SUB_BUCKETS;
+
+	// Index of count, total and max, followed by the buckets
+	private static final int COUNT = 0;
+	private static final int TOTAL = 1;
+	private static final int MAX = 2;
+	private static final int FIRST_BUCKET = 3;
+
+	private final AtomicLongArray values = new AtomicLongArray(FIRST_BUCKET + BUCKETS);
+
+	/**
+	 * Records a time. Must only be called by one thread at a time.
+	 *
+	 * @param nanos the time in nanoseconds.
+	 */
+	public void record(long nanos) {
+		if (nanos < 0) {
+			nanos = 0;
+		}
+		// Single writer, so no compare-and-set is needed
+		add(COUNT, 1);
+		add(TOTAL, nanos);
+		if (nanos > values.get(MAX)) {
+			values.lazySet(MAX, nanos);
+		}
+		add(FIRST_BUCKET + getBucket(nanos), 1);
+	}
+
+	/**
+	 * Adds the recorded times of another histogram, e.g. for adding up the histograms of several threads.
+	 * Must only be called by the thread recording the times of this histogram.
+	 *
+	 * @param other the histogram to add.
+	 */
+	public void add(TimingHistogram other) {
+		add(COUNT, other.getCount());
+		add(TOTAL, other.getTotalNanos());
+		if (other.getMaxNanos() > values.get(MAX)) {
+			values.lazySet(MAX, other.getMaxNanos());
+		}
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			add(FIRST_BUCKET + bucket, other.values.get(FIRST_BUCKET + bucket));
+		}
+	}
+
+	private void add(int index, long value) {
+		values.lazySet(index, values.get(index) + value);
+	}
+
+	/**
+	 * Clears the histogram.
+	 */
+	public void reset() {
+		for (int i = 0; i < values.length(); i++) {
+			values.set(i, 0);
+		}
+	}
+
+	/**
+	 * @return the number of recorded times.
+	 */
+	public long getCount() {
+		return values.get(COUNT);
+	}
+
+	/**
+	 * @return the sum of the recorded times in nanoseconds.
+	 */
+	public long getTotalNanos() {
+		return values.get(TOTAL);
+	}
+
+	/**
+	 * @return the mean of the recorded times in nanoseconds, or 0 if no time has been recorded.
+	 */
+	public double getMeanNanos() {
+		final long count = getCount();
+
+		return count == 0 ? 0 : (double) getTotalNanos() / count;
+	}
+
+	/**
+	 * @return the longest recorded time in nanoseconds.
+	 */
+	public long getMaxNanos() {
+		return values.get(MAX);
+	}
+
+	/**
+	 * Returns a percentile of the recorded times, which is the upper bound of the bucket containing it.
+	 *
+	 * @param percentile the percentile between 0 and 100, e.g. 99 for the time 99% of the recorded times are within.
+	 * @return the percentile in nanoseconds, or 0 if no time has been recorded.
+	 */
+	public long getPercentileNanos(double percentile) {
+		long count = 0;
+
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			count += values.get(FIRST_BUCKET + bucket);
+		}
+		final long rank = (long) Math.ceil(count * Math.max(0, Math.min(100, percentile)) / 100);
+
+		long seen = 0;
+
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			seen += values.get(FIRST_BUCKET + bucket);
+			if (seen > 0 && seen >= rank) {
+				return Math.min(getUpperBound(bucket), getMaxNanos());
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the number of recorded times in each bucket, where the buckets are from short to long times.
+	 *
+	 * @return the counts of the buckets.
+	 * @see #getUpperBound(int)
+	 */
+	public long[] getBucketCounts() {
+		final long[] counts = new long[BUCKETS];
+
+		for (int bucket = 0; bucket < BUCKETS; bucket++) {
+			counts[bucket] = values.get(FIRST_BUCKET + bucket);
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the longest time counted in a bucket.
+	 *
+	 * @param bucket the index of the bucket.
+	 * @return the upper bound of the bucket in nanoseconds.
+	 */
+	public static long getUpperBound(int bucket) {
+		if (bucket < SUB_BUCKETS) {
+			return bucket;
+		}
+		final int exponent = (bucket >> SUB_BUCKET_BITS) + 1;
+
+		if (exponent >= 63) {
+			return Long.MAX_VALUE;
+		}
+		final long subBucket = bucket & (SUB_BUCKETS - 1);
+
+		return (((SUB_BUCKETS | subBucket) + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+	}
+
+	static int getBucket(long nanos) {
+		if (nanos < SUB_BUCKETS) {
+			return (int) nanos;
+		}
+		final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+		return ((exponent - 1) << SUB_BUCKET_BITS) | subBucket;
+	}
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.events;
+
+
+/**
+ * The phases of a turn in a battle, which are timed for {@link ITurnTimingListener}.
+ *
+ * @see TurnTimedEvent
+ *
+ * @since 1.9.5.1
+ */
+public enum TurnPhase {
+
+	/**
+	 * Loading the commands the robots have given in their last turn.
+	 */
+	LOAD_COMMANDS,
+
+	/**
+	 * Moving the bullets and checking them for hits.
+	 */
+	UPDATE_BULLETS,
+
+	/**
+	 * Moving the robots, and checking them for collisions and scans.
+	 */
+	UPDATE_ROBOTS,
+
+	/**
+	 * Handling the robots that have died, and ending the round when it is over.
+	 */
+	HANDLE_DEAD_ROBOTS,
+
+	/**
+	 * Publishing the status and events of the turn to the robots.
+	 */
+	PUBLISH_STATUSES,
+
+	/**
+	 * Waking up the robots and waiting for them to take their turns.
+	 */
+	WAKEUP_ROBOTS,
+
+	/**
+	 * Creating the snapshot of the turn and sending it to the battle listeners.
+	 */
+	FINALIZE_TURN
+}
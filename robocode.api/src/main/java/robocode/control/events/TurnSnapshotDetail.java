@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.events;
+
+
+/**
+ * How much of each turn a {@link ISelectiveBattleListener} needs in its
+ * {@link IBattleListener#onTurnEnded(TurnEndedEvent) onTurnEnded()} events.
+ *
+ * @see ISelectiveBattleListener#getTurnSnapshotDetail()
+ *
+ * @since 1.9.5.1
+ */
+public enum TurnSnapshotDetail {
+
+	/**
+	 * The listener does not use the turn snapshots.
+	 */
+	NONE,
+
+	/**
+	 * The listener uses the turn snapshots, but not the console output of the robots, which is left out of the
+	 * robot snapshots.
+	 */
+	NO_OUTPUT,
+
+	/**
+	 * The listener uses the turn snapshots including the console output of the robots.
+	 */
+	FULL
+}
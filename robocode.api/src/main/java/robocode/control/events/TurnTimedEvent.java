@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package robocode.control.events;
+
+
+import java.util.Map;
+
+
+/**
+ * A TurnTimedEvent is sent to {@link ITurnTimingListener#onTurnTimed(TurnTimedEvent) onTurnTimed()} when a turn
+ * is ended. It contains the time spent in each phase of the turn, and the histograms of all timed turns.
+ *
+ * @see ITurnTimingListener
+ *
+ * @since 1.9.5.1
+ */
+public class TurnTimedEvent extends BattleEvent {
+	private final int round;
+	private final int turn;
+	private final long[] phaseNanos;
+	private final Map<TurnPhase, TimingHistogram> phaseHistograms;
+	private final Map<String, TimingHistogram> listenerHistograms;
+
+	/**
+	 * Called by the game to create a new TurnTimedEvent.
+	 * Please don't use this constructor as it might change.
+	 *
+	 * @param round              the round of the turn.
+	 * @param turn               the turn.
+	 * @param phaseNanos         the time spent in each phase of the turn in nanoseconds, by the ordinal of the phase.
+	 * @param phaseHistograms    the histograms of the phases.
+	 * @param listenerHistograms the histograms of the battle listeners.
+	 */
+	public TurnTimedEvent(int round, int turn, long[] phaseNanos, Map<TurnPhase, TimingHistogram> phaseHistograms,
+			Map<String, TimingHistogram> listenerHistograms) {
+		super();
+		this.round = round;
+		this.turn = turn;
+		this.phaseNanos = phaseNanos;
+		this.phaseHistograms = phaseHistograms;
+		this.listenerHistograms = listenerHistograms;
+	}
+
+	/**
+	 * Returns the round of the turn.
+	 *
+	 * @return the round number, which is zero indexed.
+	 */
+	public int getRound() {
+		return round;
+	}
+
+	/**
+	 * Returns the turn that has been timed.
+	 *
+	 * @return the turn number.
+	 */
+	public int getTurn() {
+		return turn;
+	}
+
+	/**
+	 * Returns the time spent in a phase of this turn.
+	 *
+	 * @param phase the phase.
+	 * @return the time in nanoseconds.
+	 */
+	public long getPhaseNanos(TurnPhase phase) {
+		return phaseNanos[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the histogram of a phase, which contains all turns that have been timed so far.
+	 * The histogram keeps changing while the battle is running.
+	 *
+	 * @param phase the phase.
+	 * @return the histogram of the phase.
+	 */
+	public TimingHistogram getPhaseHistogram(TurnPhase phase) {
+		return phaseHistograms.get(phase);
+	}
+
+	/**
+	 * Returns the histograms of the time the battle listeners have spent in the turn events, where the key is the
+	 * event and the class name of the listener, e.g. "onTurnEnded robocode.control.events.BattleAdaptor".
+	 * The histograms keep changing while the battle is running.
+	 *
+	 * @return the histograms of the battle listeners.
+	 */
+	public Map<String, TimingHistogram> getListenerHistograms() {
+		return listenerHistograms;
+	}
+}
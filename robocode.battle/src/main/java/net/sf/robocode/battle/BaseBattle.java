@@ -59,6 +59,9 @@ public abstract class BaseBattle implements IBattle, Runnable {
 	private final AtomicBoolean isRunning = new AtomicBoolean(false);
 	protected boolean isAborted;
 
+	// Set while this battle keeps the JARs of the robots open, so cleanup() enables the JAR GC only once
+	private final AtomicBoolean isJarGcDisabled = new AtomicBoolean(false);
+
 	// Battle control
 	protected boolean isPaused;
 	private int stepCount;
@@ -145,7 +148,9 @@ public abstract class BaseBattle implements IBattle, Runnable {
 			pendingCommands.clear();
 			// don't pendingCommands = null;
 		}
-		URLJarCollector.enableGc(true);
+		if (isJarGcDisabled.compareAndSet(true, false)) {
+			URLJarCollector.enableGc(true);
+		}
 		URLJarCollector.gc();
 	}
 
@@ -215,7 +220,9 @@ public abstract class BaseBattle implements IBattle, Runnable {
 	}
 
 	protected void initializeBattle() {
-		URLJarCollector.enableGc(false);
+		if (isJarGcDisabled.compareAndSet(false, true)) {
+			URLJarCollector.enableGc(false);
+		}
 		roundNum = 0;
 		totalTurns = 0;
 
@@ -9,7 +9,9 @@ package net.sf.robocode.battle;
 
 
 import net.sf.robocode.battle.events.BattleEventDispatcher;
+import net.sf.robocode.battle.events.BattleTimings;
 import net.sf.robocode.battle.peer.BulletPeer;
+import net.sf.robocode.battle.peer.CollisionGrid;
 import net.sf.robocode.battle.peer.ContestantPeer;
 import net.sf.robocode.battle.peer.RobotPeer;
 import net.sf.robocode.battle.peer.TeamPeer;
@@ -32,6 +34,8 @@ import robocode.control.snapshot.BulletState;
 import robocode.control.snapshot.ITurnSnapshot;
 import robocode.robotinterfaces.IBasicRobot;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.regex.Matcher;
@@ -55,6 +59,12 @@ public final class Battle extends BaseBattle {
 
 	private static final int DEBUG_TURN_WAIT_MILLIS = 10 * 60 * 1000; // 10 seconds
 
+	// With -DCPUTIMEBUDGET, a turn ends at the latest after this many times its wall clock time, so robots that are
+	// blocked (sleeping, waiting or doing I/O) still skip turns. Such robots get more wall clock time than without
+	// -DCPUTIMEBUDGET before they skip a turn. Can be changed with -DCPUTIMEWALLCLOCKFACTOR, where 1 is as strict
+	// as the wall clock budget for blocked robots.
+	private static final int DEFAULT_CPU_TIME_WALL_CLOCK_FACTOR = 4;
+
 	private final IHostManager hostManager;
 	private final long cpuConstant;
 
@@ -64,6 +74,8 @@ public final class Battle extends BaseBattle {
 
 	// Turn skip related items
 	private boolean parallelOn;
+	private boolean cpuTimeBudgetOn;
+	private int cpuTimeWallClockFactor;
 	private long millisWait;
 	private int nanoWait;
 
@@ -73,6 +85,10 @@ public final class Battle extends BaseBattle {
 	private List<ContestantPeer> contestants = new ArrayList<ContestantPeer>();
 	private final List<BulletPeer> bullets = new CopyOnWriteArrayList<BulletPeer>();
 
+	// Broad phase for bullet collisions
+	private CollisionGrid collisionGrid;
+	private boolean isCollisionGridEnabled = true;
+
 	// Robot counters
 	private int activeParticipants;
 	private int activeSentries;
@@ -80,6 +96,22 @@ public final class Battle extends BaseBattle {
 	// Death events
 	private final List<RobotPeer> deathRobots = new CopyOnWriteArrayList<RobotPeer>();
 
+	// Random orders for fair play, reused every turn. One per phase, as the phases are nested.
+	private final ShuffledList<RobotPeer> robotsOrder = new ShuffledList<RobotPeer>();
+	private final ShuffledList<BulletPeer> bulletsOrder = new ShuffledList<BulletPeer>();
+	private final ShuffledList<RobotPeer> bulletTargetRobotsOrder = new ShuffledList<RobotPeer>();
+	private final ShuffledList<BulletPeer> bulletTargetBulletsOrder = new ShuffledList<BulletPeer>();
+	private final ShuffledList<RobotPeer> moveOrder = new ShuffledList<RobotPeer>();
+	private final ShuffledList<RobotPeer> moveTargetsOrder = new ShuffledList<RobotPeer>();
+	private final ShuffledList<RobotPeer> scanOrder = new ShuffledList<RobotPeer>();
+	private final ShuffledList<RobotPeer> scanTargetsOrder = new ShuffledList<RobotPeer>();
+	private final ShuffledList<RobotPeer> deathOrder = new ShuffledList<RobotPeer>();
+	private final ShuffledList<RobotPeer> deathWitnessesOrder = new ShuffledList<RobotPeer>();
+	private final ShuffledList<RobotPeer> wakeupOrder = new ShuffledList<RobotPeer>();
+
+	// Random number generator of this battle only (if any)
+	private Random random;
+
 	// Initial robot setups (if any)
 	private RobotSetup[] initialRobotSetups;
 
@@ -95,10 +127,41 @@ public final class Battle extends BaseBattle {
 				battleProps.getNumRounds(), battleProps.getGunCoolingRate(), battleProps.getInactivityTime(),
 				battleProps.getHideEnemyNames(), battleProps.getSentryBorderSize());
 		robotsCount = battlingRobotsList.length;
+		collisionGrid = new CollisionGrid(battleRules.getBattlefieldWidth(), battleRules.getBattlefieldHeight(),
+				isCollisionGridEnabled ? CollisionGrid.DEFAULT_CELL_SIZE : Integer.MAX_VALUE);
 		computeInitialPositions(battleProps.getInitialPositions());
 		createPeers(battlingRobotsList);
 	}
 
+	/**
+	 * Sets the random number generator used by this battle only, e.g. when several battles are run
+	 * at the same time. By default the shared generator from the {@link RandomFactory} is used.
+	 *
+	 * @param random the random number generator, or {@code null} for the shared one.
+	 */
+	void setRandom(Random random) {
+		this.random = random;
+	}
+
+	/**
+	 * Enables or disables the collision grid of this battle, which must be called before the battle is set up.
+	 * Without the grid every robot and bullet is checked for collisions with every bullet.
+	 *
+	 * @param enable {@code true} if the collision grid must be used; {@code false} otherwise.
+	 */
+	void setCollisionGridEnabled(boolean enable) {
+		isCollisionGridEnabled = enable;
+	}
+
+	/**
+	 * Returns the random number generator to be used for the engine decisions of this battle.
+	 *
+	 * @return the random number generator of this battle, or the shared one from the {@link RandomFactory}.
+	 */
+	public Random getRandom() {
+		return random != null ? random : RandomFactory.getRandom();
+	}
+
 	private void createPeers(RobotSpecification[] battlingRobotsList) {
 
 		List<String> teamNames = new ArrayList<String>();
@@ -265,6 +328,24 @@ public final class Battle extends BaseBattle {
 		if (nanoWait == 0) {
 			nanoWait = 1;
 		}
+
+		// Measure the turns of robots by the CPU time of their threads, so robots are not skipping turns when
+		// the machine is busy with other work
+		cpuTimeBudgetOn = System.getProperty("CPUTIMEBUDGET", "false").equals("true");
+		if (cpuTimeBudgetOn) {
+			final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+			if (!threadMXBean.isThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+				Logger.logWarning("CPU time of threads is not supported, so turns are measured by wall clock time");
+				cpuTimeBudgetOn = false;
+			}
+			cpuTimeWallClockFactor = Integer.getInteger("CPUTIMEWALLCLOCKFACTOR", DEFAULT_CPU_TIME_WALL_CLOCK_FACTOR);
+			if (cpuTimeWallClockFactor < 1) {
+				Logger.logWarning("CPUTIMEWALLCLOCKFACTOR must be at least 1, so "
+						+ DEFAULT_CPU_TIME_WALL_CLOCK_FACTOR + " is used");
+				cpuTimeWallClockFactor = DEFAULT_CPU_TIME_WALL_CLOCK_FACTOR;
+			}
+		}
 	}
 
 	@Override
@@ -278,7 +359,6 @@ public final class Battle extends BaseBattle {
 		for (RobotPeer robotPeer : robots) {
 			robotPeer.cleanup();
 		}
-		hostManager.resetThreadManager();
 
 		super.finalizeBattle();
 	}
@@ -329,7 +409,7 @@ public final class Battle extends BaseBattle {
 			waitNanos = (int) (waitTime % 1000000);
 		}
 
-		for (RobotPeer robotPeer : getRobotsAtRandom()) {
+		for (RobotPeer robotPeer : getRobotsAtRandom(robotsOrder)) {
 			robotPeer.startRound(waitMillis, waitNanos);
 		}
 
@@ -355,6 +435,8 @@ public final class Battle extends BaseBattle {
 			robotPeer.waitForStop();
 		}
 		bullets.clear();
+		clearRandomOrders();
+		collisionGrid.reset();
 
 		eventDispatcher.onRoundEnded(new RoundEndedEvent(getRoundNum(), currentTime, totalTurns));
 	}
@@ -363,18 +445,33 @@ public final class Battle extends BaseBattle {
 	protected void initializeTurn() {
 		super.initializeTurn();
 
-		eventDispatcher.onTurnStarted(new TurnStartedEvent());
+		if (eventDispatcher.isListened(TurnStartedEvent.class)) {
+			eventDispatcher.onTurnStarted(new TurnStartedEvent());
+		}
 	}
 
 	@Override
 	protected void runTurn() {
 		super.runTurn();
 
+		final BattleTimings timings = eventDispatcher.getTimings();
+		final boolean timed = timings.isEnabled();
+		long time = timed ? System.nanoTime() : 0;
+
 		loadCommands();
+		if (timed) {
+			time = timings.record(TurnPhase.LOAD_COMMANDS, time);
+		}
 
 		updateBullets();
+		if (timed) {
+			time = timings.record(TurnPhase.UPDATE_BULLETS, time);
+		}
 
 		updateRobots();
+		if (timed) {
+			time = timings.record(TurnPhase.UPDATE_ROBOTS, time);
+		}
 
 		handleDeadRobots();
 
@@ -385,18 +482,27 @@ public final class Battle extends BaseBattle {
 		inactiveTurnCount++;
 
 		computeActiveRobots();
+		if (timed) {
+			time = timings.record(TurnPhase.HANDLE_DEAD_ROBOTS, time);
+		}
 
 		publishStatuses();
+		if (timed) {
+			time = timings.record(TurnPhase.PUBLISH_STATUSES, time);
+		}
 
 		// Robot time!
 		wakeupRobots();
+		if (timed) {
+			timings.record(TurnPhase.WAKEUP_ROBOTS, time);
+		}
 	}
 
 	@Override
 	protected void shutdownTurn() {
 		if (endTimer == 0) {
 			if (isAborted()) {
-				for (RobotPeer robotPeer : getRobotsAtRandom()) {
+				for (RobotPeer robotPeer : getRobotsAtRandom(robotsOrder)) {
 					if (robotPeer.isAlive()) {
 						robotPeer.println("SYSTEM: game aborted.");
 					}
@@ -408,7 +514,7 @@ public final class Battle extends BaseBattle {
 				robocode.RoundEndedEvent roundEndedEvent = new robocode.RoundEndedEvent(getRoundNum(), currentTime,
 						totalTurns); 
 
-				for (RobotPeer robotPeer : getRobotsAtRandom()) {
+				for (RobotPeer robotPeer : getRobotsAtRandom(robotsOrder)) {
 					robotPeer.addEvent(roundEndedEvent);
 					if (robotPeer.isAlive() && !robotPeer.isWinner() && !robotPeer.isSentryRobot()) {
 						robotPeer.getRobotStatistics().scoreLastSurvivor();
@@ -455,7 +561,31 @@ public final class Battle extends BaseBattle {
 
 	@Override
 	protected void finalizeTurn() {
-		eventDispatcher.onTurnEnded(new TurnEndedEvent(new TurnSnapshot(this, robots, bullets, true)));
+		final BattleTimings timings = eventDispatcher.getTimings();
+		final boolean timed = timings.isEnabled();
+		final long time = timed ? System.nanoTime() : 0;
+
+		final TurnSnapshotDetail detail = eventDispatcher.getTurnSnapshotDetail();
+
+		if (detail != TurnSnapshotDetail.NONE) {
+			eventDispatcher.onTurnEnded(
+					new TurnEndedEvent(new TurnSnapshot(this, robots, bullets, detail == TurnSnapshotDetail.FULL)));
+		}
+		if (detail != TurnSnapshotDetail.FULL) {
+			// the console output of the robots is not read by anyone, and must not pile up
+			for (RobotPeer robotPeer : robots) {
+				robotPeer.clearOutText();
+			}
+		}
+
+		if (timed) {
+			timings.record(TurnPhase.FINALIZE_TURN, time);
+
+			if (timings.isListened()) {
+				eventDispatcher.onTurnTimed(new TurnTimedEvent(getRoundNum(), currentTime, timings.getPhaseNanos(),
+						timings.getPhaseHistograms(), timings.getListenerHistograms()));
+			}
+		}
 
 		super.finalizeTurn();
 	}
@@ -476,7 +606,7 @@ public final class Battle extends BaseBattle {
 			} else if (contestant instanceof TeamPeer) {
 				robotSpec = ((TeamPeer) contestant).getTeamLeader().getRobotSpecification();
 			}
-			results.set(rank, new RobotResults(robotSpec, battleResults));
+			results.set(rank, new RobotResults(robotSpec, battleResults, contestant.getProfile()));
 		}
 		return results.toArray(new BattleResults[results.size()]);
 	}
@@ -487,26 +617,25 @@ public final class Battle extends BaseBattle {
 	 * checks if a robot has won, is dead, etc.
 	 * This method was introduced as two equal robots like sample.RamFire got different scores even
 	 * though the code was exactly the same.
+	 * <p>
+	 * The returned list is the given order reshuffled, so it stays valid only until that order is
+	 * shuffled again.
 	 *
+	 * @param order the reusable order of the phase that needs the robots.
 	 * @return a list of robot peers.
 	 */
-	private List<RobotPeer> getRobotsAtRandom() {
-		List<RobotPeer> shuffledList = new ArrayList<RobotPeer>(robots);
-
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
-		return shuffledList;
+	private List<RobotPeer> getRobotsAtRandom(ShuffledList<RobotPeer> order) {
+		return order.shuffle(robots, getRandom());
 	}
 
 	/**
 	 * Returns a list of all bullets in random order. This method is used to gain fair play in Robocode.
 	 *
+	 * @param order the reusable order of the phase that needs the bullets.
 	 * @return a list of bullet peers.
 	 */
-	private List<BulletPeer> getBulletsAtRandom() {
-		List<BulletPeer> shuffledList = new ArrayList<BulletPeer>(bullets);
-
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
-		return shuffledList;
+	private List<BulletPeer> getBulletsAtRandom(ShuffledList<BulletPeer> order) {
+		return order.shuffle(bullets, getRandom());
 	}
 
 	/**
@@ -515,10 +644,21 @@ public final class Battle extends BaseBattle {
 	 * @return a list of robot peers.
 	 */
 	private List<RobotPeer> getDeathRobotsAtRandom() {
-		List<RobotPeer> shuffledList = new ArrayList<RobotPeer>(deathRobots);
+		return deathOrder.shuffle(deathRobots, getRandom());
+	}
 
-		Collections.shuffle(shuffledList, RandomFactory.getRandom());
-		return shuffledList;
+	private void clearRandomOrders() {
+		robotsOrder.clear();
+		bulletsOrder.clear();
+		bulletTargetRobotsOrder.clear();
+		bulletTargetBulletsOrder.clear();
+		moveOrder.clear();
+		moveTargetsOrder.clear();
+		scanOrder.clear();
+		scanTargetsOrder.clear();
+		deathOrder.clear();
+		deathWitnessesOrder.clear();
+		wakeupOrder.clear();
 	}
 
 	private void loadCommands() {
@@ -529,8 +669,15 @@ public final class Battle extends BaseBattle {
 	}
 
 	private void updateBullets() {
-		for (BulletPeer bullet : getBulletsAtRandom()) {
-			bullet.update(getRobotsAtRandom(), getBulletsAtRandom());
+		final List<BulletPeer> bulletsAtRandom = getBulletsAtRandom(bulletsOrder);
+
+		collisionGrid.rebuild(robots, bullets);
+
+		for (int i = 0; i < bulletsAtRandom.size(); i++) {
+			final BulletPeer bullet = bulletsAtRandom.get(i);
+
+			bullet.update(getRobotsAtRandom(bulletTargetRobotsOrder), getBulletsAtRandom(bulletTargetBulletsOrder),
+					collisionGrid);
 			if (bullet.getState() == BulletState.INACTIVE) {
 				bullets.remove(bullet);
 			}
@@ -543,8 +690,10 @@ public final class Battle extends BaseBattle {
 		final double zapEnergy = isAborted() ? 5 : zap ? .1 : 0;
 
 		// Move all bots
-		for (RobotPeer robotPeer : getRobotsAtRandom()) {
-			robotPeer.performMove(getRobotsAtRandom(), zapEnergy);
+		final List<RobotPeer> moveAtRandom = getRobotsAtRandom(moveOrder);
+
+		for (int i = 0; i < moveAtRandom.size(); i++) {
+			moveAtRandom.get(i).performMove(getRobotsAtRandom(moveTargetsOrder), zapEnergy);
 		}
 
 		// Correct bounding box after collisions
@@ -553,14 +702,19 @@ public final class Battle extends BaseBattle {
 		}
 
 		// Scan after moved all
-		for (RobotPeer robotPeer : getRobotsAtRandom()) {
-			robotPeer.performScan(getRobotsAtRandom());
+		final List<RobotPeer> scanAtRandom = getRobotsAtRandom(scanOrder);
+
+		for (int i = 0; i < scanAtRandom.size(); i++) {
+			scanAtRandom.get(i).performScan(getRobotsAtRandom(scanTargetsOrder));
 		}
 	}
 
 	private void handleDeadRobots() {
+		final List<RobotPeer> deathRobotsAtRandom = getDeathRobotsAtRandom();
+
+		for (int i = 0; i < deathRobotsAtRandom.size(); i++) {
+			final RobotPeer deadRobot = deathRobotsAtRandom.get(i);
 
-		for (RobotPeer deadRobot : getDeathRobotsAtRandom()) {
 			// Compute scores for dead robots
 			if (deadRobot.getTeamPeer() == null) {
 				deadRobot.getRobotStatistics().scoreRobotDeath(getActiveContestantCount(deadRobot));
@@ -579,7 +733,11 @@ public final class Battle extends BaseBattle {
 			}
 
 			// Publish death to live robots
-			for (RobotPeer robotPeer : getRobotsAtRandom()) {
+			final List<RobotPeer> witnessesAtRandom = getRobotsAtRandom(deathWitnessesOrder);
+
+			for (int j = 0; j < witnessesAtRandom.size(); j++) {
+				final RobotPeer robotPeer = witnessesAtRandom.get(j);
+
 				if (robotPeer.isAlive()) {
 					robotPeer.addEvent(new RobotDeathEvent(robotPeer.getNameForEvent(deadRobot)));
 
@@ -618,7 +776,7 @@ public final class Battle extends BaseBattle {
 
 	private void wakeupRobots() {
 		// Wake up all robot threads
-		final List<RobotPeer> robotsAtRandom = getRobotsAtRandom();
+		final List<RobotPeer> robotsAtRandom = getRobotsAtRandom(wakeupOrder);
 
 		if (parallelOn) {
 			wakeupParallel(robotsAtRandom);
@@ -630,17 +788,14 @@ public final class Battle extends BaseBattle {
 	private void wakeupSerial(List<RobotPeer> robotsAtRandom) {
 		for (RobotPeer robotPeer : robotsAtRandom) {
 			if (robotPeer.isRunning()) {
+				if (cpuTimeBudgetOn) {
+					robotPeer.startTurnCpuTime();
+				}
 				// This call blocks until the robot's thread actually wakes up.
 				robotPeer.waitWakeup();
 
 				if (robotPeer.isAlive()) {
-					if (isDebugging() || robotPeer.isPaintEnabled()) {
-						robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
-					} else if (currentTime == 1) {
-						robotPeer.waitSleeping(millisWait * 10, 1);
-					} else {
-						robotPeer.waitSleeping(millisWait, nanoWait);
-					}
+					waitSleeping(robotPeer);
 				}
 			}
 		}
@@ -649,23 +804,36 @@ public final class Battle extends BaseBattle {
 	private void wakeupParallel(List<RobotPeer> robotsAtRandom) {
 		for (RobotPeer robotPeer : robotsAtRandom) {
 			if (robotPeer.isRunning()) {
+				if (cpuTimeBudgetOn) {
+					robotPeer.startTurnCpuTime();
+				}
 				// This call blocks until the robot's thread actually wakes up.
 				robotPeer.waitWakeup();
 			}
 		}
 		for (RobotPeer robotPeer : robotsAtRandom) {
 			if (robotPeer.isRunning() && robotPeer.isAlive()) {
-				if (isDebugging() || robotPeer.isPaintEnabled()) {
-					robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
-				} else if (currentTime == 1) {
-					robotPeer.waitSleeping(millisWait * 10, 1);
-				} else {
-					robotPeer.waitSleeping(millisWait, nanoWait);
-				}
+				waitSleeping(robotPeer);
 			}
 		}
 	}
 
+	private void waitSleeping(RobotPeer robotPeer) {
+		if (isDebugging() || robotPeer.isPaintEnabled()) {
+			robotPeer.waitSleeping(DEBUG_TURN_WAIT_MILLIS, 1);
+		} else if (cpuTimeBudgetOn) {
+			// The first turn is given extra time, like below
+			final long turns = (currentTime == 1) ? 10 : 1;
+			final long wallClockTime = (millisWait * 1000000 + nanoWait) * turns;
+
+			robotPeer.waitSleepingCpuTime(cpuConstant * turns, wallClockTime * cpuTimeWallClockFactor);
+		} else if (currentTime == 1) {
+			robotPeer.waitSleeping(millisWait * 10, 1);
+		} else {
+			robotPeer.waitSleeping(millisWait, nanoWait);
+		}
+	}
+
 	private int getActiveContestantCount(RobotPeer peer) {
 		int count = 0;
 
@@ -717,7 +885,7 @@ public final class Battle extends BaseBattle {
 		for (int i = 0; i < positions.size(); i++) {
 			coords = positions.get(i).split(",");
 
-			Random random = RandomFactory.getRandom();
+			Random random = getRandom();
 
 			x = RobotPeer.WIDTH + random.nextDouble() * (battleRules.getBattlefieldWidth() - 2 * RobotPeer.WIDTH);
 			y = RobotPeer.HEIGHT + random.nextDouble() * (battleRules.getBattlefieldHeight() - 2 * RobotPeer.HEIGHT);
@@ -31,8 +31,12 @@ import robocode.control.events.BattlePausedEvent;
 import robocode.control.events.BattleResumedEvent;
 import robocode.control.events.IBattleListener;
 
+import javax.management.JMException;
+import javax.management.ObjectName;
 import java.io.*;
+import java.lang.management.ManagementFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -61,6 +65,10 @@ public class BattleManager implements IBattleManager {
 
 	private int pauseCount = 0;
 	private final AtomicBoolean isManagedTPS = new AtomicBoolean(false);
+	private volatile boolean isCollisionGridEnabled = true;
+
+	private static final AtomicInteger recordingMBeanIds = new AtomicInteger();
+	private ObjectName recordingMBeanName;
 
 	public BattleManager(ISettingsManager properties, IRepositoryManager repositoryManager, IHostManager hostManager, ICpuManager cpuManager, BattleEventDispatcher battleEventDispatcher, IRecordManager recordManager) { // NO_UCD (unused code)
 		this.properties = properties;
@@ -70,6 +78,8 @@ public class BattleManager implements IBattleManager {
 		this.hostManager = hostManager;
 		this.battleEventDispatcher = battleEventDispatcher;
 		Logger.setLogListener(battleEventDispatcher);
+		battleEventDispatcher.getTimings().registerMBean();
+		registerRecordingMBean();
 		battleProperties = new BattleProperties(properties);
 	}
 
@@ -79,6 +89,38 @@ public class BattleManager implements IBattleManager {
 			battle.cleanup();
 		}
 		battle = null;
+		battleEventDispatcher.getTimings().unregisterMBean();
+		unregisterRecordingMBean();
+	}
+
+	/**
+	 * Registers the statistics of the recorder as MBean next to the battle timings, if not registered already.
+	 */
+	private synchronized void registerRecordingMBean() {
+		if (recordingMBeanName != null) {
+			return;
+		}
+		try {
+			final ObjectName name = new ObjectName("net.sf.robocode:type=RecordingStatistics,id="
+					+ recordingMBeanIds.incrementAndGet());
+
+			ManagementFactory.getPlatformMBeanServer().registerMBean(recordManager.getRecordingStatistics(), name);
+			recordingMBeanName = name;
+		} catch (JMException e) {
+			logError("Could not register the recording statistics", e);
+		}
+	}
+
+	private synchronized void unregisterRecordingMBean() {
+		if (recordingMBeanName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(recordingMBeanName);
+		} catch (JMException e) {
+			logError("Could not unregister the recording statistics", e);
+		}
+		recordingMBeanName = null;
 	}
 
 	// Called when starting a new battle from GUI
@@ -91,7 +133,16 @@ public class BattleManager implements IBattleManager {
 
 	// Called from the RobocodeEngine
 	public void startNewBattle(BattleSpecification spec, String initialPositions, boolean waitTillOver, boolean enableRecording) {
-		battleProperties = new BattleProperties();
+		battleProperties = createBattleProperties(spec, initialPositions);
+
+		final RobotSpecification[] robots = repositoryManager.loadSelectedRobots(spec.getRobots());
+
+		startNewBattleImpl(robots, waitTillOver, enableRecording);
+	}
+
+	static BattleProperties createBattleProperties(BattleSpecification spec, String initialPositions) {
+		BattleProperties battleProperties = new BattleProperties();
+
 		battleProperties.setBattlefieldWidth(spec.getBattlefield().getWidth());
 		battleProperties.setBattlefieldHeight(spec.getBattlefield().getHeight());
 		battleProperties.setGunCoolingRate(spec.getGunCoolingRate());
@@ -107,10 +158,7 @@ public class BattleManager implements IBattleManager {
 		} else {
 			battleProperties.setInitialPositions(initialPositions);
 		}
-
-		final RobotSpecification[] robots = repositoryManager.loadSelectedRobots(spec.getRobots());
-
-		startNewBattleImpl(robots, waitTillOver, enableRecording);
+		return battleProperties;
 	}
 
 	@Override
@@ -127,6 +175,10 @@ public class BattleManager implements IBattleManager {
 
 		logMessage("Preparing battle...");
 
+		// registered again if the battle manager has been cleaned up
+		battleEventDispatcher.getTimings().registerMBean();
+		registerRecordingMBean();
+
 		final boolean recording = (properties.getOptionsCommonEnableReplayRecording()
 				&& System.getProperty("TESTING", "none").equals("none"))
 						|| enableRecording;
@@ -148,6 +200,7 @@ public class BattleManager implements IBattleManager {
 		}
 
 		Battle realBattle = Container.createComponent(Battle.class);
+		realBattle.setCollisionGridEnabled(isCollisionGridEnabled);
 		realBattle.setup(battlingRobotsList, battleProperties, isPaused());
 
 		battle = realBattle;
@@ -290,6 +343,10 @@ public class BattleManager implements IBattleManager {
 		isManagedTPS.set(value);
 	}
 
+	public void setCollisionGridEnabled(boolean enable) {
+		isCollisionGridEnabled = enable;
+	}
+
 	public synchronized void addListener(IBattleListener listener) {
 		battleEventDispatcher.addListener(listener);
 	}
@@ -389,6 +446,12 @@ public class BattleManager implements IBattleManager {
 		}
 	}
 
+	public synchronized void seekTurn(int round, int turn) {
+		if (battle != null && battle.isRunning() && battle instanceof BattlePlayer) {
+			((BattlePlayer) battle).seek(round, turn);
+		}
+	}
+
 	public synchronized void killRobot(int robotIndex) {
 		if (battle != null && battle.isRunning() && battle instanceof Battle) {
 			((Battle) battle).killRobot(robotIndex);
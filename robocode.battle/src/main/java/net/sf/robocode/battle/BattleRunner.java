@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import net.sf.robocode.battle.events.BattleEventDispatcher;
+import net.sf.robocode.host.ICpuManager;
+import net.sf.robocode.host.IHostManager;
+import net.sf.robocode.io.RobocodeProperties;
+import net.sf.robocode.repository.IRepositoryManager;
+import net.sf.robocode.settings.ISettingsManager;
+import robocode.BattleResults;
+import robocode.control.BattleSpecification;
+import robocode.control.RobotSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.BattleEvent;
+import robocode.control.events.IBattleListener;
+import robocode.control.events.ISelectiveBattleListener;
+import robocode.control.events.TurnSnapshotDetail;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Runs battles that are not controlled by the {@link BattleManager}, so several battles can run at
+ * the same time. Each battle gets its own event dispatcher and random number generator, and is
+ * never recorded.
+ */
+public class BattleRunner implements IBattleRunnerBase {
+	private final ISettingsManager properties;
+	private final IRepositoryManager repositoryManager;
+	private final IBattleManager battleManager;
+	private final IHostManager hostManager;
+	private final ICpuManager cpuManager;
+
+	private final AtomicInteger battleCount = new AtomicInteger();
+
+	public BattleRunner(ISettingsManager properties, IRepositoryManager repositoryManager, IBattleManager battleManager, IHostManager hostManager, ICpuManager cpuManager) { // NO_UCD (unused code)
+		this.properties = properties;
+		this.repositoryManager = repositoryManager;
+		this.battleManager = battleManager;
+		this.hostManager = hostManager;
+		this.cpuManager = cpuManager;
+	}
+
+	public BattleResults[] runBattle(BattleSpecification spec, Random random, IBattleListener listener) {
+		final RobotSpecification[] robots;
+
+		// The repository must not be updated by several battles at the same time
+		synchronized (repositoryManager) {
+			robots = repositoryManager.loadSelectedRobots(spec.getRobots());
+		}
+
+		final ResultsListener resultsListener = new ResultsListener();
+		final BattleEventDispatcher eventDispatcher = new BattleEventDispatcher();
+
+		eventDispatcher.addListener(resultsListener);
+		if (listener != null) {
+			eventDispatcher.addListener(listener);
+		}
+
+		Battle battle = new Battle(properties, battleManager, hostManager, cpuManager, eventDispatcher);
+
+		battle.setRandom(random);
+		battle.setup(robots, BattleManager.createBattleProperties(spec, null), false);
+
+		Thread battleThread = new Thread(Thread.currentThread().getThreadGroup(), battle);
+
+		battleThread.setPriority(Thread.NORM_PRIORITY);
+		battleThread.setName("Battle Thread " + battleCount.incrementAndGet());
+		battle.setBattleThread(battleThread);
+
+		if (RobocodeProperties.isSecurityOn()) {
+			hostManager.addSafeThread(battleThread);
+		}
+		eventDispatcher.getTimings().registerMBean();
+		try {
+			battleThread.start();
+			battleThread.join();
+		} catch (InterruptedException e) {
+			// Stop the battle, and immediately reasserts the exception by interrupting the caller thread itself
+			battle.stop(true);
+			Thread.currentThread().interrupt();
+		} finally {
+			eventDispatcher.getTimings().unregisterMBean();
+			if (RobocodeProperties.isSecurityOn()) {
+				hostManager.removeSafeThread(battleThread);
+			}
+		}
+		return resultsListener.results;
+	}
+
+	private static class ResultsListener extends BattleAdaptor implements ISelectiveBattleListener {
+		BattleResults[] results;
+
+		public boolean isListening(Class<? extends BattleEvent> eventClass) {
+			return eventClass == BattleCompletedEvent.class;
+		}
+
+		public TurnSnapshotDetail getTurnSnapshotDetail() {
+			return TurnSnapshotDetail.NONE;
+		}
+
+		@Override
+		public void onBattleCompleted(BattleCompletedEvent event) {
+			results = event.getSortedResults();
+		}
+	}
+}
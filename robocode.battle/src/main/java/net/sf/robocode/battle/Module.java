@@ -9,10 +9,15 @@ package net.sf.robocode.battle;
 
 
 import net.sf.robocode.battle.events.BattleEventDispatcher;
+import net.sf.robocode.battle.snapshot.BulletSnapshot;
+import net.sf.robocode.battle.snapshot.RobotSnapshot;
+import net.sf.robocode.battle.snapshot.ScoreSnapshot;
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
 import net.sf.robocode.core.Container;
 import net.sf.robocode.recording.BattlePlayer;
 import net.sf.robocode.recording.IRecordManager;
 import net.sf.robocode.recording.RecordManager;
+import net.sf.robocode.serialization.RbSerializer;
 
 
 /**
@@ -23,8 +28,14 @@ public class Module {
 		Container.cache.addComponent(IBattleManager.class, BattleManager.class);
 		Container.cache.addComponent(BattleEventDispatcher.class);
 		Container.cache.addComponent(IRecordManager.class, RecordManager.class);
+		Container.cache.addComponent(IBattleRunnerBase.class, BattleRunner.class);
 
 		Container.factory.addComponent(Battle.class);
 		Container.factory.addComponent(BattlePlayer.class);
+
+		RbSerializer.register(TurnSnapshot.class, RbSerializer.TurnSnapshot_TYPE);
+		RbSerializer.register(RobotSnapshot.class, RbSerializer.RobotSnapshot_TYPE);
+		RbSerializer.register(BulletSnapshot.class, RbSerializer.BulletSnapshot_TYPE);
+		RbSerializer.register(ScoreSnapshot.class, RbSerializer.ScoreSnapshot_TYPE);
 	}
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle;
+
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+import java.util.RandomAccess;
+
+
+/**
+ * Reusable list holding a random permutation of a source collection. It is used to gain fair play in
+ * Robocode, so that an object placed before another one in the source will not gain any benefit.
+ * <p>
+ * Calling {@link #shuffle(Collection, Random)} gives exactly the same order, and draws exactly the
+ * same random numbers, as copying the source into a new {@link java.util.ArrayList} and calling
+ * {@link java.util.Collections#shuffle(java.util.List, Random)} on it. But the backing array is
+ * reused between calls, so a battle can reshuffle the same list every turn without allocating.
+ * <p>
+ * The list is a snapshot: later changes to the source are not reflected until next shuffle.
+ * It is not thread safe and is only meant to be used by the battle thread.
+ */
+public final class ShuffledList<E> extends AbstractList<E> implements RandomAccess {
+
+	private Object[] elements = new Object[16];
+	private int size;
+
+	/**
+	 * Replaces the content of this list with the elements of the source in random order.
+	 *
+	 * @param source the elements to shuffle.
+	 * @param random the random number generator to draw the permutation from.
+	 * @return this list.
+	 */
+	public ShuffledList<E> shuffle(Collection<? extends E> source, Random random) {
+		final int oldSize = size;
+
+		size = source.size();
+		elements = source.toArray(elements);
+		if (oldSize > size) {
+			Arrays.fill(elements, size, oldSize, null);
+		}
+
+		// same algorithm as Collections.shuffle() for RandomAccess lists
+		for (int i = size; i > 1; i--) {
+			swap(i - 1, random.nextInt(i));
+		}
+		return this;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public E get(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return (E) elements[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Releases the references to the shuffled elements, but keeps the backing array.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+	}
+
+	private void swap(int i, int j) {
+		final Object tmp = elements[i];
+
+		elements[i] = elements[j];
+		elements[j] = tmp;
+	}
+}
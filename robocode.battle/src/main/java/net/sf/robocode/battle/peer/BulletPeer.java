@@ -63,6 +63,9 @@ public class BulletPeer {
 
 	protected int explosionImageIndex; // Do not set to -1
 
+	// Marks this bullet as a candidate for collision, see CollisionGrid
+	int collisionStamp;
+
 	BulletPeer(RobotPeer owner, BattleRules battleRules, int bulletId) {
 		super();
 		this.owner = owner;
@@ -72,9 +75,14 @@ public class BulletPeer {
 		color = owner.getBulletColor(); // Store current bullet color set on robot
 	}
 
-	private void checkBulletCollision(List<BulletPeer> bullets) {
-		for (BulletPeer b : bullets) {
-			if (b != null && b != this && b.owner != owner && b.isActive() && intersect(b.boundingLine)) {
+	private void checkBulletCollision(List<BulletPeer> bullets, CollisionGrid collisionGrid) {
+		final int candidateStamp = collisionGrid.markBullets(boundingLine);
+
+		for (int i = 0; i < bullets.size(); i++) {
+			final BulletPeer b = bullets.get(i);
+
+			if (b != null && b.collisionStamp == candidateStamp && b != this && b.owner != owner && b.isActive()
+					&& intersect(b.boundingLine)) {
 				// Check if one of the bullets belongs to a sentry robot and is within the safe zone
 				if (owner.isSentryRobot() || b.getOwner().isSentryRobot()) {
 					int sentryBorderSize = battleRules.getSentryBorderSize();
@@ -137,9 +145,14 @@ public class BulletPeer {
 		return (ua >= 0 && ua <= 1) && (ub >= 0 && ub <= 1);
 	}
 
-	private void checkRobotCollision(List<RobotPeer> robots) {
-		for (RobotPeer otherRobot : robots) {
-			if (!(otherRobot == null || otherRobot == owner || otherRobot.isDead())
+	private void checkRobotCollision(List<RobotPeer> robots, CollisionGrid collisionGrid) {
+		final int candidateStamp = collisionGrid.markRobots(boundingLine);
+
+		for (int i = 0; i < robots.size(); i++) {
+			final RobotPeer otherRobot = robots.get(i);
+
+			if (!(otherRobot == null || otherRobot.collisionStamp != candidateStamp || otherRobot == owner
+					|| otherRobot.isDead())
 					&& otherRobot.getBoundingBox().intersectsLine(boundingLine)) {
 
 				state = BulletState.HIT_VICTIM;
@@ -262,6 +275,10 @@ public class BulletPeer {
 		return y;
 	}
 
+	Line2D.Double getBoundingLine() {
+		return boundingLine;
+	}
+
 	public double getPaintX() {
 		return (state == BulletState.HIT_VICTIM && victim != null) ? victim.getX() + deltaX : x;
 	}
@@ -306,16 +323,25 @@ public class BulletPeer {
 		state = newState;
 	}
 
-	public void update(List<RobotPeer> robots, List<BulletPeer> bullets) {
+	/**
+	 * Moves the bullet and checks if it hits a wall, robot or another bullet.
+	 * The robots and bullets are checked in the order of the given lists, so the first hit wins.
+	 *
+	 * @param robots        the robots that might be hit, in random order.
+	 * @param bullets       the bullets that might be hit, in random order, or {@code null}.
+	 * @param collisionGrid the broad phase telling which robots and bullets are near the bullet.
+	 */
+	public void update(List<RobotPeer> robots, List<BulletPeer> bullets, CollisionGrid collisionGrid) {
 		frame++;
 		if (isActive()) {
 			updateMovement();
+			collisionGrid.addBullet(this);
 			checkWallCollision();
 			if (isActive()) {
-				checkRobotCollision(robots);
+				checkRobotCollision(robots, collisionGrid);
 			}
 			if (isActive() && bullets != null) {
-				checkBulletCollision(bullets);
+				checkBulletCollision(bullets, collisionGrid);
 			}
 		}
 		updateBulletState();
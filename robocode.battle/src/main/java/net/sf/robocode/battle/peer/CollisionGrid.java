@@ -0,0 +1,236 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * Uniform grid used as broad phase for the bullet collision checks.
+ * <p>
+ * Robots are put into the grid by their bounding box once per turn, before the bullets are updated, as
+ * robots do not move while bullets are updated. Bullets are put into the grid by their bounding line,
+ * and again every time a bullet moves. Stale cells are harmless, as the grid only marks candidates,
+ * which must still pass the exact collision check done by the bullet.
+ * <p>
+ * The grid never changes which robot or bullet is hit, or in which order they are checked. It only lets
+ * {@link BulletPeer} skip the exact check for robots and bullets that are too far away to collide.
+ * A grid with a cell larger than the battlefield has a single cell, so every robot and bullet is checked like
+ * without the grid, which is used for checking that the grid gives the same results.
+ *
+ * @see BulletPeer#update(List, List, CollisionGrid)
+ */
+public final class CollisionGrid {
+
+	public static final int DEFAULT_CELL_SIZE = 64;
+
+	// Added on all sides of bounding boxes, so rounding errors in the exact checks cannot be missed
+	private static final double MARGIN = 1;
+
+	private final int cellSize;
+	private final int columns;
+	private final int rows;
+
+	private final Cells<RobotPeer> robotCells;
+	private final Cells<BulletPeer> bulletCells;
+
+	private int stamp;
+
+	public CollisionGrid(int battlefieldWidth, int battlefieldHeight) {
+		this(battlefieldWidth, battlefieldHeight, DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 * Creates a grid with cells of the given size.
+	 *
+	 * @param battlefieldWidth  the width of the battlefield.
+	 * @param battlefieldHeight the height of the battlefield.
+	 * @param cellSize          the width and height of the cells, where {@link Integer#MAX_VALUE} gives a single cell.
+	 */
+	public CollisionGrid(int battlefieldWidth, int battlefieldHeight, int cellSize) {
+		this.cellSize = cellSize;
+		columns = battlefieldWidth / cellSize + 1;
+		rows = battlefieldHeight / cellSize + 1;
+
+		robotCells = new Cells<RobotPeer>(columns * rows);
+		bulletCells = new Cells<BulletPeer>(columns * rows);
+	}
+
+	/**
+	 * Puts the current bounding boxes of the robots and bounding lines of the bullets into the grid.
+	 *
+	 * @param robots  the robots of the battle.
+	 * @param bullets the bullets of the battle.
+	 */
+	public void rebuild(List<RobotPeer> robots, List<BulletPeer> bullets) {
+		robotCells.clear();
+		for (int i = 0; i < robots.size(); i++) {
+			final RobotPeer robot = robots.get(i);
+
+			if (robot.isAlive()) {
+				add(robotCells, robot, robot.getBoundingBox());
+			}
+		}
+
+		bulletCells.clear();
+		for (int i = 0; i < bullets.size(); i++) {
+			final BulletPeer bullet = bullets.get(i);
+
+			if (bullet.isActive()) {
+				addBullet(bullet);
+			}
+		}
+	}
+
+	/**
+	 * Releases all references to robots and bullets.
+	 */
+	public void reset() {
+		robotCells.reset();
+		bulletCells.reset();
+	}
+
+	void addBullet(BulletPeer bullet) {
+		final Line2D.Double line = bullet.getBoundingLine();
+
+		add(bulletCells, bullet, Math.min(line.x1, line.x2), Math.min(line.y1, line.y2), Math.max(line.x1, line.x2),
+				Math.max(line.y1, line.y2));
+	}
+
+	/**
+	 * Marks all robots that might collide with the line with a new stamp.
+	 *
+	 * @param line the bounding line of the bullet.
+	 * @return the stamp of the robots that might collide.
+	 */
+	int markRobots(Line2D.Double line) {
+		final int robotStamp = nextStamp();
+
+		final int minColumn = column(Math.min(line.x1, line.x2) - MARGIN);
+		final int maxColumn = column(Math.max(line.x1, line.x2) + MARGIN);
+		final int minRow = row(Math.min(line.y1, line.y2) - MARGIN);
+		final int maxRow = row(Math.max(line.y1, line.y2) + MARGIN);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final int cell = row * columns + column;
+				final Object[] items = robotCells.items[cell];
+
+				for (int i = robotCells.counts[cell] - 1; i >= 0; i--) {
+					((RobotPeer) items[i]).collisionStamp = robotStamp;
+				}
+			}
+		}
+		return robotStamp;
+	}
+
+	/**
+	 * Marks all bullets that might collide with the line with a new stamp.
+	 *
+	 * @param line the bounding line of the bullet.
+	 * @return the stamp of the bullets that might collide.
+	 */
+	int markBullets(Line2D.Double line) {
+		final int bulletStamp = nextStamp();
+
+		final int minColumn = column(Math.min(line.x1, line.x2) - MARGIN);
+		final int maxColumn = column(Math.max(line.x1, line.x2) + MARGIN);
+		final int minRow = row(Math.min(line.y1, line.y2) - MARGIN);
+		final int maxRow = row(Math.max(line.y1, line.y2) + MARGIN);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				final int cell = row * columns + column;
+				final Object[] items = bulletCells.items[cell];
+
+				for (int i = bulletCells.counts[cell] - 1; i >= 0; i--) {
+					((BulletPeer) items[i]).collisionStamp = bulletStamp;
+				}
+			}
+		}
+		return bulletStamp;
+	}
+
+	private int nextStamp() {
+		// a wrapped stamp can only mark too many candidates, which is harmless
+		stamp++;
+		if (stamp == 0) {
+			stamp++;
+		}
+		return stamp;
+	}
+
+	private <T> void add(Cells<T> cells, T item, Rectangle2D box) {
+		add(cells, item, box.getMinX(), box.getMinY(), box.getMaxX(), box.getMaxY());
+	}
+
+	private <T> void add(Cells<T> cells, T item, double minX, double minY, double maxX, double maxY) {
+		final int minColumn = column(minX - MARGIN);
+		final int maxColumn = column(maxX + MARGIN);
+		final int minRow = row(minY - MARGIN);
+		final int maxRow = row(maxY + MARGIN);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				cells.add(row * columns + column, item);
+			}
+		}
+	}
+
+	private int column(double x) {
+		return clamp((int) Math.floor(x / cellSize), columns);
+	}
+
+	private int row(double y) {
+		return clamp((int) Math.floor(y / cellSize), rows);
+	}
+
+	private static int clamp(int index, int count) {
+		return index < 0 ? 0 : (index >= count ? count - 1 : index);
+	}
+
+	private static final class Cells<T> {
+		final Object[][] items;
+		final int[] counts;
+
+		Cells(int size) {
+			items = new Object[size][];
+			counts = new int[size];
+			for (int i = 0; i < size; i++) {
+				items[i] = new Object[4];
+			}
+		}
+
+		void add(int cell, T item) {
+			Object[] cellItems = items[cell];
+			final int count = counts[cell];
+
+			if (count == cellItems.length) {
+				cellItems = Arrays.copyOf(cellItems, count * 2);
+				items[cell] = cellItems;
+			}
+			cellItems[count] = item;
+			counts[cell] = count + 1;
+		}
+
+		void clear() {
+			Arrays.fill(counts, 0);
+		}
+
+		void reset() {
+			for (int i = 0; i < items.length; i++) {
+				Arrays.fill(items[i], 0, counts[i], null);
+			}
+			clear();
+		}
+	}
+}
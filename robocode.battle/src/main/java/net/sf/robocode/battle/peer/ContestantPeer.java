@@ -8,6 +8,9 @@
 package net.sf.robocode.battle.peer;
 
 
+import robocode.control.RobotProfile;
+
+
 /**
  * @author Mathew A. Nelson (original)
  * @author Flemming N. Larsen (contributor)
@@ -20,5 +23,7 @@ public interface ContestantPeer extends Comparable<ContestantPeer> {
 
 	ContestantStatistics getStatistics();
 
+	RobotProfile getProfile();
+
 	String toString();
 }
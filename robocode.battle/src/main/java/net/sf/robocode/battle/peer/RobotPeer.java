@@ -23,7 +23,7 @@ import net.sf.robocode.repository.IRobotItem;
 import net.sf.robocode.security.HiddenAccess;
 import net.sf.robocode.serialization.RbSerializer;
 import robocode.*;
-import robocode.control.RandomFactory;
+import robocode.control.RobotProfile;
 import robocode.control.RobotSetup;
 import robocode.control.RobotSpecification;
 import robocode.control.snapshot.BulletState;
@@ -37,17 +37,18 @@ import robocode.util.Utils;
 import static robocode.util.Utils.*;
 
 import java.awt.geom.Arc2D;
-import java.awt.geom.Rectangle2D;
 import java.io.IOException;
 
 import static java.lang.Math.*;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
 
 
 /**
@@ -79,8 +80,12 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	private static final int MAX_SKIPPED_TURNS = 30;
 	private static final int MAX_SKIPPED_TURNS_WITH_IO = 240;
 
+	// How long the battle waits for a robot thread to actually wake up
+	private static final long WAKEUP_TIMEOUT_NANOS = 10000L * 1000000;
+
 	private Battle battle;
 	private RobotStatistics statistics;
+	private final RobotProfiler profiler = new RobotProfiler();
 	private final RobotSpecification robotSpecification;
 	private final TeamPeer teamPeer;
 
@@ -93,6 +98,15 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	private AtomicReference<List<BulletStatus>> bulletUpdates = new AtomicReference<List<BulletStatus>>(
 			new ArrayList<BulletStatus>());
 
+	// Double buffers for exchanging the commands, events, team messages and bullet updates with the robot every turn.
+	// The robot fills in its next commands while the battle uses the last ones, and every event list handed out to
+	// the robot is only reused after the robot has returned for the next turn.
+	private ExecCommands spareCommands = new ExecCommands();
+	private ExecResults[] execResults = createExecResults();
+	private EventQueue spareEvents = new EventQueue();
+	private List<TeamMessage> spareTeamMessages = new ArrayList<TeamMessage>();
+	private List<BulletStatus> spareBulletUpdates = new ArrayList<BulletStatus>();
+
 	// thread is running
 	private final AtomicBoolean isRunning = new AtomicBoolean(false);
 
@@ -124,7 +138,15 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	private boolean sgPaintEnabled;
 
 	// waiting for next tick
-	private final AtomicBoolean isSleeping = new AtomicBoolean(false);
+	private final TurnHandoff turnHandoff = new TurnHandoff(isRunning);
+
+	// CPU time of the robot threads at the start of the turn, or -1 if not measured
+	private long turnCpuTime = -1;
+	private final LongSupplier cpuClock = new LongSupplier() {
+		public long getAsLong() {
+			return robotProxy.getCpuTime();
+		}
+	};
 	private final AtomicBoolean halt = new AtomicBoolean(false);
 
 	// last and current execution time and detecting skipped turns
@@ -139,7 +161,11 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 	private RobotState state;
 	private final Arc2D scanArc;
+	private final ScanSector scanSector;
 	private final BoundingRectangle boundingBox;
+
+	// Marks this robot as a candidate for collision with a bullet, see CollisionGrid
+	int collisionStamp;
 	private final RbSerializer rbSerializer;
 
 	public RobotPeer(Battle battle, IHostManager hostManager, RobotSpecification robotSpecification, String name, String suffix, TeamPeer team, int robotIndex) {
@@ -152,6 +178,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 		this.boundingBox = new BoundingRectangle();
 		this.scanArc = new Arc2D.Double();
+		this.scanSector = new ScanSector();
 		this.teamPeer = team;
 		this.state = RobotState.ACTIVE;
 		this.battleRules = battle.getBattleRules();
@@ -208,6 +235,13 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 	}
 
+	public void clearOutText() {
+		synchronized (proxyText) {
+			battleText.setLength(0);
+			proxyText.setLength(0);
+		}
+	}
+
 	public RobotStatistics getRobotStatistics() {
 		return statistics;
 	}
@@ -216,6 +250,14 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		return statistics;
 	}
 
+	public RobotProfile getProfile() {
+		return RobotProfiler.getProfile(Collections.singletonList(this));
+	}
+
+	RobotProfiler getProfiler() {
+		return profiler;
+	}
+
 	public RobotSpecification getRobotSpecification() {
 		return robotSpecification;
 	}
@@ -325,7 +367,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	}
 
 	public boolean isSleeping() {
-		return isSleeping.get();
+		return turnHandoff.isSleeping();
 	}
 
 	public boolean isHalt() {
@@ -464,7 +506,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 		if (!isExecFinishedAndDisabled) {
 			// from robot to battle
-			commands.set(new ExecCommands(newCommands, true));
+			exchangeCommands(newCommands);
 			print(newCommands.getOutputText());
 		} else {
 			// slow down spammer
@@ -493,38 +535,71 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 			}
 		}
 
+		profiler.turnTaken();
 		waitForNextTurn();
+		profiler.wokenUp();
 
 		checkSkippedTurn();
 
 		// from battle to robot
-		final ExecCommands resCommands = new ExecCommands(this.commands.get(), false);
+		final ExecResults results = nextExecResults(newCommands);
 		final RobotStatus resStatus = status.get();
 
 		final boolean shouldWait = battle.isAborted() || (battle.isLastRound() && isWinner());
 
-		return new ExecResults(resCommands, resStatus, readoutEvents(), readoutTeamMessages(), readoutBullets(),
-				isHalt(), shouldWait, isPaintEnabled());
+		results.set(resStatus, readoutEvents(), readoutTeamMessages(), readoutBullets(), isHalt(), shouldWait,
+				isPaintEnabled());
+		return results;
 	}
 
 	public final ExecResults waitForBattleEndImpl(ExecCommands newCommands) {
 		if (!isHalt()) {
 			// from robot to battle
-			commands.set(new ExecCommands(newCommands, true));
+			exchangeCommands(newCommands);
 			print(newCommands.getOutputText());
 
 			waitForNextTurn();
 		}
 		// from battle to robot
-		final ExecCommands resCommands = new ExecCommands(this.commands.get(), false);
+		final ExecResults results = nextExecResults(newCommands);
 		final RobotStatus resStatus = status.get();
 
 		final boolean shouldWait = battle.isAborted() || (battle.isLastRound() && !isWinner());
 
 		readoutTeamMessages(); // throw away
 		
-		return new ExecResults(resCommands, resStatus, readoutEvents(), new ArrayList<TeamMessage>(), readoutBullets(),
-				isHalt(), shouldWait, false);
+		results.set(resStatus, readoutEvents(), Collections.<TeamMessage>emptyList(), readoutBullets(), isHalt(),
+				shouldWait, false);
+		return results;
+	}
+
+	/**
+	 * Copies the new commands of the robot into the spare commands, which become the commands used by the battle.
+	 * The commands used by the battle until now become the spare commands.
+	 */
+	private void exchangeCommands(ExecCommands newCommands) {
+		final ExecCommands battleCommands = spareCommands;
+
+		battleCommands.set(newCommands, true);
+		spareCommands = commands.getAndSet(battleCommands);
+	}
+
+	/**
+	 * Returns the results to send to the robot with a copy of the commands used by the battle. The robot alternates
+	 * between the commands of two results, so the results are never the ones holding the commands just sent.
+	 */
+	private ExecResults nextExecResults(ExecCommands newCommands) {
+		final ExecResults results = (execResults[0].getCommands() == newCommands) ? execResults[1] : execResults[0];
+
+		results.getCommands().set(commands.get(), false);
+		return results;
+	}
+
+	private static ExecResults[] createExecResults() {
+		return new ExecResults[] {
+			new ExecResults(new ExecCommands(), null, null, null, null, false, false, false),
+			new ExecResults(new ExecCommands(), null, null, null, null, false, false, false)
+		};
 	}
 
 	private void validateCommands(ExecCommands newCommands) {
@@ -539,42 +614,38 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		newCommands.setMaxVelocity(Math.min(abs(newCommands.getMaxVelocity()), Rules.MAX_VELOCITY));
 	}
 
+	// The lists read out are kept as the spare lists, and are cleared when they are swapped in again, which is after
+	// the robot has processed them
+
 	private List<Event> readoutEvents() {
-		return events.getAndSet(new EventQueue());
+		final EventQueue queue = spareEvents;
+
+		queue.clear();
+		spareEvents = events.getAndSet(queue);
+		profiler.recordEventQueueSize(spareEvents.size());
+		return spareEvents;
 	}
 
 	private List<TeamMessage> readoutTeamMessages() {
-		return teamMessages.getAndSet(new ArrayList<TeamMessage>());
+		final List<TeamMessage> queue = spareTeamMessages;
+
+		queue.clear();
+		spareTeamMessages = teamMessages.getAndSet(queue);
+		return spareTeamMessages;
 	}
 
 	private List<BulletStatus> readoutBullets() {
-		return bulletUpdates.getAndSet(new ArrayList<BulletStatus>());
+		final List<BulletStatus> queue = spareBulletUpdates;
+
+		queue.clear();
+		spareBulletUpdates = bulletUpdates.getAndSet(queue);
+		return spareBulletUpdates;
 	}
 
 	private void waitForNextTurn() {
-		synchronized (isSleeping) {
-			// Notify the battle that we are now asleep.
-			// This ends any pending wait() call in battle.runRound().
-			// Should not actually take place until we release the lock in wait(), below.
-			isSleeping.set(true);
-			isSleeping.notifyAll();
-			// Notifying battle that we're asleep
-			// Sleeping and waiting for battle to wake us up.
-			try {
-				isSleeping.wait();
-			} catch (InterruptedException e) {
-				// We are expecting this to happen when a round is ended!
-
-				// Immediately reasserts the exception by interrupting the caller thread itself
-				Thread.currentThread().interrupt();
-			}
-			isSleeping.set(false);
-			// Notify battle thread, which is waiting in
-			// our wakeup() call, to return.
-			// It's quite possible, by the way, that we'll be back in sleep (above)
-			// before the battle thread actually wakes up
-			isSleeping.notifyAll();
-		}
+		// Notify the battle that we are now asleep, and wait for the battle to wake us up.
+		// Returns early if interrupted, which we are expecting to happen when a round is ended!
+		turnHandoff.sleep();
 	}
 
 	// -----------
@@ -582,50 +653,48 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	// -----------
 
 	public void waitWakeup() {
-		synchronized (isSleeping) {
-			if (isSleeping()) {
-				// Wake up the thread
-				isSleeping.notifyAll();
-				try {
-					isSleeping.wait(10000);
-				} catch (InterruptedException e) {
-					// Immediately reasserts the exception by interrupting the caller thread itself
-					Thread.currentThread().interrupt();
-				}
-			}
-		}
+		// Wake up the thread, and wait for it to actually wake up
+		turnHandoff.wakeup(WAKEUP_TIMEOUT_NANOS);
+	}
+
+	/**
+	 * Starts measuring the CPU time the robot consumes in its turn, before the robot is woken up.
+	 * Needed for {@link #waitSleepingCpuTime(long, long)}.
+	 */
+	public void startTurnCpuTime() {
+		turnCpuTime = robotProxy.getCpuTime();
 	}
 
 	private void waitWakeupNoWait() {
-		synchronized (isSleeping) {
-			if (isSleeping()) {
-				// Wake up the thread
-				isSleeping.notifyAll();
-			}
-		}
+		turnHandoff.wakeup(0);
 	}
 
 	public void waitSleeping(long millisWait, int nanosWait) {
-		synchronized (isSleeping) {
-			// It's quite possible for simple robots to
-			// complete their processing before we get here,
-			// so we test if the robot is already asleep.
-
-			if (!isSleeping()) {
-				try {
-					for (long i = millisWait; i > 0 && !isSleeping() && isRunning(); i--) {
-						isSleeping.wait(0, 999999);
-					}
-					if (!isSleeping() && isRunning()) {
-						isSleeping.wait(0, nanosWait);
-					}
-				} catch (InterruptedException e) {
-					// Immediately reasserts the exception by interrupting the caller thread itself
-					Thread.currentThread().interrupt();
+		// It's quite possible for simple robots to
+		// complete their processing before we get here,
+		// so the robot might already be asleep.
+		if (!turnHandoff.awaitSleeping(millisWait, nanosWait, true)) {
+			logMessage("Wait for " + getName() + " interrupted.");
+		}
+	}
 
-					logMessage("Wait for " + getName() + " interrupted.");
-				}
-			}
+	/**
+	 * Waits for the robot to take its action for the turn, where the turn of the robot is over when the threads
+	 * of the robot have consumed the given CPU time since {@link #startTurnCpuTime()}.
+	 *
+	 * @param cpuTime      the CPU time of the turn in nanoseconds.
+	 * @param timeoutNanos the time to wait at most, so robots that are blocked still skip turns.
+	 */
+	public void waitSleepingCpuTime(long cpuTime, long timeoutNanos) {
+		final boolean interrupted;
+
+		if (turnCpuTime < 0) {
+			interrupted = !turnHandoff.awaitSleeping(null, 0, timeoutNanos);
+		} else {
+			interrupted = !turnHandoff.awaitSleeping(cpuClock, turnCpuTime + cpuTime, timeoutNanos);
+		}
+		if (interrupted) {
+			logMessage("Wait for " + getName() + " interrupted.");
 		}
 	}
 
@@ -636,6 +705,8 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 		int numSkippedTurns = (currentExecutionTime - lastExecutionTime) - 1;
 		if (numSkippedTurns >= 1) {
+			profiler.addSkippedTurns(numSkippedTurns);
+			profiler.recordEventQueueSize(events.get().size());
 			events.get().clear(false);
 
 			if (isAlive()) {
@@ -677,7 +748,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 
 		if (!valid) {
-			final Random random = RandomFactory.getRandom();
+			final Random random = battle.getRandom();
 
 			double maxWidth = battleRules.getBattlefieldWidth() - RobotPeer.WIDTH;
 			double maxHeight = battleRules.getBattlefieldHeight() - RobotPeer.HEIGHT;
@@ -777,6 +848,10 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 		newExecCommands.copyColors(commands.get());
 		commands = new AtomicReference<ExecCommands>(newExecCommands);
+
+		// New exchange buffers, as a robot thread left behind by the last round might still be using the old ones
+		spareCommands = new ExecCommands();
+		execResults = createExecResults();
 	}
 
 	private boolean validSpot(List<RobotPeer> robots) {
@@ -794,6 +869,7 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		Logger.logMessage(".", false);
 
 		statistics.reset();
+		profiler.startRound();
 
 		ExecCommands newExecCommands = new ExecCommands();
 
@@ -814,16 +890,9 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		status.set(stat);
 		robotProxy.startRound(currentCommands, stat);
 
-		synchronized (isSleeping) {
-			try {
-				// Wait for the robot to go to sleep (take action)
-				isSleeping.wait(waitMillis, waitNanos);
-			} catch (InterruptedException e) {
-				logMessage("Wait for " + getName() + " interrupted.");
-
-				// Immediately reasserts the exception by interrupting the caller thread itself
-				Thread.currentThread().interrupt();
-			}
+		// Wait for the robot to go to sleep (take action)
+		if (!turnHandoff.awaitSleeping(waitMillis, waitNanos, false)) {
+			logMessage("Wait for " + getName() + " interrupted.");
 		}
 		if (!isSleeping() && !battle.isDebugging()) {
 			logMessage("\n" + getName() + " still has not started after " + waitMillis + " ms... giving up.");
@@ -1541,10 +1610,11 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 
 		scanArc.setArc(x - Rules.RADAR_SCAN_RADIUS, y - Rules.RADAR_SCAN_RADIUS, 2 * Rules.RADAR_SCAN_RADIUS,
 				2 * Rules.RADAR_SCAN_RADIUS, 180.0 * startAngle / PI, 180.0 * scanRadians / PI, Arc2D.PIE);
+		scanSector.setArc(scanArc);
 
 		for (RobotPeer otherRobot : robots) {
 			if (!(otherRobot == null || otherRobot == this || otherRobot.isDead())
-					&& intersects(scanArc, otherRobot.boundingBox)) {
+					&& scanSector.intersects(scanArc, otherRobot.boundingBox)) {
 				double dx = otherRobot.x - x;
 				double dy = otherRobot.y - y;
 				double angle = atan2(dx, dy);
@@ -1559,12 +1629,6 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 		}
 	}
 
-	private boolean intersects(Arc2D arc, Rectangle2D rect) {
-		return (rect.intersectsLine(arc.getCenterX(), arc.getCenterY(), arc.getStartPoint().getX(),
-				arc.getStartPoint().getY()))
-				|| arc.intersects(rect);
-	}
-
 	private void zap(double zapAmount) {
 		if (energy == 0) {
 			kill();
@@ -1579,6 +1643,10 @@ public final class RobotPeer implements IRobotPeerBattle, IRobotPeer {
 	}
 
 	public void setRunning(boolean value) {
+		if (value) {
+			// The robot thread starts running the robot for the round
+			profiler.robotStarted();
+		}
 		isRunning.set(value);
 	}
 
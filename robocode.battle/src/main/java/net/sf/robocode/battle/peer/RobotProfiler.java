@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import robocode.control.RobotProfile;
+import robocode.control.events.TimingHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+
+/**
+ * Measures the time a robot takes for its turns, which is recorded on the thread of the robot.
+ * The measurements are read on the battle thread when the battle is completed.
+ *
+ * @see RobotProfile
+ */
+final class RobotProfiler {
+
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+	private static final boolean CPU_TIME_SUPPORTED = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()
+			&& THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+
+	private final TimingHistogram turnHistogram = new TimingHistogram();
+
+	// CPU time of the robot threads of the previous rounds, and of the thread of the current round
+	private volatile long cpuTime;
+	private volatile long roundCpuTime;
+
+	// CPU time of the robot thread when the round was started on it, or -1 when not started yet in the round.
+	// The thread is reused for all rounds with -DPOOLEDTHREADS, so its CPU time is not just that of this round.
+	private volatile long roundCpuTimeStart = -1;
+
+	// Time the robot was woken up for the current turn, or 0 when the robot has not taken a turn yet in the round
+	private long wakeupTime;
+
+	private volatile int skippedTurns;
+	private volatile int maxEventQueueSize;
+
+	/**
+	 * Called on the battle thread before the thread of the robot is started for a new round.
+	 */
+	void startRound() {
+		cpuTime += roundCpuTime;
+		roundCpuTime = 0;
+		roundCpuTimeStart = -1;
+		wakeupTime = 0;
+	}
+
+	/**
+	 * Called on the robot thread when the robot starts running in the round.
+	 */
+	void robotStarted() {
+		if (CPU_TIME_SUPPORTED) {
+			roundCpuTimeStart = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+		}
+	}
+
+	/**
+	 * Called on the robot thread when the robot has taken its action and goes to sleep.
+	 */
+	void turnTaken() {
+		if (wakeupTime != 0) {
+			turnHistogram.record(System.nanoTime() - wakeupTime);
+		}
+		if (CPU_TIME_SUPPORTED) {
+			final long threadCpuTime = THREAD_MX_BEAN.getCurrentThreadCpuTime();
+
+			if (roundCpuTimeStart < 0) {
+				roundCpuTimeStart = threadCpuTime;
+			}
+			roundCpuTime = threadCpuTime - roundCpuTimeStart;
+		}
+	}
+
+	/**
+	 * Called on the robot thread when the robot has been woken up for the next turn.
+	 */
+	void wokenUp() {
+		wakeupTime = System.nanoTime();
+	}
+
+	void addSkippedTurns(int turns) {
+		skippedTurns += turns;
+	}
+
+	void recordEventQueueSize(int size) {
+		if (size > maxEventQueueSize) {
+			maxEventQueueSize = size;
+		}
+	}
+
+	/**
+	 * Returns the profile of robots, where the turns of all robots are added up, e.g. for a team.
+	 *
+	 * @param robots the robots.
+	 * @return the profile.
+	 */
+	static RobotProfile getProfile(List<RobotPeer> robots) {
+		final TimingHistogram turns = new TimingHistogram();
+		long cpuTime = CPU_TIME_SUPPORTED ? 0 : -1;
+		int skippedTurns = 0;
+		int maxEventQueueSize = 0;
+
+		for (RobotPeer robot : robots) {
+			final RobotProfiler profiler = robot.getProfiler();
+
+			turns.add(profiler.turnHistogram);
+			if (CPU_TIME_SUPPORTED) {
+				cpuTime += profiler.cpuTime + profiler.roundCpuTime;
+			}
+			skippedTurns += profiler.skippedTurns;
+			maxEventQueueSize = Math.max(maxEventQueueSize, profiler.maxEventQueueSize);
+		}
+		return new RobotProfile(turns.getCount(), turns.getPercentileNanos(50), turns.getPercentileNanos(99),
+				turns.getMaxNanos(), cpuTime, skippedTurns, maxEventQueueSize);
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import java.awt.geom.Arc2D;
+import java.awt.geom.Rectangle2D;
+
+
+/**
+ * Radar scan sector with a fast analytic test, used to skip the expensive Java2D geometry for robots
+ * that are clearly outside the scan arc.
+ * <p>
+ * The analytic test is conservative. It rejects a bounding box only if it is farther away from the
+ * center than the scan radius, or if all its corners are outside one of the two edges of the sector.
+ * Everything else is left to {@link #intersects(Arc2D, Rectangle2D)}, so the result is always the same
+ * as the exact check alone.
+ */
+public final class ScanSector {
+
+	// Added to the distances, so rounding errors cannot reject a robot which the exact check would hit
+	private static final double MARGIN = 1e-6;
+
+	private double centerX;
+	private double centerY;
+	private double radius;
+
+	// Directions of the first and last edge of the sector, clockwise in battle coordinates
+	private double firstX;
+	private double firstY;
+	private double lastX;
+	private double lastY;
+
+	// False if the sector is wider than a half circle, as it cannot be culled by its edges then
+	private boolean isConvex;
+
+	/**
+	 * Sets this sector to the pie shaped arc used for the scan.
+	 *
+	 * @param arc the scan arc.
+	 */
+	public void setArc(Arc2D arc) {
+		centerX = arc.getCenterX();
+		centerY = arc.getCenterY();
+		radius = arc.getWidth() / 2;
+
+		final double start = Math.toRadians(arc.getAngleStart());
+		final double extent = Math.toRadians(arc.getAngleExtent());
+
+		// Arc2D angles go counterclockwise with y down, i.e. clockwise in battle coordinates
+		final double first = extent >= 0 ? start : start + extent;
+		final double last = extent >= 0 ? start + extent : start;
+
+		firstX = Math.cos(first);
+		firstY = -Math.sin(first);
+		lastX = Math.cos(last);
+		lastY = -Math.sin(last);
+
+		isConvex = Math.abs(extent) <= Math.PI;
+	}
+
+	/**
+	 * Checks if the bounding box of a robot is hit by this sector.
+	 *
+	 * @param arc  the scan arc, which this sector was set to.
+	 * @param rect the bounding box of the robot.
+	 * @return true if the bounding box intersects the scan arc.
+	 */
+	public boolean intersects(Arc2D arc, Rectangle2D rect) {
+		return mayIntersect(rect) && intersectsExactly(arc, rect);
+	}
+
+	/**
+	 * Fast analytic test, which returns false only if the bounding box cannot intersect this sector.
+	 *
+	 * @param rect the bounding box of a robot.
+	 * @return false if the bounding box is clearly outside this sector.
+	 */
+	public boolean mayIntersect(Rectangle2D rect) {
+		final double minX = rect.getMinX() - centerX;
+		final double minY = rect.getMinY() - centerY;
+		final double maxX = rect.getMaxX() - centerX;
+		final double maxY = rect.getMaxY() - centerY;
+
+		// Distance from the center to the closest point of the box
+		final double dx = minX > 0 ? minX : (maxX < 0 ? -maxX : 0);
+		final double dy = minY > 0 ? minY : (maxY < 0 ? -maxY : 0);
+		final double maxDist = radius + MARGIN;
+
+		if (dx * dx + dy * dy > maxDist * maxDist) {
+			return false;
+		}
+		if (!isConvex) {
+			return true;
+		}
+		// Outside if all corners are counterclockwise of the first edge
+		if (cross(firstX, firstY, minX, minY) > MARGIN && cross(firstX, firstY, maxX, minY) > MARGIN
+				&& cross(firstX, firstY, minX, maxY) > MARGIN && cross(firstX, firstY, maxX, maxY) > MARGIN) {
+			return false;
+		}
+		// Outside if all corners are clockwise of the last edge
+		return !(cross(lastX, lastY, minX, minY) < -MARGIN && cross(lastX, lastY, maxX, minY) < -MARGIN
+				&& cross(lastX, lastY, minX, maxY) < -MARGIN && cross(lastX, lastY, maxX, maxY) < -MARGIN);
+	}
+
+	/**
+	 * Exact Java2D check if a bounding box intersects a scan arc.
+	 *
+	 * @param arc  the scan arc.
+	 * @param rect the bounding box of a robot.
+	 * @return true if the bounding box intersects the scan arc.
+	 */
+	public static boolean intersectsExactly(Arc2D arc, Rectangle2D rect) {
+		return (rect.intersectsLine(arc.getCenterX(), arc.getCenterY(), arc.getStartPoint().getX(),
+				arc.getStartPoint().getY()))
+				|| arc.intersects(rect);
+	}
+
+	private static double cross(double ax, double ay, double bx, double by) {
+		return ax * by - ay * bx;
+	}
+}
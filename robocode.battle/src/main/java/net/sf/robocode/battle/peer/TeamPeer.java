@@ -8,6 +8,8 @@
 package net.sf.robocode.battle.peer;
 
 
+import robocode.control.RobotProfile;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -55,6 +57,10 @@ public class TeamPeer extends ArrayList<RobotPeer> implements ContestantPeer {
 		return teamStatistics;
 	}
 
+	public RobotProfile getProfile() {
+		return RobotProfiler.getProfile(this);
+	}
+
 	public String getName() {
 		return name;
 	}
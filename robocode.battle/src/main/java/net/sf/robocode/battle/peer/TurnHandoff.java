@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.peer;
+
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Hands the turn back and forth between the battle thread and the thread of one robot.
+ * <p>
+ * The robot thread goes to sleep when it has taken its action for the turn, and the battle thread wakes it
+ * up at the next turn. Both sides spin shortly before parking, as most robots take their action within
+ * a few microseconds, so that a turn does not cost a round-trip through the monitor of the robot.
+ * <p>
+ * A robot is considered sleeping from the moment it goes to sleep until it has actually woken up, like
+ * with the former wait/notify handshake. Timeouts keep the rounding of {@link Object#wait(long, int)},
+ * so robots are given exactly the same time as before.
+ */
+public final class TurnHandoff {
+
+	private static final int RUNNING = 0;
+	private static final int SLEEPING = 1;
+	private static final int WAKING = 2;
+
+	// Spinning is pointless when the other thread cannot run at the same time
+	private static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 2000 : 0;
+
+	// Longest park without checking if the robot is still running, like the former wait in 1 ms steps
+	private static final long MAX_PARK_NANOS = 1000000;
+
+	private final AtomicInteger state = new AtomicInteger(RUNNING);
+	private final AtomicBoolean isRunning;
+
+	private volatile Thread robotThread;
+	private volatile Thread battleThread;
+
+	public TurnHandoff(AtomicBoolean isRunning) {
+		this.isRunning = isRunning;
+	}
+
+	public boolean isSleeping() {
+		return state.get() != RUNNING;
+	}
+
+	// -----------
+	// called on robot thread
+	// -----------
+
+	/**
+	 * Goes to sleep, and returns when the battle thread wakes the robot up, or when the robot thread
+	 * is interrupted. The interrupted status is kept.
+	 */
+	public void sleep() {
+		robotThread = Thread.currentThread();
+
+		state.set(SLEEPING);
+		LockSupport.unpark(battleThread);
+
+		int spins = SPINS;
+
+		while (state.get() == SLEEPING) {
+			if (spins > 0) {
+				spins--;
+			} else if (Thread.currentThread().isInterrupted()) {
+				// We are expecting this to happen when a round is ended!
+				// Still, the battle might have woken us up in the meantime.
+				state.compareAndSet(SLEEPING, RUNNING);
+				break;
+			} else {
+				LockSupport.park(this);
+			}
+		}
+		state.set(RUNNING);
+
+		// Let the battle thread, which is waiting in wakeup(), return
+		LockSupport.unpark(battleThread);
+	}
+
+	// -----------
+	// called on battle thread
+	// -----------
+
+	/**
+	 * Wakes up the robot if it is sleeping.
+	 *
+	 * @param timeoutNanos how long to wait for the robot thread to actually wake up, 0 to not wait at all.
+	 */
+	public void wakeup(long timeoutNanos) {
+		battleThread = Thread.currentThread();
+
+		if (state.get() == RUNNING) {
+			return;
+		}
+		state.compareAndSet(SLEEPING, WAKING);
+		LockSupport.unpark(robotThread);
+
+		if (timeoutNanos > 0) {
+			await(WAKING, timeoutNanos, false, null, 0);
+		}
+	}
+
+	/**
+	 * Waits for the robot to go to sleep, i.e. to take its action for the turn.
+	 *
+	 * @param millis       the time to wait in milliseconds.
+	 * @param nanos        additional time to wait in nanoseconds.
+	 * @param whileRunning true to stop waiting as soon as the robot is no longer running.
+	 * @return false if the battle thread was interrupted.
+	 */
+	public boolean awaitSleeping(long millis, int nanos, boolean whileRunning) {
+		battleThread = Thread.currentThread();
+
+		// Same rounding as Object.wait(millis, nanos)
+		final long timeoutNanos = (nanos > 0 ? millis + 1 : millis) * 1000000;
+
+		return await(RUNNING, timeoutNanos, whileRunning, null, 0);
+	}
+
+	/**
+	 * Waits for the robot to go to sleep, or until the threads of the robot have consumed their CPU time for
+	 * the turn. The CPU time is only measured after spinning, i.e. every time the battle thread wakes up.
+	 *
+	 * @param cpuClock     the CPU time consumed by the threads of the robot in nanoseconds.
+	 * @param cpuDeadline  the CPU time of the robot, where the turn of the robot is over.
+	 * @param timeoutNanos the time to wait at most, for robots that are blocked and consume no CPU time.
+	 * @return false if the battle thread was interrupted.
+	 */
+	public boolean awaitSleeping(LongSupplier cpuClock, long cpuDeadline, long timeoutNanos) {
+		battleThread = Thread.currentThread();
+
+		return await(RUNNING, timeoutNanos, true, cpuClock, cpuDeadline);
+	}
+
+	private boolean await(int waitState, long timeoutNanos, boolean whileRunning, LongSupplier cpuClock, long cpuDeadline) {
+		final long deadline = System.nanoTime() + timeoutNanos;
+		int spins = SPINS;
+
+		while (state.get() == waitState && (!whileRunning || isRunning.get())) {
+			if (spins > 0) {
+				spins--;
+				continue;
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				return false;
+			}
+			final long remaining = deadline - System.nanoTime();
+
+			if (remaining <= 0 || (cpuClock != null && cpuClock.getAsLong() >= cpuDeadline)) {
+				break;
+			}
+			LockSupport.parkNanos(this, Math.min(remaining, MAX_PARK_NANOS));
+		}
+		return true;
+	}
+}
@@ -18,6 +18,7 @@ import robocode.control.snapshot.IBulletSnapshot;
 import robocode.util.Utils;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -83,6 +84,28 @@ public final class BulletSnapshot implements java.io.Serializable, IXmlSerializa
 		power = Double.NaN;
 	}
 
+	/**
+	 * Creates a copy of a bullet snapshot.
+	 *
+	 * @param bullet the snapshot to copy.
+	 */
+	private BulletSnapshot(BulletSnapshot bullet) {
+		state = bullet.state;
+		power = bullet.power;
+		x = bullet.x;
+		y = bullet.y;
+		paintX = bullet.paintX;
+		paintY = bullet.paintY;
+		color = bullet.color;
+		frame = bullet.frame;
+		isExplosion = bullet.isExplosion;
+		explosionImageIndex = bullet.explosionImageIndex;
+		bulletId = bullet.bulletId;
+		victimIndex = bullet.victimIndex;
+		ownerIndex = bullet.ownerIndex;
+		heading = bullet.heading;
+	}
+
 	/**
 	 * Creates a snapshot of a bullet.
 	 *
@@ -359,4 +382,153 @@ public final class BulletSnapshot implements java.io.Serializable, IXmlSerializa
 			}
 		});
 	}
+
+	// Groups of fields written by serializeDelta() when any of their fields has changed
+	private static final int DELTA_NEW = 1;
+	private static final int DELTA_STATE = 1 << 1;
+	private static final int DELTA_POSITION = 1 << 2;
+	private static final int DELTA_PAINT_POSITION = 1 << 3;
+	private static final int DELTA_PAINT_AT_POSITION = 1 << 4;
+	private static final int DELTA_SHOT = 1 << 5;
+
+	/**
+	 * Writes the fields of a bullet snapshot that differ from a base snapshot of the same bullet, preceded by a
+	 * byte holding the groups of fields that are written. The whole bullet is written if there is no base.
+	 */
+	static void serializeDelta(RbSerializer serializer, ByteBuffer buffer, BulletSnapshot base, BulletSnapshot obj) {
+		if (base == null) {
+			buffer.put((byte) DELTA_NEW);
+			serializer.serialize(buffer, RbSerializer.BulletSnapshot_TYPE, obj);
+			return;
+		}
+		final int maskPosition = buffer.position();
+		int mask = 0;
+
+		buffer.put((byte) 0);
+
+		if (base.state != obj.state || base.frame != obj.frame || base.isExplosion != obj.isExplosion
+				|| base.explosionImageIndex != obj.explosionImageIndex || base.victimIndex != obj.victimIndex) {
+			mask |= DELTA_STATE;
+			serializer.serialize(buffer, obj.state.getValue());
+			serializer.serialize(buffer, obj.frame);
+			serializer.serialize(buffer, obj.isExplosion);
+			serializer.serialize(buffer, obj.explosionImageIndex);
+			serializer.serialize(buffer, obj.victimIndex);
+		}
+		if (changed(base.x, obj.x) || changed(base.y, obj.y)) {
+			mask |= DELTA_POSITION;
+			serializer.serialize(buffer, obj.x);
+			serializer.serialize(buffer, obj.y);
+		}
+		if (!changed(obj.paintX, obj.x) && !changed(obj.paintY, obj.y)) {
+			mask |= DELTA_PAINT_AT_POSITION;
+		} else if (changed(base.paintX, obj.paintX) || changed(base.paintY, obj.paintY)) {
+			mask |= DELTA_PAINT_POSITION;
+			serializer.serialize(buffer, obj.paintX);
+			serializer.serialize(buffer, obj.paintY);
+		}
+		if (changed(base.power, obj.power) || base.color != obj.color || base.ownerIndex != obj.ownerIndex
+				|| changed(base.heading, obj.heading)) {
+			mask |= DELTA_SHOT;
+			serializer.serialize(buffer, obj.power);
+			serializer.serialize(buffer, obj.color);
+			serializer.serialize(buffer, obj.ownerIndex);
+			serializer.serialize(buffer, obj.heading);
+		}
+
+		buffer.put(maskPosition, (byte) mask);
+	}
+
+	/**
+	 * Reads a bullet snapshot written by serializeDelta(), taking the fields that have not changed from the base
+	 * snapshot.
+	 */
+	static BulletSnapshot deserializeDelta(RbSerializer serializer, ByteBuffer buffer, BulletSnapshot base) {
+		final int mask = buffer.get();
+
+		if ((mask & DELTA_NEW) != 0) {
+			return (BulletSnapshot) serializer.deserializeAny(buffer);
+		}
+		final BulletSnapshot res = new BulletSnapshot(base);
+
+		if ((mask & DELTA_STATE) != 0) {
+			res.state = BulletState.toState(buffer.getInt());
+			res.frame = buffer.getInt();
+			res.isExplosion = serializer.deserializeBoolean(buffer);
+			res.explosionImageIndex = buffer.getInt();
+			res.victimIndex = buffer.getInt();
+		}
+		if ((mask & DELTA_POSITION) != 0) {
+			res.x = buffer.getDouble();
+			res.y = buffer.getDouble();
+		}
+		if ((mask & DELTA_PAINT_AT_POSITION) != 0) {
+			res.paintX = res.x;
+			res.paintY = res.y;
+		} else if ((mask & DELTA_PAINT_POSITION) != 0) {
+			res.paintX = buffer.getDouble();
+			res.paintY = buffer.getDouble();
+		}
+		if ((mask & DELTA_SHOT) != 0) {
+			res.power = buffer.getDouble();
+			res.color = buffer.getInt();
+			res.ownerIndex = buffer.getInt();
+			res.heading = buffer.getDouble();
+		}
+		return res;
+	}
+
+	private static boolean changed(double a, double b) {
+		return Double.doubleToLongBits(a) != Double.doubleToLongBits(b);
+	}
+
+	static ISerializableHelper createHiddenSerializer() {
+		return new SerializableHelper();
+	}
+
+	private static class SerializableHelper implements ISerializableHelper {
+		public int sizeOf(RbSerializer serializer, Object object) {
+			return RbSerializer.SIZEOF_TYPEINFO + 7 * RbSerializer.SIZEOF_INT + 6 * RbSerializer.SIZEOF_DOUBLE
+					+ RbSerializer.SIZEOF_BOOL;
+		}
+
+		public void serialize(RbSerializer serializer, ByteBuffer buffer, Object object) {
+			BulletSnapshot obj = (BulletSnapshot) object;
+
+			serializer.serialize(buffer, obj.state.getValue());
+			serializer.serialize(buffer, obj.power);
+			serializer.serialize(buffer, obj.x);
+			serializer.serialize(buffer, obj.y);
+			serializer.serialize(buffer, obj.paintX);
+			serializer.serialize(buffer, obj.paintY);
+			serializer.serialize(buffer, obj.color);
+			serializer.serialize(buffer, obj.frame);
+			serializer.serialize(buffer, obj.isExplosion);
+			serializer.serialize(buffer, obj.explosionImageIndex);
+			serializer.serialize(buffer, obj.bulletId);
+			serializer.serialize(buffer, obj.victimIndex);
+			serializer.serialize(buffer, obj.ownerIndex);
+			serializer.serialize(buffer, obj.heading);
+		}
+
+		public Object deserialize(RbSerializer serializer, ByteBuffer buffer) {
+			BulletSnapshot res = new BulletSnapshot();
+
+			res.state = BulletState.toState(buffer.getInt());
+			res.power = buffer.getDouble();
+			res.x = buffer.getDouble();
+			res.y = buffer.getDouble();
+			res.paintX = buffer.getDouble();
+			res.paintY = buffer.getDouble();
+			res.color = buffer.getInt();
+			res.frame = buffer.getInt();
+			res.isExplosion = serializer.deserializeBoolean(buffer);
+			res.explosionImageIndex = buffer.getInt();
+			res.bulletId = buffer.getInt();
+			res.victimIndex = buffer.getInt();
+			res.ownerIndex = buffer.getInt();
+			res.heading = buffer.getDouble();
+			return res;
+		}
+	}
 }
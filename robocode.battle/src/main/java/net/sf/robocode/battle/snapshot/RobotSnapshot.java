@@ -20,8 +20,12 @@ import robocode.util.Utils;
 import java.awt.geom.Arc2D;
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 
 /**
@@ -131,6 +135,43 @@ public final class RobotSnapshot implements Serializable, IXmlSerializable, IRob
 		state = RobotState.ACTIVE;
 	}
 
+	/**
+	 * Creates a copy of a robot snapshot.
+	 *
+	 * @param robot the snapshot to copy.
+	 */
+	RobotSnapshot(RobotSnapshot robot) {
+		name = robot.name;
+		shortName = robot.shortName;
+		veryShortName = robot.veryShortName;
+		teamName = robot.teamName;
+		robotIndex = robot.robotIndex;
+		teamIndex = robot.teamIndex;
+		state = robot.state;
+		energy = robot.energy;
+		velocity = robot.velocity;
+		gunHeat = robot.gunHeat;
+		bodyHeading = robot.bodyHeading;
+		gunHeading = robot.gunHeading;
+		radarHeading = robot.radarHeading;
+		x = robot.x;
+		y = robot.y;
+		bodyColor = robot.bodyColor;
+		gunColor = robot.gunColor;
+		radarColor = robot.radarColor;
+		scanColor = robot.scanColor;
+		isDroid = robot.isDroid;
+		isSentryRobot = robot.isSentryRobot;
+		isPaintRobot = robot.isPaintRobot;
+		isPaintEnabled = robot.isPaintEnabled;
+		isSGPaintEnabled = robot.isSGPaintEnabled;
+		scanArc = robot.scanArc;
+		graphicsCalls = robot.graphicsCalls;
+		debugProperties = robot.debugProperties;
+		outputStreamSnapshot = robot.outputStreamSnapshot;
+		robotScoreSnapshot = robot.robotScoreSnapshot;
+	}
+
 	/**
 	 * Creates a snapshot of a robot.
 	 *
@@ -694,6 +735,471 @@ public final class RobotSnapshot implements Serializable, IXmlSerializable, IRob
 		});
 	}
 
+	// Groups of fields written by serializeDelta() when any of their fields has changed
+	private static final int DELTA_IDENTITY = 1;
+	private static final int DELTA_STATE = 1 << 1;
+	private static final int DELTA_ENERGY = 1 << 2;
+	private static final int DELTA_VELOCITY = 1 << 3;
+	private static final int DELTA_GUN_HEAT = 1 << 4;
+	private static final int DELTA_BODY_HEADING = 1 << 5;
+	private static final int DELTA_GUN_HEADING = 1 << 6;
+	private static final int DELTA_RADAR_HEADING = 1 << 7;
+	private static final int DELTA_POSITION = 1 << 8;
+	private static final int DELTA_COLORS = 1 << 9;
+	private static final int DELTA_FLAGS = 1 << 10;
+	private static final int DELTA_SCAN_ARC = 1 << 11;
+	private static final int DELTA_GRAPHICS = 1 << 12;
+	private static final int DELTA_DEBUG = 1 << 13;
+	private static final int DELTA_OUTPUT = 1 << 14;
+	private static final int DELTA_SCORE = 1 << 15;
+
+	/**
+	 * Writes the fields of a robot snapshot that differ from a base snapshot of the same robot, preceded by a
+	 * short holding the groups of fields that are written.
+	 */
+	static void serializeDelta(RbSerializer serializer, ByteBuffer buffer, RobotSnapshot base, RobotSnapshot obj) {
+		final int maskPosition = buffer.position();
+		int mask = 0;
+
+		buffer.putShort((short) 0);
+
+		if (!Objects.equals(base.name, obj.name) || !Objects.equals(base.shortName, obj.shortName)
+				|| !Objects.equals(base.veryShortName, obj.veryShortName) || !Objects.equals(base.teamName, obj.teamName)
+				|| base.robotIndex != obj.robotIndex || base.teamIndex != obj.teamIndex) {
+			mask |= DELTA_IDENTITY;
+			serializer.serialize(buffer, obj.name);
+			serializer.serialize(buffer, obj.shortName);
+			serializer.serialize(buffer, obj.veryShortName);
+			serializer.serialize(buffer, obj.teamName);
+			serializer.serialize(buffer, obj.robotIndex);
+			serializer.serialize(buffer, obj.teamIndex);
+		}
+		if (base.state != obj.state) {
+			mask |= DELTA_STATE;
+			serializer.serialize(buffer, obj.state.getValue());
+		}
+		if (changed(base.energy, obj.energy)) {
+			mask |= DELTA_ENERGY;
+			serializer.serialize(buffer, obj.energy);
+		}
+		if (changed(base.velocity, obj.velocity)) {
+			mask |= DELTA_VELOCITY;
+			serializer.serialize(buffer, obj.velocity);
+		}
+		if (changed(base.gunHeat, obj.gunHeat)) {
+			mask |= DELTA_GUN_HEAT;
+			serializer.serialize(buffer, obj.gunHeat);
+		}
+		if (changed(base.bodyHeading, obj.bodyHeading)) {
+			mask |= DELTA_BODY_HEADING;
+			serializer.serialize(buffer, obj.bodyHeading);
+		}
+		if (changed(base.gunHeading, obj.gunHeading)) {
+			mask |= DELTA_GUN_HEADING;
+			serializer.serialize(buffer, obj.gunHeading);
+		}
+		if (changed(base.radarHeading, obj.radarHeading)) {
+			mask |= DELTA_RADAR_HEADING;
+			serializer.serialize(buffer, obj.radarHeading);
+		}
+		if (changed(base.x, obj.x) || changed(base.y, obj.y)) {
+			mask |= DELTA_POSITION;
+			serializer.serialize(buffer, obj.x);
+			serializer.serialize(buffer, obj.y);
+		}
+		if (base.bodyColor != obj.bodyColor || base.gunColor != obj.gunColor || base.radarColor != obj.radarColor
+				|| base.scanColor != obj.scanColor) {
+			mask |= DELTA_COLORS;
+			serializer.serialize(buffer, obj.bodyColor);
+			serializer.serialize(buffer, obj.gunColor);
+			serializer.serialize(buffer, obj.radarColor);
+			serializer.serialize(buffer, obj.scanColor);
+		}
+		if (base.isDroid != obj.isDroid || base.isSentryRobot != obj.isSentryRobot
+				|| base.isPaintRobot != obj.isPaintRobot || base.isPaintEnabled != obj.isPaintEnabled
+				|| base.isSGPaintEnabled != obj.isSGPaintEnabled) {
+			mask |= DELTA_FLAGS;
+			serializer.serialize(buffer, obj.isDroid);
+			serializer.serialize(buffer, obj.isSentryRobot);
+			serializer.serialize(buffer, obj.isPaintRobot);
+			serializer.serialize(buffer, obj.isPaintEnabled);
+			serializer.serialize(buffer, obj.isSGPaintEnabled);
+		}
+		if (!equals(base.scanArc, obj.scanArc)) {
+			mask |= DELTA_SCAN_ARC;
+			serializeScanArcDelta(serializer, buffer, base.scanArc, obj);
+		}
+		if (!Arrays.equals((byte[]) base.graphicsCalls, (byte[]) obj.graphicsCalls)) {
+			mask |= DELTA_GRAPHICS;
+			serializer.serialize(buffer, (byte[]) obj.graphicsCalls);
+		}
+		if (!equals(base.debugProperties, obj.debugProperties)) {
+			mask |= DELTA_DEBUG;
+			serializeDebugProperties(serializer, buffer, obj.debugProperties);
+		}
+		if (!Objects.equals(base.outputStreamSnapshot, obj.outputStreamSnapshot)) {
+			mask |= DELTA_OUTPUT;
+			serializer.serialize(buffer, obj.outputStreamSnapshot);
+		}
+		if (!Objects.equals(base.robotScoreSnapshot, obj.robotScoreSnapshot)) {
+			mask |= DELTA_SCORE;
+			serializer.serialize(buffer, RbSerializer.ScoreSnapshot_TYPE, obj.robotScoreSnapshot);
+		}
+
+		buffer.putShort(maskPosition, (short) mask);
+	}
+
+	/**
+	 * Reads a robot snapshot written by serializeDelta(), taking the fields that have not changed from the base
+	 * snapshot.
+	 */
+	static RobotSnapshot deserializeDelta(RbSerializer serializer, ByteBuffer buffer, RobotSnapshot base) {
+		final int mask = buffer.getShort() & 0xFFFF;
+		final RobotSnapshot res = new RobotSnapshot(base);
+
+		if ((mask & DELTA_IDENTITY) != 0) {
+			res.name = serializer.deserializeString(buffer);
+			res.shortName = serializer.deserializeString(buffer);
+			res.veryShortName = serializer.deserializeString(buffer);
+			res.teamName = serializer.deserializeString(buffer);
+			res.robotIndex = buffer.getInt();
+			res.teamIndex = buffer.getInt();
+		}
+		if ((mask & DELTA_STATE) != 0) {
+			res.state = RobotState.toState(buffer.getInt());
+		}
+		if ((mask & DELTA_ENERGY) != 0) {
+			res.energy = buffer.getDouble();
+		}
+		if ((mask & DELTA_VELOCITY) != 0) {
+			res.velocity = buffer.getDouble();
+		}
+		if ((mask & DELTA_GUN_HEAT) != 0) {
+			res.gunHeat = buffer.getDouble();
+		}
+		if ((mask & DELTA_BODY_HEADING) != 0) {
+			res.bodyHeading = buffer.getDouble();
+		}
+		if ((mask & DELTA_GUN_HEADING) != 0) {
+			res.gunHeading = buffer.getDouble();
+		}
+		if ((mask & DELTA_RADAR_HEADING) != 0) {
+			res.radarHeading = buffer.getDouble();
+		}
+		if ((mask & DELTA_POSITION) != 0) {
+			res.x = buffer.getDouble();
+			res.y = buffer.getDouble();
+		}
+		if ((mask & DELTA_COLORS) != 0) {
+			res.bodyColor = buffer.getInt();
+			res.gunColor = buffer.getInt();
+			res.radarColor = buffer.getInt();
+			res.scanColor = buffer.getInt();
+		}
+		if ((mask & DELTA_FLAGS) != 0) {
+			res.isDroid = serializer.deserializeBoolean(buffer);
+			res.isSentryRobot = serializer.deserializeBoolean(buffer);
+			res.isPaintRobot = serializer.deserializeBoolean(buffer);
+			res.isPaintEnabled = serializer.deserializeBoolean(buffer);
+			res.isSGPaintEnabled = serializer.deserializeBoolean(buffer);
+		}
+		if ((mask & DELTA_SCAN_ARC) != 0) {
+			res.scanArc = deserializeScanArcDelta(serializer, buffer, base.scanArc, res);
+		}
+		if ((mask & DELTA_GRAPHICS) != 0) {
+			res.graphicsCalls = serializer.deserializeBytes(buffer);
+		}
+		if ((mask & DELTA_DEBUG) != 0) {
+			res.debugProperties = deserializeDebugProperties(serializer, buffer);
+		}
+		if ((mask & DELTA_OUTPUT) != 0) {
+			res.outputStreamSnapshot = serializer.deserializeString(buffer);
+		}
+		if ((mask & DELTA_SCORE) != 0) {
+			res.robotScoreSnapshot = (IScoreSnapshot) serializer.deserializeAny(buffer);
+		}
+		return res;
+	}
+
+	// Fields of the scan arc written by serializeScanArcDelta()
+	private static final int ARC_NULL = 1;
+	private static final int ARC_SIZE = 1 << 1;
+	private static final int ARC_CENTERED = 1 << 2;
+	private static final int ARC_POSITION = 1 << 3;
+	private static final int ARC_START = 1 << 4;
+	private static final int ARC_EXTENT = 1 << 5;
+
+	// The scan arc is centered on the robot and only its angles change from one turn to the next, so the position
+	// of the arc is not written when it can be computed from the position of the robot.
+	private static void serializeScanArcDelta(RbSerializer serializer, ByteBuffer buffer, SerializableArc base, RobotSnapshot obj) {
+		final SerializableArc arc = obj.scanArc;
+
+		if (arc == null) {
+			buffer.put((byte) ARC_NULL);
+			return;
+		}
+		final int maskPosition = buffer.position();
+		int mask = 0;
+
+		buffer.put((byte) 0);
+
+		if (base == null || changed(base.w, arc.w) || changed(base.h, arc.h) || base.type != arc.type) {
+			mask |= ARC_SIZE;
+			serializer.serialize(buffer, arc.w);
+			serializer.serialize(buffer, arc.h);
+			serializer.serialize(buffer, arc.type);
+		}
+		if (!changed(arc.x, obj.x - arc.w / 2) && !changed(arc.y, obj.y - arc.h / 2)) {
+			mask |= ARC_CENTERED;
+		} else {
+			mask |= ARC_POSITION;
+			serializer.serialize(buffer, arc.x);
+			serializer.serialize(buffer, arc.y);
+		}
+		if (base == null || changed(base.start, arc.start)) {
+			mask |= ARC_START;
+			serializer.serialize(buffer, arc.start);
+		}
+		if (base == null || changed(base.extent, arc.extent)) {
+			mask |= ARC_EXTENT;
+			serializer.serialize(buffer, arc.extent);
+		}
+
+		buffer.put(maskPosition, (byte) mask);
+	}
+
+	private static SerializableArc deserializeScanArcDelta(RbSerializer serializer, ByteBuffer buffer, SerializableArc base, RobotSnapshot res) {
+		final int mask = buffer.get();
+
+		if ((mask & ARC_NULL) != 0) {
+			return null;
+		}
+		final double w, h, x, y;
+		final int type;
+
+		if ((mask & ARC_SIZE) != 0) {
+			w = buffer.getDouble();
+			h = buffer.getDouble();
+			type = buffer.getInt();
+		} else {
+			w = base.w;
+			h = base.h;
+			type = base.type;
+		}
+		if ((mask & ARC_CENTERED) != 0) {
+			x = res.x - w / 2;
+			y = res.y - h / 2;
+		} else {
+			x = buffer.getDouble();
+			y = buffer.getDouble();
+		}
+		final double start = (mask & ARC_START) != 0 ? buffer.getDouble() : base.start;
+		final double extent = (mask & ARC_EXTENT) != 0 ? buffer.getDouble() : base.extent;
+
+		return new SerializableArc(x, y, w, h, start, extent, type);
+	}
+
+	private static boolean changed(double a, double b) {
+		return Double.doubleToLongBits(a) != Double.doubleToLongBits(b);
+	}
+
+	private static boolean equals(SerializableArc a, SerializableArc b) {
+		if (a == null || b == null) {
+			return a == b;
+		}
+		return !changed(a.x, b.x) && !changed(a.y, b.y) && !changed(a.w, b.w) && !changed(a.h, b.h)
+				&& !changed(a.start, b.start) && !changed(a.extent, b.extent) && a.type == b.type;
+	}
+
+	private static boolean equals(DebugProperty[] a, DebugProperty[] b) {
+		if (a == null || b == null) {
+			return a == b;
+		}
+		if (a.length != b.length) {
+			return false;
+		}
+		for (int i = 0; i < a.length; i++) {
+			if (!Objects.equals(a[i].getKey(), b[i].getKey()) || !Objects.equals(a[i].getValue(), b[i].getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static void serializeScanArc(RbSerializer serializer, ByteBuffer buffer, SerializableArc scanArc) {
+		serializer.serialize(buffer, scanArc != null);
+		if (scanArc != null) {
+			serializer.serialize(buffer, scanArc.x);
+			serializer.serialize(buffer, scanArc.y);
+			serializer.serialize(buffer, scanArc.w);
+			serializer.serialize(buffer, scanArc.h);
+			serializer.serialize(buffer, scanArc.start);
+			serializer.serialize(buffer, scanArc.extent);
+			serializer.serialize(buffer, scanArc.type);
+		}
+	}
+
+	private static SerializableArc deserializeScanArc(RbSerializer serializer, ByteBuffer buffer) {
+		if (!serializer.deserializeBoolean(buffer)) {
+			return null;
+		}
+		return new SerializableArc(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble(),
+				buffer.getDouble(), buffer.getDouble(), buffer.getInt());
+	}
+
+	private static void serializeDebugProperties(RbSerializer serializer, ByteBuffer buffer, DebugProperty[] debugProperties) {
+		serializer.serialize(buffer, debugProperties != null);
+		if (debugProperties != null) {
+			for (DebugProperty prop : debugProperties) {
+				serializer.serialize(buffer, RbSerializer.DebugProperty_TYPE, prop);
+			}
+			buffer.put(RbSerializer.TERMINATOR_TYPE);
+		}
+	}
+
+	private static DebugProperty[] deserializeDebugProperties(RbSerializer serializer, ByteBuffer buffer) {
+		if (!serializer.deserializeBoolean(buffer)) {
+			return null;
+		}
+		List<DebugProperty> props = new ArrayList<DebugProperty>();
+		Object item = serializer.deserializeAny(buffer);
+
+		while (item != null) {
+			props.add((DebugProperty) item);
+			item = serializer.deserializeAny(buffer);
+		}
+		return props.toArray(new DebugProperty[props.size()]);
+	}
+
+	static ISerializableHelper createHiddenSerializer() {
+		return new SerializableHelper();
+	}
+
+	private static class SerializableHelper implements ISerializableHelper {
+		public int sizeOf(RbSerializer serializer, Object object) {
+			RobotSnapshot obj = (RobotSnapshot) object;
+			int size = RbSerializer.SIZEOF_TYPEINFO;
+
+			size += serializer.sizeOf(obj.name);
+			size += serializer.sizeOf(obj.shortName);
+			size += serializer.sizeOf(obj.veryShortName);
+			size += serializer.sizeOf(obj.teamName);
+			size += 3 * RbSerializer.SIZEOF_INT;
+			size += 8 * RbSerializer.SIZEOF_DOUBLE;
+			size += 4 * RbSerializer.SIZEOF_INT;
+			size += 5 * RbSerializer.SIZEOF_BOOL;
+
+			// scan arc
+			size += RbSerializer.SIZEOF_BOOL;
+			if (obj.scanArc != null) {
+				size += 6 * RbSerializer.SIZEOF_DOUBLE + RbSerializer.SIZEOF_INT;
+			}
+
+			size += serializer.sizeOf((byte[]) obj.graphicsCalls);
+
+			// properties
+			size += RbSerializer.SIZEOF_BOOL;
+			if (obj.debugProperties != null) {
+				for (DebugProperty d : obj.debugProperties) {
+					size += serializer.sizeOf(RbSerializer.DebugProperty_TYPE, d);
+				}
+				size += 1;
+			}
+
+			size += serializer.sizeOf(obj.outputStreamSnapshot);
+
+			// score
+			size += obj.robotScoreSnapshot != null
+					? serializer.sizeOf(RbSerializer.ScoreSnapshot_TYPE, obj.robotScoreSnapshot)
+					: 1;
+
+			return size;
+		}
+
+		public void serialize(RbSerializer serializer, ByteBuffer buffer, Object object) {
+			RobotSnapshot obj = (RobotSnapshot) object;
+
+			serializer.serialize(buffer, obj.name);
+			serializer.serialize(buffer, obj.shortName);
+			serializer.serialize(buffer, obj.veryShortName);
+			serializer.serialize(buffer, obj.teamName);
+
+			serializer.serialize(buffer, obj.robotIndex);
+			serializer.serialize(buffer, obj.teamIndex);
+			serializer.serialize(buffer, obj.state.getValue());
+
+			serializer.serialize(buffer, obj.energy);
+			serializer.serialize(buffer, obj.velocity);
+			serializer.serialize(buffer, obj.gunHeat);
+			serializer.serialize(buffer, obj.bodyHeading);
+			serializer.serialize(buffer, obj.gunHeading);
+			serializer.serialize(buffer, obj.radarHeading);
+			serializer.serialize(buffer, obj.x);
+			serializer.serialize(buffer, obj.y);
+
+			serializer.serialize(buffer, obj.bodyColor);
+			serializer.serialize(buffer, obj.gunColor);
+			serializer.serialize(buffer, obj.radarColor);
+			serializer.serialize(buffer, obj.scanColor);
+
+			serializer.serialize(buffer, obj.isDroid);
+			serializer.serialize(buffer, obj.isSentryRobot);
+			serializer.serialize(buffer, obj.isPaintRobot);
+			serializer.serialize(buffer, obj.isPaintEnabled);
+			serializer.serialize(buffer, obj.isSGPaintEnabled);
+
+			serializeScanArc(serializer, buffer, obj.scanArc);
+			serializer.serialize(buffer, (byte[]) obj.graphicsCalls);
+			serializeDebugProperties(serializer, buffer, obj.debugProperties);
+
+			serializer.serialize(buffer, obj.outputStreamSnapshot);
+
+			serializer.serialize(buffer, RbSerializer.ScoreSnapshot_TYPE, obj.robotScoreSnapshot);
+		}
+
+		public Object deserialize(RbSerializer serializer, ByteBuffer buffer) {
+			RobotSnapshot res = new RobotSnapshot();
+
+			res.name = serializer.deserializeString(buffer);
+			res.shortName = serializer.deserializeString(buffer);
+			res.veryShortName = serializer.deserializeString(buffer);
+			res.teamName = serializer.deserializeString(buffer);
+
+			res.robotIndex = buffer.getInt();
+			res.teamIndex = buffer.getInt();
+			res.state = RobotState.toState(buffer.getInt());
+
+			res.energy = buffer.getDouble();
+			res.velocity = buffer.getDouble();
+			res.gunHeat = buffer.getDouble();
+			res.bodyHeading = buffer.getDouble();
+			res.gunHeading = buffer.getDouble();
+			res.radarHeading = buffer.getDouble();
+			res.x = buffer.getDouble();
+			res.y = buffer.getDouble();
+
+			res.bodyColor = buffer.getInt();
+			res.gunColor = buffer.getInt();
+			res.radarColor = buffer.getInt();
+			res.scanColor = buffer.getInt();
+
+			res.isDroid = serializer.deserializeBoolean(buffer);
+			res.isSentryRobot = serializer.deserializeBoolean(buffer);
+			res.isPaintRobot = serializer.deserializeBoolean(buffer);
+			res.isPaintEnabled = serializer.deserializeBoolean(buffer);
+			res.isSGPaintEnabled = serializer.deserializeBoolean(buffer);
+
+			res.scanArc = deserializeScanArc(serializer, buffer);
+			res.graphicsCalls = serializer.deserializeBytes(buffer);
+			res.debugProperties = deserializeDebugProperties(serializer, buffer);
+
+			res.outputStreamSnapshot = serializer.deserializeString(buffer);
+
+			res.robotScoreSnapshot = (IScoreSnapshot) serializer.deserializeAny(buffer);
+			return res;
+		}
+	}
+
 	/**
 	 * Class used for serializing an Arc2D.double.
 	 * The purpose of this class is to overcome various serialization problems with Arc2D to cope with bug in Java 6:
@@ -712,6 +1218,16 @@ public final class RobotSnapshot implements Serializable, IXmlSerializable, IRob
 		public final double extent;
 		public final int type;
 
+		public SerializableArc(double x, double y, double w, double h, double start, double extent, int type) {
+			this.x = x;
+			this.y = y;
+			this.w = w;
+			this.h = h;
+			this.start = start;
+			this.extent = extent;
+			this.type = type;
+		}
+
 		public SerializableArc(Arc2D.Double arc) {
 			x = arc.getX();
 			y = arc.getY();
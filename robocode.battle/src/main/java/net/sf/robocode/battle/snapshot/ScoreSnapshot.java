@@ -14,6 +14,7 @@ import robocode.control.snapshot.IScoreSnapshot;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -553,4 +554,64 @@ public final class ScoreSnapshot implements Serializable, IXmlSerializable, ISco
 		}
 		return totalThirds == other.totalThirds;
 	}
+
+	static ISerializableHelper createHiddenSerializer() {
+		return new SerializableHelper();
+	}
+
+	private static class SerializableHelper implements ISerializableHelper {
+		public int sizeOf(RbSerializer serializer, Object object) {
+			ScoreSnapshot obj = (ScoreSnapshot) object;
+
+			return RbSerializer.SIZEOF_TYPEINFO + serializer.sizeOf(obj.name) + 14 * RbSerializer.SIZEOF_DOUBLE
+					+ 3 * RbSerializer.SIZEOF_INT;
+		}
+
+		public void serialize(RbSerializer serializer, ByteBuffer buffer, Object object) {
+			ScoreSnapshot obj = (ScoreSnapshot) object;
+
+			serializer.serialize(buffer, obj.name);
+			serializer.serialize(buffer, obj.totalScore);
+			serializer.serialize(buffer, obj.totalSurvivalScore);
+			serializer.serialize(buffer, obj.totalLastSurvivorBonus);
+			serializer.serialize(buffer, obj.totalBulletDamageScore);
+			serializer.serialize(buffer, obj.totalBulletKillBonus);
+			serializer.serialize(buffer, obj.totalRammingDamageScore);
+			serializer.serialize(buffer, obj.totalRammingKillBonus);
+			serializer.serialize(buffer, obj.totalFirsts);
+			serializer.serialize(buffer, obj.totalSeconds);
+			serializer.serialize(buffer, obj.totalThirds);
+			serializer.serialize(buffer, obj.currentScore);
+			serializer.serialize(buffer, obj.currentSurvivalScore);
+			serializer.serialize(buffer, obj.currentSurvivalBonus);
+			serializer.serialize(buffer, obj.currentBulletDamageScore);
+			serializer.serialize(buffer, obj.currentBulletKillBonus);
+			serializer.serialize(buffer, obj.currentRammingDamageScore);
+			serializer.serialize(buffer, obj.currentRammingKillBonus);
+		}
+
+		public Object deserialize(RbSerializer serializer, ByteBuffer buffer) {
+			ScoreSnapshot res = new ScoreSnapshot();
+
+			res.name = serializer.deserializeString(buffer);
+			res.totalScore = buffer.getDouble();
+			res.totalSurvivalScore = buffer.getDouble();
+			res.totalLastSurvivorBonus = buffer.getDouble();
+			res.totalBulletDamageScore = buffer.getDouble();
+			res.totalBulletKillBonus = buffer.getDouble();
+			res.totalRammingDamageScore = buffer.getDouble();
+			res.totalRammingKillBonus = buffer.getDouble();
+			res.totalFirsts = buffer.getInt();
+			res.totalSeconds = buffer.getInt();
+			res.totalThirds = buffer.getInt();
+			res.currentScore = buffer.getDouble();
+			res.currentSurvivalScore = buffer.getDouble();
+			res.currentSurvivalBonus = buffer.getDouble();
+			res.currentBulletDamageScore = buffer.getDouble();
+			res.currentBulletKillBonus = buffer.getDouble();
+			res.currentRammingDamageScore = buffer.getDouble();
+			res.currentRammingKillBonus = buffer.getDouble();
+			return res;
+		}
+	}
 }
@@ -11,13 +11,16 @@ package net.sf.robocode.battle.snapshot;
 import net.sf.robocode.battle.Battle;
 import net.sf.robocode.battle.peer.BulletPeer;
 import net.sf.robocode.battle.peer.RobotPeer;
+import net.sf.robocode.serialization.ISerializableHelper;
 import net.sf.robocode.serialization.IXmlSerializable;
+import net.sf.robocode.serialization.RbSerializer;
 import net.sf.robocode.serialization.XmlReader;
 import net.sf.robocode.serialization.SerializableOptions;
 import net.sf.robocode.serialization.XmlWriter;
 import robocode.control.snapshot.*;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 
@@ -54,6 +57,22 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 	 */
 	public TurnSnapshot() {}
 
+	/**
+	 * Creates a copy of a turn snapshot, which can be stripped of details without changing the original.
+	 *
+	 * @param snapshot the snapshot to copy.
+	 */
+	public TurnSnapshot(TurnSnapshot snapshot) {
+		robots = new ArrayList<IRobotSnapshot>(snapshot.robots.size());
+		for (IRobotSnapshot robot : snapshot.robots) {
+			robots.add(new RobotSnapshot((RobotSnapshot) robot));
+		}
+		bullets = new ArrayList<IBulletSnapshot>(snapshot.bullets);
+		tps = snapshot.tps;
+		round = snapshot.round;
+		turn = snapshot.turn;
+	}
+
 	/**
 	 * Creates a snapshot of a battle turn.
 	 *
@@ -294,4 +313,161 @@ public final class TurnSnapshot implements java.io.Serializable, IXmlSerializabl
 			}
 		});
 	}
+
+	/**
+	 * Checks if a turn can be written as a delta of a base turn, which is the case when both turns are of the
+	 * same round.
+	 *
+	 * @param base the base turn.
+	 * @param turn the turn to write.
+	 * @return {@code true} if the turn can be written by serializeDelta(); {@code false} otherwise.
+	 */
+	public static boolean canSerializeDelta(TurnSnapshot base, TurnSnapshot turn) {
+		return base.round == turn.round && base.robots.size() == turn.robots.size();
+	}
+
+	/**
+	 * Returns the maximum number of bytes written by serializeDelta().
+	 *
+	 * @param serializer the serializer.
+	 * @param turn the turn to write.
+	 * @return the maximum size of the delta.
+	 */
+	public static int sizeOfDelta(RbSerializer serializer, TurnSnapshot turn) {
+		return serializer.sizeOf(RbSerializer.TurnSnapshot_TYPE, turn) + RbSerializer.SIZEOF_INT
+				+ turn.robots.size() * RbSerializer.SIZEOF_CHAR
+				+ turn.bullets.size() * (RbSerializer.SIZEOF_INT + RbSerializer.SIZEOF_BYTE);
+	}
+
+	/**
+	 * Writes the fields of a turn that differ from a base turn. Robots are compared with the robot at the same
+	 * index in the base turn, and bullets with the bullet having the same id.
+	 *
+	 * @param serializer the serializer.
+	 * @param buffer the buffer to write into.
+	 * @param base the base turn, which must pass canSerializeDelta().
+	 * @param turn the turn to write.
+	 */
+	public static void serializeDelta(RbSerializer serializer, ByteBuffer buffer, TurnSnapshot base, TurnSnapshot turn) {
+		serializer.serialize(buffer, turn.tps);
+		serializer.serialize(buffer, turn.round);
+		serializer.serialize(buffer, turn.turn);
+
+		for (int i = 0; i < turn.robots.size(); i++) {
+			RobotSnapshot.serializeDelta(serializer, buffer, (RobotSnapshot) base.robots.get(i),
+					(RobotSnapshot) turn.robots.get(i));
+		}
+		serializer.serialize(buffer, turn.bullets.size());
+		for (int i = 0; i < turn.bullets.size(); i++) {
+			final BulletSnapshot bullet = (BulletSnapshot) turn.bullets.get(i);
+
+			serializer.serialize(buffer, bullet.getBulletId());
+			BulletSnapshot.serializeDelta(serializer, buffer, findBullet(base.bullets, bullet.getBulletId(), i), bullet);
+		}
+	}
+
+	/**
+	 * Reads a turn written by serializeDelta().
+	 *
+	 * @param serializer the serializer.
+	 * @param buffer the buffer to read from.
+	 * @param base the base turn the delta was written against.
+	 * @return the turn.
+	 */
+	public static TurnSnapshot deserializeDelta(RbSerializer serializer, ByteBuffer buffer, TurnSnapshot base) {
+		final TurnSnapshot res = new TurnSnapshot();
+
+		res.tps = buffer.getInt();
+		res.round = buffer.getInt();
+		res.turn = buffer.getInt();
+
+		res.robots = new ArrayList<IRobotSnapshot>(base.robots.size());
+		for (IRobotSnapshot robot : base.robots) {
+			res.robots.add(RobotSnapshot.deserializeDelta(serializer, buffer, (RobotSnapshot) robot));
+		}
+		final int bulletCount = buffer.getInt();
+
+		res.bullets = new ArrayList<IBulletSnapshot>(bulletCount);
+		for (int i = 0; i < bulletCount; i++) {
+			final int bulletId = buffer.getInt();
+
+			res.bullets.add(BulletSnapshot.deserializeDelta(serializer, buffer, findBullet(base.bullets, bulletId, i)));
+		}
+		return res;
+	}
+
+	// Bullets mostly keep their index from one turn to the next, so the search starts at the index of the bullet
+	private static BulletSnapshot findBullet(List<IBulletSnapshot> bullets, int bulletId, int index) {
+		for (int i = 0; i < bullets.size(); i++) {
+			final IBulletSnapshot bullet = bullets.get((index + i) % bullets.size());
+
+			if (bullet.getBulletId() == bulletId) {
+				return (BulletSnapshot) bullet;
+			}
+		}
+		return null;
+	}
+
+	static ISerializableHelper createHiddenSerializer() {
+		return new SerializableHelper();
+	}
+
+	private static class SerializableHelper implements ISerializableHelper {
+		public int sizeOf(RbSerializer serializer, Object object) {
+			TurnSnapshot obj = (TurnSnapshot) object;
+			int size = RbSerializer.SIZEOF_TYPEINFO + 3 * RbSerializer.SIZEOF_INT;
+
+			for (IRobotSnapshot robot : obj.robots) {
+				size += serializer.sizeOf(RbSerializer.RobotSnapshot_TYPE, robot);
+			}
+			size += 1;
+
+			for (IBulletSnapshot bullet : obj.bullets) {
+				size += serializer.sizeOf(RbSerializer.BulletSnapshot_TYPE, bullet);
+			}
+			size += 1;
+
+			return size;
+		}
+
+		public void serialize(RbSerializer serializer, ByteBuffer buffer, Object object) {
+			TurnSnapshot obj = (TurnSnapshot) object;
+
+			serializer.serialize(buffer, obj.tps);
+			serializer.serialize(buffer, obj.round);
+			serializer.serialize(buffer, obj.turn);
+
+			for (IRobotSnapshot robot : obj.robots) {
+				serializer.serialize(buffer, RbSerializer.RobotSnapshot_TYPE, robot);
+			}
+			buffer.put(RbSerializer.TERMINATOR_TYPE);
+			for (IBulletSnapshot bullet : obj.bullets) {
+				serializer.serialize(buffer, RbSerializer.BulletSnapshot_TYPE, bullet);
+			}
+			buffer.put(RbSerializer.TERMINATOR_TYPE);
+		}
+
+		public Object deserialize(RbSerializer serializer, ByteBuffer buffer) {
+			TurnSnapshot res = new TurnSnapshot();
+
+			res.tps = buffer.getInt();
+			res.round = buffer.getInt();
+			res.turn = buffer.getInt();
+
+			res.robots = new ArrayList<IRobotSnapshot>();
+			Object item = serializer.deserializeAny(buffer);
+
+			while (item != null) {
+				res.robots.add((IRobotSnapshot) item);
+				item = serializer.deserializeAny(buffer);
+			}
+			res.bullets = new ArrayList<IBulletSnapshot>();
+			item = serializer.deserializeAny(buffer);
+			while (item != null) {
+				res.bullets.add((IBulletSnapshot) item);
+				item = serializer.deserializeAny(buffer);
+			}
+			return res;
+		}
+	}
 }
@@ -0,0 +1,293 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.io.Logger;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * Writes the turns of a recorded battle on a thread of its own, so the battle thread does not wait for the turns
+ * to be encoded and written to disk.
+ * <p>
+ * The battle thread hands each turn over through a bounded ring buffer with a single producer and a single
+ * consumer. When the buffer is full, the battle thread either waits for the writer ({@link Backpressure#BLOCK}),
+ * or the turn is dropped and the record is flagged as incomplete ({@link Backpressure#DROP}).
+ * <p>
+ * The queue depth and the latency from handing a turn over until it has been written are measured, so the size of
+ * the buffer can be chosen for the machine doing the recording.
+ */
+public final class AsyncRecordWriter {
+
+	/**
+	 * What to do with a turn when the buffer is full.
+	 */
+	public enum Backpressure {
+		/** The battle thread waits until the writer has made room for the turn */
+		BLOCK,
+		/** The turn is not recorded, and the record is flagged as incomplete */
+		DROP
+	}
+
+	private final IRecordManager.CheckedConsumer<ITurnSnapshot> sink;
+	private final Backpressure backpressure;
+
+	private final ITurnSnapshot[] turns;
+	private final long[] handedOverAt;
+	private final int mask;
+
+	/** Number of turns taken by the writer, only changed by the writer thread */
+	private volatile long head;
+
+	/** Number of turns handed over, only changed by the battle thread */
+	private volatile long tail;
+
+	private volatile boolean closed;
+	private volatile Thread waitingProducer;
+	private final Thread thread;
+
+	private volatile int maxQueueDepth;
+	private volatile long writtenTurns;
+	/** Turns dropped by the battle thread, and turns the writer thread failed to write */
+	private volatile long droppedTurns;
+	private volatile long failedTurns;
+	private volatile boolean failed;
+	private volatile long totalLatency;
+	private volatile long maxLatency;
+
+	/**
+	 * Creates a writer and starts its thread.
+	 *
+	 * @param sink         writes a turn, called by the writer thread.
+	 * @param capacity     the number of turns the buffer can hold, rounded up to a power of two.
+	 * @param backpressure what to do with a turn when the buffer is full.
+	 */
+	public AsyncRecordWriter(IRecordManager.CheckedConsumer<ITurnSnapshot> sink, int capacity, Backpressure backpressure) {
+		this.sink = sink;
+		this.backpressure = backpressure;
+
+		final int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+
+		turns = new ITurnSnapshot[size];
+		handedOverAt = new long[size];
+		mask = size - 1;
+
+		thread = new Thread(new Runnable() {
+			public void run() {
+				try {
+					consume();
+				} finally {
+					stopped();
+				}
+			}
+		}, "Robocode recorder");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Hands a turn over to the writer thread. Must be called by a single thread, which is the battle thread.
+	 *
+	 * @param turn the turn to write, which must not be changed afterwards.
+	 */
+	public void writeTurn(ITurnSnapshot turn) {
+		final long t = tail;
+
+		if (t - head > mask && backpressure == Backpressure.BLOCK) {
+			waitingProducer = Thread.currentThread();
+			while (t - head > mask && !failed) {
+				LockSupport.park(this);
+			}
+			waitingProducer = null;
+		}
+		if (t - head > mask || failed) {
+			droppedTurns++;
+			return;
+		}
+		turns[(int) t & mask] = turn;
+		handedOverAt[(int) t & mask] = System.nanoTime();
+		tail = t + 1;
+
+		final int depth = (int) (t + 1 - head);
+
+		if (depth > maxQueueDepth) {
+			maxQueueDepth = depth;
+		}
+		LockSupport.unpark(thread);
+	}
+
+	/**
+	 * Waits until all turns handed over have been written, and stops the writer thread.
+	 */
+	public void close() {
+		closed = true;
+		LockSupport.unpark(thread);
+
+		boolean interrupted = false;
+
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the number of turns the buffer can hold.
+	 *
+	 * @return the capacity of the buffer.
+	 */
+	public int getCapacity() {
+		return turns.length;
+	}
+
+	/**
+	 * Returns the number of turns handed over that have not been written yet.
+	 *
+	 * @return the current queue depth.
+	 */
+	public int getQueueDepth() {
+		return (int) (tail - head);
+	}
+
+	/**
+	 * Returns the largest number of turns waiting to be written at any time.
+	 *
+	 * @return the maximum queue depth.
+	 */
+	public int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/**
+	 * Returns the number of turns that have been written.
+	 *
+	 * @return the number of written turns.
+	 */
+	public long getWrittenTurns() {
+		return writtenTurns;
+	}
+
+	/**
+	 * Returns the number of turns that were dropped because the buffer was full, or could not be written.
+	 *
+	 * @return the number of dropped turns.
+	 */
+	public long getDroppedTurns() {
+		return droppedTurns + failedTurns;
+	}
+
+	/**
+	 * Checks if some turns are missing from the record.
+	 *
+	 * @return {@code true} if turns were dropped or could not be written; {@code false} otherwise.
+	 */
+	public boolean isIncomplete() {
+		return droppedTurns > 0 || failed;
+	}
+
+	/**
+	 * Returns the mean time from handing a turn over until it has been written.
+	 *
+	 * @return the mean latency in nanoseconds.
+	 */
+	public long getMeanLatency() {
+		final long written = writtenTurns;
+
+		return written == 0 ? 0 : totalLatency / written;
+	}
+
+	/**
+	 * Returns the longest time from handing a turn over until it has been written.
+	 *
+	 * @return the maximum latency in nanoseconds.
+	 */
+	public long getMaxLatency() {
+		return maxLatency;
+	}
+
+	@Override
+	public String toString() {
+		return writtenTurns + " turns written, " + getDroppedTurns() + " dropped, queue depth max " + maxQueueDepth + " of "
+				+ turns.length + ", latency mean " + getMeanLatency() / 1000 + " us, max " + maxLatency / 1000 + " us";
+	}
+
+	private void consume() {
+		while (true) {
+			final long h = head;
+
+			if (h == tail) {
+				if (closed) {
+					// the last turns may have been handed over before closed was seen
+					if (h == tail) {
+						return;
+					}
+					continue;
+				}
+				LockSupport.park(this);
+				continue;
+			}
+			final int index = (int) h & mask;
+			final ITurnSnapshot turn = turns[index];
+
+			turns[index] = null;
+			if (!failed) {
+				try {
+					sink.accept(turn);
+
+					final long latency = System.nanoTime() - handedOverAt[index];
+
+					totalLatency += latency;
+					if (latency > maxLatency) {
+						maxLatency = latency;
+					}
+					writtenTurns++;
+				} catch (Throwable t) {
+					Logger.logError(t);
+					failed = true;
+				}
+			}
+			if (failed) {
+				failedTurns++;
+			}
+			head = h + 1;
+
+			final Thread producer = waitingProducer;
+
+			if (producer != null) {
+				LockSupport.unpark(producer);
+			}
+		}
+	}
+
+	/**
+	 * Called when the writer thread stops. If it stops before all turns have been written, the turns left are
+	 * dropped, and the battle thread must not wait for the writer any longer.
+	 */
+	private void stopped() {
+		final long left = tail - head;
+
+		if (left > 0) {
+			failed = true;
+			failedTurns += left;
+		}
+		final Thread producer = waitingProducer;
+
+		if (producer != null) {
+			LockSupport.unpark(producer);
+		}
+	}
+}
@@ -9,6 +9,7 @@ package net.sf.robocode.recording;
 
 
 import net.sf.robocode.battle.BaseBattle;
+import net.sf.robocode.battle.Command;
 import net.sf.robocode.battle.IBattleManager;
 import net.sf.robocode.battle.events.BattleEventDispatcher;
 import net.sf.robocode.battle.snapshot.RobotSnapshot;
@@ -30,6 +31,10 @@ public final class BattlePlayer extends BaseBattle {
 	private final RecordManager recordManager;
 	private boolean[] paint;
 
+	// The turn to jump to at the start of the next round, when jumping to another round
+	private int seekRound = -1;
+	private int seekTurn;
+
 	public BattlePlayer(ISettingsManager properties, IBattleManager battleManager, RecordManager recordManager, BattleEventDispatcher eventDispatcher) { // NO_UCD (unused code)
 		super(
 				properties, battleManager, eventDispatcher);
@@ -72,11 +77,18 @@ public final class BattlePlayer extends BaseBattle {
 	protected void initializeRound() {
 		super.initializeRound();
 
-		final ITurnSnapshot snapshot = recordManager.readSnapshot();
+		final ITurnSnapshot snapshot = recordManager.readSnapshot(getRoundNum(), 0);
 
 		if (snapshot != null) {
 			eventDispatcher.onRoundStarted(new RoundStartedEvent(snapshot, getRoundNum(), null));
 		}
+		if (seekRound >= 0) {
+			seekRound = -1;
+			seekInRound(seekTurn);
+
+			// a paused replay must show the turn
+			step();
+		}
 	}
 
 	@Override
@@ -84,6 +96,11 @@ public final class BattlePlayer extends BaseBattle {
 		super.finalizeRound();
 
 		eventDispatcher.onRoundEnded(new RoundEndedEvent(getRoundNum(), getTime(), totalTurns));
+
+		if (seekRound >= 0) {
+			// the battle continues with the round after this one
+			setRoundNum(seekRound - 1);
+		}
 	}
 
 	@Override
@@ -95,7 +112,8 @@ public final class BattlePlayer extends BaseBattle {
 
 	@Override
 	protected void finalizeTurn() {
-		final ITurnSnapshot snapshot = recordManager.readSnapshot();
+		// the round is left for another round, so this turn is not shown
+		final ITurnSnapshot snapshot = seekRound < 0 ? recordManager.readSnapshot(getRoundNum(), getTime()) : null;
 
 		if (snapshot != null) {
 			final IRobotSnapshot[] robots = snapshot.getRobots();
@@ -113,6 +131,9 @@ public final class BattlePlayer extends BaseBattle {
 
 	@Override
 	protected boolean isRoundOver() {
+		if (seekRound >= 0) {
+			return true;
+		}
 		final boolean end = getTime() >= recordManager.recordInfo.turnsInRounds[getRoundNum()] - 1;
 
 		if (end) {
@@ -130,10 +151,58 @@ public final class BattlePlayer extends BaseBattle {
 		recordManager.cleanupStreams();
 	}
 
+	/**
+	 * Jumps to a turn of a round, where the current round is ended when jumping to another round. This is only
+	 * possible when the record has an index of its turns, which is the case for every loaded or recorded battle.
+	 *
+	 * @param round the round to jump to.
+	 * @param turn the turn to jump to.
+	 */
+	public void seek(int round, int turn) {
+		if (recordManager.isSeekable()) {
+			sendCommand(new SeekCommand(round, turn));
+			step();
+		}
+	}
+
+	private void seekInRound(int turn) {
+		final Integer[] turnsInRounds = recordManager.recordInfo.turnsInRounds;
+		final int target = Math.max(0, Math.min(turn, turnsInRounds[getRoundNum()] - 1));
+
+		// the next turn moves forward by one, and reads the turn we are seeking
+		currentTime = target - 1;
+		totalTurns = currentTime;
+		for (int round = 0; round < getRoundNum(); round++) {
+			totalTurns += turnsInRounds[round] - 1;
+		}
+	}
+
 	public void setPaintEnabled(int robotIndex, boolean enable) {
 		sendCommand(new EnableRobotPaintCommand(robotIndex, enable));
 	}
 
+	private class SeekCommand extends Command {
+		final int round;
+		final int turn;
+
+		SeekCommand(int round, int turn) {
+			this.round = round;
+			this.turn = turn;
+		}
+
+		public void execute() {
+			final int target = Math.max(0, Math.min(round, recordManager.recordInfo.turnsInRounds.length - 1));
+
+			if (target == getRoundNum()) {
+				seekRound = -1;
+				seekInRound(turn);
+			} else {
+				seekRound = target;
+				seekTurn = turn;
+			}
+		}
+	}
+
 	private class EnableRobotPaintCommand extends RobotCommand {
 		final boolean enablePaint;
 
@@ -35,10 +35,16 @@ public class BattleRecordInfo implements Serializable, IXmlSerializable {
 	public List<BattleResults> results;
 	public UUID battleId;
 
+	// Set if turns were dropped by the recorder, so some turns of the battle are missing from the record
+	public boolean incomplete;
+
 	public void writeXml(XmlWriter writer, SerializableOptions options) throws IOException {
 		writer.startElement("recordInfo"); {
 			writer.writeAttribute("robotCount", robotCount);
 			writer.writeAttribute("roundsCount", roundsCount);
+			if (incomplete) {
+				writer.writeAttribute("incomplete", true);
+			}
 			if (!options.skipVersion) {
 				writer.writeAttribute("ver", serialVersionUID);
 			}
@@ -89,6 +95,11 @@ public class BattleRecordInfo implements Serializable, IXmlSerializable {
 						recordInfo.roundsCount = Integer.parseInt(value);
 					}
 				});
+				reader.expect("incomplete", new XmlReader.Attribute() {
+					public void read(String value) {
+						recordInfo.incomplete = Boolean.parseBoolean(value);
+					}
+				});
 
 				new BattleRulesWrapper(recordInfo).readXml(reader);
 
@@ -132,6 +132,14 @@ class BattleRecorder {
 				} else if (properties.getOptionsCommonRecordingFormat().equalsIgnoreCase("csv")) {
 					recordmanager.saveRecord(name.toString(), BattleRecordFormat.CSV,
 							new SerializableOptions(true));
+				} else if (properties.getOptionsCommonRecordingFormat().equalsIgnoreCase("columnar")) {
+					name.append(".rbc");
+					recordmanager.saveRecord(name.toString(), BattleRecordFormat.COLUMNAR_ZIP,
+							new SerializableOptions(true));
+				} else if (properties.getOptionsCommonRecordingFormat().equalsIgnoreCase("indexed")) {
+					name.append(".ibr");
+					recordmanager.saveRecord(name.toString(), BattleRecordFormat.INDEXED,
+							new SerializableOptions(true));
 				} else {
 					name.append(".zip.br");
 					recordmanager.saveRecord(name.toString(), BattleRecordFormat.BINARY_ZIP,
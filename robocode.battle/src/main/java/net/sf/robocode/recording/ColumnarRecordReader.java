@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+
+/**
+ * Reads a battle record written by {@link ColumnarRecordWriter}.
+ * <p>
+ * Only the header and the index are read when the record is opened. The record is then read a column at a time,
+ * where a column holds a single value of a robot or of the bullets for the turns of a segment. So a tool scanning
+ * the x and y coordinates of one robot reads two small columns per segment, and never decodes the rest:
+ * <pre>
+ * try (ColumnarRecordReader reader = new ColumnarRecordReader(file)) {
+ *     for (int segment = 0; segment &lt; reader.getSegmentCount(); segment++) {
+ *         double[] x = reader.readRobotColumn(segment, robotIndex, RobotColumn.X);
+ *         double[] y = reader.readRobotColumn(segment, robotIndex, RobotColumn.Y);
+ *         ...
+ *     }
+ * }
+ * </pre>
+ * This class has no dependencies on the rest of Robocode, so it can be used by tools that do not run Robocode.
+ */
+public class ColumnarRecordReader implements Closeable {
+
+	/**
+	 * The values stored for each robot in each turn.
+	 */
+	public enum RobotColumn {
+		/** The value of the robocode.control.snapshot.RobotState of the robot */
+		STATE(true),
+		ENERGY(false),
+		X(false),
+		Y(false),
+		BODY_HEADING(false),
+		GUN_HEADING(false),
+		RADAR_HEADING(false),
+		GUN_HEAT(false),
+		VELOCITY(false),
+		SCORE(false),
+		SURVIVAL_SCORE(false),
+		BULLET_DAMAGE_SCORE(false),
+		BULLET_KILL_BONUS(false),
+		RAMMING_DAMAGE_SCORE(false),
+		RAMMING_KILL_BONUS(false);
+
+		private final boolean isInteger;
+
+		RobotColumn(boolean isInteger) {
+			this.isInteger = isInteger;
+		}
+
+		/**
+		 * Checks if the values of this column are integers, which are read with
+		 * {@link ColumnarRecordReader#readRobotIntColumn(int, int, RobotColumn)}.
+		 *
+		 * @return {@code true} if the values are integers; {@code false} if they are doubles.
+		 */
+		public boolean isInteger() {
+			return isInteger;
+		}
+	}
+
+	/**
+	 * The values stored for each bullet in each turn. The bullets of a segment are stored in the order of their
+	 * turns, so each turn has a row for every bullet on the battlefield.
+	 */
+	public enum BulletColumn {
+		/** The number of the turn of the row */
+		TURN(true),
+		BULLET_ID(true),
+		/** The index of the robot that fired the bullet */
+		OWNER_INDEX(true),
+		/** The index of the robot hit by the bullet, or -1 */
+		VICTIM_INDEX(true),
+		/** The value of the robocode.control.snapshot.BulletState of the bullet */
+		STATE(true),
+		POWER(false),
+		HEADING(false),
+		/** The x coordinate the bullet is painted at */
+		X(false),
+		/** The y coordinate the bullet is painted at */
+		Y(false);
+
+		private final boolean isInteger;
+
+		BulletColumn(boolean isInteger) {
+			this.isInteger = isInteger;
+		}
+
+		/**
+		 * Checks if the values of this column are integers, which are read with
+		 * {@link ColumnarRecordReader#readBulletIntColumn(int, BulletColumn)}.
+		 *
+		 * @return {@code true} if the values are integers; {@code false} if they are doubles.
+		 */
+		public boolean isInteger() {
+			return isInteger;
+		}
+	}
+
+	private static final int SEGMENT_HEADER_SIZE = 3 * 4;
+	private static final int COLUMN_ENTRY_SIZE = 8 + 4;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final Inflater inflater;
+
+	private final String battleId;
+	private final int battlefieldWidth;
+	private final int battlefieldHeight;
+	private final int roundCount;
+	private final String[] robotNames;
+
+	/** The round, turn count and bullet count of each segment, and the offset and size of its columns */
+	private final int[] segmentRounds;
+	private final int[] segmentTurns;
+	private final int[] segmentBullets;
+	private final long[][] columnOffsets;
+	private final int[][] columnSizes;
+
+	/**
+	 * Opens a record and reads its header and index.
+	 *
+	 * @param recordFile the record to read.
+	 * @throws IOException if the file could not be read or is not a columnar battle record.
+	 */
+	public ColumnarRecordReader(File recordFile) throws IOException {
+		file = new RandomAccessFile(recordFile, "r");
+		channel = file.getChannel();
+		try {
+			final ByteBuffer trailer = read(channel.size() - ColumnarRecordWriter.TRAILER_SIZE,
+					ColumnarRecordWriter.TRAILER_SIZE);
+			final long indexOffset = trailer.getLong();
+
+			file.seek(0);
+			if (trailer.getInt() != ColumnarRecordWriter.MAGIC || file.readInt() != ColumnarRecordWriter.MAGIC) {
+				throw new IOException(recordFile + " is not a columnar battle record");
+			}
+			final int version = file.readInt();
+
+			if (version != ColumnarRecordWriter.VERSION) {
+				throw new IOException("Unsupported version " + version + " of columnar battle record " + recordFile);
+			}
+			inflater = file.readBoolean() ? new Inflater() : null;
+			battleId = file.readUTF();
+			battlefieldWidth = file.readInt();
+			battlefieldHeight = file.readInt();
+			roundCount = file.readInt();
+
+			file.seek(indexOffset);
+			robotNames = new String[file.readInt()];
+			for (int i = 0; i < robotNames.length; i++) {
+				robotNames[i] = file.readUTF();
+			}
+			final int segmentCount = file.readInt();
+			final int columnCount = 1 + robotNames.length * RobotColumn.values().length + BulletColumn.values().length;
+			final ByteBuffer index = read(file.getFilePointer(),
+					segmentCount * (SEGMENT_HEADER_SIZE + columnCount * COLUMN_ENTRY_SIZE));
+
+			segmentRounds = new int[segmentCount];
+			segmentTurns = new int[segmentCount];
+			segmentBullets = new int[segmentCount];
+			columnOffsets = new long[segmentCount][columnCount];
+			columnSizes = new int[segmentCount][columnCount];
+			for (int i = 0; i < segmentCount; i++) {
+				segmentRounds[i] = index.getInt();
+				segmentTurns[i] = index.getInt();
+				segmentBullets[i] = index.getInt();
+				for (int j = 0; j < columnCount; j++) {
+					columnOffsets[i][j] = index.getLong();
+					columnSizes[i][j] = index.getInt();
+				}
+			}
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		} catch (RuntimeException e) {
+			file.close();
+			throw new IOException(recordFile + " is not a valid columnar battle record", e);
+		}
+	}
+
+	/**
+	 * Returns the id of the recorded battle.
+	 *
+	 * @return the battle id, or an empty string if the battle has no id.
+	 */
+	public String getBattleId() {
+		return battleId;
+	}
+
+	public int getBattlefieldWidth() {
+		return battlefieldWidth;
+	}
+
+	public int getBattlefieldHeight() {
+		return battlefieldHeight;
+	}
+
+	public int getRoundCount() {
+		return roundCount;
+	}
+
+	/**
+	 * Returns the names of the robots, where the robot index used by the columns is the index of the name.
+	 *
+	 * @return the names of the robots.
+	 */
+	public String[] getRobotNames() {
+		return robotNames.clone();
+	}
+
+	/**
+	 * Returns the number of segments in the record. The segments are in the order of the turns they hold, and a
+	 * segment never holds turns of more than one round.
+	 *
+	 * @return the number of segments.
+	 */
+	public int getSegmentCount() {
+		return segmentRounds.length;
+	}
+
+	/**
+	 * Returns the round of the turns held by a segment.
+	 *
+	 * @param segment the segment.
+	 * @return the round of the segment.
+	 */
+	public int getSegmentRound(int segment) {
+		return segmentRounds[segment];
+	}
+
+	/**
+	 * Returns the number of turns held by a segment, which is the length of its robot columns.
+	 *
+	 * @param segment the segment.
+	 * @return the number of turns in the segment.
+	 */
+	public int getSegmentTurnCount(int segment) {
+		return segmentTurns[segment];
+	}
+
+	/**
+	 * Returns the number of bullet rows of a segment, which is the length of its bullet columns.
+	 *
+	 * @param segment the segment.
+	 * @return the number of bullet rows in the segment.
+	 */
+	public int getSegmentBulletCount(int segment) {
+		return segmentBullets[segment];
+	}
+
+	/**
+	 * Reads the numbers of the turns held by a segment.
+	 *
+	 * @param segment the segment.
+	 * @return the turn numbers.
+	 * @throws IOException if the column could not be read.
+	 */
+	public int[] readTurns(int segment) throws IOException {
+		final int[] values = new int[segmentTurns[segment]];
+
+		readColumn(segment, 0, values.length * 4).asIntBuffer().get(values);
+		return values;
+	}
+
+	/**
+	 * Reads a column of a robot with double values.
+	 *
+	 * @param segment the segment.
+	 * @param robotIndex the index of the robot.
+	 * @param column the column, which must not be an integer column.
+	 * @return the values of the robot in each turn of the segment.
+	 * @throws IOException if the column could not be read.
+	 */
+	public double[] readRobotColumn(int segment, int robotIndex, RobotColumn column) throws IOException {
+		checkType(column.isInteger(), false, column);
+		final double[] values = new double[segmentTurns[segment]];
+
+		readColumn(segment, robotColumn(robotIndex, column), values.length * 8).asDoubleBuffer().get(values);
+		return values;
+	}
+
+	/**
+	 * Reads a column of a robot with integer values.
+	 *
+	 * @param segment the segment.
+	 * @param robotIndex the index of the robot.
+	 * @param column the column, which must be an integer column.
+	 * @return the values of the robot in each turn of the segment.
+	 * @throws IOException if the column could not be read.
+	 */
+	public int[] readRobotIntColumn(int segment, int robotIndex, RobotColumn column) throws IOException {
+		checkType(column.isInteger(), true, column);
+		final int[] values = new int[segmentTurns[segment]];
+
+		readColumn(segment, robotColumn(robotIndex, column), values.length * 4).asIntBuffer().get(values);
+		return values;
+	}
+
+	/**
+	 * Reads a column of the bullets with double values.
+	 *
+	 * @param segment the segment.
+	 * @param column the column, which must not be an integer column.
+	 * @return the values of each bullet row of the segment.
+	 * @throws IOException if the column could not be read.
+	 */
+	public double[] readBulletColumn(int segment, BulletColumn column) throws IOException {
+		checkType(column.isInteger(), false, column);
+		final double[] values = new double[segmentBullets[segment]];
+
+		readColumn(segment, bulletColumn(column), values.length * 8).asDoubleBuffer().get(values);
+		return values;
+	}
+
+	/**
+	 * Reads a column of the bullets with integer values.
+	 *
+	 * @param segment the segment.
+	 * @param column the column, which must be an integer column.
+	 * @return the values of each bullet row of the segment.
+	 * @throws IOException if the column could not be read.
+	 */
+	public int[] readBulletIntColumn(int segment, BulletColumn column) throws IOException {
+		checkType(column.isInteger(), true, column);
+		final int[] values = new int[segmentBullets[segment]];
+
+		readColumn(segment, bulletColumn(column), values.length * 4).asIntBuffer().get(values);
+		return values;
+	}
+
+	public void close() throws IOException {
+		if (inflater != null) {
+			inflater.end();
+		}
+		file.close();
+	}
+
+	private int robotColumn(int robotIndex, RobotColumn column) {
+		if (robotIndex < 0 || robotIndex >= robotNames.length) {
+			throw new IllegalArgumentException("There is no robot with index " + robotIndex);
+		}
+		return 1 + robotIndex * RobotColumn.values().length + column.ordinal();
+	}
+
+	private int bulletColumn(BulletColumn column) {
+		return 1 + robotNames.length * RobotColumn.values().length + column.ordinal();
+	}
+
+	private static void checkType(boolean isInteger, boolean expectInteger, Enum<?> column) {
+		if (isInteger != expectInteger) {
+			throw new IllegalArgumentException(column + " is " + (isInteger ? "an integer" : "a double") + " column");
+		}
+	}
+
+	/**
+	 * Reads a column and inflates it if the record is compressed.
+	 */
+	private synchronized ByteBuffer readColumn(int segment, int column, int size) throws IOException {
+		if (size == 0) {
+			// the stored column may hold an empty deflate stream
+			return ByteBuffer.allocate(0);
+		}
+		final ByteBuffer stored = read(columnOffsets[segment][column], columnSizes[segment][column]);
+
+		if (inflater == null) {
+			if (stored.remaining() != size) {
+				throw new IOException("Column " + column + " of segment " + segment + " is corrupted");
+			}
+			return stored;
+		}
+		final byte[] values = new byte[size];
+
+		inflater.reset();
+		inflater.setInput(stored.array(), 0, stored.limit());
+		try {
+			if (inflater.inflate(values) != size || !inflater.finished()) {
+				throw new IOException("Column " + column + " of segment " + segment + " is corrupted");
+			}
+		} catch (DataFormatException e) {
+			throw new IOException("Column " + column + " of segment " + segment + " is corrupted", e);
+		}
+		return ByteBuffer.wrap(values);
+	}
+
+	private ByteBuffer read(long position, int size) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(size);
+
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.recording.ColumnarRecordReader.BulletColumn;
+import net.sf.robocode.recording.ColumnarRecordReader.RobotColumn;
+import robocode.control.snapshot.IBulletSnapshot;
+import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.IScoreSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+
+/**
+ * Writes the robots and bullets of a battle record in the {@link BattleRecordFormat#COLUMNAR} format, which is made
+ * for analysis tools that read a few values of many turns, like the positions of a single robot.
+ * <p>
+ * The turns of each round are split into segments of up to {@link #SEGMENT_TURNS} turns. In a segment, every value
+ * of a robot, like its x coordinate, and every value of the bullets is stored as an array of primitives, called a
+ * column, which may be compressed. The names of the robots are stored once, and robots, bullet owners and bullet
+ * victims are referred to by their index. The index at the end of the file holds the offset of every column, so
+ * {@link ColumnarRecordReader} reads the columns asked for and nothing else.
+ * <p>
+ * Layout of the file:
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * byte   1 if the columns are compressed with Deflater, 0 otherwise
+ * UTF    battle id
+ * int    battlefield width
+ * int    battlefield height
+ * int    number of rounds
+ * columns, each one an array of big-endian ints or doubles
+ * int    number of robots
+ * UTF[]  name of each robot
+ * int    number of segments, each one:
+ *   int    round
+ *   int    number of turns
+ *   int    number of bullet rows
+ *   long and int, the offset and size of the turn numbers, of each RobotColumn of each robot, and of each
+ *          BulletColumn
+ * long   offset of the number of robots
+ * int    MAGIC
+ * </pre>
+ */
+public class ColumnarRecordWriter implements Closeable {
+
+	static final int MAGIC = 0x5242434C; // "RBCL"
+	static final int VERSION = 1;
+	static final int SEGMENT_TURNS = 1024;
+	static final int TRAILER_SIZE = 8 + 4;
+
+	private static final RobotColumn[] ROBOT_COLUMNS = RobotColumn.values();
+	private static final BulletColumn[] BULLET_COLUMNS = BulletColumn.values();
+
+	private final DataOutputStream out;
+	private final Deflater deflater;
+	private long position;
+
+	private final ByteArrayOutputStream indexBytes = new ByteArrayOutputStream();
+	private final DataOutputStream index = new DataOutputStream(indexBytes);
+	private int segmentCount;
+	private String[] robotNames;
+
+	/** The segment being written, with its values by robot, column and turn, and by column and bullet row */
+	private int round = -1;
+	private int turnCount;
+	private final int[] turns = new int[SEGMENT_TURNS];
+	private double[][][] robotValues;
+	private final double[][] bulletValues = new double[BULLET_COLUMNS.length][256];
+	private int bulletCount;
+
+	private ByteBuffer raw = ByteBuffer.allocate(SEGMENT_TURNS * 8);
+	private byte[] compressed = new byte[SEGMENT_TURNS * 8];
+
+	/**
+	 * Creates a new writer and writes the header of the record.
+	 *
+	 * @param file the file to write the record into.
+	 * @param recordInfo the information about the recorded battle.
+	 * @param compress {@code true} if the columns must be compressed; {@code false} otherwise.
+	 * @throws IOException if the file could not be written.
+	 */
+	public ColumnarRecordWriter(File file, BattleRecordInfo recordInfo, boolean compress) throws IOException {
+		deflater = compress ? new Deflater() : null;
+
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1024 * 1024));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeBoolean(compress);
+		out.writeUTF(recordInfo.battleId != null ? recordInfo.battleId.toString() : "");
+		out.writeInt(recordInfo.battleRules != null ? recordInfo.battleRules.getBattlefieldWidth() : 0);
+		out.writeInt(recordInfo.battleRules != null ? recordInfo.battleRules.getBattlefieldHeight() : 0);
+		out.writeInt(recordInfo.turnsInRounds.length);
+		position = out.size();
+	}
+
+	/**
+	 * Writes a turn. The turns must be written in the order they took place in the battle.
+	 *
+	 * @param turn the turn to write.
+	 * @throws IOException if the turn could not be written, or is out of order.
+	 */
+	public void writeTurn(ITurnSnapshot turn) throws IOException {
+		final IRobotSnapshot[] robots = turn.getRobots();
+
+		if (robotNames == null) {
+			robotNames = new String[robots.length];
+			for (int i = 0; i < robots.length; i++) {
+				robotNames[i] = robots[i].getName();
+			}
+			robotValues = new double[robots.length][ROBOT_COLUMNS.length][SEGMENT_TURNS];
+		} else if (robots.length != robotNames.length) {
+			throw new IOException("Turn " + turn.getRound() + "/" + turn.getTurn() + " has " + robots.length
+					+ " robots instead of " + robotNames.length);
+		}
+		if (turn.getRound() < round) {
+			throw new IOException("Turn " + turn.getRound() + "/" + turn.getTurn() + " is out of order");
+		}
+		if (turn.getRound() != round || turnCount == SEGMENT_TURNS) {
+			writeSegment();
+			round = turn.getRound();
+		}
+		final int t = turnCount++;
+
+		turns[t] = turn.getTurn();
+		for (int i = 0; i < robots.length; i++) {
+			final IRobotSnapshot robot = robots[i];
+			final IScoreSnapshot score = robot.getScoreSnapshot();
+			final double[][] values = robotValues[i];
+
+			values[RobotColumn.STATE.ordinal()][t] = robot.getState().getValue();
+			values[RobotColumn.ENERGY.ordinal()][t] = robot.getEnergy();
+			values[RobotColumn.X.ordinal()][t] = robot.getX();
+			values[RobotColumn.Y.ordinal()][t] = robot.getY();
+			values[RobotColumn.BODY_HEADING.ordinal()][t] = robot.getBodyHeading();
+			values[RobotColumn.GUN_HEADING.ordinal()][t] = robot.getGunHeading();
+			values[RobotColumn.RADAR_HEADING.ordinal()][t] = robot.getRadarHeading();
+			values[RobotColumn.GUN_HEAT.ordinal()][t] = robot.getGunHeat();
+			values[RobotColumn.VELOCITY.ordinal()][t] = robot.getVelocity();
+			values[RobotColumn.SCORE.ordinal()][t] = score.getCurrentScore();
+			values[RobotColumn.SURVIVAL_SCORE.ordinal()][t] = score.getCurrentSurvivalScore();
+			values[RobotColumn.BULLET_DAMAGE_SCORE.ordinal()][t] = score.getCurrentBulletDamageScore();
+			values[RobotColumn.BULLET_KILL_BONUS.ordinal()][t] = score.getCurrentBulletKillBonus();
+			values[RobotColumn.RAMMING_DAMAGE_SCORE.ordinal()][t] = score.getCurrentRammingDamageScore();
+			values[RobotColumn.RAMMING_KILL_BONUS.ordinal()][t] = score.getCurrentRammingKillBonus();
+		}
+		for (IBulletSnapshot bullet : turn.getBullets()) {
+			if (bulletCount == bulletValues[0].length) {
+				for (int i = 0; i < bulletValues.length; i++) {
+					bulletValues[i] = Arrays.copyOf(bulletValues[i], 2 * bulletCount);
+				}
+			}
+			final int b = bulletCount++;
+
+			bulletValues[BulletColumn.TURN.ordinal()][b] = turn.getTurn();
+			bulletValues[BulletColumn.BULLET_ID.ordinal()][b] = bullet.getBulletId();
+			bulletValues[BulletColumn.OWNER_INDEX.ordinal()][b] = bullet.getOwnerIndex();
+			bulletValues[BulletColumn.VICTIM_INDEX.ordinal()][b] = bullet.getVictimIndex();
+			bulletValues[BulletColumn.STATE.ordinal()][b] = bullet.getState().getValue();
+			bulletValues[BulletColumn.POWER.ordinal()][b] = bullet.getPower();
+			bulletValues[BulletColumn.HEADING.ordinal()][b] = bullet.getHeading();
+			bulletValues[BulletColumn.X.ordinal()][b] = bullet.getPaintX();
+			bulletValues[BulletColumn.Y.ordinal()][b] = bullet.getPaintY();
+		}
+	}
+
+	/**
+	 * Writes the last segment and the index, and closes the file.
+	 *
+	 * @throws IOException if the index could not be written.
+	 */
+	public void close() throws IOException {
+		try {
+			writeSegment();
+
+			final String[] names = robotNames != null ? robotNames : new String[0];
+
+			out.writeInt(names.length);
+			for (String name : names) {
+				out.writeUTF(name != null ? name : "");
+			}
+			out.writeInt(segmentCount);
+			indexBytes.writeTo(out);
+			out.writeLong(position);
+			out.writeInt(MAGIC);
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+			}
+			out.close();
+		}
+	}
+
+	private void writeSegment() throws IOException {
+		if (turnCount == 0) {
+			return;
+		}
+		index.writeInt(round);
+		index.writeInt(turnCount);
+		index.writeInt(bulletCount);
+
+		raw.clear();
+		for (int i = 0; i < turnCount; i++) {
+			raw.putInt(turns[i]);
+		}
+		writeColumn();
+		for (double[][] values : robotValues) {
+			for (RobotColumn column : ROBOT_COLUMNS) {
+				writeColumn(values[column.ordinal()], turnCount, column.isInteger());
+			}
+		}
+		for (BulletColumn column : BULLET_COLUMNS) {
+			writeColumn(bulletValues[column.ordinal()], bulletCount, column.isInteger());
+		}
+		segmentCount++;
+		turnCount = 0;
+		bulletCount = 0;
+	}
+
+	private void writeColumn(double[] values, int count, boolean isInteger) throws IOException {
+		if (count * 8 > raw.capacity()) {
+			raw = ByteBuffer.allocate(count * 8);
+		}
+		raw.clear();
+		if (isInteger) {
+			for (int i = 0; i < count; i++) {
+				raw.putInt((int) values[i]);
+			}
+		} else {
+			for (int i = 0; i < count; i++) {
+				raw.putDouble(values[i]);
+			}
+		}
+		writeColumn();
+	}
+
+	/**
+	 * Writes the column held by the raw buffer, and adds its offset and size to the index. Empty columns are
+	 * written as no bytes, as deflating nothing would still give a few bytes.
+	 */
+	private void writeColumn() throws IOException {
+		int size = raw.position();
+
+		if (deflater == null || size == 0) {
+			out.write(raw.array(), 0, size);
+		} else {
+			deflater.reset();
+			deflater.setInput(raw.array(), 0, size);
+			deflater.finish();
+
+			size = 0;
+			while (!deflater.finished()) {
+				if (size == compressed.length) {
+					compressed = Arrays.copyOf(compressed, 2 * size);
+				}
+				size += deflater.deflate(compressed, size, compressed.length - size);
+			}
+			out.write(compressed, 0, size);
+		}
+		index.writeLong(position);
+		index.writeInt(size);
+		position += size;
+	}
+}
@@ -0,0 +1,265 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.serialization.RbSerializer;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+
+/**
+ * Reads a battle record written by {@link IndexedRecordWriter}.
+ * <p>
+ * Only the header and the index are read when the record is opened. The turns are memory mapped, and each turn
+ * is decoded on demand using the index to find the block holding it, so reading any turn takes the same time no
+ * matter where it is in the record, and the memory used does not grow with the size of the record.
+ * <p>
+ * Turns written as deltas are decoded from the keyframe starting their block. The last block inflated and the last
+ * turn decoded are kept, so reading the turns in order inflates each block once and decodes a single delta for each
+ * turn.
+ */
+public class IndexedRecordReader implements Closeable {
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final RbSerializer serializer = new RbSerializer();
+	private final Inflater inflater = new Inflater();
+
+	private final BattleRecordInfo recordInfo;
+	private final int keyframeInterval;
+
+	/** Index of the first block of each round in blockOffsets */
+	private final int[] firstBlocks;
+
+	/** Offset of each block, followed by the offset where the last block ends */
+	private final long[] blockOffsets;
+
+	/** The mapped blocks, or null if the record is too large to be mapped as one buffer */
+	private final ByteBuffer blocks;
+
+	/** The last inflated block */
+	private int lastBlock = -1;
+	private ByteBuffer block = ByteBuffer.allocate(64 * 1024);
+	private byte[] compressed = new byte[64 * 1024];
+
+	/** The first turn of the round of the last decoded turn, and the last decoded turn with its index in the round */
+	private TurnSnapshot roundStart;
+	private TurnSnapshot lastTurn;
+	private int lastIndex;
+
+	/**
+	 * Opens a record and reads its header and index.
+	 *
+	 * @param recordFile the record to read.
+	 * @throws IOException if the file could not be read or is not an indexed battle record.
+	 */
+	public IndexedRecordReader(File recordFile) throws IOException {
+		file = new RandomAccessFile(recordFile, "r");
+		channel = file.getChannel();
+		try {
+			final ByteBuffer trailer = read(channel.size() - IndexedRecordWriter.TRAILER_SIZE,
+					IndexedRecordWriter.TRAILER_SIZE);
+			final long indexOffset = trailer.getLong();
+
+			final ByteBuffer header = read(0, 4 * RbSerializer.SIZEOF_INT);
+
+			if (trailer.getInt() != IndexedRecordWriter.MAGIC || header.getInt() != IndexedRecordWriter.MAGIC) {
+				throw new IOException(recordFile + " is not an indexed battle record");
+			}
+			final int version = header.getInt();
+
+			if (version != IndexedRecordWriter.VERSION) {
+				throw new IOException("Unsupported version " + version + " of indexed battle record " + recordFile);
+			}
+			keyframeInterval = header.getInt();
+
+			final int infoSize = header.getInt();
+			final ByteBuffer info = read(header.position(), infoSize);
+
+			try {
+				recordInfo = (BattleRecordInfo) new ObjectInputStream(
+						new ByteArrayInputStream(info.array(), 0, info.limit())).readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Could not read the header of " + recordFile, e);
+			}
+
+			final ByteBuffer index = read(indexOffset,
+					(int) (channel.size() - IndexedRecordWriter.TRAILER_SIZE - indexOffset));
+			final int rounds = index.getInt();
+
+			firstBlocks = new int[rounds + 1];
+			recordInfo.turnsInRounds = new Integer[rounds];
+			for (int i = 0; i < rounds; i++) {
+				final int turns = index.getInt();
+
+				recordInfo.turnsInRounds[i] = turns;
+				firstBlocks[i + 1] = firstBlocks[i] + (turns + keyframeInterval - 1) / keyframeInterval;
+			}
+			blockOffsets = new long[firstBlocks[rounds] + 1];
+			for (int i = 0; i < firstBlocks[rounds]; i++) {
+				blockOffsets[i] = index.getLong();
+			}
+			blockOffsets[firstBlocks[rounds]] = indexOffset;
+
+			blocks = indexOffset <= Integer.MAX_VALUE ? channel.map(FileChannel.MapMode.READ_ONLY, 0, indexOffset) : null;
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		} catch (RuntimeException e) {
+			file.close();
+			throw new IOException(recordFile + " is not a valid indexed battle record", e);
+		}
+	}
+
+	/**
+	 * Returns the information about the recorded battle.
+	 *
+	 * @return the information about the recorded battle.
+	 */
+	public BattleRecordInfo getRecordInfo() {
+		return recordInfo;
+	}
+
+	/**
+	 * Returns the number of recorded turns in a round.
+	 *
+	 * @param round the round.
+	 * @return the number of recorded turns in the round.
+	 */
+	public int getTurnCount(int round) {
+		return recordInfo.turnsInRounds[round];
+	}
+
+	/**
+	 * Reads a turn of the record. The returned snapshot is not shared with the reader, so it can be changed.
+	 *
+	 * @param round the round of the turn.
+	 * @param turn the index of the turn within the recorded turns of the round, which is the number of the turn
+	 *             unless turns were left out of the record.
+	 * @return the snapshot of the turn.
+	 * @throws IOException if the turn could not be read.
+	 */
+	public synchronized ITurnSnapshot readTurn(int round, int turn) throws IOException {
+		if (round < 0 || round >= firstBlocks.length - 1 || turn < 0 || turn >= getTurnCount(round)) {
+			throw new IOException("Turn " + round + "/" + turn + " is not in the record");
+		}
+		// keyframes are deltas of the first turn of the round
+		if (roundStart == null || roundStart.getRound() != round) {
+			roundStart = decode(round, 0, inflate(firstBlocks[round]), null);
+		}
+		final int keyframe = turn - turn % keyframeInterval;
+		TurnSnapshot snapshot = null;
+		int next = keyframe;
+
+		if (lastTurn != null && lastTurn.getRound() == round && lastIndex >= keyframe && lastIndex <= turn) {
+			snapshot = lastTurn;
+			next = lastIndex + 1;
+		}
+		if (next <= turn) {
+			final ByteBuffer turns = inflate(firstBlocks[round] + turn / keyframeInterval);
+
+			// skips the turns before the first one to decode
+			for (int i = keyframe; i < next; i++) {
+				turns.position(turns.position() + RbSerializer.SIZEOF_INT + turns.getInt(turns.position()));
+			}
+			for (; next <= turn; next++) {
+				snapshot = decode(round, next, turns, snapshot);
+			}
+		}
+		lastTurn = snapshot;
+		lastIndex = turn;
+		return new TurnSnapshot(snapshot);
+	}
+
+	public void close() throws IOException {
+		inflater.end();
+		file.close();
+	}
+
+	/**
+	 * Decodes the next turn of a block, given the turn before it, which is only needed if the turn is a delta that
+	 * is not a keyframe. Keyframes need the first turn of the round to be decoded already.
+	 */
+	private TurnSnapshot decode(int round, int turn, ByteBuffer turns, TurnSnapshot previous) throws IOException {
+		final int end = turns.getInt() + turns.position();
+		final TurnSnapshot snapshot;
+
+		if (turns.get() == IndexedRecordWriter.FULL_TURN) {
+			snapshot = (TurnSnapshot) serializer.deserializeAny(turns);
+		} else if (turn % keyframeInterval == 0) {
+			snapshot = TurnSnapshot.deserializeDelta(serializer, turns, roundStart);
+		} else {
+			snapshot = TurnSnapshot.deserializeDelta(serializer, turns, previous);
+		}
+		if (turns.position() != end) {
+			throw new IOException("Turn " + round + "/" + turn + " is corrupted");
+		}
+		if (turn == 0) {
+			roundStart = snapshot;
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Returns the turns of a block, which are inflated unless the block is the last one inflated.
+	 */
+	private ByteBuffer inflate(int blockIndex) throws IOException {
+		if (blockIndex != lastBlock) {
+			final long offset = blockOffsets[blockIndex];
+			final int compressedSize = (int) (blockOffsets[blockIndex + 1] - offset) - RbSerializer.SIZEOF_INT;
+			final ByteBuffer source;
+
+			if (blocks != null) {
+				source = blocks.duplicate();
+				source.position((int) offset);
+			} else {
+				source = read(offset, RbSerializer.SIZEOF_INT + compressedSize);
+			}
+			final int size = source.getInt();
+
+			if (compressedSize > compressed.length) {
+				compressed = new byte[compressedSize];
+			}
+			source.get(compressed, 0, compressedSize);
+			if (size > block.capacity()) {
+				block = ByteBuffer.allocate(size);
+			}
+			inflater.reset();
+			inflater.setInput(compressed, 0, compressedSize);
+			try {
+				if (inflater.inflate(block.array(), 0, size) != size) {
+					throw new IOException("Block " + blockIndex + " is corrupted");
+				}
+			} catch (DataFormatException e) {
+				throw new IOException("Block " + blockIndex + " is corrupted", e);
+			}
+			lastBlock = blockIndex;
+		}
+		block.clear();
+		return block;
+	}
+
+	private ByteBuffer read(long position, int size) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(size);
+
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, position + buffer.position()) < 0) {
+				throw new EOFException();
+			}
+		}
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.serialization.RbSerializer;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+
+/**
+ * Writes a battle record in the {@link BattleRecordFormat#INDEXED} format.
+ * <p>
+ * The file starts with a header holding the {@link BattleRecordInfo}, followed by the turns, and ends with an index
+ * holding the number of turns in each round and the file offset of every block of turns. This way
+ * {@link IndexedRecordReader} can read any turn of any round without reading the turns before it.
+ * <p>
+ * Only the first turn of each round is written in full. Every {@link #KEYFRAME_INTERVAL} turns a keyframe is
+ * written, holding what has changed since the first turn of the round, and every other turn holds what has changed
+ * since the turn before it. So the names, colors and other data of the robots that do not change are written once
+ * per round. The turns from one keyframe to the next make up a block, which is compressed on its own, so a turn is
+ * read by inflating a single block and decoding at most {@link #KEYFRAME_INTERVAL} turns.
+ * <p>
+ * Layout of the file:
+ * <pre>
+ * int    MAGIC
+ * int    VERSION
+ * int    KEYFRAME_INTERVAL
+ * int    size of the record info
+ * byte[] record info, written with Java serialization
+ * blocks, each one:
+ *   int    size of the turns in the block
+ *   byte[] the turns, compressed with Deflater, each one:
+ *     int    size of the turn
+ *     byte   FULL_TURN, followed by the turn written by RbSerializer,
+ *            or DELTA_TURN, followed by the turn written by TurnSnapshot.serializeDelta()
+ * int    number of rounds
+ * int[]  number of turns in each round
+ * long[] offset of each block
+ * long   offset of the index
+ * int    MAGIC
+ * </pre>
+ */
+public class IndexedRecordWriter implements Closeable {
+
+	static final int MAGIC = 0x52424958; // "RBIX"
+	static final int VERSION = 2;
+	static final int KEYFRAME_INTERVAL = 64;
+	static final int TRAILER_SIZE = RbSerializer.SIZEOF_LONG + RbSerializer.SIZEOF_INT;
+	static final byte FULL_TURN = 0;
+	static final byte DELTA_TURN = 1;
+
+	private final RbSerializer serializer = new RbSerializer();
+	private final DataOutputStream out;
+	private final Deflater deflater = new Deflater();
+
+	private final int[] turnsInRounds;
+	private long[] blockOffsets = new long[256];
+	private int blockCount;
+	private int lastRound;
+	private long position;
+
+	private TurnSnapshot roundStart;
+	private TurnSnapshot lastTurn;
+
+	/** The turn being written */
+	private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+	/** The turns of the block being written, and the block once compressed */
+	private ByteBuffer block = ByteBuffer.allocate(64 * 1024);
+	private byte[] compressed = new byte[64 * 1024];
+
+	/**
+	 * Creates a new writer and writes the header of the record.
+	 *
+	 * @param file the file to write the record into.
+	 * @param recordInfo the information about the recorded battle.
+	 * @throws IOException if the file could not be written.
+	 */
+	public IndexedRecordWriter(File file, BattleRecordInfo recordInfo) throws IOException {
+		final ByteArrayOutputStream info = new ByteArrayOutputStream();
+		final ObjectOutputStream oos = new ObjectOutputStream(info);
+
+		oos.writeObject(recordInfo);
+		oos.close();
+
+		turnsInRounds = new int[recordInfo.turnsInRounds.length];
+
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1024 * 1024));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(KEYFRAME_INTERVAL);
+		out.writeInt(info.size());
+		info.writeTo(out);
+		position = 4 * RbSerializer.SIZEOF_INT + info.size();
+	}
+
+	/**
+	 * Writes a turn. The turns must be written in the order they took place in the battle, but turns may be left
+	 * out, in which case the turns of a round are read back by their position within the written turns.
+	 *
+	 * @param turn the turn to write, which must not be changed after it has been written, as it is the base of the
+	 *             next delta.
+	 * @throws IOException if the turn could not be written, or is out of order.
+	 */
+	public void writeTurn(ITurnSnapshot turn) throws IOException {
+		final int round = turn.getRound();
+
+		if (round < lastRound || round >= turnsInRounds.length
+				|| (lastTurn != null && lastTurn.getRound() == round && turn.getTurn() <= lastTurn.getTurn())) {
+			throw new IOException("Turn " + round + "/" + turn.getTurn() + " is out of order");
+		}
+		final TurnSnapshot snapshot = (TurnSnapshot) turn;
+		final int index = turnsInRounds[round];
+		final boolean keyframe = index % KEYFRAME_INTERVAL == 0;
+		final TurnSnapshot base = keyframe ? roundStart : lastTurn;
+		final int size = RbSerializer.SIZEOF_BYTE + TurnSnapshot.sizeOfDelta(serializer, snapshot);
+
+		if (size > buffer.capacity()) {
+			buffer = ByteBuffer.allocate(Math.max(size, 2 * buffer.capacity()));
+		}
+		buffer.clear();
+		if (index == 0 || !TurnSnapshot.canSerializeDelta(base, snapshot)) {
+			buffer.put(FULL_TURN);
+			serializer.serialize(buffer, RbSerializer.TurnSnapshot_TYPE, snapshot);
+		} else {
+			buffer.put(DELTA_TURN);
+			TurnSnapshot.serializeDelta(serializer, buffer, base, snapshot);
+		}
+		buffer.flip();
+
+		if (keyframe) {
+			writeBlock();
+		}
+		if (RbSerializer.SIZEOF_INT + buffer.remaining() > block.remaining()) {
+			block.flip();
+			block = ByteBuffer.allocate(2 * (block.capacity() + buffer.remaining())).put(block);
+		}
+		block.putInt(buffer.remaining());
+		block.put(buffer);
+
+		if (index == 0) {
+			roundStart = snapshot;
+		}
+		lastTurn = snapshot;
+		turnsInRounds[round]++;
+		lastRound = round;
+	}
+
+	/**
+	 * Writes the last block and the index, and closes the file.
+	 *
+	 * @throws IOException if the index could not be written.
+	 */
+	public void close() throws IOException {
+		try {
+			writeBlock();
+
+			out.writeInt(turnsInRounds.length);
+			for (int turns : turnsInRounds) {
+				out.writeInt(turns);
+			}
+			for (int i = 0; i < blockCount; i++) {
+				out.writeLong(blockOffsets[i]);
+			}
+			out.writeLong(position);
+			out.writeInt(MAGIC);
+		} finally {
+			deflater.end();
+			out.close();
+		}
+	}
+
+	private void writeBlock() throws IOException {
+		if (block.position() == 0) {
+			return;
+		}
+		deflater.reset();
+		deflater.setInput(block.array(), 0, block.position());
+		deflater.finish();
+
+		int size = 0;
+
+		while (!deflater.finished()) {
+			if (size == compressed.length) {
+				compressed = Arrays.copyOf(compressed, 2 * size);
+			}
+			size += deflater.deflate(compressed, size, compressed.length - size);
+		}
+		out.writeInt(block.position());
+		out.write(compressed, 0, size);
+
+		if (blockCount == blockOffsets.length) {
+			blockOffsets = Arrays.copyOf(blockOffsets, 2 * blockCount);
+		}
+		blockOffsets[blockCount++] = position;
+		position += RbSerializer.SIZEOF_INT + size;
+		block.clear();
+	}
+}
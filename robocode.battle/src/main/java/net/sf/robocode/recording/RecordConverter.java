@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+import net.sf.robocode.core.Container;
+import net.sf.robocode.io.Logger;
+import net.sf.robocode.version.IVersionManager;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.io.*;
+import java.util.zip.ZipInputStream;
+
+
+/**
+ * Converts binary battle records (.br and .zip.br files) into the {@link BattleRecordFormat#INDEXED} format.
+ * The turns are streamed from one file to the other, so the record is never held in memory.
+ */
+public final class RecordConverter {
+	private RecordConverter() {}
+
+	public static void main(String[] args) {
+		if (args.length != 2) {
+			System.err.println("Usage: RecordConverter <binary record file> <indexed record file>");
+			System.exit(2);
+		}
+		// Loads the modules, so that the serializers of the snapshots are registered
+		Container.getComponent(IVersionManager.class);
+
+		try {
+			convert(new File(args[0]), new File(args[1]));
+			Logger.logMessage("Converted " + args[0] + " into " + args[1]);
+		} catch (IOException e) {
+			Logger.logError(e);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Converts a binary battle record into an indexed battle record.
+	 *
+	 * @param source the binary record, which may be zipped.
+	 * @param target the file to write the indexed record into.
+	 * @throws IOException if the source could not be read or the target could not be written.
+	 */
+	public static void convert(File source, File target) throws IOException {
+		try (InputStream in = new BufferedInputStream(new FileInputStream(source), 1024 * 1024)) {
+			ObjectInputStream ois = new ObjectInputStream(isZip(in) ? unzip(in) : in);
+			BattleRecordInfo recordInfo = (BattleRecordInfo) ois.readObject();
+
+			if (recordInfo.turnsInRounds == null) {
+				throw new IOException(source + " does not contain any turns");
+			}
+			try (IndexedRecordWriter writer = new IndexedRecordWriter(target, recordInfo)) {
+				for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
+					for (int j = 0; j < recordInfo.turnsInRounds[i]; j++) {
+						writer.writeTurn((ITurnSnapshot) ois.readObject());
+					}
+				}
+			}
+		} catch (ClassNotFoundException e) {
+			throw new IOException(source + " is not a binary battle record", e);
+		}
+	}
+
+	private static boolean isZip(InputStream in) throws IOException {
+		in.mark(2);
+		try {
+			return in.read() == 'P' && in.read() == 'K';
+		} finally {
+			in.reset();
+		}
+	}
+
+	private static InputStream unzip(InputStream in) throws IOException {
+		ZipInputStream zis = new ZipInputStream(in);
+
+		if (zis.getNextEntry() == null) {
+			throw new IOException("The zip file is empty");
+		}
+		return zis;
+	}
+}
@@ -46,6 +46,16 @@ public class RecordManager implements IRecordManager {
     protected static final Calendar calendar = Calendar.getInstance();
     protected static final Charset utf8 = StandardCharsets.UTF_8;
 
+    // Number of turns waiting to be written before the battle thread waits for the recorder, or drops the turns
+    private static final int RECORDING_QUEUE_SIZE = Integer.parseInt(System.getProperty("RECORDINGQUEUESIZE", "256"));
+    private static final AsyncRecordWriter.Backpressure RECORDING_BACKPRESSURE = System.getProperty(
+            "RECORDINGBACKPRESSURE", "block").equalsIgnoreCase("drop")
+            ? AsyncRecordWriter.Backpressure.DROP
+            : AsyncRecordWriter.Backpressure.BLOCK;
+
+    // Number of turns written to a binary record between resets of the object stream
+    private static final int BINARY_RESET_INTERVAL = 128;
+
     protected final ISettingsManager properties;
 
     protected File tempFile;
@@ -53,13 +63,11 @@ public class RecordManager implements IRecordManager {
     protected final IVersionManager versionManager;
 
     protected BattleRecordInfo recordInfo;
-    private FileOutputStream fileWriteStream;
-    private BufferedOutputStream bufferedWriteStream;
-    private ObjectOutputStream objectWriteStream;
-
-    private FileInputStream fileReadStream;
-    private BufferedInputStream bufferedReadStream;
-    private ObjectInputStream objectReadStream;
+    private IndexedRecordWriter recordWriter;
+    private volatile AsyncRecordWriter asyncWriter;
+    private final RecordingStatistics statistics = new RecordingStatistics(this);
+    private IndexedRecordReader indexedReader;
+    private File indexedTempFile;
 
     public RecordManager(ISettingsManager properties, IVersionManager versionManager) { // NO_UCD (unused code)
         this.properties = properties;
@@ -77,6 +85,7 @@ public class RecordManager implements IRecordManager {
 
     private void cleanup() {
         cleanupStreams();
+        closeIndexedReader();
         if (tempFile != null && tempFile.exists()) {
             if (!tempFile.delete()) {
                 Logger.logError("Could not delete temp file");
@@ -87,19 +96,45 @@ public class RecordManager implements IRecordManager {
     }
 
     void cleanupStreams() {
-        FileUtil.cleanupStream(objectWriteStream);
-        objectWriteStream = null;
-        FileUtil.cleanupStream(bufferedWriteStream);
-        bufferedWriteStream = null;
-        FileUtil.cleanupStream(fileWriteStream);
-        fileWriteStream = null;
-
-        FileUtil.cleanupStream(objectReadStream);
-        objectReadStream = null;
-        FileUtil.cleanupStream(bufferedReadStream);
-        bufferedReadStream = null;
-        FileUtil.cleanupStream(fileReadStream);
-        fileReadStream = null;
+        if (recordWriter != null) {
+            asyncWriter.close();
+            if (asyncWriter.isIncomplete()) {
+                recordInfo.incomplete = true;
+                Logger.logWarning("The battle record is incomplete: " + asyncWriter);
+            }
+        }
+        FileUtil.cleanupStream(recordWriter);
+        recordWriter = null;
+    }
+
+    /**
+     * Returns the writer of the battle being recorded, or of the last recorded battle, which tells the queue depth
+     * and the write latency of the recorder.
+     *
+     * @return the writer of the recorded turns, or {@code null} if no battle has been recorded.
+     */
+    AsyncRecordWriter getRecordWriter() {
+        return asyncWriter;
+    }
+
+    public RecordingStatisticsMXBean getRecordingStatistics() {
+        return statistics;
+    }
+
+    private void closeIndexedReader() {
+        if (indexedReader != null) {
+            try {
+                indexedReader.close();
+            } catch (IOException e) {
+                logError(e);
+            }
+            indexedReader = null;
+        }
+        if (indexedTempFile != null) {
+            // a mapped file cannot be deleted on some platforms, in which case deleteOnExit() removes it later
+            indexedTempFile.delete();
+            indexedTempFile = null;
+        }
     }
 
     public void attachRecorder(BattleEventDispatcher battleEventDispatcher) {
@@ -111,6 +146,7 @@ public class RecordManager implements IRecordManager {
     }
 
     private void createTempFile() {
+        closeIndexedReader();
         try {
             if (tempFile == null) {
                 tempFile = File.createTempFile("robocode-battle-records", ".tmp");
@@ -131,30 +167,39 @@ public class RecordManager implements IRecordManager {
 
     void prepareInputStream() {
         try {
-            fileReadStream = new FileInputStream(tempFile);
-            bufferedReadStream = new BufferedInputStream(fileReadStream);
-            objectReadStream = new ObjectInputStream(bufferedReadStream);
+            openRecordReader();
         } catch (IOException e) {
             logError(e);
-            fileReadStream = null;
-            bufferedReadStream = null;
-            objectReadStream = null;
         }
     }
 
-    ITurnSnapshot readSnapshot() {
-        if (objectReadStream == null) {
+    /**
+     * Opens the reader of the recorded battle if it is not open yet. A battle that has just been recorded is read
+     * from the temp file, after the writer has been closed so that the index of the turns is written.
+     */
+    private void openRecordReader() throws IOException {
+        if (indexedReader == null) {
+            cleanupStreams();
+            indexedReader = new IndexedRecordReader(tempFile);
+        }
+    }
+
+    ITurnSnapshot readSnapshot(int round, int turn) {
+        if (indexedReader == null) {
             return null;
         }
         try {
-            // TODO implement seek to currentTime, warn you. turns don't have same size in bytes
-            return (ITurnSnapshot) objectReadStream.readObject();
-        } catch (Exception e) {
+            return indexedReader.readTurn(round, turn);
+        } catch (IOException e) {
             logError(e);
             return null;
         }
     }
 
+    boolean isSeekable() {
+        return indexedReader != null;
+    }
+
     public void loadRecord(String recordFilename, BattleRecordFormat format) {
         FileInputStream fis = null;
         BufferedInputStream bis = null;
@@ -162,12 +207,18 @@ public class RecordManager implements IRecordManager {
         ObjectInputStream ois = null;
         InputStream xis = null;
 
-        FileOutputStream fos = null;
-        BufferedOutputStream bos = null;
-        ObjectOutputStream oos = null;
+        closeIndexedReader();
+        if (format == BattleRecordFormat.INDEXED) {
+            loadIndexedRecord(new File(recordFilename));
+            return;
+        }
 
+        // The other formats cannot be decoded from the middle, so they are converted into an indexed temp copy
         try {
             createTempFile();
+            indexedTempFile = File.createTempFile("robocode-battle-records", ".ibr");
+            indexedTempFile.deleteOnExit();
+
             fis = new FileInputStream(recordFilename);
             bis = new BufferedInputStream(fis, 1024 * 1024);
 
@@ -187,36 +238,34 @@ public class RecordManager implements IRecordManager {
             if (format == BattleRecordFormat.BINARY || format == BattleRecordFormat.BINARY_ZIP) {
                 recordInfo = (BattleRecordInfo) ois.readObject();
                 if (recordInfo.turnsInRounds != null) {
-                    fos = new FileOutputStream(tempFile);
-                    bos = new BufferedOutputStream(fos, 1024 * 1024);
-                    oos = new ObjectOutputStream(bos);
-
-                    for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
-                        for (int j = recordInfo.turnsInRounds[i] - 1; j >= 0; j--) {
-                            try {
-                                ITurnSnapshot turn = (ITurnSnapshot) ois.readObject();
-
-                                oos.writeObject(turn);
-                            } catch (ClassNotFoundException e) {
-                                logError(e);
+                    try (IndexedRecordWriter writer = new IndexedRecordWriter(indexedTempFile, recordInfo)) {
+                        for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
+                            for (int j = recordInfo.turnsInRounds[i] - 1; j >= 0; j--) {
+                                writer.writeTurn((ITurnSnapshot) ois.readObject());
                             }
                         }
                     }
+                    loadIndexedRecord(indexedTempFile);
                 }
             } else {
-                final RecordRoot root = new RecordRoot();
+                final RecordRoot root = new RecordRoot(indexedTempFile);
 
-                fos = new FileOutputStream(tempFile);
-                bos = new BufferedOutputStream(fos, 1024 * 1024);
-                root.oos = new ObjectOutputStream(bos);
-                XmlReader.deserialize(xis, root);
+                try {
+                    XmlReader.deserialize(xis, root);
+                } finally {
+                    root.close();
+                }
                 if (root.lastException != null) {
                     logError(root.lastException);
                 }
                 recordInfo = root.recordInfo;
+                if (recordInfo != null) {
+                    loadIndexedRecord(indexedTempFile);
+                }
             }
         } catch (IOException e) {
             logError(e);
+            closeIndexedReader();
             createTempFile();
             recordInfo = null;
         } catch (ClassNotFoundException e) {
@@ -225,12 +274,10 @@ public class RecordManager implements IRecordManager {
             } else {
                 logError(e);
             }
+            closeIndexedReader();
             createTempFile();
             recordInfo = null;
         } finally {
-            FileUtil.cleanupStream(oos);
-            FileUtil.cleanupStream(bos);
-            FileUtil.cleanupStream(fos);
             FileUtil.cleanupStream(ois);
             FileUtil.cleanupStream(zis);
             FileUtil.cleanupStream(bis);
@@ -238,13 +285,27 @@ public class RecordManager implements IRecordManager {
         }
     }
 
+    private void loadIndexedRecord(File recordFile) {
+        try {
+            indexedReader = new IndexedRecordReader(recordFile);
+            recordInfo = indexedReader.getRecordInfo();
+        } catch (IOException e) {
+            logError(e);
+            closeIndexedReader();
+            createTempFile();
+            recordInfo = null;
+        }
+    }
+
     private static class RecordRoot implements IXmlSerializable {
 
-        public RecordRoot() {
+        public RecordRoot(File file) {
             me = this;
+            this.file = file;
         }
 
-        public ObjectOutputStream oos;
+        public final File file;
+        public IndexedRecordWriter writer;
         public IOException lastException;
         public final RecordRoot me;
         public BattleRecordInfo recordInfo;
@@ -276,7 +337,10 @@ public class RecordManager implements IRecordManager {
 
                     public void add(IXmlSerializable child) {
                         try {
-                            me.oos.writeObject(child);
+                            if (me.writer == null) {
+                                me.writer = new IndexedRecordWriter(me.file, recordInfo);
+                            }
+                            me.writer.writeTurn((ITurnSnapshot) child);
                         } catch (IOException e) {
                             me.lastException = e;
                         }
@@ -289,18 +353,59 @@ public class RecordManager implements IRecordManager {
                 return me;
             });
         }
+
+        void close() throws IOException {
+            if (writer == null && recordInfo != null) {
+                writer = new IndexedRecordWriter(file, recordInfo);
+            }
+            if (writer != null) {
+                writer.close();
+            }
+        }
     }
 
     public void saveRecord(String recordFilename, BattleRecordFormat format, SerializableOptions options) {
         if (recordInfo.turnsInRounds == null) {
             return;
         }
+        // waits for the recorder to write the last turns, and to tell if the record is complete
+        cleanupStreams();
+
         if (format == BattleRecordFormat.BINARY_ZIP || format == BattleRecordFormat.BINARY) {
             saveBinRecord(recordFilename, format, options);
         } else if (format == BattleRecordFormat.XML_ZIP || format == BattleRecordFormat.XML) {
             saveXmlRecord(recordFilename, format, options);
         } else if (format == BattleRecordFormat.CSV) {
             saveCsvRecord(recordFilename, options);
+        } else if (format == BattleRecordFormat.INDEXED) {
+            saveIndexedRecord(recordFilename, options);
+        } else if (format == BattleRecordFormat.COLUMNAR || format == BattleRecordFormat.COLUMNAR_ZIP) {
+            saveColumnarRecord(recordFilename, format);
+        }
+    }
+
+    private void saveIndexedRecord(String recordFilename, SerializableOptions options) {
+        try (IndexedRecordWriter writer = new IndexedRecordWriter(new File(recordFilename), recordInfo)) {
+            provideTurns((turn) -> {
+                TurnSnapshot t = (TurnSnapshot) turn;
+                t.stripDetails(options);
+                writer.writeTurn(turn);
+            });
+        } catch (IOException | ClassNotFoundException e) {
+            logError(e);
+            recorder = new BattleRecorder(this, properties);
+            createTempFile();
+        }
+    }
+
+    private void saveColumnarRecord(String recordFilename, BattleRecordFormat format) {
+        try (ColumnarRecordWriter writer = new ColumnarRecordWriter(new File(recordFilename), recordInfo,
+                format == BattleRecordFormat.COLUMNAR_ZIP)) {
+            provideTurns(writer::writeTurn);
+        } catch (IOException | ClassNotFoundException e) {
+            logError(e);
+            recorder = new BattleRecorder(this, properties);
+            createTempFile();
         }
     }
 
@@ -320,8 +425,15 @@ public class RecordManager implements IRecordManager {
 
             oos.writeObject(recordInfo);
 
+            final int[] turnsSinceReset = {0};
+
             provideTurns((turn) -> {
                 try {
+                    // the stream and its reader keep every object written since the last reset
+                    if (turn.getTurn() == 0 || ++turnsSinceReset[0] == BINARY_RESET_INTERVAL) {
+                        oos.reset();
+                        turnsSinceReset[0] = 0;
+                    }
                     TurnSnapshot t = (TurnSnapshot) turn;
                     t.stripDetails(options);
                     oos.writeObject(turn);
@@ -565,33 +677,12 @@ public class RecordManager implements IRecordManager {
 
     @Override
     public void provideTurns(CheckedConsumer<ITurnSnapshot> writeTurn) throws IOException, ClassNotFoundException {
-        FileInputStream fis = null;
-        BufferedInputStream bis = null;
-        ObjectInputStream ois = null;
+        openRecordReader();
 
-        try {
-            fis = new FileInputStream(tempFile);
-            bis = new BufferedInputStream(fis, 1024 * 1024);
-            ois = new ObjectInputStream(bis);
-
-            for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
-                if (recordInfo.turnsInRounds[i] > 0) {
-                    for (int j = 0; j <= recordInfo.turnsInRounds[i] - 1; j++) {
-                        TurnSnapshot turn = (TurnSnapshot) ois.readObject();
-
-                        if (j != turn.getTurn()) {
-                            throw new Error("Something rotten");
-                        }
-
-                        writeTurn.accept(turn);
-                    }
-                }
+        for (int i = 0; i < recordInfo.turnsInRounds.length; i++) {
+            for (int j = 0; j < recordInfo.turnsInRounds[i]; j++) {
+                writeTurn.accept(indexedReader.readTurn(i, j));
             }
-
-        } finally {
-            FileUtil.cleanupStream(ois);
-            FileUtil.cleanupStream(bis);
-            FileUtil.cleanupStream(fis);
         }
     }
 
@@ -599,16 +690,19 @@ public class RecordManager implements IRecordManager {
         return recordInfo != null;
     }
 
-    void createRecordInfo(BattleRules rules, int numRobots, UUID battleId) {
-        try {
-            createTempFile();
+    public int getTurnsInRound(int round) {
+        final BattleRecordInfo info = recordInfo;
 
-            fileWriteStream = new FileOutputStream(tempFile);
-            bufferedWriteStream = new BufferedOutputStream(fileWriteStream, 1024 * 1024);
-            objectWriteStream = new ObjectOutputStream(bufferedWriteStream);
-        } catch (IOException e) {
-            logError(e);
+        if (!isSeekable() || info == null || info.turnsInRounds == null || round < 0
+                || round >= info.turnsInRounds.length) {
+            return 0;
         }
+        return info.turnsInRounds[round];
+    }
+
+    void createRecordInfo(BattleRules rules, int numRobots, UUID battleId) {
+        closeIndexedReader();
+        createTempFile();
 
         recordInfo = new BattleRecordInfo();
         recordInfo.battleId = battleId;
@@ -618,25 +712,38 @@ public class RecordManager implements IRecordManager {
         for (int i = 0; i < rules.getNumRounds(); i++) {
             recordInfo.turnsInRounds[i] = 0;
         }
+
+        try {
+            recordWriter = new IndexedRecordWriter(tempFile, recordInfo);
+            asyncWriter = new AsyncRecordWriter(this::writeRecordedTurn, RECORDING_QUEUE_SIZE, RECORDING_BACKPRESSURE);
+        } catch (IOException e) {
+            logError(e);
+        }
     }
 
     void updateRecordInfoResults(List<BattleResults> results) {
         recordInfo.results = results;
     }
 
+    /**
+     * Hands a turn over to the recorder thread. The turn is copied, as the UI changes the snapshots it is given.
+     */
     void writeTurn(ITurnSnapshot turn, int round, int time) {
-        try {
-            if (time != recordInfo.turnsInRounds[round]) {
-                throw new Error("Something rotten");
-            }
-            if (time == 0) {
-                objectWriteStream.reset();
-            }
-            recordInfo.turnsInRounds[round]++;
-            recordInfo.roundsCount = round + 1;
-            objectWriteStream.writeObject(turn);
-        } catch (IOException e) {
-            logError(e);
+        if (recordWriter == null) {
+            return;
+        }
+        if (round != turn.getRound() || time != turn.getTurn()) {
+            throw new Error("Something rotten");
         }
+        asyncWriter.writeTurn(new TurnSnapshot((TurnSnapshot) turn));
+    }
+
+    // Called by the recorder thread
+    private void writeRecordedTurn(ITurnSnapshot turn) throws IOException {
+        final int round = turn.getRound();
+
+        recordWriter.writeTurn(turn);
+        recordInfo.turnsInRounds[round]++;
+        recordInfo.roundsCount = round + 1;
     }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+/**
+ * Reads the statistics of the {@link AsyncRecordWriter} of the battle being recorded, or of the last recorded
+ * battle, of a {@link RecordManager}.
+ */
+final class RecordingStatistics implements RecordingStatisticsMXBean {
+
+	private final RecordManager recordManager;
+
+	RecordingStatistics(RecordManager recordManager) {
+		this.recordManager = recordManager;
+	}
+
+	public int getQueueCapacity() {
+		final AsyncRecordWriter writer = recordManager.getRecordWriter();
+
+		return writer == null ? 0 : writer.getCapacity();
+	}
+
+	public int getQueueDepth() {
+		final AsyncRecordWriter writer = recordManager.getRecordWriter();
+
+		return writer == null ? 0 : writer.getQueueDepth();
+	}
+
+	public int getMaxQueueDepth() {
+		final AsyncRecordWriter writer = recordManager.getRecordWriter();
+
+		return writer == null ? 0 : writer.getMaxQueueDepth();
+	}
+
+	public long getWrittenTurns() {
+		final AsyncRecordWriter writer = recordManager.getRecordWriter();
+
+		return writer == null ? 0 : writer.getWrittenTurns();
+	}
+
+	public long getDroppedTurns() {
+		final AsyncRecordWriter writer = recordManager.getRecordWriter();
+
+		return writer == null ? 0 : writer.getDroppedTurns();
+	}
+
+	public long getMeanLatencyNanos() {
+		final AsyncRecordWriter writer = recordManager.getRecordWriter();
+
+		return writer == null ? 0 : writer.getMeanLatency();
+	}
+
+	public long getMaxLatencyNanos() {
+		final AsyncRecordWriter writer = recordManager.getRecordWriter();
+
+		return writer == null ? 0 : writer.getMaxLatency();
+	}
+}
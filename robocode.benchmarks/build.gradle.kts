@@ -0,0 +1,52 @@
+plugins {
+    id("net.sf.robocode.java-conventions")
+    `java-library`
+}
+
+dependencies {
+    implementation(project(":robocode.api"))
+    implementation(project(":robocode.core"))
+    implementation(project(":robocode.host"))
+    implementation("org.openjdk.jmh:jmh-core:1.36")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:1.36")
+    runtimeOnly(project(":robocode.battle"))
+    runtimeOnly(project(":robocode.repository"))
+    runtimeOnly(project(":robocode.samples"))
+    runtimeOnly(project(":robocode.tests.robots"))
+}
+
+description = "Robocode Benchmarks"
+
+tasks {
+    register("jmh", JavaExec::class) {
+        dependsOn(jar)
+
+        mainClass.set("org.openjdk.jmh.Main")
+        classpath = sourceSets["main"].runtimeClasspath
+        workingDir = projectDir
+
+        // The results are always written as JSON named by the version, so they can be compared between releases
+        val resultsFile = file("$buildDir/reports/jmh/results-${project.version}.json")
+
+        // Needed by the engine in every forked benchmark JVM, before the options of the @Fork of a benchmark
+        val forkJvmArgs = listOf(
+            "-XX:+IgnoreUnrecognizedVMOptions",
+            "--add-opens=java.base/sun.net.www.protocol.jar=ALL-UNNAMED",
+            "--add-opens=java.base/java.lang.reflect=ALL-UNNAMED",
+            "--add-opens=java.desktop/javax.swing.text=ALL-UNNAMED",
+            "--add-opens=java.desktop/sun.awt=ALL-UNNAMED"
+        )
+
+        argumentProviders.add(CommandLineArgumentProvider {
+            listOf("-rf", "json", "-rff", resultsFile.path, "-jvmArgsPrepend", forkJvmArgs.joinToString(" "))
+        })
+        doFirst {
+            resultsFile.parentFile.mkdirs()
+        }
+
+        // e.g. gradlew :robocode.benchmarks:jmh --args="BulletCollision -prof gc"
+    }
+    publishMavenJavaPublicationToSonatypeRepository {
+        enabled = false
+    }
+}
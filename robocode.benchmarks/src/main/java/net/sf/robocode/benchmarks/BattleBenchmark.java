@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+
+
+/**
+ * Measures full headless battles of sample robots, i.e. everything the engine does per turn. The 'turns'
+ * secondary result is the throughput in turns per second, which does not depend on how long the rounds last.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BattleBenchmark {
+
+	@Param({"oneOnOne", "melee", "team"})
+	public String battleType;
+
+	private BattleSpecification battle;
+
+	@Setup
+	public void setup() {
+		final String robots;
+
+		if (battleType.equals("oneOnOne")) {
+			robots = "sample.SpinBot,sample.Walls";
+		} else if (battleType.equals("melee")) {
+			robots = "sample.Corners,sample.Crazy,sample.Fire,sample.MyFirstJuniorRobot,sample.MyFirstRobot,"
+					+ "sample.RamFire,sample.SpinBot,sample.TrackFire,sample.Tracker,sample.Walls";
+		} else if (battleType.equals("team")) {
+			robots = "sampleteam.MyFirstTeam,sampleteam.MyFirstTeam";
+		} else {
+			throw new IllegalArgumentException("Unknown battle type: " + battleType);
+		}
+		battle = BenchmarkEngine.createBattle(robots, 1, 0.1, 800, 600);
+	}
+
+	@Benchmark
+	public void battle(BattleCounters counters) {
+		BenchmarkEngine.runBattle(battle, counters.withoutTurnSnapshots());
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleEvent;
+import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.ISelectiveBattleListener;
+import robocode.control.events.RoundEndedEvent;
+import robocode.control.events.RoundStartedEvent;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.events.TurnSnapshotDetail;
+
+
+/**
+ * Secondary JMH results counting the turns, bullets and rounds of the battles run by a benchmark, so the
+ * throughput can be reported as turns per second next to the battles per second.
+ * <p>
+ * The setup time is from the start of the battle or the end of the previous round until the round has started,
+ * which includes starting the robots. The teardown time is from the last turn of a round until the round has
+ * ended, which includes stopping the robots. Both are reported per second like the other counters, so divide
+ * them by the rounds for the time per round.
+ * <p>
+ * The turns are counted from the round ended events. The bullets and the teardown time are only counted when
+ * the counters use the turn snapshots, see {@link #withoutTurnSnapshots()}.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class BattleCounters extends BattleAdaptor implements ISelectiveBattleListener {
+
+	public long turns;
+	public long bullets;
+	public long rounds;
+	public long setupMicros;
+	public long teardownMicros;
+
+	private boolean isUsingTurnSnapshots = true;
+	private long lastTime;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+		turns = 0;
+		bullets = 0;
+		rounds = 0;
+		setupMicros = 0;
+		teardownMicros = 0;
+	}
+
+	/**
+	 * Stops listening to the turn ended events, so the battle does not create turn snapshots for the counters.
+	 * Must be called before the counters are added as listener.
+	 *
+	 * @return these counters.
+	 */
+	public BattleCounters withoutTurnSnapshots() {
+		isUsingTurnSnapshots = false;
+		return this;
+	}
+
+	public boolean isListening(Class<? extends BattleEvent> eventClass) {
+		return eventClass == BattleStartedEvent.class || eventClass == RoundStartedEvent.class
+				|| eventClass == RoundEndedEvent.class || (isUsingTurnSnapshots && eventClass == TurnEndedEvent.class);
+	}
+
+	public TurnSnapshotDetail getTurnSnapshotDetail() {
+		return isUsingTurnSnapshots ? TurnSnapshotDetail.FULL : TurnSnapshotDetail.NONE;
+	}
+
+	@Override
+	public void onBattleStarted(BattleStartedEvent event) {
+		lastTime = System.nanoTime();
+	}
+
+	@Override
+	public void onRoundStarted(RoundStartedEvent event) {
+		setupMicros += elapsedMicros();
+		rounds++;
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		bullets += event.getTurnSnapshot().getBullets().length;
+		lastTime = System.nanoTime();
+	}
+
+	@Override
+	public void onRoundEnded(RoundEndedEvent event) {
+		turns += event.getTurns();
+
+		final long elapsedMicros = elapsedMicros();
+
+		if (isUsingTurnSnapshots) {
+			teardownMicros += elapsedMicros;
+		}
+	}
+
+	private long elapsedMicros() {
+		final long now = System.nanoTime();
+		final long elapsed = now - lastTime;
+
+		lastTime = now;
+		return elapsed / 1000;
+	}
+}
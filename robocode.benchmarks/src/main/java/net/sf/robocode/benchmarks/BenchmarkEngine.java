@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import robocode.control.BattleSpecification;
+import robocode.control.BattlefieldSpecification;
+import robocode.control.RobocodeEngine;
+import robocode.control.RobotSpecification;
+import robocode.control.events.IBattleListener;
+
+import java.io.File;
+import java.io.IOException;
+
+
+/**
+ * Shared headless engine for the benchmarks, set up the same way as the engine of the robot tests.
+ * <p>
+ * The benchmarks must be run with current directory in 'robocode.benchmarks', so the robots are found
+ * in '../.sandbox/robots'.
+ */
+public final class BenchmarkEngine {
+
+	private static RobocodeEngine engine;
+
+	private BenchmarkEngine() {}
+
+	/**
+	 * Returns the engine, which is created on first use.
+	 *
+	 * @return the shared engine.
+	 */
+	public static synchronized RobocodeEngine getEngine() {
+		if (engine == null) {
+			System.setProperty("EXPERIMENTAL", "true");
+			System.setProperty("TESTING", "true");
+			System.setProperty("robocode.options.battle.desiredTPS", "10000");
+			try {
+				System.setProperty("ROBOTPATH", new File("../.sandbox/robots").getCanonicalPath());
+			} catch (IOException e) {
+				throw new Error(e);
+			}
+			engine = new RobocodeEngine();
+		}
+		return engine;
+	}
+
+	/**
+	 * Creates a battle with the given robots on a field of the given size.
+	 *
+	 * @param robots         comma separated names of the robots, the same name can be repeated.
+	 * @param numRounds      the number of rounds.
+	 * @param gunCoolingRate the gun cooling rate.
+	 * @param width          the width of the battlefield.
+	 * @param height         the height of the battlefield.
+	 * @return the battle specification.
+	 */
+	public static BattleSpecification createBattle(String robots, int numRounds, double gunCoolingRate, int width, int height) {
+		final RobotSpecification[] specifications = getEngine().getLocalRepository(robots);
+
+		if (specifications.length == 0) {
+			throw new IllegalStateException("Robots not found in " + System.getProperty("ROBOTPATH") + ": " + robots);
+		}
+		return new BattleSpecification(numRounds, 450, gunCoolingRate,
+				new BattlefieldSpecification(width, height), specifications);
+	}
+
+	/**
+	 * Runs the battle to its end, while the listener is attached to the engine.
+	 *
+	 * @param battle   the battle to run.
+	 * @param listener the listener collecting the measures.
+	 */
+	public static void runBattle(BattleSpecification battle, IBattleListener listener) {
+		final RobocodeEngine engine = getEngine();
+
+		engine.addBattleListener(listener);
+		try {
+			engine.runBattle(battle, true);
+		} finally {
+			engine.removeBattleListener(listener);
+		}
+	}
+
+	/**
+	 * Returns the name repeated the given number of times, comma separated.
+	 *
+	 * @param name  the robot name.
+	 * @param count the number of robots.
+	 * @return the list of robot names.
+	 */
+	public static String repeat(String name, int count) {
+		final StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			sb.append(name);
+		}
+		return sb.toString();
+	}
+}
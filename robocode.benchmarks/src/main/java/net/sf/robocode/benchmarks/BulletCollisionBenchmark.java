@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+
+
+/**
+ * Measures the battle throughput when many bullets are in the air, which is dominated by the bullet
+ * collision checks. Every robot is a tested.robots.BulletStorm, so the number of bullets grows with
+ * the number of robots. See the 'turns' and 'bullets' secondary results for turns per second and
+ * bullets checked per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class BulletCollisionBenchmark {
+
+	@Param({"2", "8", "24", "48"})
+	public int robotCount;
+
+	private BattleSpecification battle;
+
+	@Setup
+	public void setup() {
+		battle = BenchmarkEngine.createBattle(BenchmarkEngine.repeat("tested.robots.BulletStorm", robotCount), 1, 0.5,
+				1200, 1200);
+	}
+
+	@Benchmark
+	public void battle(BattleCounters counters) {
+		BenchmarkEngine.runBattle(battle, counters);
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.core.Container;
+import net.sf.robocode.host.IHostManager;
+import net.sf.robocode.host.RobotStatics;
+import net.sf.robocode.host.events.EventManager;
+import net.sf.robocode.host.proxies.BasicRobotProxy;
+import net.sf.robocode.peer.BadBehavior;
+import net.sf.robocode.peer.ExecCommands;
+import net.sf.robocode.peer.ExecResults;
+import net.sf.robocode.peer.IRobotPeer;
+import net.sf.robocode.security.HiddenAccess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.Bullet;
+import robocode.BulletHitEvent;
+import robocode.Event;
+import robocode.HitByBulletEvent;
+import robocode.RobotStatus;
+import robocode.ScannedRobotEvent;
+import robocode.StatusEvent;
+import robocode.control.RobotSpecification;
+import robocode.exception.AbortedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the time the event manager of a robot takes to queue and dispatch the events of one turn, i.e.
+ * sorting them by priority and dispatching them to the event handlers of the robot. The robot is sample.Target,
+ * which does not handle these events, so the result is the time of the event manager itself.
+ * <p>
+ * The robot proxy is created by the host manager like in a battle, but with a robot peer that ends the robot
+ * thread, so the event manager is only used by the benchmark thread. Runs without the security manager, like
+ * the RbSerializer tests, so the engine classes are not loaded by the engine class loader.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-DNOSECURITY=true"})
+public class EventManagerBenchmark {
+
+	@Param({"1", "10"})
+	public int scannedRobots;
+
+	private BasicRobotProxy robotProxy;
+	private EventManager eventManager;
+	private final List<Event> events = new ArrayList<Event>();
+
+	@Setup
+	public void setup() {
+		final RobotSpecification robot = BenchmarkEngine.getEngine().getLocalRepository("sample.Target")[0];
+		final RobotStatics statics = new RobotStatics(robot, robot.getName(), null, false,
+				HiddenAccess.createRules(800, 600, 10, 0.1, 450, false, 100), null, null, 0, -1);
+		final RobotStatus status = HiddenAccess.createStatus(100, 400, 300, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+				scannedRobots, 0, 0, 10, 100);
+
+		robotProxy = (BasicRobotProxy) Container.getComponent(IHostManager.class).createRobotProxy(robot, statics,
+				new EndingRobotPeer());
+
+		// Runs the robot thread, which creates the robot and ends at its first turn
+		robotProxy.startRound(new ExecCommands(), status);
+		robotProxy.waitForStopThread();
+
+		eventManager = new EventManager(robotProxy);
+		eventManager.setRobot(robotProxy.getRobotObject());
+
+		events.add(new StatusEvent(status));
+		for (int i = 0; i < scannedRobots; i++) {
+			events.add(new ScannedRobotEvent("sample.Crazy (" + i + ")", 50, 0.1 * i, 300, 1.5, 8));
+		}
+		final Bullet bullet = new Bullet(1.5, 200, 100, 2.5, robot.getName(), "sample.Crazy (0)", false, 1);
+
+		events.add(new BulletHitEvent("sample.Crazy (0)", 42, bullet));
+		events.add(new HitByBulletEvent(0.7, bullet));
+	}
+
+	@TearDown
+	public void tearDown() {
+		robotProxy.cleanup();
+	}
+
+	@Benchmark
+	public void processEvents() {
+		for (Event event : events) {
+			eventManager.add(event);
+		}
+		eventManager.processEvents();
+	}
+
+	/**
+	 * Ends the thread of the robot at its first turn.
+	 */
+	private static class EndingRobotPeer implements IRobotPeer {
+		public void drainEnergy() {}
+
+		public void punishBadBehavior(BadBehavior badBehavior) {}
+
+		public void setRunning(boolean value) {}
+
+		public boolean isRunning() {
+			return false;
+		}
+
+		public ExecResults waitForBattleEndImpl(ExecCommands newCommands) {
+			throw new AbortedException();
+		}
+
+		public ExecResults executeImpl(ExecCommands newCommands) {
+			throw new AbortedException();
+		}
+	}
+}
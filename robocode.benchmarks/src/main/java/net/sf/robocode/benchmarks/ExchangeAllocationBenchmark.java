@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleEvent;
+import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.ISelectiveBattleListener;
+import robocode.control.events.RoundEndedEvent;
+import robocode.control.events.RoundStartedEvent;
+import robocode.control.events.TurnSnapshotDetail;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * Measures the bytes allocated per robot turn. The robot threads exchange the commands, events and results with the
+ * battle, and the battle thread moves the robots and creates their status and events. See the 'robotThreadBytes'
+ * and 'battleThreadBytes' secondary results, which must be divided by the 'robotTurns' result. No listener uses the
+ * turn snapshots, so they are not created.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ExchangeAllocationBenchmark {
+
+	private static final int ROUNDS = 5;
+
+	@Param({"2", "10"})
+	public int robotCount;
+
+	private BattleSpecification battle;
+
+	@Setup
+	public void setup() {
+		// The robot threads are pooled, so they are still alive when their allocated bytes are read at the end of
+		// the round. Must be set before the first robot is started, which is why every benchmark is forked.
+		System.setProperty("POOLEDTHREADS", "true");
+
+		battle = BenchmarkEngine.createBattle(BenchmarkEngine.repeat("sample.Fire", robotCount), ROUNDS, 0.1, 800, 600);
+	}
+
+	@Benchmark
+	public void battle(AllocationCounters counters) {
+		BenchmarkEngine.runBattle(battle, counters);
+	}
+
+	/**
+	 * Counts the bytes allocated from the start to the end of every round, while the robot threads are running. The
+	 * listener is called by the battle thread, and all other threads are counted as robot threads.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class AllocationCounters extends BattleAdaptor implements ISelectiveBattleListener {
+
+		public long robotThreadBytes;
+		public long battleThreadBytes;
+		public long robotTurns;
+
+		private final com.sun.management.ThreadMXBean threadBean =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		private Map<Long, Long> startBytes;
+		private int robots;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			robotThreadBytes = 0;
+			battleThreadBytes = 0;
+			robotTurns = 0;
+		}
+
+		public boolean isListening(Class<? extends BattleEvent> eventClass) {
+			return eventClass == BattleStartedEvent.class || eventClass == RoundStartedEvent.class
+					|| eventClass == RoundEndedEvent.class;
+		}
+
+		public TurnSnapshotDetail getTurnSnapshotDetail() {
+			return TurnSnapshotDetail.NONE;
+		}
+
+		@Override
+		public void onBattleStarted(BattleStartedEvent event) {
+			robots = event.getRobotsCount();
+		}
+
+		@Override
+		public void onRoundStarted(RoundStartedEvent event) {
+			startBytes = readAllocatedBytes();
+		}
+
+		@Override
+		public void onRoundEnded(RoundEndedEvent event) {
+			final long battleThreadId = Thread.currentThread().getId();
+
+			for (Map.Entry<Long, Long> entry : readAllocatedBytes().entrySet()) {
+				final Long start = startBytes.get(entry.getKey());
+				final long bytes = entry.getValue() - (start != null ? start : 0);
+
+				if (entry.getKey() == battleThreadId) {
+					battleThreadBytes += bytes;
+				} else {
+					robotThreadBytes += bytes;
+				}
+			}
+			robotTurns += (long) event.getTurns() * robots;
+		}
+
+		private Map<Long, Long> readAllocatedBytes() {
+			final long[] ids = threadBean.getAllThreadIds();
+			final long[] bytes = threadBean.getThreadAllocatedBytes(ids);
+			final Map<Long, Long> result = new HashMap<Long, Long>();
+
+			for (int i = 0; i < ids.length; i++) {
+				if (bytes[i] >= 0) {
+					result.put(ids[i], bytes[i]);
+				}
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.peer.BulletCommand;
+import net.sf.robocode.peer.BulletStatus;
+import net.sf.robocode.peer.DebugProperty;
+import net.sf.robocode.peer.ExecCommands;
+import net.sf.robocode.peer.ExecResults;
+import net.sf.robocode.peer.TeamMessage;
+import net.sf.robocode.security.HiddenAccess;
+import net.sf.robocode.serialization.RbSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.Bullet;
+import robocode.BulletHitEvent;
+import robocode.Event;
+import robocode.HitByBulletEvent;
+import robocode.RobotStatus;
+import robocode.ScannedRobotEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the round-trip through the RbSerializer of the commands a robot sends and the results it receives
+ * every turn, which is what a robot costs per turn when it is hosted with serialization. The commands and
+ * results are those of a robot firing, scanning a few robots, and sending a team message. Runs without the
+ * security manager, like the RbSerializer tests, so the serializers registered by the engine are used.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-DNOSECURITY=true"})
+public class ExecSerializationBenchmark {
+
+	private RbSerializer serializer;
+	private final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+	private ExecCommands commands;
+	private ExecResults results;
+
+	@Setup
+	public void setup() {
+		// registers the serializers
+		BenchmarkEngine.getEngine();
+		serializer = new RbSerializer();
+
+		commands = new ExecCommands();
+		commands.setBodyTurnRemaining(0.5);
+		commands.setGunTurnRemaining(-0.2);
+		commands.setDistanceRemaining(100);
+		commands.getBullets().add(new BulletCommand(2.5, true, 1.25, 17));
+		commands.getTeamMessages().add(new TeamMessage("sampleteam.MyFirstLeader", null, new byte[64]));
+		commands.getDebugProperties().add(new DebugProperty("target", "sample.Crazy"));
+
+		final RobotStatus status = HiddenAccess.createStatus(85.5, 400, 300, 1.1, 1.2, 1.3, 8, 0.5, 0.1, -0.2,
+				100, 0.4, 9, 0, 3, 10, 1234);
+		// the status event is created by the robot from the status
+		final List<Event> events = new ArrayList<Event>();
+
+		for (int i = 0; i < 3; i++) {
+			events.add(new ScannedRobotEvent("sample.Crazy (" + i + ")", 50 + i, 0.1 * i, 300 + i, 1.5, 8));
+		}
+		final Bullet bullet = new Bullet(1.5, 200, 100, 2.5, "sample.Fire", "sample.Crazy (1)", false, 17);
+
+		events.add(new BulletHitEvent("sample.Crazy (1)", 42, bullet));
+		events.add(new HitByBulletEvent(0.7, bullet));
+
+		final List<TeamMessage> teamMessages = new ArrayList<TeamMessage>();
+
+		teamMessages.add(new TeamMessage("sampleteam.MyFirstLeader", null, new byte[64]));
+
+		final List<BulletStatus> bulletUpdates = new ArrayList<BulletStatus>();
+
+		bulletUpdates.add(new BulletStatus(17, 200, 100, "sample.Crazy (1)", false));
+		bulletUpdates.add(new BulletStatus(18, 250, 150, null, true));
+
+		results = new ExecResults(commands, status, events, teamMessages, bulletUpdates, false, false, false);
+	}
+
+	@Benchmark
+	public Object execCommands() throws IOException {
+		return roundTrip(RbSerializer.ExecCommands_TYPE, commands);
+	}
+
+	@Benchmark
+	public Object execResults() throws IOException {
+		return roundTrip(RbSerializer.ExecResults_TYPE, results);
+	}
+
+	private Object roundTrip(byte type, Object object) throws IOException {
+		buffer.clear();
+		serializer.serializeToBuffer(buffer, type, object);
+		buffer.flip();
+		return serializer.deserialize(buffer);
+	}
+}
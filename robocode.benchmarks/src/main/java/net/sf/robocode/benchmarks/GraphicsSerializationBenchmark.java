@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.robotpaint.Graphics2DSerialized;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the painting of a robot through the Graphics2DSerialized, where the robot encodes its paint calls
+ * every turn and the battle view decodes them. The decoding paints onto a tiny image, so the drawing is clipped
+ * away and the result is mostly the decoding. Runs without the security manager, like the RbSerializer tests,
+ * so the serializers registered by the engine are used.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-DNOSECURITY=true", "-Djava.awt.headless=true"})
+public class GraphicsSerializationBenchmark {
+
+	@Param({"10", "100"})
+	public int shapes;
+
+	private Graphics2DSerialized encoder;
+	private Graphics2DSerialized decoder;
+	private Graphics2D graphics;
+	private byte[] calls;
+
+	@Setup
+	public void setup() {
+		// registers the serializers
+		BenchmarkEngine.getEngine();
+
+		encoder = new Graphics2DSerialized();
+		encoder.setPaintingEnabled(true);
+		decoder = new Graphics2DSerialized();
+		decoder.setPaintingEnabled(true);
+		graphics = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB).createGraphics();
+
+		calls = encode();
+	}
+
+	@TearDown
+	public void tearDown() {
+		graphics.dispose();
+	}
+
+	@Benchmark
+	public byte[] encode() {
+		encoder.setStroke(new BasicStroke(2));
+		for (int i = 0; i < shapes; i++) {
+			encoder.setColor(i % 2 == 0 ? Color.RED : Color.GREEN);
+			encoder.draw(new Line2D.Double(400, 300, 400 + i, 300 - i));
+			encoder.fill(new Ellipse2D.Double(i * 8, i * 6, 10, 10));
+			encoder.drawString("" + i, i * 8, i * 6);
+		}
+		return encoder.readoutQueuedCalls();
+	}
+
+	@Benchmark
+	public void decode() {
+		decoder.processTo(graphics, calls);
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.serialization.RbSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.RoundStartedEvent;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the time it takes to encode one turn of a battle record, with the RbSerializer used by the recorder
+ * and with the Java serialization the recorder used before. The turns of a recorded battle are encoded one after
+ * the other, the same way the recorder writes them, so the result is the time per turn. The bytes per turn of both
+ * codecs are printed by the setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RecordingCodecBenchmark {
+
+	@Param({"2", "10"})
+	public int robotCount;
+
+	private final List<ITurnSnapshot> turns = new ArrayList<ITurnSnapshot>();
+	private int next;
+
+	private final CountingOutputStream out = new CountingOutputStream();
+	private ObjectOutputStream objectStream;
+
+	private RbSerializer serializer;
+	private ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+	@Setup
+	public void setup() throws IOException {
+		final String robots = BenchmarkEngine.repeat("sample.Crazy,sample.Fire", robotCount / 2);
+
+		BenchmarkEngine.runBattle(BenchmarkEngine.createBattle(robots, 3, 0.1, 800, 600), new BattleAdaptor() {
+			@Override
+			public void onRoundStarted(RoundStartedEvent event) {
+				turns.add(event.getStartSnapshot());
+			}
+
+			@Override
+			public void onTurnEnded(TurnEndedEvent event) {
+				turns.add(event.getTurnSnapshot());
+			}
+		});
+		serializer = new RbSerializer();
+		objectStream = new ObjectOutputStream(out);
+
+		for (int i = 0; i < turns.size(); i++) {
+			rbSerializer();
+		}
+		final long rbBytes = out.count;
+
+		out.count = 0;
+		for (int i = 0; i < turns.size(); i++) {
+			javaSerialization();
+		}
+		objectStream.flush();
+		final long javaBytes = out.count;
+
+		System.out.println("Turns: " + turns.size() + ", bytes/turn with RbSerializer: " + rbBytes / turns.size()
+				+ ", with Java serialization: " + javaBytes / turns.size());
+	}
+
+	@Benchmark
+	public int rbSerializer() {
+		final ITurnSnapshot turn = nextTurn();
+		final int size = serializer.sizeOf(RbSerializer.TurnSnapshot_TYPE, turn);
+
+		if (size > buffer.capacity()) {
+			buffer = ByteBuffer.allocate(Math.max(size, 2 * buffer.capacity()));
+		}
+		buffer.clear();
+		serializer.serialize(buffer, RbSerializer.TurnSnapshot_TYPE, turn);
+		out.write(buffer.array(), 0, buffer.position());
+		return buffer.position();
+	}
+
+	@Benchmark
+	public void javaSerialization() throws IOException {
+		final ITurnSnapshot turn = nextTurn();
+
+		// the recorder reset the stream at the start of each round
+		if (turn.getTurn() == 0) {
+			objectStream.reset();
+		}
+		objectStream.writeObject(turn);
+	}
+
+	private ITurnSnapshot nextTurn() {
+		final ITurnSnapshot turn = turns.get(next);
+
+		next = (next + 1) % turns.size();
+		return turn;
+	}
+
+	private static class CountingOutputStream extends OutputStream {
+		long count;
+
+		@Override
+		public void write(int b) {
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			count += len;
+		}
+	}
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import net.sf.robocode.core.Container;
+import net.sf.robocode.repository.IRepositoryManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures scanning the robots directory, where 'rebuild' builds the robot database from scratch like on the
+ * first start, and 'refresh' checks the robots directory for changes like on every start. Runs without the
+ * security manager, so the repository manager of the engine can be used directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-DNOSECURITY=true"})
+public class RepositoryScanBenchmark {
+
+	private IRepositoryManager repositoryManager;
+
+	@Setup
+	public void setup() {
+		BenchmarkEngine.getEngine();
+		repositoryManager = Container.getComponent(IRepositoryManager.class);
+	}
+
+	@Benchmark
+	public void rebuild() {
+		repositoryManager.reload(true);
+	}
+
+	@Benchmark
+	public boolean refresh() {
+		return repositoryManager.refresh(false);
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+
+
+/**
+ * Compares the time spent starting and stopping the robot threads in every round, with a new thread per
+ * round and with pooled threads (the POOLEDTHREADS system property). See the 'setupMicros' and
+ * 'teardownMicros' secondary results, which must be divided by the 'rounds' result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RobotThreadBenchmark {
+
+	private static final int ROUNDS = 5;
+
+	@Param({"false", "true"})
+	public boolean pooledThreads;
+
+	@Param({"2", "10", "30"})
+	public int robotCount;
+
+	private BattleSpecification battle;
+
+	@Setup
+	public void setup() {
+		// Must be set before the first robot is started, which is why every benchmark is forked
+		System.setProperty("POOLEDTHREADS", "" + pooledThreads);
+
+		battle = BenchmarkEngine.createBattle(BenchmarkEngine.repeat("sample.Fire", robotCount), ROUNDS, 0.1, 800, 600);
+	}
+
+	@Benchmark
+	public void battle(BattleCounters counters) {
+		BenchmarkEngine.runBattle(battle, counters);
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+
+
+/**
+ * Measures the turns per second of battles between robots that do nothing, which is dominated by
+ * handing the turn back and forth between the battle thread and the robot threads. See the 'turns'
+ * secondary result for the TPS. Set -DPARALLEL=true in the JVM arguments to measure parallel wakeup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TurnHandoffBenchmark {
+
+	@Param({"2", "10", "50"})
+	public int robotCount;
+
+	private BattleSpecification battle;
+
+	@Setup
+	public void setup() {
+		battle = BenchmarkEngine.createBattle(BenchmarkEngine.repeat("sample.SittingDuck", robotCount), 1, 0.1, 800,
+				600);
+	}
+
+	@Benchmark
+	public void battle(BattleCounters counters) {
+		BenchmarkEngine.runBattle(battle, counters);
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.benchmarks;
+
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import robocode.control.BattleSpecification;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.TurnEndedEvent;
+
+
+/**
+ * Compares battles where a listener uses the turn snapshots with battles where no listener does, so the battle
+ * does not create them. The turns are counted from the round ended events, so both report the 'turns' secondary
+ * result. Run with '-prof gc' to compare the allocation rate per turn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TurnSnapshotBenchmark {
+
+	@Param({"false", "true"})
+	public boolean snapshotListener;
+
+	@Param({"2", "10"})
+	public int robotCount;
+
+	private BattleSpecification battle;
+
+	@Setup
+	public void setup() {
+		battle = BenchmarkEngine.createBattle(BenchmarkEngine.repeat("sample.SpinBot", robotCount), 1, 0.1, 800, 600);
+	}
+
+	@Benchmark
+	public void battle(BattleCounters counters) {
+		counters.withoutTurnSnapshots();
+		if (snapshotListener) {
+			final SnapshotListener listener = new SnapshotListener();
+
+			BenchmarkEngine.getEngine().addBattleListener(listener);
+			try {
+				BenchmarkEngine.runBattle(battle, counters);
+			} finally {
+				BenchmarkEngine.getEngine().removeBattleListener(listener);
+			}
+		} else {
+			BenchmarkEngine.runBattle(battle, counters);
+		}
+	}
+
+	private static class SnapshotListener extends BattleAdaptor {
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {
+			event.getTurnSnapshot();
+		}
+	}
+}
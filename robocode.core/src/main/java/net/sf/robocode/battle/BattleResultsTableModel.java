@@ -10,6 +10,8 @@ package net.sf.robocode.battle;
 
 import net.sf.robocode.io.Logger;
 import robocode.BattleResults;
+import robocode.control.RobotProfile;
+import robocode.control.RobotResults;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -35,6 +37,11 @@ public class BattleResultsTableModel extends javax.swing.table.AbstractTableMode
 	// The sum of the scores gathered by the robots.
 	private final double totalScore;
 
+	// Columns of the robot profiles, which are only saved to files
+	private static final String[] PROFILE_COLUMN_NAMES = {
+		"Turns", "Turn Median (us)", "Turn 99% (us)", "Turn Max (us)", "CPU Time (ms)", "Skipped Turns", "Max Events"
+	};
+
 	public BattleResultsTableModel(BattleResults[] results, int numRounds) {
 		this.results = results;
 		this.numRounds = numRounds;
@@ -205,12 +212,20 @@ public class BattleResultsTableModel extends javax.swing.table.AbstractTableMode
 
 			out.println(getTitle());
 
+			final boolean hasProfiles = hasProfiles();
+
 			for (int col = 0; col < getColumnCount(); col++) {
 				if (col > 0) {
 					out.print(',');
 				}
 				out.print(getColumnName(col));
 			}
+			if (hasProfiles) {
+				for (String name : PROFILE_COLUMN_NAMES) {
+					out.print(',');
+					out.print(name);
+				}
+			}
 
 			out.println();
 
@@ -221,6 +236,9 @@ public class BattleResultsTableModel extends javax.swing.table.AbstractTableMode
 					}
 					out.print(getValueAt(row, col));
 				}
+				if (hasProfiles) {
+					printProfile(out, getProfile(row));
+				}
 				out.println();
 			}
 
@@ -233,6 +251,42 @@ public class BattleResultsTableModel extends javax.swing.table.AbstractTableMode
 		}
 	}
 
+	private boolean hasProfiles() {
+		for (int row = 0; row < getRowCount(); row++) {
+			if (getProfile(row) != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private RobotProfile getProfile(int row) {
+		return (results[row] instanceof RobotResults) ? ((RobotResults) results[row]).getProfile() : null;
+	}
+
+	private static void printProfile(PrintStream out, RobotProfile profile) {
+		if (profile == null) {
+			for (int i = 0; i < PROFILE_COLUMN_NAMES.length; i++) {
+				out.print(',');
+			}
+			return;
+		}
+		out.print(',');
+		out.print(profile.getTurns());
+		out.print(',');
+		out.print(profile.getMedianTurnNanos() / 1000);
+		out.print(',');
+		out.print(profile.getPercentile99TurnNanos() / 1000);
+		out.print(',');
+		out.print(profile.getMaxTurnNanos() / 1000);
+		out.print(',');
+		out.print(profile.getCpuTimeNanos() < 0 ? "" : "" + profile.getCpuTimeNanos() / 1000000);
+		out.print(',');
+		out.print(profile.getSkippedTurns());
+		out.print(',');
+		out.print(profile.getMaxEventQueueSize());
+	}
+
 	private static String getPlacementString(int i) {
 		String result = "" + i;
 
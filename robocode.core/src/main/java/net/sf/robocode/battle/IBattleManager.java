@@ -58,6 +58,14 @@ public interface IBattleManager extends IBattleManagerBase {
 
 	void prevTurn();
 
+	/**
+	 * Jumps to a turn of a round in a replay, if the replayed record supports it.
+	 *
+	 * @param round the round to jump to.
+	 * @param turn the turn to jump to.
+	 */
+	void seekTurn(int round, int turn);
+
 	void pauseBattle();
 
 	void resumeBattle();
@@ -76,6 +84,14 @@ public interface IBattleManager extends IBattleManagerBase {
 
 	void setManagedTPS(boolean value);
 
+	/**
+	 * Enables or disables the collision grid for the battles started from now on. Without the grid every robot
+	 * and bullet is checked for collisions with every bullet, which gives the same results, only slower.
+	 *
+	 * @param enable {@code true} if the collision grid must be used; {@code false} otherwise.
+	 */
+	void setCollisionGridEnabled(boolean enable);
+
 	String getBattlePath();
 
 	String getBattleFilename();
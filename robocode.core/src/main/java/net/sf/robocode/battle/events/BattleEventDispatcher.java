@@ -13,7 +13,12 @@ import static net.sf.robocode.io.Logger.logError;
 import net.sf.robocode.io.Logger;
 import robocode.control.events.*;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 
@@ -29,21 +34,128 @@ public class BattleEventDispatcher implements IBattleListener {
 	// then ConcurentModificationExceptions will occur from time to time.
 	private final List<IBattleListener> listeners = new CopyOnWriteArrayList<IBattleListener>();
 
+	private static final List<Class<? extends BattleEvent>> EVENT_CLASSES = Arrays.<Class<? extends BattleEvent>>asList(
+		BattleStartedEvent.class, BattleCompletedEvent.class, BattleFinishedEvent.class, BattlePausedEvent.class,
+		BattleResumedEvent.class, RoundStartedEvent.class, RoundEndedEvent.class, TurnStartedEvent.class,
+		TurnEndedEvent.class, TurnTimedEvent.class, BattleMessageEvent.class, BattleErrorEvent.class
+	);
+
+	// The listeners of every class of events, found when the listeners are changed instead of for every event
+	private volatile Map<Class<? extends BattleEvent>, List<IBattleListener>> eventListeners = Collections.emptyMap();
+	private volatile TurnSnapshotDetail turnSnapshotDetail = TurnSnapshotDetail.NONE;
+
+	private final BattleTimings timings = new BattleTimings();
+
 	public BattleEventDispatcher() {}
 
 	public void addListener(IBattleListener listener) {
 		assert (listener != null);
 
 		listeners.add(listener);
+		updateListening();
 	}
 
 	public void removeListener(IBattleListener listener) {
 		assert (listener != null);
 		listeners.remove(listener);
+		updateListening();
 	}
 
-	public void onBattleStarted(BattleStartedEvent event) {
+	/**
+	 * Returns true if any of the listeners is listening to the battle events of the given class, so the battle
+	 * does not create the events that would not be sent to anyone.
+	 *
+	 * @param eventClass the class of the battle events.
+	 * @return true if the events are sent to any listener; false otherwise.
+	 */
+	public boolean isListened(Class<? extends BattleEvent> eventClass) {
+		return eventListeners.containsKey(eventClass);
+	}
+
+	/**
+	 * Returns how much of each turn the listeners need, which is the most needed by any of them. The battle does
+	 * not send onTurnEnded() events when this is {@link TurnSnapshotDetail#NONE}.
+	 *
+	 * @return the detail of the turn snapshots needed by the listeners.
+	 */
+	public TurnSnapshotDetail getTurnSnapshotDetail() {
+		return turnSnapshotDetail;
+	}
+
+	private synchronized void updateListening() {
+		final Map<Class<? extends BattleEvent>, List<IBattleListener>> listenersByEvent =
+				new HashMap<Class<? extends BattleEvent>, List<IBattleListener>>();
+		TurnSnapshotDetail detail = TurnSnapshotDetail.NONE;
+
+		for (Class<? extends BattleEvent> eventClass : EVENT_CLASSES) {
+			final List<IBattleListener> listening = new ArrayList<IBattleListener>();
+
+			for (IBattleListener listener : listeners) {
+				if (isListening(listener, eventClass)) {
+					listening.add(listener);
+				}
+			}
+			if (!listening.isEmpty()) {
+				listenersByEvent.put(eventClass, listening);
+			}
+		}
 		for (IBattleListener listener : listeners) {
+			final TurnSnapshotDetail needed = getTurnSnapshotDetail(listener);
+
+			if (needed.compareTo(detail) > 0) {
+				detail = needed;
+			}
+		}
+		eventListeners = listenersByEvent;
+		turnSnapshotDetail = detail;
+		timings.setListened(listenersByEvent.containsKey(TurnTimedEvent.class));
+	}
+
+	private List<IBattleListener> getListeners(Class<? extends BattleEvent> eventClass) {
+		final List<IBattleListener> listening = eventListeners.get(eventClass);
+
+		return listening != null ? listening : Collections.<IBattleListener>emptyList();
+	}
+
+	/**
+	 * Returns the timings of the turns, which are enabled while an {@link ITurnTimingListener} is listening.
+	 *
+	 * @return the timings of the turns.
+	 */
+	public BattleTimings getTimings() {
+		return timings;
+	}
+
+	/**
+	 * Returns true if a listener is listening to the battle events of a class, where a listener that does not tell
+	 * is listening to all events. Only an ITurnTimingListener can listen to the turn timed events.
+	 */
+	private static boolean isListening(IBattleListener listener, Class<? extends BattleEvent> eventClass) {
+		if (eventClass == TurnTimedEvent.class && !(listener instanceof ITurnTimingListener)) {
+			return false;
+		}
+		if (listener instanceof ISelectiveBattleListener) {
+			return ((ISelectiveBattleListener) listener).isListening(eventClass);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns how much of each turn a listener needs, where a listener that does not tell needs everything.
+	 */
+	private static TurnSnapshotDetail getTurnSnapshotDetail(IBattleListener listener) {
+		if (listener instanceof ISelectiveBattleListener) {
+			final ISelectiveBattleListener selectiveListener = (ISelectiveBattleListener) listener;
+
+			return selectiveListener.isListening(TurnEndedEvent.class)
+					? selectiveListener.getTurnSnapshotDetail()
+					: TurnSnapshotDetail.NONE;
+		}
+		return TurnSnapshotDetail.FULL;
+	}
+
+	public void onBattleStarted(BattleStartedEvent event) {
+		for (IBattleListener listener : getListeners(BattleStartedEvent.class)) {
 			try {
 				listener.onBattleStarted(event);
 			} catch (Throwable ex) {
@@ -53,7 +165,7 @@ public class BattleEventDispatcher implements IBattleListener {
 	}
 
 	public void onBattleCompleted(BattleCompletedEvent event) {
-		for (IBattleListener listener : listeners) {
+		for (IBattleListener listener : getListeners(BattleCompletedEvent.class)) {
 			try {
 				listener.onBattleCompleted(event);
 			} catch (Throwable ex) {
@@ -63,7 +175,7 @@ public class BattleEventDispatcher implements IBattleListener {
 	}
 
 	public void onBattleFinished(BattleFinishedEvent event) {
-		for (IBattleListener listener : listeners) {
+		for (IBattleListener listener : getListeners(BattleFinishedEvent.class)) {
 			try {
 				listener.onBattleFinished(event);
 			} catch (Throwable ex) {
@@ -73,7 +185,7 @@ public class BattleEventDispatcher implements IBattleListener {
 	}
 
 	public void onBattlePaused(BattlePausedEvent event) {
-		for (IBattleListener listener : listeners) {
+		for (IBattleListener listener : getListeners(BattlePausedEvent.class)) {
 			try {
 				listener.onBattlePaused(event);
 			} catch (Throwable ex) {
@@ -83,7 +195,7 @@ public class BattleEventDispatcher implements IBattleListener {
 	}
 
 	public void onBattleResumed(BattleResumedEvent event) {
-		for (IBattleListener listener : listeners) {
+		for (IBattleListener listener : getListeners(BattleResumedEvent.class)) {
 			try {
 				listener.onBattleResumed(event);
 			} catch (Throwable ex) {
@@ -93,7 +205,7 @@ public class BattleEventDispatcher implements IBattleListener {
 	}
 
 	public void onRoundStarted(RoundStartedEvent event) {
-		for (IBattleListener listener : listeners) {
+		for (IBattleListener listener : getListeners(RoundStartedEvent.class)) {
 			try {
 				listener.onRoundStarted(event);
 			} catch (Throwable ex) {
@@ -103,7 +215,7 @@ public class BattleEventDispatcher implements IBattleListener {
 	}
 
 	public void onRoundEnded(RoundEndedEvent event) {
-		for (IBattleListener listener : listeners) {
+		for (IBattleListener listener : getListeners(RoundEndedEvent.class)) {
 			try {
 				listener.onRoundEnded(event);
 			} catch (Throwable ex) {
@@ -113,27 +225,51 @@ public class BattleEventDispatcher implements IBattleListener {
 	}
 
 	public void onTurnStarted(TurnStartedEvent event) {
-		for (IBattleListener listener : listeners) {
+		final boolean timed = timings.isEnabled();
+
+		for (IBattleListener listener : getListeners(TurnStartedEvent.class)) {
+			final long start = timed ? System.nanoTime() : 0;
+
 			try {
 				listener.onTurnStarted(event);
 			} catch (Throwable ex) {
 				logError("onTurnStarted " + listener.getClass(), ex);
 			}
+			if (timed) {
+				timings.recordTurnStarted(listener, start);
+			}
 		}
 	}
 
 	public void onTurnEnded(TurnEndedEvent event) {
-		for (IBattleListener listener : listeners) {
+		final boolean timed = timings.isEnabled();
+
+		for (IBattleListener listener : getListeners(TurnEndedEvent.class)) {
+			final long start = timed ? System.nanoTime() : 0;
+
 			try {
 				listener.onTurnEnded(event);
 			} catch (Throwable ex) {
 				logError("onTurnEnded " + listener.getClass(), ex);
 			}
+			if (timed) {
+				timings.recordTurnEnded(listener, start);
+			}
+		}
+	}
+
+	public void onTurnTimed(TurnTimedEvent event) {
+		for (IBattleListener listener : getListeners(TurnTimedEvent.class)) {
+			try {
+				((ITurnTimingListener) listener).onTurnTimed(event);
+			} catch (Throwable ex) {
+				logError("onTurnTimed " + listener.getClass(), ex);
+			}
 		}
 	}
 
 	public void onBattleMessage(BattleMessageEvent event) {
-		for (IBattleListener listener : listeners) {
+		for (IBattleListener listener : getListeners(BattleMessageEvent.class)) {
 			try {
 				listener.onBattleMessage(event);
 			} catch (Throwable ex) {
@@ -143,7 +279,7 @@ public class BattleEventDispatcher implements IBattleListener {
 	}
 
 	public void onBattleError(BattleErrorEvent event) {
-		for (IBattleListener listener : listeners) {
+		for (IBattleListener listener : getListeners(BattleErrorEvent.class)) {
 			try {
 				listener.onBattleError(event);
 			} catch (Throwable ex) {
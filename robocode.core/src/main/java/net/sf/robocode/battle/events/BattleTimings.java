@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.events;
+
+
+import net.sf.robocode.io.Logger;
+import robocode.control.events.TimingHistogram;
+import robocode.control.events.TurnPhase;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Histograms of the time spent in the phases of the turns, and in the battle listeners.
+ * <p>
+ * The turns are only timed when enabled by the TURNTIMING system property or through JMX, or when an
+ * {@link robocode.control.events.ITurnTimingListener} is listening. Otherwise the battle only checks
+ * {@link #isEnabled()} once per phase.
+ * <p>
+ * The histograms are only written by the battle thread, so a {@link #reset()} from another thread is carried out
+ * by the battle thread before it records the next time.
+ *
+ * @see BattleEventDispatcher#getTimings()
+ */
+public final class BattleTimings implements BattleTimingsMXBean {
+
+	private static final AtomicInteger mbeanIds = new AtomicInteger();
+
+	private final Map<TurnPhase, TimingHistogram> phaseHistograms;
+	private final long[] phaseNanos = new long[TurnPhase.values().length];
+
+	private final ConcurrentMap<Class<?>, TimingHistogram> turnStartedHistograms = new ConcurrentHashMap<Class<?>, TimingHistogram>();
+	private final ConcurrentMap<Class<?>, TimingHistogram> turnEndedHistograms = new ConcurrentHashMap<Class<?>, TimingHistogram>();
+	private final ConcurrentMap<String, TimingHistogram> listenerHistograms = new ConcurrentHashMap<String, TimingHistogram>();
+
+	private volatile boolean isEnabledByUser = System.getProperty("TURNTIMING", "false").equals("true");
+	private volatile boolean isListened;
+	private volatile boolean isEnabled = isEnabledByUser;
+	private volatile boolean isResetRequested;
+
+	private ObjectName mbeanName;
+
+	BattleTimings() {
+		final Map<TurnPhase, TimingHistogram> histograms = new EnumMap<TurnPhase, TimingHistogram>(TurnPhase.class);
+
+		for (TurnPhase phase : TurnPhase.values()) {
+			histograms.put(phase, new TimingHistogram());
+		}
+		phaseHistograms = Collections.unmodifiableMap(histograms);
+	}
+
+	/**
+	 * Registers these timings as MBean under a name of their own, so the timing can be enabled through JMX.
+	 * Does nothing if the timings are registered already.
+	 */
+	public synchronized void registerMBean() {
+		if (mbeanName != null) {
+			return;
+		}
+		try {
+			final ObjectName name = new ObjectName("net.sf.robocode:type=BattleTimings,id=" + mbeanIds.incrementAndGet());
+
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+			mbeanName = name;
+		} catch (JMException e) {
+			Logger.logError("Could not register the battle timings", e);
+		}
+	}
+
+	/**
+	 * Unregisters these timings as MBean, if registered.
+	 */
+	public synchronized void unregisterMBean() {
+		if (mbeanName == null) {
+			return;
+		}
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(mbeanName);
+		} catch (JMException e) {
+			Logger.logError("Could not unregister the battle timings", e);
+		}
+		mbeanName = null;
+	}
+
+	/**
+	 * @return the name these timings are registered under as MBean, or null if not registered.
+	 */
+	public synchronized ObjectName getMBeanName() {
+		return mbeanName;
+	}
+
+	public boolean isEnabled() {
+		return isEnabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		isEnabledByUser = enabled;
+		isEnabled = isEnabledByUser || isListened;
+	}
+
+	/**
+	 * @return true if an ITurnTimingListener is listening.
+	 */
+	public boolean isListened() {
+		return isListened;
+	}
+
+	void setListened(boolean listened) {
+		isListened = listened;
+		isEnabled = isEnabledByUser || isListened;
+	}
+
+	/**
+	 * Records the time of a phase of the current turn. Called on the battle thread.
+	 *
+	 * @param phase the phase that has ended.
+	 * @param start the time the phase started, as given by {@link System#nanoTime()}.
+	 * @return the time the phase ended, which is the start of the next phase.
+	 */
+	public long record(TurnPhase phase, long start) {
+		if (isResetRequested) {
+			isResetRequested = false;
+			clear();
+		}
+		final long end = System.nanoTime();
+		final long nanos = end - start;
+
+		phaseNanos[phase.ordinal()] = nanos;
+		phaseHistograms.get(phase).record(nanos);
+		return end;
+	}
+
+	/**
+	 * @return a copy of the times of the phases of the current turn, by the ordinal of the phase.
+	 */
+	public long[] getPhaseNanos() {
+		return phaseNanos.clone();
+	}
+
+	/**
+	 * @return the histograms of the phases, which are updated while the turns are timed.
+	 */
+	public Map<TurnPhase, TimingHistogram> getPhaseHistograms() {
+		return phaseHistograms;
+	}
+
+	/**
+	 * @return the histograms of the battle listeners, which are updated while the turns are timed.
+	 */
+	public Map<String, TimingHistogram> getListenerHistograms() {
+		return Collections.unmodifiableMap(listenerHistograms);
+	}
+
+	void recordTurnStarted(Object listener, long start) {
+		getHistogram(turnStartedHistograms, "onTurnStarted ", listener).record(System.nanoTime() - start);
+	}
+
+	void recordTurnEnded(Object listener, long start) {
+		getHistogram(turnEndedHistograms, "onTurnEnded ", listener).record(System.nanoTime() - start);
+	}
+
+	private TimingHistogram getHistogram(ConcurrentMap<Class<?>, TimingHistogram> histograms, String event, Object listener) {
+		final Class<?> listenerClass = listener.getClass();
+		TimingHistogram histogram = histograms.get(listenerClass);
+
+		if (histogram == null) {
+			histogram = new TimingHistogram();
+
+			final TimingHistogram existing = histograms.putIfAbsent(listenerClass, histogram);
+
+			if (existing != null) {
+				histogram = existing;
+			} else {
+				listenerHistograms.put(event + listenerClass.getName(), histogram);
+			}
+		}
+		return histogram;
+	}
+
+	public long getTimedTurns() {
+		return phaseHistograms.get(TurnPhase.FINALIZE_TURN).getCount();
+	}
+
+	public Map<String, Double> getMeanNanos() {
+		final Map<String, Double> statistics = new LinkedHashMap<String, Double>();
+
+		for (Map.Entry<String, TimingHistogram> entry : getAllHistograms().entrySet()) {
+			statistics.put(entry.getKey(), entry.getValue().getMeanNanos());
+		}
+		return statistics;
+	}
+
+	public Map<String, Long> getMedianNanos() {
+		return getPercentileNanos(50);
+	}
+
+	public Map<String, Long> getPercentile99Nanos() {
+		return getPercentileNanos(99);
+	}
+
+	private Map<String, Long> getPercentileNanos(double percentile) {
+		final Map<String, Long> statistics = new LinkedHashMap<String, Long>();
+
+		for (Map.Entry<String, TimingHistogram> entry : getAllHistograms().entrySet()) {
+			statistics.put(entry.getKey(), entry.getValue().getPercentileNanos(percentile));
+		}
+		return statistics;
+	}
+
+	public Map<String, Long> getMaxNanos() {
+		final Map<String, Long> statistics = new LinkedHashMap<String, Long>();
+
+		for (Map.Entry<String, TimingHistogram> entry : getAllHistograms().entrySet()) {
+			statistics.put(entry.getKey(), entry.getValue().getMaxNanos());
+		}
+		return statistics;
+	}
+
+	public Map<String, Long> getTotalNanos() {
+		final Map<String, Long> statistics = new LinkedHashMap<String, Long>();
+
+		for (Map.Entry<String, TimingHistogram> entry : getAllHistograms().entrySet()) {
+			statistics.put(entry.getKey(), entry.getValue().getTotalNanos());
+		}
+		return statistics;
+	}
+
+	/**
+	 * Requests the histograms to be cleared, which is done by the battle thread when it records the next time.
+	 */
+	public void reset() {
+		isResetRequested = true;
+	}
+
+	private void clear() {
+		for (TimingHistogram histogram : getAllHistograms().values()) {
+			histogram.reset();
+		}
+	}
+
+	private Map<String, TimingHistogram> getAllHistograms() {
+		final Map<String, TimingHistogram> histograms = new LinkedHashMap<String, TimingHistogram>();
+
+		for (Map.Entry<TurnPhase, TimingHistogram> entry : phaseHistograms.entrySet()) {
+			histograms.put(entry.getKey().name(), entry.getValue());
+		}
+		histograms.putAll(listenerHistograms);
+		return histograms;
+	}
+}
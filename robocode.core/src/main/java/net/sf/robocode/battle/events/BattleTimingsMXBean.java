@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.battle.events;
+
+
+import java.util.Map;
+
+
+/**
+ * The management interface of {@link BattleTimings}, where the statistics are given for every phase of the turns
+ * and for every battle listener, by the name of the phase or the event and class of the listener.
+ */
+public interface BattleTimingsMXBean {
+
+	boolean isEnabled();
+
+	void setEnabled(boolean enabled);
+
+	long getTimedTurns();
+
+	Map<String, Double> getMeanNanos();
+
+	Map<String, Long> getMedianNanos();
+
+	Map<String, Long> getPercentile99Nanos();
+
+	Map<String, Long> getMaxNanos();
+
+	Map<String, Long> getTotalNanos();
+
+	/**
+	 * Clears the statistics, which is done by the battle thread before it times the next phase.
+	 */
+	void reset();
+}
@@ -158,6 +158,8 @@ public final class RobocodeMain extends RobocodeMainBase {
 				setup.exitOnComplete = true;
 				if (setup.replayFilename.toLowerCase().endsWith("xml.zip")) {
 					recordManager.loadRecord(setup.replayFilename, BattleRecordFormat.XML_ZIP);
+				} else if (setup.replayFilename.toLowerCase().endsWith(".ibr")) {
+					recordManager.loadRecord(setup.replayFilename, BattleRecordFormat.INDEXED);
 				} else {
 					recordManager.loadRecord(setup.replayFilename, BattleRecordFormat.BINARY_ZIP);
 				}
@@ -328,6 +330,8 @@ public final class RobocodeMain extends RobocodeMainBase {
 						+ "  -battle <battle file>      Run the battle specified in a battle file\n"
 						+ "  -results <results file>    Save results to the specified text file\n"
 						+ "  -record <bin record file>  Record the battle into the specified file as binary\n"
+						+ "                             (indexed for random access if the file name ends with .ibr)\n"
+						+ "                             (columns for analysis if the file name ends with .rbc)\n"
 						+ "  -recordXML <xml rec file>  Record the battle into the specified file as XML\n"
 						+ "  -replay <record file>      Replay the specified battle record\n"
 						+ "  -tps <tps>                 Set the TPS > 0 (Turns Per Second)\n"
@@ -388,9 +392,20 @@ public final class RobocodeMain extends RobocodeMainBase {
 		}
 	}
 	
-	private class BattleObserver extends BattleAdaptor {
+	private class BattleObserver extends BattleAdaptor implements ISelectiveBattleListener {
 		boolean isReplay;
 
+		public boolean isListening(Class<? extends BattleEvent> eventClass) {
+			return eventClass == BattleStartedEvent.class
+					|| eventClass == BattleCompletedEvent.class
+					|| eventClass == BattleMessageEvent.class
+					|| eventClass == BattleErrorEvent.class;
+		}
+
+		public TurnSnapshotDetail getTurnSnapshotDetail() {
+			return TurnSnapshotDetail.NONE;
+		}
+
 		@Override
 		public void onBattleStarted(BattleStartedEvent event) {
 			isReplay = event.isReplay();
@@ -402,8 +417,15 @@ public final class RobocodeMain extends RobocodeMainBase {
 				printResultsData(event);
 			}
 			if (setup.recordFilename != null) {
-				recordManager.saveRecord(setup.recordFilename, BattleRecordFormat.BINARY_ZIP,
-						new SerializableOptions(false));
+				final String recordFilename = setup.recordFilename.toLowerCase();
+				BattleRecordFormat format = BattleRecordFormat.BINARY_ZIP;
+
+				if (recordFilename.endsWith(".ibr")) {
+					format = BattleRecordFormat.INDEXED;
+				} else if (recordFilename.endsWith(".rbc")) {
+					format = BattleRecordFormat.COLUMNAR_ZIP;
+				}
+				recordManager.saveRecord(setup.recordFilename, format, new SerializableOptions(false));
 			}
 			if (setup.recordXmlFilename != null) {
 				recordManager.saveRecord(setup.recordXmlFilename, BattleRecordFormat.XML, new SerializableOptions(false));
@@ -14,5 +14,13 @@ package net.sf.robocode.host;
 public interface ICpuManager {
 	long getCpuConstant();
 
+	/**
+	 * Returns how much the CPU speed varied while measuring the CPU constant, relative to the CPU constant.
+	 * A high variation means that the system is too busy to run fair battles.
+	 *
+	 * @return the variation, e.g. 0.01 for 1%, or -1 if the CPU constant was not measured, but configured.
+	 */
+	double getCpuConstantVariation();
+
 	void calculateCpuConstant();
 }
@@ -25,6 +25,17 @@ public interface IHostManager {
 
 	long getRobotFilesystemQuota();
 
+	/**
+	 * Returns true if the thread of a robot is reused for all rounds of a battle, which is enabled with
+	 * -DPOOLEDTHREADS=true. The ThreadLocals of a robot are then kept from one round to the next.
+	 */
+	boolean isPooledThreads();
+
+	/**
+	 * Sets if the thread of a robot is reused for all rounds of the battles started from now on.
+	 */
+	void setPooledThreads(boolean isPooledThreads);
+
 	void resetThreadManager();
 
 	void addSafeThread(Thread safeThread);
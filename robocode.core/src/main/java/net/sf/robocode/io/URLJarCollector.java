@@ -23,7 +23,7 @@ import java.io.IOException;
  * It is designed to close JarFiles opened and cached in SUN's JarFileFactory.
  * If we are not on SUN's JVM, we fall back to useCaches=false, to not lock the files.
  * Collection is now called after repository refresh and after battle ended.
- * Collection is disabled/postponed during running battle.
+ * Collection is disabled/postponed during running battle, and stays disabled till all running battles have ended.
  * 
  * @author Pavel Savara (original)
  * @author Flemming N. Larsen (contributor)
@@ -32,9 +32,10 @@ public class URLJarCollector {
 	
 	private static HashMap<?, ?> fileCache;
 	private static HashMap<?, ?> urlCache;
+	private static Object cacheLock = URLJarCollector.class;
 	private static Field jarFileURL;
 	private static final boolean sunJVM;
-	private static boolean enabled;
+	private static int disabledCount;
 	private static final Set<URL> urlsToClean;
 
 	static {
@@ -53,6 +54,15 @@ public class URLJarCollector {
 			urlCacheF.setAccessible(true);
 			urlCache = (HashMap<?, ?>) urlCacheF.get(null);
 
+			// The JarFileFactory changes its caches while holding the lock of its instance, so we must hold it too
+			// when iterating the caches, as the JARs are also opened by other threads
+			try {
+				final Field instanceF = jarFactory.getDeclaredField("instance");
+
+				instanceF.setAccessible(true);
+				cacheLock = instanceF.get(null);
+			} catch (NoSuchFieldException ignore) {}
+
 			final Class<?> jarURLConnection = ClassLoader.getSystemClassLoader().loadClass(
 					"sun.net.www.protocol.jar.JarURLConnection");
 
@@ -81,13 +91,17 @@ public class URLJarCollector {
 	}
 
 	public static synchronized void enableGc(boolean enabled) {
-		URLJarCollector.enabled = enabled;
+		if (!enabled) {
+			disabledCount++;
+		} else if (disabledCount > 0) {
+			disabledCount--;
+		}
 	}
 
 	public static synchronized void gc() {
 		if (sunJVM) {
 			// Close all JarURLConnections if garbage collection is enabled
-			if (enabled) {
+			if (disabledCount == 0) {
 				synchronized (urlsToClean) {
 					for (URL url : urlsToClean) {
 						closeJarURLConnection(url);
@@ -100,19 +114,21 @@ public class URLJarCollector {
 
 			// Remove all cache entries to temporary jar cache files created
 			// for connections using the jarjar protocol that get stuck up.
-			for (Iterator<?> it = fileCache.keySet().iterator(); it.hasNext();) {
-				Object urlJarFile = it.next();
+			synchronized (cacheLock) {
+				for (Iterator<?> it = fileCache.keySet().iterator(); it.hasNext();) {
+					Object urlJarFile = it.next();
 
-				final JarFile jarFile = (JarFile) fileCache.get(urlJarFile);
+					final JarFile jarFile = (JarFile) fileCache.get(urlJarFile);
 
-				String filename = jarFile.getName();
+					String filename = jarFile.getName();
 
-				filename = filename.substring(filename.lastIndexOf(File.separatorChar) + 1).toLowerCase();
+					filename = filename.substring(filename.lastIndexOf(File.separatorChar) + 1).toLowerCase();
 
-				if (filename.startsWith("jar_cache")) {
-					it.remove();
-					synchronized (urlCache) {
-						urlCache.remove(jarFile);
+					if (filename.startsWith("jar_cache")) {
+						it.remove();
+						synchronized (urlCache) {
+							urlCache.remove(jarFile);
+						}
 					}
 				}
 			}
@@ -140,31 +156,33 @@ public class URLJarCollector {
 	// Added due to bug fix [2867326] - Lockup on start if too many bots in robots dir (cont'd).
 	public synchronized static void closeJarURLConnection(URL url) {
 		if (url != null) {
-			for (Iterator<?> it = fileCache.keySet().iterator(); it.hasNext();) {
-				Object urlJarFile = it.next();
+			synchronized (cacheLock) {
+				for (Iterator<?> it = fileCache.keySet().iterator(); it.hasNext();) {
+					Object urlJarFile = it.next();
 
-				final JarFile jarFile = (JarFile) fileCache.get(urlJarFile);
+					final JarFile jarFile = (JarFile) fileCache.get(urlJarFile);
 
-				String urlPath = url.getPath();
+					String urlPath = url.getPath();
 
-				try {
-					urlPath = URLDecoder.decode(urlPath, "UTF-8");
-				} catch (java.io.UnsupportedEncodingException ignore) {}
+					try {
+						urlPath = URLDecoder.decode(urlPath, "UTF-8");
+					} catch (java.io.UnsupportedEncodingException ignore) {}
 
-				File urlFile = new File(urlPath);
+					File urlFile = new File(urlPath);
 
-				String jarFileName = jarFile.getName();
-				String urlFileName = urlFile.getPath();
+					String jarFileName = jarFile.getName();
+					String urlFileName = urlFile.getPath();
 
-				if (urlFileName.equals(jarFileName)) {
-					it.remove();
-					synchronized (urlCache) {
-						urlCache.remove(jarFile);
-					}
-					try {
-						jarFile.close();
-					} catch (IOException e) {
-						Logger.logError(e);
+					if (urlFileName.equals(jarFileName)) {
+						it.remove();
+						synchronized (urlCache) {
+							urlCache.remove(jarFile);
+						}
+						try {
+							jarFile.close();
+						} catch (IOException e) {
+							Logger.logError(e);
+						}
 					}
 				}
 			}
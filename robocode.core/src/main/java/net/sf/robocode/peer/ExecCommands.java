@@ -87,6 +87,56 @@ public final class ExecCommands implements Serializable {
 		}
 	}
 
+	/**
+	 * Copies the commands into these commands, the same way as {@link #ExecCommands(ExecCommands, boolean)}, except
+	 * that the bullets, team messages and debug properties are copied into the lists of these commands instead of
+	 * being shared. This way the robot and the battle can exchange the same commands every turn.
+	 *
+	 * @param origin    the commands to copy.
+	 * @param fromRobot {@code true} if the commands are sent by the robot to the battle; {@code false} if they are
+	 *                  sent back to the robot.
+	 */
+	public void set(ExecCommands origin, boolean fromRobot) {
+		bodyTurnRemaining = origin.bodyTurnRemaining;
+		radarTurnRemaining = origin.radarTurnRemaining;
+		gunTurnRemaining = origin.gunTurnRemaining;
+		distanceRemaining = origin.distanceRemaining;
+		isAdjustGunForBodyTurn = origin.isAdjustGunForBodyTurn;
+		isAdjustRadarForGunTurn = origin.isAdjustRadarForGunTurn;
+		isAdjustRadarForBodyTurn = origin.isAdjustRadarForBodyTurn;
+		isAdjustRadarForBodyTurnSet = origin.isAdjustRadarForBodyTurnSet;
+		maxTurnRate = origin.maxTurnRate;
+		maxVelocity = origin.maxVelocity;
+		copyColors(origin);
+		isIORobot = false;
+		debugProperties.clear();
+		bullets.clear();
+		teamMessages.clear();
+		if (fromRobot) {
+			copyList(origin.debugProperties, debugProperties);
+			copyList(origin.bullets, bullets);
+			scan = origin.scan;
+			moved = origin.moved;
+			graphicsCalls = origin.graphicsCalls;
+			outputText = origin.outputText;
+			copyList(origin.teamMessages, teamMessages);
+			isTryingToPaint = origin.isTryingToPaint;
+		} else {
+			scan = false;
+			moved = false;
+			graphicsCalls = null;
+			outputText = null;
+			isTryingToPaint = false;
+		}
+	}
+
+	// Unlike addAll(), this does not create a copy of the source as an array
+	private static <T> void copyList(List<T> source, List<T> target) {
+		for (int i = 0; i < source.size(); i++) {
+			target.add(source.get(i));
+		}
+	}
+
 	public void copyColors(ExecCommands origin) {
 		if (origin != null) {
 			bodyColor = origin.bodyColor;
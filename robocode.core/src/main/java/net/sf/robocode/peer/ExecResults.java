@@ -47,6 +47,19 @@ public final class ExecResults implements Serializable {
 
 	private ExecResults() {}
 
+	/**
+	 * Replaces the results, so the battle can send the same results to the robot every other turn.
+	 */
+	public void set(RobotStatus status, List<Event> events, List<TeamMessage> teamMessages, List<BulletStatus> bulletUpdates, boolean halt, boolean shouldWait, boolean paintEnabled) {
+		this.status = status;
+		this.events = events;
+		this.teamMessages = teamMessages;
+		this.bulletUpdates = bulletUpdates;
+		this.halt = halt;
+		this.shouldWait = shouldWait;
+		this.paintEnabled = paintEnabled;
+	}
+
 	public ExecCommands getCommands() {
 		return commands;
 	}
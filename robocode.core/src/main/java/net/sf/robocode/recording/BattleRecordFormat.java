@@ -16,5 +16,21 @@ public enum BattleRecordFormat {
 	BINARY_ZIP,
 	XML,
 	XML_ZIP,
-	CSV
+	CSV,
+
+	/**
+	 * Binary record with an index of the turns, which allows a replay to jump to any turn of any round.
+	 */
+	INDEXED,
+
+	/**
+	 * Export of the values of the robots and bullets stored as columns, for analysis tools reading a few values of
+	 * many turns. Cannot be replayed.
+	 */
+	COLUMNAR,
+
+	/**
+	 * Same as {@link #COLUMNAR}, with compressed columns.
+	 */
+	COLUMNAR_ZIP
 }
@@ -41,4 +41,20 @@ public interface IRecordManager {
     void generateCsvRecord(OutputStream fosResults, OutputStream fosRounds, OutputStream fosRobots, OutputStream fosBullets, SerializableOptions options, CheckedConsumer<ITurnSnapshot> extension) throws IOException, ClassNotFoundException;
 
     boolean hasRecord();
+
+    /**
+     * Returns the number of turns of a round in the record being replayed, which can be jumped to with
+     * {@link net.sf.robocode.battle.IBattleManager#seekTurn(int, int)}.
+     *
+     * @param round the round.
+     * @return the number of turns in the round, or 0 if the record cannot be jumped in or has no such round.
+     */
+    int getTurnsInRound(int round);
+
+    /**
+     * Returns the queue depth and write latency of the recorder, which are read when called.
+     *
+     * @return the statistics of the battle being recorded, or of the last recorded battle.
+     */
+    RecordingStatisticsMXBean getRecordingStatistics();
 }
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.recording;
+
+
+/**
+ * The queue depth and write latency of the recorder of the battle being recorded, or of the last recorded battle,
+ * for choosing the size of the recording queue of a machine. All values are 0 if no battle has been recorded.
+ *
+ * @see IRecordManager#getRecordingStatistics()
+ */
+public interface RecordingStatisticsMXBean {
+
+	int getQueueCapacity();
+
+	int getQueueDepth();
+
+	int getMaxQueueDepth();
+
+	long getWrittenTurns();
+
+	long getDroppedTurns();
+
+	long getMeanLatencyNanos();
+
+	long getMaxLatencyNanos();
+}
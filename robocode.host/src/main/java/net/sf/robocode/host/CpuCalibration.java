@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host;
+
+
+import net.sf.robocode.io.Logger;
+import net.sf.robocode.util.JavaVersion;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Properties;
+
+
+/**
+ * Measures the CPU constant, which is the time a robot is allowed per turn on this system.
+ * <p>
+ * The time of the benchmark loop is measured in short trials after the loop has been warmed up, i.e. when the
+ * times of consecutive trials no longer change, and the CPU constant is taken from the median of the trials.
+ * The spread of the trials is kept as the variation, which tells if the system is too busy for fair battles.
+ * <p>
+ * The measured CPU constants are cached in a file for the CPU model, the number of processors, and the JVM,
+ * so a fresh installation on the same kind of system does not need to measure it again. Systems with an unknown
+ * CPU model are not cached, as they cannot be told apart.
+ */
+final class CpuCalibration {
+
+	private static final int APPROXIMATE_CYCLES_ALLOWED = 6250;
+
+	private static final long TRIAL_NANOS = 10000000; // 10 ms
+	private static final int MAX_WARMUP_TRIALS = 20;
+	private static final int STABLE_TRIALS = 3;
+	private static final double STABLE_TOLERANCE = 0.05;
+	private static final int TRIALS = 15;
+
+	private static final boolean JAVA_9_OR_NEWER = JavaVersion.getJavaMajorVersion() >= 9;
+
+	// Keeps the result of the benchmark loop, so it cannot be optimized away
+	private static volatile double sink;
+
+	private final long cpuConstant;
+	private final double variation;
+
+	private CpuCalibration(long cpuConstant, double variation) {
+		this.cpuConstant = cpuConstant;
+		this.variation = variation;
+	}
+
+	/**
+	 * @return the time allowed per turn in nanoseconds.
+	 */
+	long getCpuConstant() {
+		return cpuConstant;
+	}
+
+	/**
+	 * @return the median absolute deviation of the trials relative to their median, e.g. 0.01 for 1%.
+	 */
+	double getVariation() {
+		return variation;
+	}
+
+	/**
+	 * Runs the benchmark, which takes a few hundred milliseconds.
+	 */
+	static CpuCalibration measure() {
+		// Warm up until the times of consecutive trials are about the same, where the trials are made longer
+		// when they are too short to be measured well, e.g. when the benchmark loop has been compiled
+		long iterations = 1000;
+		long last = -1;
+		int stable = 0;
+
+		for (int i = 0; i < MAX_WARMUP_TRIALS && stable < STABLE_TRIALS; i++) {
+			final long time = runTrial(iterations);
+
+			if (time < TRIAL_NANOS / 2) {
+				iterations = Math.max(iterations + 1, iterations * TRIAL_NANOS / Math.max(1, time));
+				last = -1;
+				stable = 0;
+				continue;
+			}
+			if (last >= 0 && Math.abs(time - last) <= STABLE_TOLERANCE * last) {
+				stable++;
+			} else {
+				stable = 0;
+			}
+			last = time;
+		}
+
+		final double[] nanosPerIteration = new double[TRIALS];
+
+		for (int i = 0; i < TRIALS; i++) {
+			nanosPerIteration[i] = (double) runTrial(iterations) / iterations;
+		}
+		final double median = median(nanosPerIteration);
+
+		for (int i = 0; i < TRIALS; i++) {
+			nanosPerIteration[i] = Math.abs(nanosPerIteration[i] - median);
+		}
+		final double variation = median(nanosPerIteration) / median;
+
+		return new CpuCalibration(Math.max(1, (long) (APPROXIMATE_CYCLES_ALLOWED * median)), variation);
+	}
+
+	private static long runTrial(long iterations) {
+		double d = 0;
+		long clock = 0;
+		final long start = System.nanoTime();
+
+		for (long i = 0; i < iterations; i++) {
+			d += Math.hypot(Math.sqrt(Math.abs(log(Math.atan(Math.random())))), Math.cbrt(Math.abs(Math.random() * 10))) / exp(Math.random());
+
+			// The former loop read the clock every iteration, which is kept so the CPU constant stays the same
+			clock += System.currentTimeMillis();
+		}
+		final long time = System.nanoTime() - start;
+
+		sink = d + clock;
+		return time;
+	}
+
+	private static double median(double[] values) {
+		Arrays.sort(values);
+		final int middle = values.length / 2;
+
+		return (values.length % 2 == 1) ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+	}
+
+	// Work-around for bug #390
+	// The Java 9 Math.log(x) methods is much faster than in Java 8
+	private static double log(double x) {
+		if (JAVA_9_OR_NEWER) {
+			double d = 0;
+			for (int i = 0; i < 6; i++) {
+				d += Math.log(x);
+			}
+			return d;
+		} else {
+			return Math.log(x);
+		}
+	}
+
+	// Work-around for bug #390
+	// The Java 9 Math.exp(x) methods is much faster than in Java 8
+	private static double exp(double x) {
+		if (JAVA_9_OR_NEWER) {
+			double d = 0;
+			for (int i = 0; i < 62; i++) {
+				d += Math.exp(x);
+			}
+			return d;
+		} else {
+			return Math.exp(x);
+		}
+	}
+
+	// -----------
+	// cache
+	// -----------
+
+	/**
+	 * Returns the cached calibration of this system.
+	 *
+	 * @param cacheFile the cache file.
+	 * @return the calibration, or null if this system is not in the cache.
+	 */
+	static CpuCalibration load(File cacheFile) {
+		return load(cacheFile, getSystemKey());
+	}
+
+	/**
+	 * Returns the cached calibration of a system.
+	 *
+	 * @param cacheFile the cache file.
+	 * @param key the system, or null if it is unknown.
+	 * @return the calibration, or null if the system is not in the cache.
+	 */
+	static CpuCalibration load(File cacheFile, String key) {
+		if (key == null) {
+			return null;
+		}
+		final Properties cache = readCache(cacheFile);
+		final String constant = cache.getProperty(key + ".constant");
+
+		if (constant == null) {
+			return null;
+		}
+		try {
+			return new CpuCalibration(Long.parseLong(constant),
+					Double.parseDouble(cache.getProperty(key + ".variation", "-1")));
+		} catch (NumberFormatException e) {
+			Logger.logWarning("Invalid CPU constant of " + key + " in " + cacheFile);
+			return null;
+		}
+	}
+
+	/**
+	 * Caches this calibration for this system, where the calibrations of other systems are kept.
+	 *
+	 * @param cacheFile the cache file.
+	 */
+	void store(File cacheFile) {
+		store(cacheFile, getSystemKey());
+	}
+
+	/**
+	 * Caches this calibration for a system, unless the system is unknown.
+	 *
+	 * @param cacheFile the cache file.
+	 * @param key the system, or null if it is unknown.
+	 */
+	void store(File cacheFile, String key) {
+		if (key == null) {
+			return;
+		}
+		final Properties cache = readCache(cacheFile);
+
+		cache.setProperty(key + ".constant", "" + cpuConstant);
+		cache.setProperty(key + ".variation", "" + variation);
+
+		// Replaces the file at once, as several processes might be using it, where each process writes its own
+		// temporary file in the same directory, so the file can be moved
+		Path tempFile = null;
+		OutputStream out = null;
+
+		try {
+			tempFile = Files.createTempFile(cacheFile.getAbsoluteFile().getParentFile().toPath(), cacheFile.getName(),
+					".tmp");
+			out = Files.newOutputStream(tempFile);
+			cache.store(out, "Robocode CPU constants");
+			out.close();
+			out = null;
+			Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			tempFile = null;
+		} catch (IOException e) {
+			Logger.logError("Could not write " + cacheFile, e);
+		} finally {
+			if (out != null) {
+				try {
+					out.close();
+				} catch (IOException ignored) {}
+			}
+			if (tempFile != null) {
+				try {
+					Files.deleteIfExists(tempFile);
+				} catch (IOException ignored) {}
+			}
+		}
+	}
+
+	private static Properties readCache(File cacheFile) {
+		final Properties cache = new Properties();
+
+		if (cacheFile.exists()) {
+			InputStream in = null;
+
+			try {
+				in = new FileInputStream(cacheFile);
+				cache.load(in);
+			} catch (IOException e) {
+				Logger.logError("Could not read " + cacheFile, e);
+			} finally {
+				if (in != null) {
+					try {
+						in.close();
+					} catch (IOException ignored) {}
+				}
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * @return the CPU model, the number of processors, and the JVM of this system, or null if the CPU model is unknown.
+	 */
+	static String getSystemKey() {
+		final String cpuModel = getCpuModel();
+
+		if (cpuModel == null) {
+			return null;
+		}
+		return cpuModel + ", " + Runtime.getRuntime().availableProcessors() + " processors, "
+				+ System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version");
+	}
+
+	private static String getCpuModel() {
+		// Linux
+		final File cpuInfo = new File("/proc/cpuinfo");
+
+		if (cpuInfo.canRead()) {
+			BufferedReader reader = null;
+
+			try {
+				reader = new BufferedReader(new FileReader(cpuInfo));
+				String line;
+
+				while ((line = reader.readLine()) != null) {
+					if (line.startsWith("model name")) {
+						return line.substring(line.indexOf(':') + 1).trim();
+					}
+				}
+			} catch (IOException ignored) {
+			} finally {
+				if (reader != null) {
+					try {
+						reader.close();
+					} catch (IOException ignored) {}
+				}
+			}
+		}
+
+		// macOS
+		if (System.getProperty("os.name").startsWith("Mac")) {
+			BufferedReader reader = null;
+
+			try {
+				final Process process = new ProcessBuilder("sysctl", "-n", "machdep.cpu.brand_string").start();
+
+				reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+				final String brand = reader.readLine();
+
+				if (process.waitFor() == 0 && brand != null && brand.trim().length() > 0) {
+					return brand.trim();
+				}
+			} catch (IOException ignored) {
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				if (reader != null) {
+					try {
+						reader.close();
+					} catch (IOException ignored) {}
+				}
+			}
+		}
+
+		// Windows
+		return System.getenv("PROCESSOR_IDENTIFIER");
+	}
+}
@@ -9,10 +9,10 @@ package net.sf.robocode.host;
 
 
 import net.sf.robocode.core.Container;
+import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
 import net.sf.robocode.settings.ISettingsManager;
 import net.sf.robocode.ui.IWindowManager;
-import net.sf.robocode.util.JavaVersion;
 
 
 /**
@@ -23,12 +23,11 @@ import net.sf.robocode.util.JavaVersion;
  */
 public class CpuManager implements ICpuManager { // NO_UCD (use default)
 
-	private static final int APPROXIMATE_CYCLES_ALLOWED = 6250;
-	private static final int TEST_PERIOD_MILLIS = 5000;
-
-	private static final boolean JAVA_9_OR_NEWER = JavaVersion.getJavaMajorVersion() >= 9;
+	// Above this variation of the measurements, the system is considered too busy for fair battles
+	private static final double NOISY_VARIATION = 0.05;
 
 	private long cpuConstant = -1;
+	private double cpuConstantVariation = -1;
 	private final ISettingsManager properties;
 
 	public CpuManager(ISettingsManager properties) { // NO_UCD (unused code)
@@ -39,42 +38,49 @@ public class CpuManager implements ICpuManager { // NO_UCD (use default)
 		if (cpuConstant == -1) {
 			cpuConstant = properties.getCpuConstant();
 			if (cpuConstant == -1) {
-				calculateCpuConstant();
+				final CpuCalibration calibration = CpuCalibration.load(FileUtil.getCpuConstantCacheFile());
+
+				if (calibration == null) {
+					calculateCpuConstant();
+				} else {
+					setCpuConstant(calibration);
+					Logger.logMessage("Each robot will be allowed a maximum of " + cpuConstant
+							+ " nanoseconds per turn on this system, as cached for " + CpuCalibration.getSystemKey());
+				}
 			}
 		}
 		return cpuConstant;
 	}
 
+	public double getCpuConstantVariation() {
+		getCpuConstant();
+		return cpuConstantVariation;
+	}
+
 	public void calculateCpuConstant() {
 		setStatus("Estimating CPU speed, please wait...");
 
-		setCpuConstant();
+		final CpuCalibration calibration = CpuCalibration.measure();
+
+		calibration.store(FileUtil.getCpuConstantCacheFile());
+		setCpuConstant(calibration);
+
 		Logger.logMessage(
 				"Each robot will be allowed a maximum of " + cpuConstant + " nanoseconds per turn on this system.");
-
-		properties.setCpuConstant(cpuConstant);
-		properties.saveProperties();
+		if (cpuConstantVariation > NOISY_VARIATION) {
+			Logger.logWarning("The CPU speed varied by " + Math.round(cpuConstantVariation * 100)
+					+ "% while estimating it, so this system might be too busy to run fair battles.");
+		}
 
 		setStatus("");
 	}
 
-	private void setCpuConstant() {
-		long count = 0;
-		double d = 0;
-
-		long start = System.currentTimeMillis();
-
-		while (System.currentTimeMillis() - start < TEST_PERIOD_MILLIS) {
-			d += Math.hypot(Math.sqrt(Math.abs(log(Math.atan(Math.random())))), Math.cbrt(Math.abs(Math.random() * 10))) / exp(Math.random());
-			count++;
-		}
-
-		// to cheat optimizer, almost never happen
-		if (d == 0.0) {
-			Logger.logMessage("bingo!");
-		}
+	private void setCpuConstant(CpuCalibration calibration) {
+		cpuConstant = calibration.getCpuConstant();
+		cpuConstantVariation = calibration.getVariation();
 
-		cpuConstant = Math.max(1, (long) (1000000.0 * APPROXIMATE_CYCLES_ALLOWED * TEST_PERIOD_MILLIS / count));
+		properties.setCpuConstant(cpuConstant);
+		properties.saveProperties();
 	}
 
 	private void setStatus(String message) {
@@ -84,32 +90,4 @@ public class CpuManager implements ICpuManager { // NO_UCD (use default)
 			windowManager.setStatus(message);
 		}
 	}
-
-	// Work-around for bug #390
-	// The Java 9 Math.log(x) methods is much faster than in Java 8
-	private static double log(double x) {
-		if (JAVA_9_OR_NEWER) {
-			double d = 0;
-			for (int i = 0; i < 6; i++) {
-				d += Math.log(x);
-			}
-			return d;
-		} else {
-			return Math.log(x);
-		}
-	}
-
-	// Work-around for bug #390
-	// The Java 9 Math.exp(x) methods is much faster than in Java 8
-	private static double exp(double x) {
-		if (JAVA_9_OR_NEWER) {
-			double d = 0;
-			for (int i = 0; i < 62; i++) {
-				d += Math.exp(x);
-			}
-			return d;
-		} else {
-			return Math.exp(x);
-		}
-	}
 }
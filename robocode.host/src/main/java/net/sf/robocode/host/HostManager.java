@@ -29,8 +29,12 @@ import java.io.PrintStream;
  * @author Pavel Savara (original)
  */
 public class HostManager implements IHostManager {
+	// Opt-in, reuses one thread per robot for all rounds of a battle instead of starting a new thread every round
+	private static final boolean IS_POOLED_THREADS = System.getProperty("POOLEDTHREADS", "false").equals("true");
+
 	private final ISettingsManager properties;
 	private final IThreadManager threadManager;
+	private volatile boolean isPooledThreads = IS_POOLED_THREADS;
 
 	public HostManager(ISettingsManager properties, IThreadManager threadManager) { // NO_UCD (unused code)
 		this.properties = properties;
@@ -57,6 +61,14 @@ public class HostManager implements IHostManager {
 		return properties.getRobotFilesystemQuota();
 	}
 
+	public boolean isPooledThreads() {
+		return isPooledThreads;
+	}
+
+	public void setPooledThreads(boolean isPooledThreads) {
+		this.isPooledThreads = isPooledThreads;
+	}
+
 	public IThreadManager getThreadManager() {
 		return threadManager;
 	}
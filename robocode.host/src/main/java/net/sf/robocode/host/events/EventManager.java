@@ -39,13 +39,14 @@ public final class EventManager implements IEventManager {
 	public final static int MAX_QUEUE_SIZE = 256;
 
 	private final List<Condition> customEvents = new CopyOnWriteArrayList<Condition>();
-	private final EventQueue eventQueue;
+	private final PriorityEventQueue eventQueue;
 
 	private final boolean[] interruptible = new boolean[MAX_PRIORITY + 1];
 	private Event currentTopEvent;
 	private int currentTopEventPriority;
 	private ScannedRobotEvent dummyScannedRobotEvent;
 	private Map<String, Event> eventNames;
+	private Map<Class<?>, Event> eventClasses;
 
 	private IBasicRobot robot;
 	private BasicRobotProxy robotProxy;
@@ -57,7 +58,7 @@ public final class EventManager implements IEventManager {
 	 */
 	public EventManager(BasicRobotProxy robotProxy) {
 		this.robotProxy = robotProxy;
-		eventQueue = new EventQueue();
+		eventQueue = new PriorityEventQueue(MAX_PRIORITY);
 
 		registerEventNames();
 		reset();
@@ -69,7 +70,7 @@ public final class EventManager implements IEventManager {
 	 */
 	public void add(Event event) {
 		if (!HiddenAccess.isCriticalEvent(event)) {
-			final int priority = getEventPriority(event.getClass().getName());
+			final int priority = getEventPriority(event.getClass());
 			HiddenAccess.setEventPriority(event, priority);
 		}
 		addImpl(event);
@@ -349,12 +350,9 @@ public final class EventManager implements IEventManager {
 			}
 		}
 
-		// Sort the events based on the time and priority of the events
-		eventQueue.sort();
-
-		// Process event queue here
+		// Process event queue here, taking the events in order of their time and priority
 		Event currentEvent;
-		while ((currentEvent = (eventQueue.size() > 0) ? eventQueue.get(0) : null) != null
+		while ((currentEvent = eventQueue.peek()) != null
 				&& currentEvent.getPriority() >= currentTopEventPriority) {
 
 			if (currentEvent.getPriority() == currentTopEventPriority) {
@@ -494,6 +492,21 @@ public final class EventManager implements IEventManager {
 		return event.getPriority();
 	}
 
+	/**
+	 * Returns the priority of events belonging to a specific class, which is looked up by the class itself for the
+	 * event classes known by Robocode, as this is done for every event added to the queue.
+	 * @param eventClass is the class of the event type to get the priority from.
+	 * @return the event priority of the specified event class.
+	 */
+	private int getEventPriority(Class<?> eventClass) {
+		final Event event = eventClasses.get(eventClass);
+
+		if (event == null) {
+			return getEventPriority(eventClass.getName());
+		}
+		return event.getPriority();
+	}
+
 	/**
 	 * Sets the event priority of events belonging to a specific class.
 	 * @param eventClass is a string with the full class name of the event type to set the priority for.
@@ -520,6 +533,7 @@ public final class EventManager implements IEventManager {
 	 */
 	private void registerEventNames() {
 		eventNames = new HashMap<String, Event>();
+		eventClasses = new IdentityHashMap<Class<?>, Event>();
 		dummyScannedRobotEvent = new ScannedRobotEvent(null, 0, 0, 0, 0, 0, false);
 		registerEventNames(new BattleEndedEvent(false, null));
 		registerEventNames(new BulletHitBulletEvent(null, null));
@@ -553,6 +567,7 @@ public final class EventManager implements IEventManager {
 		final DummyCustomEvent customEvent = new DummyCustomEvent();
 		eventNames.put("robocode.CustomEvent", customEvent); // full name with package name
 		eventNames.put("CustomEvent", customEvent); // only the class name
+		eventClasses.put(CustomEvent.class, customEvent);
 	}
 
 	/**
@@ -567,6 +582,7 @@ public final class EventManager implements IEventManager {
 		final Class<?> type = event.getClass();
 		eventNames.put(type.getName(), event); // full name with package name
 		eventNames.put(type.getSimpleName(), event); // only the class name
+		eventClasses.put(type, event);
 	}
 
 	/**
@@ -12,7 +12,6 @@ import net.sf.robocode.security.HiddenAccess;
 import robocode.Event;
 
 import java.util.ArrayList;
-import java.util.Collections;
 
 
 /**
@@ -28,26 +27,28 @@ public class EventQueue extends ArrayList<Event> {
 			return;
 		}
 
+		int kept = 0;
+
 		for (int i = 0; i < size(); i++) {
 			Event e = get(i);
 
-			if (!HiddenAccess.isCriticalEvent(e)) {
-				remove(i--);
+			if (HiddenAccess.isCriticalEvent(e)) {
+				set(kept++, e);
 			}
 		}
+		removeRange(kept, size());
 	}
 
 	public void clear(long clearTime) {
+		int kept = 0;
+
 		for (int i = 0; i < size(); i++) {
 			Event e = get(i);
 
-			if ((e.getTime() <= clearTime) && !HiddenAccess.isCriticalEvent(e)) {
-				remove(i--);
+			if ((e.getTime() > clearTime) || HiddenAccess.isCriticalEvent(e)) {
+				set(kept++, e);
 			}
 		}
-	}
-
-	void sort() {
-		Collections.sort(this);
+		removeRange(kept, size());
 	}
 }
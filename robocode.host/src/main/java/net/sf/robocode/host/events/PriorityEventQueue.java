@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host.events;
+
+
+import net.sf.robocode.security.HiddenAccess;
+import robocode.Event;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+
+/**
+ * The event queue of a robot, which keeps the events in a bucket per priority, so the next event to dispatch is
+ * found without sorting the whole queue every turn.
+ * <p>
+ * The events of a bucket are kept in the order of {@link Event#compareTo(Event)}, where events comparing equal stay
+ * in the order they were added. The next event is the first of the bucket heads in that order. Hence the events are
+ * taken in the same order as from a single list sorted with {@link Collections#sort(List)}. Events with a priority
+ * outside of the buckets, like some system events, are put into the lowest or highest bucket, where they are ordered
+ * by their priority as well.
+ *
+ * @see EventManager#processEvents()
+ */
+final class PriorityEventQueue implements Iterable<Event> {
+
+	private final List<Event>[] buckets;
+	private final boolean[] unsorted;
+	private final long[] nonEmpty;
+	private int size;
+
+	/**
+	 * Creates a new queue with buckets for the priorities from 0 to the given priority.
+	 *
+	 * @param maxPriority the priority of the highest bucket.
+	 */
+	@SuppressWarnings("unchecked")
+	PriorityEventQueue(int maxPriority) {
+		buckets = (List<Event>[]) new List<?>[maxPriority + 1];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = new ArrayList<Event>();
+		}
+		unsorted = new boolean[buckets.length];
+		nonEmpty = new long[(buckets.length + 63) / 64];
+	}
+
+	int size() {
+		return size;
+	}
+
+	void add(Event event) {
+		final int index = getBucketIndex(event);
+		final List<Event> bucket = buckets[index];
+
+		if (!bucket.isEmpty() && bucket.get(bucket.size() - 1).compareTo(event) > 0) {
+			unsorted[index] = true;
+		}
+		bucket.add(event);
+		nonEmpty[index >> 6] |= 1L << index;
+		size++;
+	}
+
+	/**
+	 * Returns the next event to dispatch, which is the first event if the queue was sorted.
+	 *
+	 * @return the next event, or {@code null} if the queue is empty.
+	 */
+	Event peek() {
+		Event first = null;
+
+		for (int word = 0; word < nonEmpty.length; word++) {
+			for (long bits = nonEmpty[word]; bits != 0; bits &= bits - 1) {
+				final Event head = getSortedBucket((word << 6) + Long.numberOfTrailingZeros(bits)).get(0);
+
+				if (first == null || head.compareTo(first) < 0) {
+					first = head;
+				}
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * Removes an event from the queue, which is usually the one returned by {@link #peek()}.
+	 *
+	 * @param event the event to remove.
+	 */
+	void remove(Event event) {
+		final int index = getBucketIndex(event);
+		final List<Event> bucket = buckets[index];
+
+		if (!bucket.isEmpty() && bucket.get(0) == event) {
+			bucket.remove(0);
+		} else if (!bucket.remove(event)) {
+			return;
+		}
+		size--;
+		updateNonEmpty(index);
+	}
+
+	/**
+	 * Removes all events, or all except the critical events.
+	 *
+	 * @param includingSystemEvents {@code true} if the critical events must be removed as well.
+	 */
+	void clear(boolean includingSystemEvents) {
+		clear(includingSystemEvents, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Removes the events that are not critical, and took place at or before the given time.
+	 *
+	 * @param clearTime the time of the newest events to remove.
+	 */
+	void clear(long clearTime) {
+		clear(false, clearTime);
+	}
+
+	private void clear(boolean includingSystemEvents, long clearTime) {
+		for (int index = 0; index < buckets.length; index++) {
+			final List<Event> bucket = buckets[index];
+
+			if (bucket.isEmpty()) {
+				continue;
+			}
+			if (includingSystemEvents) {
+				size -= bucket.size();
+				bucket.clear();
+			} else {
+				int kept = 0;
+
+				for (int i = 0; i < bucket.size(); i++) {
+					final Event event = bucket.get(i);
+
+					if (event.getTime() > clearTime || HiddenAccess.isCriticalEvent(event)) {
+						bucket.set(kept++, event);
+					}
+				}
+				size -= bucket.size() - kept;
+				bucket.subList(kept, bucket.size()).clear();
+			}
+			updateNonEmpty(index);
+		}
+	}
+
+	/**
+	 * Returns an iterator over the events in the order they are dispatched.
+	 */
+	public Iterator<Event> iterator() {
+		return new Iterator<Event>() {
+			private final int[] positions = new int[buckets.length];
+			private int remaining = size;
+
+			public boolean hasNext() {
+				return remaining > 0;
+			}
+
+			public Event next() {
+				if (remaining <= 0) {
+					throw new NoSuchElementException();
+				}
+				int nextIndex = -1;
+				Event next = null;
+
+				for (int index = 0; index < buckets.length; index++) {
+					final List<Event> bucket = getSortedBucket(index);
+
+					if (positions[index] < bucket.size()) {
+						final Event head = bucket.get(positions[index]);
+
+						if (next == null || head.compareTo(next) < 0) {
+							next = head;
+							nextIndex = index;
+						}
+					}
+				}
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				positions[nextIndex]++;
+				remaining--;
+				return next;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	private int getBucketIndex(Event event) {
+		return Math.max(0, Math.min(event.getPriority(), buckets.length - 1));
+	}
+
+	private List<Event> getSortedBucket(int index) {
+		final List<Event> bucket = buckets[index];
+
+		if (unsorted[index]) {
+			Collections.sort(bucket);
+			unsorted[index] = false;
+		}
+		return bucket;
+	}
+
+	private void updateNonEmpty(int index) {
+		if (buckets[index].isEmpty()) {
+			nonEmpty[index >> 6] &= ~(1L << index);
+			unsorted[index] = false;
+		}
+	}
+}
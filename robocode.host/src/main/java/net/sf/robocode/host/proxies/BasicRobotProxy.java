@@ -30,6 +30,7 @@ import java.awt.*;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -392,15 +393,20 @@ public class BasicRobotProxy extends HostingRobotProxy implements IBasicRobotPee
 			eventManager.add(new PaintEvent());
 		}
 
-		// add other events
-		if (execResults.getEvents() != null) {
-			for (Event event : execResults.getEvents()) {
-				eventManager.add(event);
+		// add other events, walking the lists by index so no iterators are created every turn
+		final List<Event> events = execResults.getEvents();
+
+		if (events != null) {
+			for (int i = 0; i < events.size(); i++) {
+				eventManager.add(events.get(i));
 			}
 		}
 
-		if (execResults.getBulletUpdates() != null) {
-			for (BulletStatus bulletStatus : execResults.getBulletUpdates()) {
+		final List<BulletStatus> bulletUpdates = execResults.getBulletUpdates();
+
+		if (bulletUpdates != null) {
+			for (int i = 0; i < bulletUpdates.size(); i++) {
+				final BulletStatus bulletStatus = bulletUpdates.get(i);
 				final Bullet bullet = bullets.get(bulletStatus.bulletId);
 
 				if (bullet != null) {
@@ -67,7 +67,7 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 		robotClassLoader.setRobotProxy(this);
 
 		out = new RobotOutputStream();
-		robotThreadManager = new RobotThreadManager(this);
+		robotThreadManager = new RobotThreadManager(this, hostManager.isPooledThreads());
 
 		loadClassBattle();
 
@@ -97,6 +97,11 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 		}
 		robotThreadManager = null;
 
+		// Forget the thread groups of this robot only, as other battles might still be running
+		if (threadManager != null) {
+			threadManager.removeThreadGroups(this);
+		}
+
 		// Cleanup and remove class manager
 		if (robotClassLoader != null) {
 			robotClassLoader.cleanup();
@@ -162,6 +167,12 @@ abstract class HostingRobotProxy implements IHostingRobotProxy, IHostedThread {
 		}
 	}
 
+	public long getCpuTime() {
+		final RobotThreadManager manager = robotThreadManager;
+
+		return manager == null ? -1 : manager.getCpuTime();
+	}
+
 	private void loadClassBattle() {
 		try {
 			robotClassLoader.loadRobotMainClass(true);
@@ -24,6 +24,14 @@ public interface IHostingRobotProxy {
 
 	void waitForStopThread();
 
+	/**
+	 * Returns the CPU time consumed by the threads of the robot, which are the thread of the robot and the
+	 * threads it has started, in nanoseconds.
+	 *
+	 * @return the CPU time in nanoseconds, or -1 if the CPU time of threads cannot be measured.
+	 */
+	long getCpuTime();
+
 	void cleanup();
 
 	IBasicRobot getRobotObject();
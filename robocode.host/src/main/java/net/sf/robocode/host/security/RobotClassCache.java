@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host.security;
+
+
+import java.io.File;
+import java.lang.ref.SoftReference;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Process-wide cache of the robot class files and the classes they reference, so the class loaders of the next
+ * battles only have to define the classes, instead of reading and analyzing the class files again.
+ * <p>
+ * A class is cached by the robot jar it was read from, or by its class file when the robot is in a directory. The
+ * cached class is used as long as the modification time and length of that file are the same. Classes that are not
+ * in a robot jar are cached too, as the jar would be opened to look them up otherwise. The cached classes are softly
+ * referenced, so they are dropped when the memory runs low. The cache is disabled with the ROBOTCLASSCACHE system
+ * property set to false.
+ *
+ * @see RobotClassLoader
+ */
+final class RobotClassCache {
+
+	private static final boolean IS_ENABLED = !System.getProperty("ROBOTCLASSCACHE", "true").equals("false");
+
+	/**
+	 * Marks a class that is not in the robot jar.
+	 */
+	static final ClassDefinition MISSING = new ClassDefinition(null, new String[0]);
+
+	private static final ConcurrentMap<String, SoftReference<CachedClass>> cache =
+			new ConcurrentHashMap<String, SoftReference<CachedClass>>();
+
+	private RobotClassCache() {}
+
+	/**
+	 * Returns the key of a robot class, where the modification time of its file is taken before the class is read.
+	 *
+	 * @param classPath the class path of the robot, which is a robot jar or directory.
+	 * @param className the full name of the class.
+	 * @return the key, or {@code null} if the class cannot be cached.
+	 */
+	static Key getKey(final URL classPath, final String className) {
+		if (!IS_ENABLED || classPath == null) {
+			return null;
+		}
+		// the class may be loaded by the robot thread, which is not allowed to read the file attributes
+		return AccessController.doPrivileged(new PrivilegedAction<Key>() {
+			public Key run() {
+				return createKey(classPath, className);
+			}
+		});
+	}
+
+	private static Key createKey(URL classPath, String className) {
+		final String classFileName = className.replace('.', '/').concat(".class");
+
+		try {
+			if ("jar".equals(classPath.getProtocol())) {
+				final String path = classPath.getPath();
+				final int separator = path.indexOf("!/");
+
+				if (separator < 0) {
+					return null;
+				}
+				final URL jarURL = new URL(path.substring(0, separator));
+
+				if (!"file".equals(jarURL.getProtocol())) {
+					return null;
+				}
+				return new Key(new File(jarURL.toURI()), classFileName);
+			}
+			if ("file".equals(classPath.getProtocol())) {
+				return new Key(new File(new File(classPath.toURI()), classFileName), null);
+			}
+		} catch (Exception ignore) {// Malformed or not a file, so the class is not cached
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the cached class, if its file has not changed since it was cached.
+	 *
+	 * @param key the key of the class.
+	 * @return the cached class, {@link #MISSING} if the class is not in the robot jar, or {@code null} if it is
+	 *         not cached.
+	 */
+	static ClassDefinition get(Key key) {
+		final SoftReference<CachedClass> reference = cache.get(key.name);
+		final CachedClass cached = reference != null ? reference.get() : null;
+
+		if (cached == null || cached.lastModified != key.lastModified || cached.length != key.length) {
+			return null;
+		}
+		return cached.definition;
+	}
+
+	/**
+	 * Analyzes a class file and caches the result with the modification time of the key.
+	 *
+	 * @param key the key of the class, as taken before the class file was read.
+	 * @param classFile the class file, or {@code null} if it was not found.
+	 * @return the analyzed class, or {@code null} if the class file was not found.
+	 */
+	static ClassDefinition put(Key key, ByteBuffer classFile) {
+		final ClassDefinition definition;
+
+		if (classFile == null) {
+			if (!key.isJar || key.lastModified == 0) {
+				// A missing class file of a robot directory has no modification time to compare with
+				return null;
+			}
+			definition = MISSING;
+		} else {
+			definition = analyze(classFile);
+		}
+		if (key.lastModified != 0) {
+			cache.put(key.name, new SoftReference<CachedClass>(new CachedClass(key, definition)));
+		}
+		return definition != MISSING ? definition : null;
+	}
+
+	/**
+	 * Analyzes a class file without caching it.
+	 *
+	 * @param classFile the class file.
+	 * @return the analyzed class.
+	 */
+	static ClassDefinition analyze(ByteBuffer classFile) {
+		final Set<String> referencedClasses = new HashSet<String>();
+
+		ClassAnalyzer.getReferencedClasses(classFile, referencedClasses);
+
+		return new ClassDefinition(Arrays.copyOf(classFile.array(), classFile.limit()),
+				referencedClasses.toArray(new String[referencedClasses.size()]));
+	}
+
+	/**
+	 * The bytes of a robot class and the names of the classes it references.
+	 */
+	static final class ClassDefinition {
+		private final byte[] bytes;
+		private final String[] referencedClasses;
+
+		ClassDefinition(byte[] bytes, String[] referencedClasses) {
+			this.bytes = bytes;
+			this.referencedClasses = referencedClasses;
+		}
+
+		/**
+		 * Returns a new buffer for the class bytes, so the bytes can be shared by the class loaders.
+		 */
+		ByteBuffer getBytes() {
+			return ByteBuffer.wrap(bytes);
+		}
+
+		String[] getReferencedClasses() {
+			return referencedClasses;
+		}
+	}
+
+	/**
+	 * The name of a class and the modification time and length of the file it is read from.
+	 */
+	static final class Key {
+		private final String name;
+		private final boolean isJar;
+		private final long lastModified;
+		private final long length;
+
+		private Key(File file, String entryName) {
+			this.name = entryName != null ? file.getPath() + "!/" + entryName : file.getPath();
+			this.isJar = entryName != null;
+			this.lastModified = file.lastModified();
+			this.length = file.length();
+		}
+	}
+
+	private static final class CachedClass {
+		private final long lastModified;
+		private final long length;
+		private final ClassDefinition definition;
+
+		CachedClass(Key key, ClassDefinition definition) {
+			this.lastModified = key.lastModified;
+			this.length = key.length;
+			this.definition = definition;
+		}
+	}
+}
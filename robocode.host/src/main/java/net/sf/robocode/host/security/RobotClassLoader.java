@@ -25,6 +25,7 @@ import java.nio.ByteBuffer;
 import java.security.*;
 import java.security.cert.Certificate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -48,6 +49,7 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 	private static final PermissionCollection EMPTY_PERMISSIONS = new Permissions();
 
 	private final String fullClassName;
+	private final URL robotClassPath;
 
 	private ClassLoader parent;
 	private CodeSource codeSource;
@@ -67,6 +69,7 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 	public RobotClassLoader(URL robotClassPath, String robotFullClassName) {
 		super(new URL[] { robotClassPath}, Container.systemLoader);
 		fullClassName = robotFullClassName;
+		this.robotClassPath = robotClassPath;
 		parent = getParent();
 		try {
 			codeSource = new CodeSource(new URL(UNTRUSTED_URL), (Certificate[]) null);
@@ -135,18 +138,33 @@ public class RobotClassLoader extends URLClassLoader implements IRobotClassLoade
 	private Class<?> loadRobotClassLocaly(String name, boolean resolve) throws ClassNotFoundException {
 		Class<?> result = findLoadedClass(name);
 		if (result == null) {
-			ByteBuffer resource = findLocalResource(name);
-			if (resource != null) {
-				result = defineClass(name, resource, codeSource);
+			RobotClassCache.ClassDefinition definition = findClassDefinition(name);
+			if (definition != null) {
+				result = defineClass(name, definition.getBytes(), codeSource);
 				if (resolve) {
 					resolveClass(result);
 				}
-				ClassAnalyzer.getReferencedClasses(resource, referencedClasses);
+				Collections.addAll(referencedClasses, definition.getReferencedClasses());
 			}
 		}
 		return result;
 	}
 
+	// the class files are read and analyzed once, and then taken from the cache by the loaders of the next battles,
+	// which still define their own classes with their own static state
+	private RobotClassCache.ClassDefinition findClassDefinition(String name) {
+		RobotClassCache.Key key = RobotClassCache.getKey(robotClassPath, name);
+		if (key == null) {
+			ByteBuffer resource = findLocalResource(name);
+			return resource != null ? RobotClassCache.analyze(resource) : null;
+		}
+		RobotClassCache.ClassDefinition definition = RobotClassCache.get(key);
+		if (definition == null) {
+			return RobotClassCache.put(key, findLocalResource(name));
+		}
+		return definition != RobotClassCache.MISSING ? definition : null;
+	}
+
 	// this whole fun is there to be able to provide defineClass with bytes
 	// we need to call defineClass to be able to set codeSource to untrustedLocation  
 	private ByteBuffer findLocalResource(final String name) {
@@ -17,6 +17,8 @@ import static net.sf.robocode.io.Logger.logMessage;
 import static net.sf.robocode.io.Logger.logWarning;
 import robocode.exception.RobotException;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.InvocationTargetException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -31,19 +33,35 @@ import java.util.Map;
  */
 public class RobotThreadManager {
 
+	private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
 	private final IHostedThread robotProxy;
+
+	// Reuses one thread per robot for all rounds of a battle instead of starting a new thread every round
+	private final boolean isPooled;
 	private Thread runThread;
+	private PooledRunner pooledRunner;
 	private ThreadGroup runThreadGroup;
 	private Object awtForThreadGroup;
 	private final Map<Thread, Disposal> disposeAppContextThreadMap = new HashMap<Thread, Disposal>();
 
-	public RobotThreadManager(IHostedThread robotProxy) {
+	// Reused by getCpuTime(), which is called on the battle thread only
+	private Thread[] cpuTimeThreads = new Thread[8];
+
+	public RobotThreadManager(IHostedThread robotProxy, boolean isPooled) {
 		this.robotProxy = robotProxy;
+		this.isPooled = isPooled;
 		createThreadGroup();
 	}
 
 	public void cleanup() {
 		try {
+			if (pooledRunner != null) {
+				// Let the idle thread of the robot end, so the thread group can be destroyed
+				pooledRunner.dispose();
+				pooledRunner = null;
+				runThread.join(500);
+			}
 			if (runThread == null || !runThread.isAlive()) {
 				if (!discardAWT()) {
 					runThreadGroup.destroy();
@@ -86,26 +104,49 @@ public class RobotThreadManager {
 		try {
 			threadManager.addThreadGroup(runThreadGroup, robotProxy);
 
-			runThread = new Thread(runThreadGroup, robotProxy, robotProxy.getStatics().getName());
-			runThread.setDaemon(true);
-			runThread.setPriority(Thread.NORM_PRIORITY - 1);
-			runThread.setContextClassLoader(this.robotProxy.getRobotClassloader());
+			if (isPooled) {
+				startPooled();
+				return;
+			}
+			runThread = createRunThread(robotProxy);
 			runThread.start();
 		} catch (Exception e) {
 			logError("Exception starting thread", e);
 		}
 	}
 
+	private void startPooled() {
+		// A new thread is needed for the first round, after a forced stop, or if the robot is still running
+		if (pooledRunner == null || pooledRunner.isBusy() || runThread == null || !runThread.isAlive()) {
+			if (pooledRunner != null) {
+				pooledRunner.dispose();
+			}
+			pooledRunner = new PooledRunner(robotProxy);
+			runThread = createRunThread(pooledRunner);
+			runThread.start();
+		}
+		pooledRunner.startRound();
+	}
+
+	private Thread createRunThread(Runnable runnable) {
+		final Thread thread = new Thread(runThreadGroup, runnable, robotProxy.getStatics().getName());
+
+		thread.setDaemon(true);
+		thread.setPriority(Thread.NORM_PRIORITY - 1);
+		thread.setContextClassLoader(this.robotProxy.getRobotClassloader());
+		return thread;
+	}
+
 	/**
 	 * @return true as peaceful stop
 	 */
 	public boolean waitForStop() {
 		boolean isAlive = false;
 
-		if (runThread != null && runThread.isAlive()) {
+		if (runThread != null && isRunning(runThread)) {
 			runThread.interrupt();
 			waitForStop(runThread);
-			isAlive = runThread.isAlive();
+			isAlive = isRunning(runThread);
 		}
 
 		Thread[] threads = new Thread[100];
@@ -140,6 +181,11 @@ public class RobotThreadManager {
 	 * @return true as peaceful stop
 	 */
 	public boolean forceStop() {
+		if (pooledRunner != null) {
+			// The thread of the robot must end when the robot stops, as it might not be reused
+			pooledRunner.dispose();
+			pooledRunner = null;
+		}
 		int res = stopSteps(runThread);
 
 		Thread[] threads = new Thread[100];
@@ -161,6 +207,36 @@ public class RobotThreadManager {
 		return res == 0;
 	}
 
+	/**
+	 * Returns the CPU time consumed by the threads in the thread group of the robot, i.e. the thread of the robot
+	 * and the threads the robot has started. The CPU time of threads that have ended is no longer included.
+	 *
+	 * @return the CPU time in nanoseconds, or -1 if the CPU time of threads is not supported or not enabled.
+	 */
+	public long getCpuTime() {
+		if (!THREAD_MX_BEAN.isThreadCpuTimeSupported() || !THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+			return -1;
+		}
+		int count;
+
+		while ((count = runThreadGroup.enumerate(cpuTimeThreads)) == cpuTimeThreads.length) {
+			cpuTimeThreads = new Thread[cpuTimeThreads.length * 2];
+		}
+
+		long cpuTime = 0;
+
+		for (int i = 0; i < count; i++) {
+			final long threadCpuTime = THREAD_MX_BEAN.getThreadCpuTime(cpuTimeThreads[i].getId());
+
+			// -1 if the thread has ended in the meantime
+			if (threadCpuTime > 0) {
+				cpuTime += threadCpuTime;
+			}
+			cpuTimeThreads[i] = null;
+		}
+		return cpuTime;
+	}
+
 	/**
 	 * @param t thread to stop
 	 * @return 0 as peaceful stop
@@ -215,19 +291,38 @@ public class RobotThreadManager {
 	}
 
 	private void waitForStop(Thread thread) {
-		for (int j = 0; j < 100 && thread.isAlive(); j++) {
-			if (j == 50) {
-				logMessage(
-						"Waiting for robot " + robotProxy.getStatics().getName() + " to stop thread " + thread.getName());
-			}
-			try {
-				Thread.sleep(10);
-			} catch (InterruptedException e) {
-				// Immediately reasserts the exception by interrupting the caller thread itself
-				Thread.currentThread().interrupt();
-				break; // We are in a loop
+		if (!waitForStop(thread, 500) && !Thread.currentThread().isInterrupted()) {
+			logMessage("Waiting for robot " + robotProxy.getStatics().getName() + " to stop thread " + thread.getName());
+
+			waitForStop(thread, 500);
+		}
+	}
+
+	/**
+	 * @return true if the thread has stopped
+	 */
+	private boolean waitForStop(Thread thread, long millis) {
+		try {
+			if (thread == runThread && pooledRunner != null) {
+				pooledRunner.waitForIdle(millis);
+			} else {
+				thread.join(millis);
 			}
+		} catch (InterruptedException e) {
+			// Immediately reasserts the exception by interrupting the caller thread itself
+			Thread.currentThread().interrupt();
+		}
+		return !isRunning(thread);
+	}
+
+	/**
+	 * @return true if the thread is running robot code, which for a pooled thread means that it is not idle
+	 */
+	private boolean isRunning(Thread thread) {
+		if (thread == runThread && pooledRunner != null) {
+			return thread.isAlive() && pooledRunner.isBusy();
 		}
+		return thread.isAlive();
 	}
 
 	private void createThreadGroup() {
@@ -340,4 +435,84 @@ public class RobotThreadManager {
 	private static class Disposal {
 		boolean isDisposing;
 	}
+
+	/**
+	 * Runs the robot once per round on the same thread, which waits for the next round in between.
+	 * The thread stays in the thread group of the robot, so it is identified as the robot's thread.
+	 * <p>
+	 * As the thread is reused, the values of ThreadLocals set by the robot in a round are still there in the next
+	 * rounds, where a new thread would start without them. Robots already keep their static fields between rounds,
+	 * so the ThreadLocals are not cleared, which is only possible through the internals of Thread.
+	 */
+	private static final class PooledRunner implements Runnable {
+		private final Runnable robot;
+
+		private boolean isStartRequested;
+		private boolean isBusy;
+		private boolean isDisposed;
+
+		PooledRunner(Runnable robot) {
+			this.robot = robot;
+		}
+
+		public void run() {
+			while (waitForRound()) {
+				// The interrupt, which ended the previous round, must not end this round
+				Thread.interrupted();
+				try {
+					robot.run();
+				} finally {
+					synchronized (this) {
+						isBusy = false;
+						notifyAll();
+					}
+				}
+			}
+		}
+
+		synchronized void startRound() {
+			isStartRequested = true;
+			isBusy = true;
+			notifyAll();
+		}
+
+		synchronized boolean isBusy() {
+			return isBusy;
+		}
+
+		synchronized void waitForIdle(long millis) throws InterruptedException {
+			final long deadline = System.currentTimeMillis() + millis;
+
+			for (long wait = millis; isBusy && wait > 0; wait = deadline - System.currentTimeMillis()) {
+				wait(wait);
+			}
+		}
+
+		synchronized void dispose() {
+			isDisposed = true;
+			notifyAll();
+		}
+
+		private synchronized boolean waitForRound() {
+			boolean interrupted = false;
+
+			while (!isStartRequested && !isDisposed) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					// The robot is interrupted at the end of every round, even if it has already stopped
+					interrupted = true;
+				}
+			}
+			isStartRequested = false;
+			if (isDisposed) {
+				// The thread ends, so an interrupt meant to stop it is kept
+				if (interrupted) {
+					Thread.currentThread().interrupt();
+				}
+				return false;
+			}
+			return true;
+		}
+	}
 }
@@ -18,7 +18,10 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -35,12 +38,14 @@ public class ThreadManager implements IThreadManager {
 
 	private final List<Thread> safeThreads = new CopyOnWriteArrayList<Thread>();
 	private final List<ThreadGroup> safeThreadGroups = new CopyOnWriteArrayList<ThreadGroup>();
-	private final List<ThreadGroup> groups = new CopyOnWriteArrayList<ThreadGroup>();
 	private final List<Thread> outputStreamThreads = new CopyOnWriteArrayList<Thread>();
-	private final List<IHostedThread> robots = new CopyOnWriteArrayList<IHostedThread>();
 
-	private Thread robotLoaderThread;
-	private IHostedThread loadingRobot;
+	// Maps the thread groups to the robots of all running battles, as several battles might run at the same time
+	private final Map<ThreadGroup, IHostedThread> robots = new ConcurrentHashMap<ThreadGroup, IHostedThread>();
+
+	// Maps the threads loading robots to the robots being loaded. A robot is loaded on its own thread, which is in
+	// the thread group of the robot, so threads started while loading are found by their thread group in robots.
+	private final Map<Thread, IHostedThread> loadingRobots = new ConcurrentHashMap<Thread, IHostedThread>();
 
 	public ThreadManager() {}
 
@@ -57,26 +62,26 @@ public class ThreadManager implements IThreadManager {
 	}
 
 	public void addThreadGroup(ThreadGroup g, IHostedThread robotProxy) {
-		if (!groups.contains(g)) {
-			groups.add(g);
-			robots.add(robotProxy);
+		if (!robots.containsKey(g)) {
+			robots.put(g, robotProxy);
 		}
 	}
 
-	public synchronized IHostedThread getLoadingRobot() {
-		return loadingRobot;
+	public void removeThreadGroups(IHostedThread robotProxy) {
+		robots.values().removeAll(Collections.singleton(robotProxy));
 	}
 
-	public synchronized IHostedThread getLoadingRobotProxy(Thread t) {
-		if (t != null && robotLoaderThread != null
-				&& (t.equals(robotLoaderThread)
-				|| (t.getThreadGroup() != null && t.getThreadGroup().equals(robotLoaderThread.getThreadGroup())))) {
-			return loadingRobot;
-		}
-		return null;
+	public IHostedThread getLoadingRobot() {
+		return loadingRobots.get(Thread.currentThread());
+	}
+
+	public IHostedThread getLoadingRobotProxy(Thread t) {
+		// Only the loading thread itself is looked up, as the thread group of a loading thread that is not in the
+		// thread group of its robot is shared by battles running at the same time, e.g. in the batch engine.
+		return t == null ? null : loadingRobots.get(t);
 	}
 
-	public synchronized IHostedThread getLoadedOrLoadingRobotProxy(Thread t) {
+	public IHostedThread getLoadedOrLoadingRobotProxy(Thread t) {
 		IHostedThread robotProxy = getRobotProxy(t);
 
 		if (robotProxy == null) {
@@ -91,26 +96,18 @@ public class ThreadManager implements IThreadManager {
 		if (g == null) {
 			return null;
 		}
-		int index = groups.indexOf(g);
-
-		if (index == -1) {
-			return null;
-		}
-		return robots.get(index);
+		return robots.get(g);
 	}
 
 	public void reset() {
-		groups.clear();
 		robots.clear();
 	}
 
-	public synchronized void setLoadingRobot(IHostedThread newLoadingRobotProxy) {
+	public void setLoadingRobot(IHostedThread newLoadingRobotProxy) {
 		if (newLoadingRobotProxy == null) {
-			this.robotLoaderThread = null;
-			loadingRobot = null;
+			loadingRobots.remove(Thread.currentThread());
 		} else {
-			this.robotLoaderThread = Thread.currentThread();
-			loadingRobot = newLoadingRobotProxy;
+			loadingRobots.put(Thread.currentThread(), newLoadingRobotProxy);
 		}
 	}
 
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.host;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+
+public class CpuCalibrationTest {
+
+	@Test
+	public void measure() {
+		final long start = System.nanoTime();
+		final CpuCalibration calibration = CpuCalibration.measure();
+		final long millis = (System.nanoTime() - start) / 1000000;
+
+		Assert.assertTrue("cpu constant", calibration.getCpuConstant() > 0);
+		Assert.assertTrue("variation", calibration.getVariation() >= 0);
+		// Only catches a warm-up that never ends, as busy build machines are slow
+		Assert.assertTrue("took " + millis + " ms", millis < 30000);
+	}
+
+	@Test
+	public void cache() throws IOException {
+		final String key = "Some CPU, 4 processors, Some VM 1.0";
+		final File cacheFile = File.createTempFile("cpuconstant", ".properties");
+
+		try {
+			// An empty cache file, and one with another system only
+			Assert.assertNull(CpuCalibration.load(cacheFile, key));
+
+			Properties other = new Properties();
+			other.setProperty("Other CPU, 64 processors, Other VM 1.0.constant", "123");
+			OutputStream out = new FileOutputStream(cacheFile);
+			other.store(out, null);
+			out.close();
+
+			Assert.assertNull(CpuCalibration.load(cacheFile, key));
+
+			final CpuCalibration calibration = CpuCalibration.measure();
+
+			calibration.store(cacheFile, key);
+
+			final CpuCalibration cached = CpuCalibration.load(cacheFile, key);
+
+			Assert.assertNotNull(cached);
+			Assert.assertEquals(calibration.getCpuConstant(), cached.getCpuConstant());
+			Assert.assertEquals(calibration.getVariation(), cached.getVariation(), 0);
+
+			// The other system is kept
+			Properties cache = new Properties();
+			InputStream in = new FileInputStream(cacheFile);
+			cache.load(in);
+			in.close();
+			Assert.assertEquals("123", cache.getProperty("Other CPU, 64 processors, Other VM 1.0.constant"));
+
+			// No temporary files are left behind
+			Assert.assertEquals(0, cacheFile.getParentFile().listFiles(new TempFileFilter(cacheFile)).length);
+		} finally {
+			Assert.assertTrue(cacheFile.delete());
+		}
+	}
+
+	@Test
+	public void unknownCpuIsNotCached() throws IOException {
+		final File cacheFile = File.createTempFile("cpuconstant", ".properties");
+
+		try {
+			CpuCalibration.measure().store(cacheFile, null);
+
+			Assert.assertEquals(0, cacheFile.length());
+			Assert.assertNull(CpuCalibration.load(cacheFile, null));
+		} finally {
+			Assert.assertTrue(cacheFile.delete());
+		}
+	}
+
+	private static class TempFileFilter implements FilenameFilter {
+		private final File cacheFile;
+
+		TempFileFilter(File cacheFile) {
+			this.cacheFile = cacheFile;
+		}
+
+		public boolean accept(File dir, String name) {
+			return name.startsWith(cacheFile.getName()) && name.endsWith(".tmp");
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.repository;
+
+
+import net.sf.robocode.repository.items.IRepositoryItem;
+import net.sf.robocode.repository.root.IRepositoryRoot;
+
+
+/**
+ * Interface for registering the items found in a repository root, which is all the repository roots and item handlers
+ * need when updating the items of a root.
+ *
+ * @see IRepository
+ */
+public interface IItemRegistry {
+
+	/**
+	 * Adds or updates an item.<p>
+	 *
+	 * If the item is not present in the repository, it will be added; otherwise it will be updated, if the specified
+	 * item has a never version than the existing item in the repository.<p>
+	 * 
+	 * This method will store the item under each friendly URL (keys) by using {@link IRepositoryItem#getFriendlyURLs()}.
+	 *
+	 * @param item is the item to add or update.
+	 * 
+	 * @see #getItem(String)
+	 * @see IRepository#getItems()
+	 */
+	void addOrUpdateItem(IRepositoryItem item);
+
+	/**
+	 * Returns an item stored in this repository identified by a friendly URL (key).
+	 *
+	 * @param friendlyUrl is a key to the item used when the item was stored using {@link IRepositoryItem#getFriendlyURLs()}.
+	 * @return an item from the repository identified by the friendly URL or null if the item does not exist.
+	 * 
+	 * @see #addOrUpdateItem(IRepositoryItem)
+	 * @see IRepository#getItems()
+	 */
+	IRepositoryItem getItem(String friendlyUrl);
+
+	/**
+	 * Removes all items from this repository that belongs to a specific repository root.
+	 *
+	 * @param root is the repository root containing the items to remove.
+	 */
+	void removeItemsFromRoot(IRepositoryRoot root);
+}
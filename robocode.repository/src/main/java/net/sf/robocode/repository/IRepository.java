@@ -8,8 +8,8 @@
 package net.sf.robocode.repository;
 
 
-import java.io.InputStream;
-import java.io.OutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.Map;
 
 import net.sf.robocode.repository.items.IRepositoryItem;
@@ -25,51 +25,31 @@ import net.sf.robocode.repository.root.IRepositoryRoot;
  *
  * @author Flemming N. Larsen (original)
  */
-public interface IRepository {
+public interface IRepository extends IItemRegistry {
 
 	/**
-	 * Loads data into this repository, previously saved by {@link #save(OutputStream)}.
-	 * 
-	 * @param in is an input stream used for reading the data.
-	 * 
-	 * @see #save(OutputStream)
-	 */
-    void load(InputStream in);
-
-	/**
-	 * Saves the data in this repository to an output stream.
-	 *
-	 * @param out is the output stream used for writing the data.
-	 * 
-	 * @see #load(InputStream)
-	 */
-    void save(OutputStream out);
-
-	/**
-	 * Adds or updates an item.<p>
+	 * Loads data into this repository, previously saved by {@link #save(File)}.<p>
 	 *
-	 * If the item is not present in the repository, it will be added; otherwise it will be updated, if the specified
-	 * item has a never version than the existing item in the repository.<p>
+	 * The items of a repository root may be read from the file when they are looked up the first time.
 	 * 
-	 * This method will store the item under each friendly URL (keys) by using {@link IRepositoryItem#getFriendlyURLs()}.
-	 *
-	 * @param item is the item to add or update.
+	 * @param file is the file used for reading the data.
+	 * @throws IOException if the file could not be read.
 	 * 
-	 * @see #getItem(String)
-	 * @see #getItems()
+	 * @see #save(File)
 	 */
-	void addOrUpdateItem(IRepositoryItem item);
+	void load(File file) throws IOException;
 
 	/**
-	 * Returns an item stored in this repository identified by a friendly URL (key).
+	 * Saves the data in this repository to a file, where only the repository roots that have changed since the last
+	 * load or save are written, if the file was the one loaded or saved.
 	 *
-	 * @param friendlyUrl is a key to the item used when the item was stored using {@link IRepositoryItem#getFriendlyURLs()}.
-	 * @return an item from the repository identified by the friendly URL or null if the item does not exist.
+	 * @param file is the file used for writing the data.
+	 * @return true if the file was written; false if nothing had changed.
+	 * @throws IOException if the file could not be written.
 	 * 
-	 * @see #addOrUpdateItem(IRepositoryItem)
-	 * @see #getItems()
+	 * @see #load(File)
 	 */
-	IRepositoryItem getItem(String friendlyUrl);
+	boolean save(File file) throws IOException;
 
 	/**
 	 * Returns all items stored in this repository.
@@ -95,11 +75,4 @@ public interface IRepository {
 	 * @param url is the URL (key) of the repository root to remove.
 	 */
 	void removeRoot(String url);
-
-	/**
-	 * Removes all items from this repository that belongs to a specific repository root.
-	 *
-	 * @param root is the repository root containing the items to remove.
-	 */
-	void removeItemsFromRoot(IRepositoryRoot root);
 }
@@ -10,20 +10,25 @@ package net.sf.robocode.repository;
 
 import net.sf.robocode.io.FileUtil;
 import net.sf.robocode.io.Logger;
+import net.sf.robocode.io.RobocodeProperties;
 import net.sf.robocode.repository.items.IRepositoryItem;
 import net.sf.robocode.repository.root.BaseRoot;
 import net.sf.robocode.repository.root.IRepositoryRoot;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.OutputStream;
 import java.net.URLDecoder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,9 +36,16 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Repository containing robot and team repositoryItems.
+ * <p>
+ * The repository is saved in a robot database file, where the items of every root are stored on their own. When the
+ * repository is loaded, only the roots and the friendly URLs of their items are read, and the items of a root are read
+ * when one of its friendly URLs is looked up, or when all items are needed. When the repository is saved, only the
+ * roots that have changed are written to the file.
  * 
  * @author Pavel Savara (original)
  * @author Flemming N. Larsen (contributor)
+ *
+ * @see RobotDatabase
  */
 class Repository implements IRepository {
 
@@ -41,44 +53,110 @@ class Repository implements IRepository {
 	private final Map<String, IRepositoryItem> repositoryItems = new ConcurrentHashMap<String, IRepositoryItem>();
 	private final Map<String, IRepositoryItem> removedItems = new ConcurrentHashMap<String, IRepositoryItem>();
 
+	private RobotDatabase database;
+
+	// The roots, whose items have not been read from the database yet, and the keys of these roots by friendly URLs
+	private final Map<String, RobotDatabase.Record> storedRoots = new ConcurrentHashMap<String, RobotDatabase.Record>();
+	private final Map<String, String[]> storedUrls = new ConcurrentHashMap<String, String[]>();
+
+	// The roots as they were loaded or saved last, and the keys of the roots to write on the next save
+	private final Map<String, IRepositoryRoot> savedRoots = new ConcurrentHashMap<String, IRepositoryRoot>();
+	private final Set<String> changedRoots = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
 	/**
 	 * {@inheritDoc}
 	 */
-	public void save(OutputStream out) {
-		Set<IRepositoryItem> uniqueItems = new HashSet<IRepositoryItem>();
-		Set<IRepositoryRoot> uniqueRoots = new HashSet<IRepositoryRoot>();
+	public boolean save(File file) throws IOException {
+		if (database == null || !database.getFile().equals(file)) {
+			database = new RobotDatabase(file, RobocodeProperties.isTestingOn());
+		}
+
+		final Set<String> keys = new HashSet<String>(changedRoots);
 
-		for (IRepositoryItem repositoryItem : repositoryItems.values()) {
-			uniqueItems.add(repositoryItem);
+		if (database.isRewriteNeeded()) {
+			loadStoredItems();
+			keys.addAll(roots.keySet());
 		}
+		if (keys.isEmpty()) {
+			return false;
+		}
+
+		final Map<String, List<IRepositoryItem>> changedItems = new HashMap<String, List<IRepositoryItem>>();
 
-		for (IRepositoryRoot root : roots.values()) {
-			uniqueRoots.add(root);
+		for (String key : keys) {
+			changedItems.put(key, new ArrayList<IRepositoryItem>());
 		}
+		for (IRepositoryItem repositoryItem : new HashSet<IRepositoryItem>(repositoryItems.values())) {
+			List<IRepositoryItem> items = changedItems.get(getKey(repositoryItem.getRoot()));
 
-		ObjectOutputStream oos = null;
-		try {
-			oos = new ObjectOutputStream(out);
-			oos.writeObject(uniqueRoots);
-			oos.writeObject(uniqueItems);
-		} catch (IOException e) {
-			Logger.logError("Can't save robot database", e);
-		} finally {
-			FileUtil.cleanupStream(oos);
+			if (items != null) {
+				items.add(repositoryItem);
+			}
+		}
+		// The items are written in the same order every time, so an unchanged root is written the same way
+		for (List<IRepositoryItem> items : changedItems.values()) {
+			Collections.sort(items, ITEM_ORDER);
 		}
+
+		final boolean isWritten = database.write(roots, changedItems);
+
+		for (String key : keys) {
+			IRepositoryRoot root = roots.get(key);
+
+			if (root != null) {
+				savedRoots.put(key, root);
+			} else {
+				savedRoots.remove(key);
+			}
+		}
+		changedRoots.removeAll(keys);
+		return isWritten;
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
+	public void load(File file) throws IOException {
+		if (!RobotDatabase.isDatabaseFile(file)) {
+			// A database written by an older version, which is converted on the next save
+			loadObjects(file);
+			changedRoots.addAll(roots.keySet());
+			return;
+		}
+		database = new RobotDatabase(file, RobocodeProperties.isTestingOn());
+
+		for (RobotDatabase.Record record : database.read()) {
+			((BaseRoot) record.root).setRepository(this);
+
+			roots.put(record.key, record.root);
+			savedRoots.put(record.key, record.root);
+			storedRoots.put(record.key, record);
+			for (String friendlyUrl : record.friendlyUrls) {
+				String[] keys = storedUrls.get(friendlyUrl);
+
+				if (keys == null) {
+					keys = new String[] { record.key };
+				} else {
+					keys = Arrays.copyOf(keys, keys.length + 1);
+					keys[keys.length - 1] = record.key;
+				}
+				storedUrls.put(friendlyUrl, keys);
+			}
+		}
+		if (database.isRewriteNeeded()) {
+			loadStoredItems();
+			changedRoots.addAll(roots.keySet());
+		}
+	}
+
 	@SuppressWarnings("unchecked")
-	public void load(InputStream in) {
+	private void loadObjects(File file) throws IOException {
 		Set<IRepositoryItem> uniqueItems;
 		Set<IRepositoryRoot> uniqueRoots;
 
 		ObjectInputStream ois = null;
 		try {
-			ois = new ObjectInputStream(in);
+			ois = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
 
 			uniqueRoots = (Set<IRepositoryRoot>) ois.readObject();
 			uniqueItems = (Set<IRepositoryItem>) ois.readObject();
@@ -92,7 +170,7 @@ class Repository implements IRepository {
 				roots.put(key, root);
 			}
 			for (IRepositoryItem repositoryItem : uniqueItems) {
-				addOrUpdateItem(repositoryItem);
+				putItem(repositoryItem);
 			}
 		} catch (IOException e) {
 			Logger.logError("Can't load robot database: " + e.getMessage());
@@ -107,6 +185,11 @@ class Repository implements IRepository {
 	 * {@inheritDoc}
 	 */
 	public void addOrUpdateItem(IRepositoryItem repositoryItem) {
+		putItem(repositoryItem);
+		changedRoots.add(getKey(repositoryItem.getRoot()));
+	}
+
+	private void putItem(IRepositoryItem repositoryItem) {
 		Collection<String> friendlyUrls = repositoryItem.getFriendlyURLs();
 		if (friendlyUrls != null) {
 			// Add or update the item so it can be found using later using any friendly URL
@@ -127,6 +210,13 @@ class Repository implements IRepository {
 	 * {@inheritDoc}
 	 */
 	public IRepositoryItem getItem(String friendlyUrl) {
+		final String[] keys = storedUrls.get(friendlyUrl);
+
+		if (keys != null) {
+			for (String key : keys) {
+				loadStoredItems(key);
+			}
+		}
 		IRepositoryItem repositoryItem = repositoryItems.get(friendlyUrl);
 		if (repositoryItem == null) {
 			repositoryItem = removedItems.get(friendlyUrl);
@@ -138,6 +228,7 @@ class Repository implements IRepository {
 	 * {@inheritDoc}
 	 */
 	public Map<String, IRepositoryItem> getItems() {
+		loadStoredItems();
 		return Collections.unmodifiableMap(repositoryItems);
 	}
 
@@ -159,6 +250,11 @@ class Repository implements IRepository {
 	 * {@inheritDoc}
 	 */
 	public void removeItemsFromRoot(IRepositoryRoot root) {
+		final String rootKey = getKey(root);
+
+		loadStoredItems(rootKey);
+		changedRoots.add(rootKey);
+
 		Collection<Map.Entry<String, IRepositoryItem>> itemsToRemove = new ArrayList<Map.Entry<String, IRepositoryItem>>();
 
 		for (Map.Entry<String, IRepositoryItem> entry : repositoryItems.entrySet()) {
@@ -184,16 +280,102 @@ class Repository implements IRepository {
 	public void setRoots(Map<String, IRepositoryRoot> newRoots) {
 		
 		// Remove all items from current roots
-		for (IRepositoryRoot root : roots.values()) {
+		for (Map.Entry<String, IRepositoryRoot> entry : roots.entrySet()) {
+			IRepositoryRoot root = entry.getValue();
+
 			if (!newRoots.containsKey(root.getURL().toString())) {
-				removeItemsFromRoot(root);
+				// The items of a stored root are not read, as they are removed anyway
+				if (!forgetStoredItems(entry.getKey())) {
+					removeItemsFromRoot(root);
+				}
+				changedRoots.add(entry.getKey());
 			}
 		}
-	
+
+		// The roots that are new or have been replaced must be written
+		for (Map.Entry<String, IRepositoryRoot> entry : newRoots.entrySet()) {
+			if (savedRoots.get(entry.getKey()) != entry.getValue()) {
+				loadStoredItems(entry.getKey());
+				changedRoots.add(entry.getKey());
+			}
+		}
+
 		// Set the new roots
 		roots = newRoots;
 
 		// Clear items to be removed
 		removedItems.clear(); 
 	}
+
+	/**
+	 * Reads the items of all roots, which have not been read from the database yet.
+	 */
+	private void loadStoredItems() {
+		for (String key : storedRoots.keySet()) {
+			loadStoredItems(key);
+		}
+	}
+
+	/**
+	 * Reads the items of a root from the database, if they have not been read yet. If the items cannot be read, the
+	 * root is removed, so it is updated again on the next refresh.
+	 *
+	 * @param key the key of the root.
+	 */
+	private synchronized void loadStoredItems(String key) {
+		final RobotDatabase.Record record = storedRoots.get(key);
+
+		if (record == null) {
+			return;
+		}
+		try {
+			for (IRepositoryItem repositoryItem : database.readItems(record, record.root)) {
+				putItem(repositoryItem);
+			}
+		} catch (IOException e) {
+			Logger.logError("Can't load robot database: " + e.getMessage());
+			roots.remove(key);
+			changedRoots.add(key);
+		}
+		forgetStoredItems(key);
+	}
+
+	/**
+	 * Forgets the stored items of a root, so they are never read.
+	 *
+	 * @param key the key of the root.
+	 * @return true if the root had stored items; false otherwise.
+	 */
+	private synchronized boolean forgetStoredItems(String key) {
+		final RobotDatabase.Record record = storedRoots.remove(key);
+
+		if (record == null) {
+			return false;
+		}
+		for (String friendlyUrl : record.friendlyUrls) {
+			String[] keys = storedUrls.get(friendlyUrl);
+
+			if (keys != null) {
+				List<String> remaining = new ArrayList<String>(Arrays.asList(keys));
+
+				remaining.remove(key);
+				if (remaining.isEmpty()) {
+					storedUrls.remove(friendlyUrl);
+				} else {
+					storedUrls.put(friendlyUrl, remaining.toArray(new String[remaining.size()]));
+				}
+			}
+		}
+		return true;
+	}
+
+	private static String getKey(IRepositoryRoot root) {
+		return root.getURL().toString();
+	}
+
+	private static final Comparator<IRepositoryItem> ITEM_ORDER = new Comparator<IRepositoryItem>() {
+		public int compare(IRepositoryItem item1, IRepositoryItem item2) {
+			return String.valueOf(item1.getItemURL()).compareTo(String.valueOf(item2.getItemURL()));
+		}
+	};
 }
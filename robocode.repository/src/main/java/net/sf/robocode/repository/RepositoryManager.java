@@ -18,6 +18,7 @@ import net.sf.robocode.repository.items.TeamItem;
 import net.sf.robocode.repository.items.RepositoryItem;
 import net.sf.robocode.repository.packager.JarCreator;
 import net.sf.robocode.repository.root.IRepositoryRoot;
+import net.sf.robocode.repository.root.handlers.RepositoryScanner;
 import net.sf.robocode.repository.root.handlers.RootHandler;
 import net.sf.robocode.security.HiddenAccess;
 import net.sf.robocode.settings.ISettingsListener;
@@ -26,8 +27,6 @@ import net.sf.robocode.ui.IWindowManager;
 import robocode.control.RobotSpecification;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -88,11 +87,10 @@ public class RepositoryManager implements IRepositoryManager { // NO_UCD (use de
 	}
 
 	public boolean refresh(boolean force) {
-		boolean refreshed = update(getRobotsDirectory(), getDevelDirectories(), force);
-		if (refreshed) {
-			setStatus("Saving robot database");
-			save();
-		}
+		update(getRobotsDirectory(), getDevelDirectories(), force);
+
+		// Only the roots that have changed are written to the robot database
+		boolean refreshed = save();
 
 		setStatus("");
 		URLJarCollector.gc();
@@ -100,27 +98,25 @@ public class RepositoryManager implements IRepositoryManager { // NO_UCD (use de
 		return refreshed;
 	}
 
-	private boolean update(File robotsDir, Collection<File> devDirs, boolean force) {
-		final int prev = repository.getItems().size();
-
+	private void update(File robotsDir, Collection<File> devDirs, boolean force) {
 		RootHandler.openHandlers();
 		try {
 			Map<String, IRepositoryRoot> newRoots = new HashMap<String, IRepositoryRoot>();
+			RepositoryScanner scanner = new RepositoryScanner(repository, force);
 	
-			RootHandler.visitDirectories(robotsDir, false, newRoots, repository, force);
+			RootHandler.visitDirectories(robotsDir, false, newRoots, repository, scanner);
 			for (File dir : devDirs) {
-				RootHandler.visitDirectories(dir, true, newRoots, repository, force);
+				RootHandler.visitDirectories(dir, true, newRoots, repository, scanner);
 			}
+			scanner.scan();
 			repository.setRoots(newRoots);
 		} finally {
 			RootHandler.closeHandlers();
 		}
-
-		return prev != repository.getItems().size();
 	}
 
 	private boolean updateItemRoot(String friendlyUrl, boolean force) {
-		IRepositoryItem repositoryItem = repository.getItems().get(friendlyUrl);
+		IRepositoryItem repositoryItem = repository.getItem(friendlyUrl);
 		if (repositoryItem != null) {
 			repositoryItem.getRoot().updateItem(repositoryItem, force);
 			return true;
@@ -128,40 +124,33 @@ public class RepositoryManager implements IRepositoryManager { // NO_UCD (use de
 		return false; 
 	}
 
-	private void save() {
-		FileOutputStream fos = null;
+	private boolean save() {
 		try {
-			fos = new FileOutputStream(new File(getRobotsDirectory(), DATABASE_FILENAME));
-			repository.save(fos);
+			return repository.save(new File(getRobotsDirectory(), DATABASE_FILENAME));
 		} catch (IOException e) {
 			Logger.logError("Can't save robot database", e);
-		} finally {
-			FileUtil.cleanupStream(fos);
+			return false;
 		}
 	}
 
 	private Repository load() {
 		Repository repository = new Repository();
 		
-		FileInputStream fis = null;
 		try {
 			File file = new File(getRobotsDirectory(), DATABASE_FILENAME);
 			if (file.exists()) {
-				fis = new FileInputStream(file);
-				repository.load(fis);
+				repository.load(file);
 			}
 		} catch (IOException e) {
 			Logger.logError("Can't load robot database", e);
 			repository = null;
-		} finally {
-			FileUtil.cleanupStream(fis);
 		}
 		return repository;
 	}
 	
 	public void reload(boolean rebuild) {
 		// Bug fix [2867326] - Lockup on start if too many bots in robots dir (cont'd).
-		URLJarCollector.enableGc(true);
+		// The collection stays disabled while battles are running, as their robots still use their JARs
 		URLJarCollector.gc();
 
 		if (rebuild) {
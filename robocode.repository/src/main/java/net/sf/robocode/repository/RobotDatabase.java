@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.repository;
+
+
+import net.sf.robocode.io.FileUtil;
+import net.sf.robocode.repository.items.IRepositoryItem;
+import net.sf.robocode.repository.root.IRepositoryRoot;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+
+/**
+ * The robot database file, which is an index of the repository roots, where the items of every root are stored in a
+ * record of their own.
+ * <p>
+ * The file starts with a header, followed by records, where the last record of a root replaces the previous ones.
+ * A root record contains the friendly URLs of the items of the root, the root itself, and the items. When the file is
+ * read, only the friendly URLs and the roots are read, so the items of a root can be read later, when one of its
+ * friendly URLs is looked up. When the repository is saved, only the changed roots are appended to the file, and
+ * removed roots are appended as removal records. The file is compacted when the replaced records take more space than
+ * the records in use.
+ *
+ * @see Repository
+ */
+final class RobotDatabase {
+
+	private static final int MAGIC = 0x52424442; // "RBDB"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 4 + 4 + 1;
+
+	private static final byte ROOT_RECORD = 1;
+	private static final byte REMOVED_RECORD = 2;
+
+	// The file is compacted, when it is larger than twice the records in use and this size
+	private static final long MIN_COMPACT_SIZE = 64 * 1024;
+
+	private final File file;
+	private final boolean isTesting;
+	private final Map<String, Record> records = new HashMap<String, Record>();
+
+	private long fileLength;
+	private boolean isRewriteNeeded = true;
+
+	RobotDatabase(File file, boolean isTesting) {
+		this.file = file;
+		this.isTesting = isTesting;
+	}
+
+	File getFile() {
+		return file;
+	}
+
+	/**
+	 * Checks if the file is a robot database file written in the current format.
+	 *
+	 * @param file the file to check.
+	 * @return {@code true} if the file has the header of this format; {@code false} otherwise.
+	 * @throws IOException if the file could not be read.
+	 */
+	static boolean isDatabaseFile(File file) throws IOException {
+		DataInputStream in = null;
+
+		try {
+			in = new DataInputStream(new FileInputStream(file));
+			return in.readInt() == MAGIC && in.readInt() == VERSION;
+		} catch (EOFException e) {
+			return false;
+		} finally {
+			FileUtil.cleanupStream(in);
+		}
+	}
+
+	/**
+	 * Reads the roots of the file, but not their items.
+	 *
+	 * @return the records of the roots in the file.
+	 * @throws IOException if the file could not be read.
+	 */
+	Collection<Record> read() throws IOException {
+		records.clear();
+		fileLength = 0;
+		isRewriteNeeded = true;
+
+		CountingInputStream counter = null;
+		long position = HEADER_SIZE;
+
+		// Skipping bytes is not stopped at the end of the file, so the items are checked against its length
+		final long length = file.length();
+
+		try {
+			counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file)));
+			DataInputStream in = new DataInputStream(counter);
+
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new IOException("Not a robot database file: " + file);
+			}
+			// The friendly URLs depend on the testing mode, so they cannot be looked up when it has changed
+			isRewriteNeeded = in.readBoolean() != isTesting;
+
+			while (true) {
+				final byte type;
+
+				try {
+					type = in.readByte();
+				} catch (EOFException e) {
+					break;
+				}
+				try {
+					final String key = in.readUTF();
+
+					if (type == REMOVED_RECORD) {
+						records.remove(key);
+					} else if (type == ROOT_RECORD) {
+						final long checksum = in.readLong();
+						final String[] friendlyUrls = new String[in.readInt()];
+
+						for (int i = 0; i < friendlyUrls.length; i++) {
+							friendlyUrls[i] = in.readUTF();
+						}
+						final byte[] rootBytes = new byte[in.readInt()];
+
+						in.readFully(rootBytes);
+						final IRepositoryRoot root = (IRepositoryRoot) deserialize(rootBytes);
+						final int itemsLength = in.readInt();
+						final long itemsOffset = counter.count;
+
+						in.skipBytes(itemsLength);
+						if (counter.count != itemsOffset + itemsLength || counter.count > length) {
+							throw new EOFException();
+						}
+						records.put(key,
+								new Record(key, root, friendlyUrls, checksum, position, (int) (counter.count - position),
+								itemsOffset, itemsLength));
+					} else {
+						throw new IOException("Unknown record type: " + type);
+					}
+				} catch (EOFException e) {
+					// The last record was not completely written, so it is overwritten by the next record
+					break;
+				}
+				position = counter.count;
+			}
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		} finally {
+			FileUtil.cleanupStream(counter);
+		}
+		fileLength = position;
+		return records.values();
+	}
+
+	/**
+	 * Reads the items of a root.
+	 *
+	 * @param record the record of the root.
+	 * @param root the root, which is referenced by the read items.
+	 * @return the items of the root.
+	 * @throws IOException if the items could not be read, or the record is no longer in the file.
+	 */
+	@SuppressWarnings("unchecked")
+	Collection<IRepositoryItem> readItems(Record record, IRepositoryRoot root) throws IOException {
+		final byte[] items = new byte[record.itemsLength];
+		RandomAccessFile in = null;
+
+		try {
+			in = new RandomAccessFile(file, "r");
+			in.seek(record.offset);
+			if (in.readByte() != ROOT_RECORD || !in.readUTF().equals(record.key)) {
+				throw new IOException("The robot database has been changed: " + file);
+			}
+			in.seek(record.itemsOffset);
+			in.readFully(items);
+		} finally {
+			FileUtil.cleanupStream(in);
+		}
+		if (checksum(record.key, items) != record.checksum) {
+			throw new IOException("The robot database is corrupted: " + file);
+		}
+		try {
+			return (Collection<IRepositoryItem>) deserializeItems(items, root);
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Writes the changed roots to the file, and compacts the file if needed.
+	 *
+	 * @param roots all roots of the repository.
+	 * @param changedItems the items of the changed roots, where the roots removed from the repository have no items.
+	 * @return {@code true} if the file was written; {@code false} if none of the roots had changed.
+	 * @throws IOException if the file could not be written.
+	 */
+	boolean write(Map<String, IRepositoryRoot> roots, Map<String, ? extends Collection<IRepositoryItem>> changedItems) throws IOException {
+		final List<byte[]> appended = new ArrayList<byte[]>();
+		final List<Record> appendedRecords = new ArrayList<Record>();
+		long position = isRewriteNeeded ? HEADER_SIZE : fileLength;
+
+		for (Map.Entry<String, ? extends Collection<IRepositoryItem>> entry : changedItems.entrySet()) {
+			final String key = entry.getKey();
+			final IRepositoryRoot root = roots.get(key);
+			final Record previous = records.get(key);
+
+			if (root == null) {
+				if (previous != null) {
+					final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+					final DataOutputStream out = new DataOutputStream(bytes);
+
+					out.writeByte(REMOVED_RECORD);
+					out.writeUTF(key);
+					out.flush();
+					appended.add(bytes.toByteArray());
+					appendedRecords.add(new Record(key, null, null, 0, position, 0, 0, 0));
+					position += bytes.size();
+				}
+				continue;
+			}
+			// the root is written before its items, so the items reference the root written with them
+			final byte[] items = serialize(root, new ArrayList<IRepositoryItem>(entry.getValue()));
+			final long checksum = checksum(key, items);
+
+			if (previous != null && previous.checksum == checksum && !isRewriteNeeded) {
+				continue; // Nothing has changed
+			}
+			final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			final DataOutputStream out = new DataOutputStream(bytes);
+			final List<String> friendlyUrls = new ArrayList<String>();
+
+			for (IRepositoryItem item : entry.getValue()) {
+				for (String friendlyUrl : item.getFriendlyURLs()) {
+					if (friendlyUrl != null) {
+						friendlyUrls.add(friendlyUrl);
+					}
+				}
+			}
+			out.writeByte(ROOT_RECORD);
+			out.writeUTF(key);
+			out.writeLong(checksum);
+			out.writeInt(friendlyUrls.size());
+			for (String friendlyUrl : friendlyUrls) {
+				out.writeUTF(friendlyUrl);
+			}
+			final byte[] rootBytes = serialize(root);
+
+			out.writeInt(rootBytes.length);
+			out.write(rootBytes);
+			out.writeInt(items.length);
+			final long itemsOffset = position + bytes.size();
+
+			out.write(items);
+			out.flush();
+			appended.add(bytes.toByteArray());
+			appendedRecords.add(new Record(key, root, friendlyUrls.toArray(new String[friendlyUrls.size()]), checksum,
+					position, bytes.size(), itemsOffset, items.length));
+			position += bytes.size();
+		}
+
+		if (isRewriteNeeded) {
+			// Every root is changed, when the file is rewritten
+			rewrite(appended, appendedRecords);
+		} else if (!appended.isEmpty()) {
+			append(appended, appendedRecords);
+		} else {
+			return false;
+		}
+
+		long usedLength = HEADER_SIZE;
+
+		for (Record record : records.values()) {
+			usedLength += record.length;
+		}
+		if (fileLength > 2 * usedLength + MIN_COMPACT_SIZE) {
+			compact();
+		}
+		return true;
+	}
+
+	/**
+	 * Makes the next write rewrite the file, which must be given all roots as changed.
+	 */
+	void setRewriteNeeded() {
+		isRewriteNeeded = true;
+	}
+
+	boolean isRewriteNeeded() {
+		return isRewriteNeeded;
+	}
+
+	private void append(List<byte[]> appended, List<Record> appendedRecords) throws IOException {
+		RandomAccessFile out = null;
+
+		try {
+			out = new RandomAccessFile(file, "rw");
+			out.setLength(fileLength); // Drops an incomplete record
+			out.seek(fileLength);
+			for (byte[] bytes : appended) {
+				out.write(bytes);
+			}
+		} finally {
+			FileUtil.cleanupStream(out);
+		}
+		updateRecords(appendedRecords);
+	}
+
+	private void rewrite(List<byte[]> appended, List<Record> appendedRecords) throws IOException {
+		final File temp = new File(file.getPath() + ".tmp");
+		DataOutputStream out = null;
+
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			writeHeader(out);
+			for (byte[] bytes : appended) {
+				out.write(bytes);
+			}
+		} finally {
+			FileUtil.cleanupStream(out);
+		}
+		replaceFile(temp);
+
+		records.clear();
+		updateRecords(appendedRecords);
+		isRewriteNeeded = false;
+	}
+
+	private void compact() throws IOException {
+		final File temp = new File(file.getPath() + ".tmp");
+		final List<Record> compacted = new ArrayList<Record>();
+		RandomAccessFile in = null;
+		DataOutputStream out = null;
+		long position = HEADER_SIZE;
+
+		try {
+			in = new RandomAccessFile(file, "r");
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			writeHeader(out);
+			for (Record record : records.values()) {
+				final byte[] bytes = new byte[record.length];
+
+				in.seek(record.offset);
+				in.readFully(bytes);
+				out.write(bytes);
+				compacted.add(record.moveTo(position));
+				position += bytes.length;
+			}
+		} finally {
+			FileUtil.cleanupStream(out);
+			FileUtil.cleanupStream(in);
+		}
+		replaceFile(temp);
+
+		records.clear();
+		updateRecords(compacted);
+	}
+
+	private void updateRecords(List<Record> appendedRecords) {
+		for (Record record : appendedRecords) {
+			if (record.root == null) {
+				records.remove(record.key);
+			} else {
+				records.put(record.key, record);
+			}
+		}
+		fileLength = file.length();
+	}
+
+	private void writeHeader(DataOutputStream out) throws IOException {
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeBoolean(isTesting);
+	}
+
+	private void replaceFile(File temp) throws IOException {
+		if (file.exists() && !file.delete() || !temp.renameTo(file)) {
+			throw new IOException("Can't replace " + file);
+		}
+	}
+
+	private static long checksum(String key, byte[] items) {
+		final CRC32 crc = new CRC32();
+
+		crc.update(key.getBytes(StandardCharsets.UTF_8));
+		crc.update(items);
+		return (crc.getValue() << 32) | items.length;
+	}
+
+	private static byte[] serialize(Object... objects) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final ObjectOutputStream out = new ObjectOutputStream(bytes);
+
+		for (Object object : objects) {
+			out.writeObject(object);
+		}
+		out.close();
+		return bytes.toByteArray();
+	}
+
+	private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+		return new ObjectInputStream(new ByteArrayInputStream(bytes)).readObject();
+	}
+
+	/**
+	 * Reads the items written after their root, where the copy of the root is replaced by the root of the repository.
+	 */
+	private static Object deserializeItems(byte[] bytes, final IRepositoryRoot root) throws IOException, ClassNotFoundException {
+		final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)) {
+			{
+				enableResolveObject(true);
+			}
+
+			@Override
+			protected Object resolveObject(Object object) {
+				return object instanceof IRepositoryRoot && root.equals(object) ? root : object;
+			}
+		};
+
+		in.readObject(); // the root
+		return in.readObject();
+	}
+
+	/**
+	 * The latest record of a root in the file.
+	 */
+	static final class Record {
+		final String key;
+		final IRepositoryRoot root;
+		final String[] friendlyUrls;
+		final long checksum;
+		final long offset;
+		final int length;
+		final long itemsOffset;
+		final int itemsLength;
+
+		Record(String key, IRepositoryRoot root, String[] friendlyUrls, long checksum, long offset, int length, long itemsOffset, int itemsLength) {
+			this.key = key;
+			this.root = root;
+			this.friendlyUrls = friendlyUrls;
+			this.checksum = checksum;
+			this.offset = offset;
+			this.length = length;
+			this.itemsOffset = itemsOffset;
+			this.itemsLength = itemsLength;
+		}
+
+		Record moveTo(long newOffset) {
+			return new Record(key, root, friendlyUrls, checksum, newOffset, length, itemsOffset - offset + newOffset,
+					itemsLength);
+		}
+	}
+
+	/**
+	 * Counts the bytes read, so the offsets of the records are known.
+	 */
+	private static final class CountingInputStream extends java.io.FilterInputStream {
+		long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			final int result = super.read();
+
+			if (result >= 0) {
+				count++;
+			}
+			return result;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			final int result = super.read(b, off, len);
+
+			if (result > 0) {
+				count += result;
+			}
+			return result;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			final long result = super.skip(n);
+
+			count += result;
+			return result;
+		}
+	}
+}
@@ -8,7 +8,7 @@
 package net.sf.robocode.repository.items.handlers;
 
 
-import net.sf.robocode.repository.IRepository;
+import net.sf.robocode.repository.IItemRegistry;
 import net.sf.robocode.repository.items.IRepositoryItem;
 import net.sf.robocode.repository.items.RobotItem;
 import net.sf.robocode.repository.root.IRepositoryRoot;
@@ -29,7 +29,7 @@ public class ClassHandler extends ItemHandler {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected IRepositoryItem acceptItem(URL itemURL, IRepositoryRoot root, IRepository repository) {
+	protected IRepositoryItem acceptItem(URL itemURL, IRepositoryRoot root, IItemRegistry repository) {
 		// Accept and register the item if it is a Java class file, but not an inner class file
 		String name = itemURL.toString().toLowerCase();
 		if (name.endsWith(".class") && !name.contains("$")) {
@@ -47,7 +47,7 @@ public class ClassHandler extends ItemHandler {
 	 *                   when the class file is registered.
 	 * @return a RobotItem that has been created or updated in the repository.
 	 */
-	private RobotItem register(URL classFileUrl, IRepositoryRoot root, IRepository repository) {
+	private RobotItem register(URL classFileUrl, IRepositoryRoot root, IItemRegistry repository) {
 		RobotItem item = null;
 
 		// Check if the class file is already registered in the repository
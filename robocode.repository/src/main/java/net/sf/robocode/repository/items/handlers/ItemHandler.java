@@ -9,7 +9,7 @@ package net.sf.robocode.repository.items.handlers;
 
 
 import net.sf.robocode.core.Container;
-import net.sf.robocode.repository.IRepository;
+import net.sf.robocode.repository.IItemRegistry;
 import net.sf.robocode.repository.items.IRepositoryItem;
 import net.sf.robocode.repository.root.IRepositoryRoot;
 
@@ -34,7 +34,7 @@ public abstract class ItemHandler {
 	 * @return a repository item that has been created or updated in the repository or null if the item was not
 	 *         accepted by this item handler.
 	 */
-	protected abstract IRepositoryItem acceptItem(URL itemUrl, IRepositoryRoot root, IRepository repository);
+	protected abstract IRepositoryItem acceptItem(URL itemUrl, IRepositoryRoot root, IItemRegistry repository);
 
 	/**
 	 * Tests whether or not the item with at the specified item URL is accepted and can be handled by <em>any</em>
@@ -46,7 +46,7 @@ public abstract class ItemHandler {
 	 * @return a repository item that has been created or updated in the repository or null if the item was not
 	 *         accepted by an item handler.
 	 */
-	public final static IRepositoryItem registerItem(URL itemUrl, IRepositoryRoot root, IRepository repository) {
+	public final static IRepositoryItem registerItem(URL itemUrl, IRepositoryRoot root, IItemRegistry repository) {
 		// Test if any available item handler will accept and register the item
 		List<ItemHandler> itemHandlers = Container.getComponents(ItemHandler.class);
 		for (ItemHandler handler : itemHandlers) {
@@ -8,7 +8,7 @@
 package net.sf.robocode.repository.items.handlers;
 
 
-import net.sf.robocode.repository.IRepository;
+import net.sf.robocode.repository.IItemRegistry;
 import net.sf.robocode.repository.items.IRepositoryItem;
 import net.sf.robocode.repository.items.RobotItem;
 import net.sf.robocode.repository.root.IRepositoryRoot;
@@ -30,7 +30,7 @@ public class PropertiesHandler extends ItemHandler {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected IRepositoryItem acceptItem(URL itemURL, IRepositoryRoot root, IRepository repository) {
+	protected IRepositoryItem acceptItem(URL itemURL, IRepositoryRoot root, IItemRegistry repository) {
 		// Accept and register the item if it is a Java properties file
 		String name = itemURL.toString().toLowerCase();
 		if (name.endsWith(".properties")) {
@@ -48,7 +48,7 @@ public class PropertiesHandler extends ItemHandler {
 	 *                   when the properties file is registered.
 	 * @return a RobotItem that has been created or updated in the repository.
 	 */
-	private RobotItem register(URL propertiesFileUrl, IRepositoryRoot root, IRepository repository) {
+	private RobotItem register(URL propertiesFileUrl, IRepositoryRoot root, IItemRegistry repository) {
 		RobotItem item = null;
 
 		// Check if the properties file is already registered in the repository
@@ -82,7 +82,7 @@ public class PropertiesHandler extends ItemHandler {
 	 *                   when the properties file is registered.
 	 * @return a new RobotItem that has been created or null if the RobotItem could not be created.
 	 */
-	private RobotItem createRobotItem(URL propertiesFileUrl, IRepositoryRoot root, IRepository repository) {
+	private RobotItem createRobotItem(URL propertiesFileUrl, IRepositoryRoot root, IItemRegistry repository) {
 		// Create a RobotItem based on the properties file URL
 		RobotItem item = new RobotItem(propertiesFileUrl, root);
 
@@ -8,7 +8,7 @@
 package net.sf.robocode.repository.items.handlers;
 
 
-import net.sf.robocode.repository.IRepository;
+import net.sf.robocode.repository.IItemRegistry;
 import net.sf.robocode.repository.items.IRepositoryItem;
 import net.sf.robocode.repository.items.TeamItem;
 import net.sf.robocode.repository.root.IRepositoryRoot;
@@ -29,7 +29,7 @@ public class TeamHandler extends ItemHandler {
 	 * {@inheritDoc}
 	 */
 	@Override
-	protected IRepositoryItem acceptItem(URL itemURL, IRepositoryRoot root, IRepository repository) {
+	protected IRepositoryItem acceptItem(URL itemURL, IRepositoryRoot root, IItemRegistry repository) {
 		// Accept and register the item if it is a robot team file
 		String name = itemURL.toString().toLowerCase();
 		if (name.endsWith(".team")) {
@@ -47,7 +47,7 @@ public class TeamHandler extends ItemHandler {
 	 *                   when the team file is registered.
 	 * @return a TeamItem that has been created or updated in the repository.
 	 */
-	private TeamItem register(URL teamFileUrl, IRepositoryRoot root, IRepository repository) {
+	private TeamItem register(URL teamFileUrl, IRepositoryRoot root, IItemRegistry repository) {
 		TeamItem item = null;
 
 		// Check if the team file is already registered in the repository
@@ -9,7 +9,7 @@ package net.sf.robocode.repository.root;
 
 
 import net.sf.robocode.io.Logger;
-import net.sf.robocode.repository.IRepository;
+import net.sf.robocode.repository.IItemRegistry;
 import net.sf.robocode.ui.IWindowManager;
 
 import java.io.File;
@@ -25,11 +25,11 @@ import java.net.URL;
 public abstract class BaseRoot implements Serializable, IRepositoryRoot {
 	private static final long serialVersionUID = 1L;
 
-	protected transient IRepository repository;
+	protected transient IItemRegistry repository;
 	protected final File rootPath;
 	protected final URL rootURL;
 
-	public BaseRoot(IRepository repository, File rootPath) {
+	public BaseRoot(IItemRegistry repository, File rootPath) {
 		this.repository = repository;
 		this.rootPath = rootPath;
 
@@ -50,7 +50,7 @@ public abstract class BaseRoot implements Serializable, IRepositoryRoot {
 		return rootPath;
 	}
 
-	public void setRepository(IRepository repository) {
+	public void setRepository(IItemRegistry repository) {
 		this.repository = repository;
 	}
 
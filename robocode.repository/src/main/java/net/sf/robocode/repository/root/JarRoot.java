@@ -79,6 +79,9 @@ public final class JarRoot extends BaseRoot implements IRepositoryRoot {
 				repositoryItem.update(lastModified, force);
 			}
 		}
+
+		// the JARs are updated concurrently, so each root closes its own JAR instead of collecting all of them
+		URLJarCollector.closeJarURLConnection(rootURL);
 	}
 
 	private void visitItems(Collection<IRepositoryItem> repositoryItems) {
@@ -15,6 +15,8 @@ import net.sf.robocode.repository.root.IRepositoryRoot;
 
 import java.io.File;
 import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 
@@ -25,7 +27,7 @@ import java.util.Map;
  * @author Flemming N. Larsen (contributor)
  */
 public class ClassPathHandler extends RootHandler {
-	public void visitDirectory(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, boolean force) {	
+	public void visitDirectory(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, RepositoryScanner scanner) {	
 		if (isDevel) {
 			File classpathFile = new File(dir, ".classpath");
 
@@ -42,28 +44,36 @@ public class ClassPathHandler extends RootHandler {
 				if (parsed) {
 					String classPath = classpathParser.getClassPath();
 
+					// the roots of the project are updated in this order, as the source paths are added to
+					// the robots of the class path
+					List<IRepositoryRoot> projectRoots = new ArrayList<IRepositoryRoot>();
+
 					if (classPath != null) {
 						File classPathDir = new File(dir, classPath);
 
-						handleDirectory(classPathDir, dir, newRoots, repository, force);			
+						handleDirectory(classPathDir, dir, newRoots, repository, projectRoots);
 					}
 
 					for (String sourcePath : classpathParser.getSourcePaths()) {
 						if (sourcePath != null) {
 							File sourcePathDir = new File(dir, sourcePath);
 
-							handleDirectory(sourcePathDir, dir, newRoots, repository, force);			
+							handleDirectory(sourcePathDir, dir, newRoots, repository, projectRoots);
 						}
 					}
+					scanner.updateItems(projectRoots.toArray(new IRepositoryRoot[projectRoots.size()]));
 
 					return; // we are done! 
 				}
 			}
 		}
-		handleDirectory(dir, null, newRoots, repository, force);
+		List<IRepositoryRoot> roots = new ArrayList<IRepositoryRoot>();
+
+		handleDirectory(dir, null, newRoots, repository, roots);
+		scanner.updateItems(roots.toArray(new IRepositoryRoot[roots.size()]));
 	}
 
-	private void handleDirectory(File dir, File projectDir, Map<String, IRepositoryRoot> newRoots, IRepository repository, boolean force) {
+	private void handleDirectory(File dir, File projectDir, Map<String, IRepositoryRoot> newRoots, IRepository repository, List<IRepositoryRoot> roots) {
 		String key;
 
 		try {
@@ -79,7 +89,7 @@ public class ClassPathHandler extends RootHandler {
 			repository.removeRoot(key);
 		}
 
-		root.updateItems(force);
+		roots.add(root);
 		newRoots.put(key, root);
 	}
 
@@ -11,8 +11,6 @@ package net.sf.robocode.repository.root.handlers;
 import net.sf.robocode.repository.IRepository;
 import net.sf.robocode.repository.root.IRepositoryRoot;
 import net.sf.robocode.repository.root.JarRoot;
-import net.sf.robocode.io.Logger;
-import net.sf.robocode.io.URLJarCollector;
 
 import java.io.File;
 import java.io.FileFilter;
@@ -24,7 +22,7 @@ import java.util.Map;
  * @author Pavel Savara (original)
  */
 public class JarHandler extends RootHandler {
-	public void visitDirectory(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, boolean force) {
+	public void visitDirectory(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, RepositoryScanner scanner) {
 		if (!isDevel) {
 			// find jar files
 			final File[] jars = dir.listFiles(new FileFilter() {
@@ -55,15 +53,8 @@ public class JarHandler extends RootHandler {
 					repository.removeRoot(key);
 				}
 
-				root.updateItems(force);
+				scanner.updateItems(root);
 				newRoots.put(key, root);
-
-				try {
-					URLJarCollector.closeJarURLConnection(jar.toURI().toURL());
-				} catch (MalformedURLException e) {
-					Logger.logError(e);
-				}
-				URLJarCollector.gc();
 			}
 		}
 	}
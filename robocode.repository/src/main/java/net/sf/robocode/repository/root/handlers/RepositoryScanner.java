@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.repository.root.handlers;
+
+
+import net.sf.robocode.core.Container;
+import net.sf.robocode.repository.IRepository;
+import net.sf.robocode.repository.root.BaseRoot;
+import net.sf.robocode.repository.root.IRepositoryRoot;
+import net.sf.robocode.ui.IWindowManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Updates the items of the repository roots found by the root handlers, where the roots are updated concurrently.
+ * <p>
+ * The root handlers add the roots in groups, where the roots of a group are updated one after the other, e.g. the
+ * class and source paths of a development project. The groups are updated by a fork/join pool, where every group
+ * registers its items into its own staged repository. When all groups are updated, the staged items are merged into
+ * the repository in the order the groups were added, so the repository is the same as when updating the roots one
+ * after the other. The number of threads is given by the REPOSITORYTHREADS system property, which is the number of
+ * processors by default.
+ *
+ * @see RootHandler#visitDirectory(java.io.File, boolean, java.util.Map, IRepository, RepositoryScanner)
+ */
+public final class RepositoryScanner {
+
+	private final IRepository repository;
+	private final boolean force;
+	private final int threads = Integer.getInteger("REPOSITORYTHREADS", Runtime.getRuntime().availableProcessors());
+	private final List<IRepositoryRoot[]> groups = new ArrayList<IRepositoryRoot[]>();
+
+	public RepositoryScanner(IRepository repository, boolean force) {
+		this.repository = repository;
+		this.force = force;
+	}
+
+	/**
+	 * Adds a group of roots to update, which are updated in the given order.
+	 *
+	 * @param roots the roots to update.
+	 */
+	public void updateItems(IRepositoryRoot... roots) {
+		if (roots.length > 0) {
+			groups.add(roots);
+		}
+	}
+
+	/**
+	 * Updates the items of all added roots and merges them into the repository.
+	 */
+	public void scan() {
+		final StagedRepository[] staged = new StagedRepository[groups.size()];
+		final int poolSize = Math.max(1, Math.min(threads, groups.size()));
+
+		if (poolSize == 1) {
+			for (int i = 0; i < staged.length; i++) {
+				staged[i] = updateGroup(groups.get(i));
+			}
+		} else {
+			final ForkJoinPool pool = new ForkJoinPool(poolSize);
+
+			try {
+				pool.invoke(new ScanTask(staged, 0, staged.length, new AtomicInteger()));
+			} finally {
+				pool.shutdown();
+			}
+		}
+		for (StagedRepository stagedRepository : staged) {
+			stagedRepository.merge();
+		}
+		groups.clear();
+	}
+
+	private StagedRepository updateGroup(IRepositoryRoot[] roots) {
+		final StagedRepository staged = new StagedRepository(repository);
+
+		for (IRepositoryRoot root : roots) {
+			((BaseRoot) root).setRepository(staged);
+			try {
+				root.updateItems(force);
+			} finally {
+				((BaseRoot) root).setRepository(repository);
+			}
+		}
+		return staged;
+	}
+
+	private static void setStatus(String message) {
+		IWindowManager windowManager = Container.getComponent(IWindowManager.class);
+
+		if (windowManager != null) {
+			windowManager.setStatus(message);
+		}
+	}
+
+	/**
+	 * Updates a range of the groups, where the range is split until it is a single group.
+	 */
+	private final class ScanTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final StagedRepository[] staged;
+		private final int from;
+		private final int to;
+		private final AtomicInteger updated;
+
+		ScanTask(StagedRepository[] staged, int from, int to, AtomicInteger updated) {
+			this.staged = staged;
+			this.from = from;
+			this.to = to;
+			this.updated = updated;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				staged[from] = updateGroup(groups.get(from));
+				setStatus("Updated " + updated.incrementAndGet() + " of " + staged.length + " robot roots");
+			} else if (to - from > 1) {
+				final int middle = (from + to) >>> 1;
+
+				invokeAll(new ScanTask(staged, from, middle, updated), new ScanTask(staged, middle, to, updated));
+			}
+		}
+	}
+}
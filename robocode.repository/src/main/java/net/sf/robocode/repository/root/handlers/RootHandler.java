@@ -21,18 +21,22 @@ import java.util.Map;
  * @author Pavel Savara (original)
  */
 public abstract class RootHandler {
-	public abstract void visitDirectory(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, boolean force);
+	/**
+	 * Finds the repository roots in a directory, and adds them to the new roots and to the scanner, which updates
+	 * their items.
+	 */
+	public abstract void visitDirectory(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, RepositoryScanner scanner);
 
 	public void open() {}
 
 	public void close() {}
 
-	public static void visitDirectories(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, boolean force) {
+	public static void visitDirectories(File dir, boolean isDevel, Map<String, IRepositoryRoot> newRoots, IRepository repository, RepositoryScanner scanner) {
 		// walk thru all plugins
 		final List<RootHandler> itemHandlerList = Container.getComponents(RootHandler.class);
 
 		for (RootHandler handler : itemHandlerList) {
-			handler.visitDirectory(dir, isDevel, newRoots, repository, force);
+			handler.visitDirectory(dir, isDevel, newRoots, repository, scanner);
 		}
 	}
 
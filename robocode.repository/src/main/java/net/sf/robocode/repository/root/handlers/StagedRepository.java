@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.repository.root.handlers;
+
+
+import net.sf.robocode.repository.IItemRegistry;
+import net.sf.robocode.repository.items.IRepositoryItem;
+import net.sf.robocode.repository.root.IRepositoryRoot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Registry used while updating the roots of one group, which keeps the changes to the repository until they are
+ * merged. The items registered by the group are found by their friendly URLs, and the other items are looked up in
+ * the repository, which is not changed while the groups are updated.
+ *
+ * @see RepositoryScanner
+ */
+final class StagedRepository implements IItemRegistry {
+
+	private final IItemRegistry repository;
+	private final Map<String, IRepositoryItem> items = new HashMap<String, IRepositoryItem>();
+
+	// The removed roots and added items in the order of the calls, where a removal has no item
+	private final List<IRepositoryRoot> changedRoots = new ArrayList<IRepositoryRoot>();
+	private final List<IRepositoryItem> changedItems = new ArrayList<IRepositoryItem>();
+
+	StagedRepository(IItemRegistry repository) {
+		this.repository = repository;
+	}
+
+	/**
+	 * Applies the changes to the repository in the order they were made.
+	 */
+	void merge() {
+		for (int i = 0; i < changedRoots.size(); i++) {
+			final IRepositoryItem item = changedItems.get(i);
+
+			if (item == null) {
+				repository.removeItemsFromRoot(changedRoots.get(i));
+			} else {
+				repository.addOrUpdateItem(item);
+			}
+		}
+	}
+
+	public void addOrUpdateItem(IRepositoryItem item) {
+		Collection<String> friendlyUrls = item.getFriendlyURLs();
+		if (friendlyUrls != null) {
+			for (String friendly : friendlyUrls) {
+				if (friendly != null) {
+					IRepositoryItem existingItem = items.get(friendly);
+					if (existingItem == null || item.compareTo(existingItem) > 0) {
+						items.put(friendly, item);
+					}
+				}
+			}
+		}
+		changedRoots.add(item.getRoot());
+		changedItems.add(item);
+	}
+
+	public IRepositoryItem getItem(String friendlyUrl) {
+		IRepositoryItem item = items.get(friendlyUrl);
+		if (item == null) {
+			item = repository.getItem(friendlyUrl);
+		}
+		return item;
+	}
+
+	public void removeItemsFromRoot(IRepositoryRoot root) {
+		changedRoots.add(root);
+		changedItems.add(null);
+	}
+}
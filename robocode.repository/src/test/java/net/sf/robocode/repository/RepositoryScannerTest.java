@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.repository;
+
+
+import net.sf.robocode.repository.items.IRepositoryItem;
+import net.sf.robocode.repository.root.IRepositoryRoot;
+import net.sf.robocode.repository.root.handlers.RepositoryScanner;
+import net.sf.robocode.repository.root.handlers.RootHandler;
+import net.sf.robocode.security.HiddenAccess;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+
+public class RepositoryScannerTest {
+
+	private static final int JARS = 8;
+	private static final int ROBOTS = 4;
+
+	private File robotsDir;
+
+	@BeforeClass
+	public static void init() {
+		// we need to switch off engine classloader for this test
+		System.setProperty("NOSECURITY", "true");
+		HiddenAccess.initContainer();
+	}
+
+	@AfterClass
+	public static void cleanup() {
+		System.setProperty("NOSECURITY", "false");
+	}
+
+	@Before
+	public void createRobots() throws IOException {
+		robotsDir = File.createTempFile("robots", "");
+		Assert.assertTrue(robotsDir.delete() && robotsDir.mkdir());
+
+		for (int i = 0; i < JARS; i++) {
+			final JarOutputStream out = new JarOutputStream(new FileOutputStream(new File(robotsDir, "robots" + i + ".jar")));
+
+			try {
+				for (int j = 0; j < ROBOTS; j++) {
+					addEntry(out, "pack" + i + "/Robot" + j + ".properties",
+							"robot.classname=pack" + i + ".Robot" + j + "\nrobot.version=1." + j + "\n");
+				}
+				addEntry(out, "pack" + i + "/Team.team", "team.members=pack" + i + ".Robot0,pack" + i + ".Robot1\n");
+
+				// The same robot in every JAR, where the first JAR found must win
+				addEntry(out, "shared/Shared.properties", "robot.classname=shared.Shared\nrobot.version=1.0\n");
+			} finally {
+				out.close();
+			}
+		}
+	}
+
+	@After
+	public void deleteRobots() {
+		for (File file : robotsDir.listFiles()) {
+			Assert.assertTrue(file.delete());
+		}
+		Assert.assertTrue(robotsDir.delete());
+	}
+
+	@Test
+	public void scansConcurrentlyLikeSerially() {
+		final Map<String, String> serial = scan(1);
+		final Map<String, String> concurrent = scan(4);
+
+		// every robot and team has a few friendly URLs
+		Assert.assertTrue("items " + serial.size(), serial.size() > JARS * (ROBOTS + 2));
+		Assert.assertEquals(serial, concurrent);
+	}
+
+	/**
+	 * Scans the robots directory like the repository manager does, and describes the items of the repository by
+	 * their friendly URLs.
+	 */
+	private Map<String, String> scan(int threads) {
+		final String previousThreads = System.getProperty("REPOSITORYTHREADS");
+
+		System.setProperty("REPOSITORYTHREADS", String.valueOf(threads));
+		RootHandler.openHandlers();
+		try {
+			final Repository repository = new Repository();
+			final Map<String, IRepositoryRoot> newRoots = new HashMap<String, IRepositoryRoot>();
+			final RepositoryScanner scanner = new RepositoryScanner(repository, false);
+
+			RootHandler.visitDirectories(robotsDir, false, newRoots, repository, scanner);
+			scanner.scan();
+			repository.setRoots(newRoots);
+
+			final Map<String, String> items = new TreeMap<String, String>();
+
+			for (Map.Entry<String, IRepositoryItem> entry : repository.getItems().entrySet()) {
+				final IRepositoryItem item = entry.getValue();
+
+				items.put(entry.getKey(), item.getItemURL() + " in " + item.getRoot().getURL() + " valid " + item.isValid());
+			}
+			return items;
+		} finally {
+			RootHandler.closeHandlers();
+			if (previousThreads == null) {
+				System.clearProperty("REPOSITORYTHREADS");
+			} else {
+				System.setProperty("REPOSITORYTHREADS", previousThreads);
+			}
+		}
+	}
+
+	private static void addEntry(JarOutputStream out, String name, String content) throws IOException {
+		out.putNextEntry(new JarEntry(name));
+		out.write(content.getBytes(StandardCharsets.ISO_8859_1));
+		out.closeEntry();
+	}
+}
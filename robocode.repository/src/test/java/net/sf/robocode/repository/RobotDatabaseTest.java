@@ -0,0 +1,464 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.repository;
+
+
+import net.sf.robocode.repository.items.IRepositoryItem;
+import net.sf.robocode.repository.root.BaseRoot;
+import net.sf.robocode.repository.root.IRepositoryRoot;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class RobotDatabaseTest {
+
+	private File file;
+	private TestRoot rootA;
+	private TestRoot rootB;
+
+	@Before
+	public void setUp() throws IOException {
+		file = File.createTempFile("robot", ".database");
+		rootA = new TestRoot(new File(file.getParentFile(), "robotsA"));
+		rootB = new TestRoot(new File(file.getParentFile(), "robotsB"));
+		TestItem.reads.set(0);
+	}
+
+	@After
+	public void tearDown() {
+		Assert.assertTrue(!file.exists() || file.delete());
+		Assert.assertFalse(new File(file.getPath() + ".tmp").exists());
+	}
+
+	@Test
+	public void readsItemsOnDemand() throws IOException {
+		final RobotDatabase database = new RobotDatabase(file, false);
+
+		Assert.assertTrue(database.write(roots(rootA, rootB), changed(items(rootA, "a1", "a2"), items(rootB, "b1"))));
+		Assert.assertTrue(RobotDatabase.isDatabaseFile(file));
+
+		final Map<String, RobotDatabase.Record> records = read(new RobotDatabase(file, false));
+
+		Assert.assertEquals(2, records.size());
+		Assert.assertEquals(new HashSet<String>(Arrays.asList("a1", "a2")),
+				new HashSet<String>(Arrays.asList(records.get(key(rootA)).friendlyUrls)));
+		Assert.assertEquals(rootA, records.get(key(rootA)).root);
+		Assert.assertEquals("items read", 0, TestItem.reads.get());
+
+		final Collection<IRepositoryItem> items = new RobotDatabase(file, false).readItems(records.get(key(rootB)), rootB);
+
+		Assert.assertEquals("items read", 1, TestItem.reads.get());
+		Assert.assertEquals(Collections.singleton("b1"), names(items));
+		Assert.assertSame(rootB, items.iterator().next().getRoot());
+	}
+
+	@Test
+	public void appendsChangedRoots() throws IOException {
+		final RobotDatabase database = new RobotDatabase(file, false);
+
+		database.write(roots(rootA, rootB), changed(items(rootA, "a1"), items(rootB, "b1")));
+		final long length = file.length();
+
+		// Nothing has changed
+		Assert.assertFalse(database.write(roots(rootA, rootB), changed(items(rootA, "a1"), items(rootB, "b1"))));
+		Assert.assertEquals(length, file.length());
+
+		Assert.assertTrue(database.write(roots(rootA, rootB), changed(items(rootA, "a1", "a2"))));
+		Assert.assertTrue(file.length() > length);
+
+		final Map<String, RobotDatabase.Record> records = read(new RobotDatabase(file, false));
+
+		Assert.assertEquals(set("a1", "a2"), names(database.readItems(records.get(key(rootA)), rootA)));
+		Assert.assertEquals(set("b1"), names(database.readItems(records.get(key(rootB)), rootB)));
+	}
+
+	@Test
+	public void removesRoots() throws IOException {
+		final RobotDatabase database = new RobotDatabase(file, false);
+
+		database.write(roots(rootA, rootB), changed(items(rootA, "a1"), items(rootB, "b1")));
+		final long length = file.length();
+
+		Assert.assertTrue(database.write(roots(rootA), removed(rootB)));
+		Assert.assertTrue(file.length() > length);
+
+		final Map<String, RobotDatabase.Record> records = read(new RobotDatabase(file, false));
+
+		Assert.assertEquals(Collections.singleton(key(rootA)), records.keySet());
+
+		// Removing it again does not write anything
+		Assert.assertFalse(database.write(roots(rootA), removed(rootB)));
+	}
+
+	@Test
+	public void recoversFromTruncatedRecord() throws IOException {
+		final RobotDatabase database = new RobotDatabase(file, false);
+
+		database.write(roots(rootA, rootB), changed(items(rootA, "a1"), items(rootB, "b1")));
+		database.write(roots(rootA, rootB), changed(items(rootA, "a1", "a2")));
+
+		// The last record of A was not completely written, so the previous one is used
+		truncate(10);
+
+		final RobotDatabase recovered = new RobotDatabase(file, false);
+		Map<String, RobotDatabase.Record> records = read(recovered);
+
+		Assert.assertFalse(recovered.isRewriteNeeded());
+		Assert.assertEquals(set("a1"), names(recovered.readItems(records.get(key(rootA)), rootA)));
+		Assert.assertEquals(set("b1"), names(recovered.readItems(records.get(key(rootB)), rootB)));
+
+		// The incomplete record is overwritten by the next one
+		Assert.assertTrue(recovered.write(roots(rootA, rootB), changed(items(rootA, "a1", "a3"))));
+
+		records = read(new RobotDatabase(file, false));
+		Assert.assertEquals(set("a1", "a3"), names(recovered.readItems(records.get(key(rootA)), rootA)));
+		Assert.assertEquals(set("b1"), names(recovered.readItems(records.get(key(rootB)), rootB)));
+	}
+
+	@Test
+	public void compactsReplacedRecords() throws IOException {
+		final RobotDatabase database = new RobotDatabase(file, false);
+
+		database.write(roots(rootA, rootB), changed(items(rootA, "a0"), items(rootB, "b1")));
+
+		long maxLength = 0;
+
+		for (int i = 1; i <= 50; i++) {
+			database.write(roots(rootA, rootB), changed(items(rootA, "a" + i)));
+			maxLength = Math.max(maxLength, file.length());
+		}
+		// Every record of A takes more than 4 KB, so it would take more than 200 KB without compaction
+		Assert.assertTrue("max length " + maxLength, maxLength < 160 * 1024);
+
+		// The records are still found by the database that compacted them, and by a new one
+		database.write(roots(rootA, rootB), changed(items(rootB, "b2")));
+
+		final Map<String, RobotDatabase.Record> records = read(new RobotDatabase(file, false));
+
+		Assert.assertEquals(set("a50"), names(database.readItems(records.get(key(rootA)), rootA)));
+		Assert.assertEquals(set("b2"), names(database.readItems(records.get(key(rootB)), rootB)));
+	}
+
+	@Test
+	public void rewritesWhenTestingModeChanged() throws IOException {
+		new RobotDatabase(file, false).write(roots(rootA, rootB), changed(items(rootA, "a1"), items(rootB, "b1")));
+
+		final RobotDatabase testing = new RobotDatabase(file, true);
+
+		read(testing);
+		Assert.assertTrue(testing.isRewriteNeeded());
+
+		// All roots are written, even though none of them has changed
+		Assert.assertTrue(testing.write(roots(rootA, rootB), changed(items(rootA, "a1"), items(rootB, "b1"))));
+		Assert.assertFalse(testing.isRewriteNeeded());
+
+		final RobotDatabase reread = new RobotDatabase(file, true);
+
+		Assert.assertEquals(2, read(reread).size());
+		Assert.assertFalse(reread.isRewriteNeeded());
+
+		final RobotDatabase notTesting = new RobotDatabase(file, false);
+
+		read(notTesting);
+		Assert.assertTrue(notTesting.isRewriteNeeded());
+	}
+
+	@Test
+	public void detectsChangedAndCorruptedRecords() throws IOException {
+		final RobotDatabase database = new RobotDatabase(file, false);
+
+		database.write(roots(rootA, rootB), changed(items(rootA, "a1"), items(rootB, "b1")));
+
+		final Map<String, RobotDatabase.Record> records = read(new RobotDatabase(file, false));
+		final RobotDatabase.Record record = records.get(key(rootA));
+
+		// The items are overwritten
+		RandomAccessFile out = new RandomAccessFile(file, "rw");
+		try {
+			final long position = record.itemsOffset + record.itemsLength - 1;
+
+			out.seek(position);
+			final int value = out.read();
+
+			out.seek(position);
+			out.write(~value);
+		} finally {
+			out.close();
+		}
+		assertReadItemsFails(record, rootA);
+
+		// The file is rewritten without A
+		final RobotDatabase rewriting = new RobotDatabase(file, false);
+
+		rewriting.setRewriteNeeded();
+		rewriting.write(roots(rootB), changed(items(rootB, "b1")));
+		assertReadItemsFails(record, rootA);
+	}
+
+	@Test
+	public void repositoryConvertsOldDatabase() throws IOException, ClassNotFoundException {
+		final List<IRepositoryItem> itemsA = items(rootA, "a1", "a2");
+		final List<IRepositoryItem> itemsB = items(rootB, "b1");
+		final ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(file));
+
+		try {
+			out.writeObject(new HashSet<IRepositoryRoot>(Arrays.asList(rootA, rootB)));
+
+			final Set<IRepositoryItem> items = new HashSet<IRepositoryItem>(itemsA);
+
+			items.addAll(itemsB);
+			out.writeObject(items);
+		} finally {
+			out.close();
+		}
+		Assert.assertFalse(RobotDatabase.isDatabaseFile(file));
+
+		final Repository repository = new Repository();
+
+		repository.load(file);
+		Assert.assertEquals(set("a1", "a2", "b1"), repository.getItems().keySet());
+
+		// The roots of an old database are all written on the next save
+		Assert.assertTrue(repository.save(file));
+		Assert.assertTrue(RobotDatabase.isDatabaseFile(file));
+		Assert.assertFalse(repository.save(file));
+
+		final Repository converted = new Repository();
+
+		converted.load(file);
+		Assert.assertEquals(set(key(rootA), key(rootB)), converted.getRoots().keySet());
+		Assert.assertSame(converted.getRoots().get(key(rootA)), converted.getItem("a1").getRoot());
+	}
+
+	@Test
+	public void repositoryReadsItemsOfLookedUpRootOnly() throws IOException {
+		final Repository repository = new Repository();
+
+		repository.setRoots(roots(rootA, rootB));
+		for (IRepositoryItem item : items(rootA, "a1", "a2")) {
+			repository.addOrUpdateItem(item);
+		}
+		repository.addOrUpdateItem(items(rootB, "b1").get(0));
+		Assert.assertTrue(repository.save(file));
+
+		final Repository loaded = new Repository();
+
+		loaded.load(file);
+		Assert.assertEquals("items read", 0, TestItem.reads.get());
+
+		Assert.assertNotNull(loaded.getItem("b1"));
+		Assert.assertEquals("items read", 1, TestItem.reads.get());
+
+		Assert.assertEquals(set("a1", "a2", "b1"), loaded.getItems().keySet());
+		Assert.assertEquals("items read", 3, TestItem.reads.get());
+
+		// Nothing has changed
+		Assert.assertFalse(loaded.save(file));
+	}
+
+	@Test
+	public void repositoryRewritesWhenTestingModeChanged() throws IOException {
+		final Repository repository = new Repository();
+
+		repository.setRoots(roots(rootA));
+		repository.addOrUpdateItem(items(rootA, "a1").get(0));
+		repository.save(file);
+
+		final String testing = System.getProperty("TESTING");
+
+		System.setProperty("TESTING", String.valueOf(!"true".equals(testing)));
+		try {
+			final Repository loaded = new Repository();
+
+			loaded.load(file);
+			Assert.assertTrue(loaded.save(file));
+			Assert.assertFalse(loaded.save(file));
+			Assert.assertNotNull(loaded.getItem("a1"));
+		} finally {
+			if (testing == null) {
+				System.clearProperty("TESTING");
+			} else {
+				System.setProperty("TESTING", testing);
+			}
+		}
+	}
+
+	private void assertReadItemsFails(RobotDatabase.Record record, IRepositoryRoot root) {
+		try {
+			new RobotDatabase(file, false).readItems(record, root);
+			Assert.fail("items read");
+		} catch (IOException expected) {}
+	}
+
+	private void truncate(int bytes) throws IOException {
+		final RandomAccessFile out = new RandomAccessFile(file, "rw");
+
+		try {
+			out.setLength(out.length() - bytes);
+		} finally {
+			out.close();
+		}
+	}
+
+	private static Map<String, RobotDatabase.Record> read(RobotDatabase database) throws IOException {
+		final Map<String, RobotDatabase.Record> records = new HashMap<String, RobotDatabase.Record>();
+
+		for (RobotDatabase.Record record : database.read()) {
+			records.put(record.key, record);
+		}
+		return records;
+	}
+
+	private static String key(IRepositoryRoot root) {
+		return root.getURL().toString();
+	}
+
+	private static Map<String, IRepositoryRoot> roots(IRepositoryRoot... roots) {
+		final Map<String, IRepositoryRoot> map = new ConcurrentHashMap<String, IRepositoryRoot>();
+
+		for (IRepositoryRoot root : roots) {
+			map.put(key(root), root);
+		}
+		return map;
+	}
+
+	private static List<IRepositoryItem> items(TestRoot root, String... names) {
+		final List<IRepositoryItem> items = new ArrayList<IRepositoryItem>();
+
+		for (String name : names) {
+			items.add(new TestItem(root, name));
+		}
+		return items;
+	}
+
+	// The items of the changed roots, where each list holds the items of one root
+	@SafeVarargs
+	private static Map<String, List<IRepositoryItem>> changed(List<IRepositoryItem>... items) {
+		final Map<String, List<IRepositoryItem>> changed = new HashMap<String, List<IRepositoryItem>>();
+
+		for (List<IRepositoryItem> rootItems : items) {
+			changed.put(key(rootItems.get(0).getRoot()), rootItems);
+		}
+		return changed;
+	}
+
+	// A removed root is given as changed without items
+	private static Map<String, List<IRepositoryItem>> removed(IRepositoryRoot root) {
+		return Collections.singletonMap(key(root), Collections.<IRepositoryItem>emptyList());
+	}
+
+	private static Set<String> names(Collection<IRepositoryItem> items) {
+		final Set<String> names = new TreeSet<String>();
+
+		for (IRepositoryItem item : items) {
+			names.addAll(item.getFriendlyURLs());
+		}
+		return names;
+	}
+
+	private static Set<String> set(String... values) {
+		return new TreeSet<String>(Arrays.asList(values));
+	}
+
+	private static class TestRoot extends BaseRoot {
+		private static final long serialVersionUID = 1L;
+
+		TestRoot(File rootPath) {
+			super(null, rootPath);
+		}
+
+		public void updateItems(boolean force) {}
+
+		public void updateItem(IRepositoryItem repositoryItem, boolean force) {}
+
+		public boolean isJAR() {
+			return false;
+		}
+
+		public boolean isDevelopmentRoot() {
+			return false;
+		}
+	}
+
+	/**
+	 * An item, which counts how many times it has been read, and is larger than 4 KB when it is written.
+	 */
+	private static class TestItem implements IRepositoryItem, Serializable {
+		private static final long serialVersionUID = 1L;
+
+		static final AtomicInteger reads = new AtomicInteger();
+
+		private final IRepositoryRoot root;
+		private final String name;
+		private final byte[] data = new byte[4096];
+
+		TestItem(IRepositoryRoot root, String name) {
+			this.root = root;
+			this.name = name;
+		}
+
+		public URL getItemURL() {
+			try {
+				return new URL(root.getURL(), name + ".class");
+			} catch (MalformedURLException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		public IRepositoryRoot getRoot() {
+			return root;
+		}
+
+		public Set<String> getFriendlyURLs() {
+			return Collections.singleton(name);
+		}
+
+		public void update(long lastModified, boolean force) {}
+
+		public long getLastModified() {
+			return 0;
+		}
+
+		public boolean isValid() {
+			return true;
+		}
+
+		public int compareTo(Object other) {
+			return 0;
+		}
+
+		private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.defaultReadObject();
+			reads.incrementAndGet();
+		}
+	}
+}
@@ -26,6 +26,9 @@ java {
 }
 
 tasks {
+    test {
+        useJUnitPlatform()
+    }
     javadoc {
         source = sourceSets["main"].java
         include("roborumble/RoboRumbleAtHome.java")
@@ -0,0 +1,387 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.battlesengine;
+
+
+import net.sf.robocode.io.FileUtil;
+import net.sf.robocode.roborumble.util.PropertiesUtil;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+
+/**
+ * The BattlesCoordinator is running the battles in several worker processes.
+ * Shards the battles file over the workers, and merges the results of the workers into the output file.
+ * Controlled by properties files, where the number of workers is given by the WORKERS property.
+ * <p>
+ * Every worker is a {@link BattlesWorker} process with its own robocode engine and its own robots directory, which
+ * contains links to the robot JARs in the robots directory, so the workers do not share the robot database and the
+ * data files of the robots. The results of a battle are appended to the output file when the worker has completed
+ * the battle. When a worker dies, it is started again with the battles it has not completed, where a battle is
+ * skipped when a worker has died twice while running it. A worker that takes longer than the BATTLETIMEOUT property
+ * (in seconds) for a battle is considered hanging, and is stopped as if it had died.
+ */
+public class BattlesCoordinator {
+	private static final int MAX_ATTEMPTS = 2;
+
+	private final BattlesFile inputfile;
+	private final String outfile;
+	private final String game;
+	private final Properties parameters;
+	private final File workersDir;
+	private final int workers;
+	private final long battleTimeout;
+	private final String workerClass;
+
+	public BattlesCoordinator(String game, Properties parameters) {
+		this(game, parameters, BattlesWorker.class.getName());
+	}
+
+	// The worker class can be replaced for testing
+	BattlesCoordinator(String game, Properties parameters, String workerClass) {
+		inputfile = new BattlesFile(parameters.getProperty("INPUT", ""));
+		outfile = parameters.getProperty("OUTPUT", "");
+		workersDir = new File(parameters.getProperty("TEMP", "./roborumble/temp/"), "workers");
+		workers = Integer.parseInt(parameters.getProperty("WORKERS", "1"));
+		battleTimeout = 1000 * Long.parseLong(parameters.getProperty("BATTLETIMEOUT", "600"));
+		this.game = game;
+		this.parameters = parameters;
+		this.workerClass = workerClass;
+	}
+
+	public void runBattlesImpl(boolean melee) {
+		// Read input file
+		ArrayList<RumbleBattle> rumbleBattles = new ArrayList<RumbleBattle>();
+		if (inputfile.readRumbleBattles(rumbleBattles)) {
+			return;
+		}
+
+		// open output file
+		PrintStream outtxt;
+		try {
+			outtxt = new PrintStream(new BufferedOutputStream(new FileOutputStream(outfile, true)), true);
+		} catch (IOException e) {
+			System.out.println("Not able to open output file ... Aborting");
+			System.out.println(e);
+			return;
+		}
+
+		// shard the battles over the workers
+		final List<List<Integer>> shards = shard(rumbleBattles.size(), workers);
+		final Thread[] threads = new Thread[shards.size()];
+		final Timer watchdog = new Timer("Battles watchdog", true);
+
+		for (int id = 0; id < threads.length; id++) {
+			threads[id] = new Thread(new Worker(id, shards.get(id), rumbleBattles, melee, outtxt, watchdog),
+					"Battles worker " + id);
+			threads[id].start();
+		}
+
+		// wait for the workers
+		for (Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+
+		// close
+		watchdog.cancel();
+		outtxt.close();
+	}
+
+	/**
+	 * Shards the battles over the workers, where worker n runs every n-th battle, so the workers get the same
+	 * number of battles and the same mix of robots.
+	 *
+	 * @param battles the number of battles.
+	 * @param workers the number of workers.
+	 * @return the indices of the battles of every worker, where no worker is without battles.
+	 */
+	static List<List<Integer>> shard(int battles, int workers) {
+		final int count = Math.max(1, Math.min(workers, battles));
+		final List<List<Integer>> shards = new ArrayList<List<Integer>>();
+
+		for (int id = 0; id < count; id++) {
+			List<Integer> shard = new ArrayList<Integer>();
+
+			for (int index = id; index < battles; index += count) {
+				shard.add(index);
+			}
+			shards.add(shard);
+		}
+		return shards;
+	}
+
+	/**
+	 * Returns the options of this process to start the workers with, without the options for debuggers and agents,
+	 * as the workers would e.g. try to listen on the same debugger port.
+	 *
+	 * @param options the options of this process.
+	 * @return the options for the workers.
+	 */
+	static List<String> getWorkerOptions(List<String> options) {
+		final List<String> workerOptions = new ArrayList<String>();
+
+		for (String option : options) {
+			if (!option.startsWith("-agentlib:") && !option.startsWith("-agentpath:")
+					&& !option.startsWith("-javaagent:") && !option.startsWith("-Xrunjdwp") && !option.equals("-Xdebug")) {
+				workerOptions.add(option);
+			}
+		}
+		return workerOptions;
+	}
+
+	/**
+	 * Runs the battles of a shard in a worker process, and starts the process again when it dies.
+	 */
+	private final class Worker implements Runnable {
+		private final int id;
+		private final LinkedList<Integer> pending;
+		private final List<RumbleBattle> rumbleBattles;
+		private final boolean melee;
+		private final PrintStream outtxt;
+		private final Timer watchdog;
+		private final Map<Integer, Integer> attempts = new HashMap<Integer, Integer>();
+		private final File dir;
+
+		Worker(int id, List<Integer> shard, List<RumbleBattle> rumbleBattles, boolean melee, PrintStream outtxt, Timer watchdog) {
+			this.id = id;
+			this.pending = new LinkedList<Integer>(shard);
+			this.rumbleBattles = rumbleBattles;
+			this.melee = melee;
+			this.outtxt = outtxt;
+			this.watchdog = watchdog;
+			dir = new File(workersDir, "worker" + id);
+		}
+
+		public void run() {
+			int failedStarts = 0;
+
+			while (!pending.isEmpty()) {
+				final List<Integer> shard = new ArrayList<Integer>(pending);
+				final List<String> results = new ArrayList<String>();
+				int running = -1;
+				boolean progressed = false;
+
+				Process process = null;
+				TimerTask timeout = null;
+				try {
+					process = start(shard);
+					timeout = scheduleTimeout(process, null);
+
+					BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()));
+					String line;
+
+					while ((line = in.readLine()) != null) {
+						if (line.startsWith(BattlesWorker.BATTLE_PREFIX)) {
+							timeout = scheduleTimeout(process, timeout);
+							running = shard.get(Integer.parseInt(line.substring(BattlesWorker.BATTLE_PREFIX.length())));
+							results.clear();
+							System.out.println("Fighting battle " + running + " on worker " + id + " ... "
+									+ getEnemies(rumbleBattles.get(running)));
+						} else if (line.startsWith(BattlesWorker.RESULT_PREFIX)) {
+							results.add(line.substring(BattlesWorker.RESULT_PREFIX.length()));
+						} else if (line.startsWith(BattlesWorker.DONE_PREFIX)) {
+							writeResults(results);
+							results.clear();
+							pending.remove(shard.get(Integer.parseInt(line.substring(BattlesWorker.DONE_PREFIX.length()))));
+							running = -1;
+							progressed = true;
+						} else {
+							System.out.println("[" + id + "] " + line);
+						}
+					}
+					process.waitFor();
+				} catch (IOException e) {
+					System.out.println("Worker " + id + " failed: " + e);
+					if (process != null) {
+						process.destroy();
+					}
+				} catch (InterruptedException e) {
+					process.destroy();
+					Thread.currentThread().interrupt();
+					return;
+				} finally {
+					if (timeout != null) {
+						timeout.cancel();
+					}
+				}
+
+				if (pending.isEmpty()) {
+					break;
+				}
+				// The worker died or hung, so the battle it was running is run again, unless it has failed on it before
+				if (running >= 0) {
+					Integer attempt = attempts.get(running);
+
+					attempt = (attempt == null) ? 1 : attempt + 1;
+					attempts.put(running, attempt);
+					if (attempt >= MAX_ATTEMPTS) {
+						System.err.println("Skipping battle because the worker failed while running it: "
+								+ getEnemies(rumbleBattles.get(running)));
+						pending.remove((Integer) running);
+					}
+				} else if (!progressed && ++failedStarts >= MAX_ATTEMPTS) {
+					System.err.println("Worker " + id + " could not be started ... Skipping " + pending.size() + " battles");
+					return;
+				}
+				if (!pending.isEmpty()) {
+					System.out.println("Restarting worker " + id + " with " + pending.size() + " battles left");
+				}
+			}
+		}
+
+		/**
+		 * Stops the worker process, if it does not complete the battle it is about to run within the battle timeout.
+		 *
+		 * @param process the worker process.
+		 * @param previous the timeout of the previous battle, which is cancelled, or null.
+		 * @return the timeout of the battle, or null if there is no battle timeout.
+		 */
+		private TimerTask scheduleTimeout(final Process process, TimerTask previous) {
+			if (previous != null) {
+				previous.cancel();
+			}
+			if (battleTimeout <= 0) {
+				return null;
+			}
+			final TimerTask timeout = new TimerTask() {
+				public void run() {
+					System.out.println("Worker " + id + " has not completed the battle in " + battleTimeout / 1000
+							+ " seconds ... Stopping it");
+					process.destroyForcibly();
+				}
+			};
+
+			watchdog.schedule(timeout, battleTimeout);
+			return timeout;
+		}
+
+		private Process start(List<Integer> shard) throws IOException {
+			final File robotsDir = new File(dir, "robots");
+
+			linkRobots(FileUtil.getRobotsDir(), robotsDir);
+
+			// battles of the shard
+			final File battlesFile = new File(dir, "battles.txt");
+			final BattlesFile battles = new BattlesFile(battlesFile.getPath());
+
+			if (!battles.openWrite()) {
+				throw new IOException("Not able to write battles file " + battlesFile);
+			}
+			for (int index : shard) {
+				battles.writeBattle(rumbleBattles.get(index));
+			}
+			battles.closeWrite();
+
+			// parameters of the worker
+			final File propertiesFile = new File(dir, "worker.properties");
+			final Properties workerParameters = new Properties();
+
+			workerParameters.putAll(parameters);
+			workerParameters.setProperty("INPUT", battlesFile.getPath());
+			if (!PropertiesUtil.storeProperties(workerParameters, propertiesFile.getPath(), "Battles worker " + id)) {
+				throw new IOException("Not able to write properties file " + propertiesFile);
+			}
+
+			// the worker runs with the options of this process, but with its own robots directory
+			final List<String> command = new ArrayList<String>();
+
+			command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+			command.addAll(getWorkerOptions(ManagementFactory.getRuntimeMXBean().getInputArguments()));
+			command.add("-DROBOTPATH=" + robotsDir.getAbsolutePath());
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add(workerClass);
+			command.add(game);
+			command.add(propertiesFile.getPath());
+			command.add(String.valueOf(melee));
+
+			return new ProcessBuilder(command).redirectErrorStream(true).start();
+		}
+
+		private void writeResults(List<String> results) {
+			synchronized (outtxt) {
+				for (String result : results) {
+					outtxt.println(result);
+				}
+				outtxt.flush();
+			}
+		}
+	}
+
+	/**
+	 * Links the robot JARs into the robots directory of a worker, where the JARs are copied if links are not
+	 * supported, and removes the JARs that are no longer in the robots directory.
+	 */
+	private static void linkRobots(File sourceDir, File robotsDir) throws IOException {
+		if (!robotsDir.isDirectory() && !robotsDir.mkdirs()) {
+			throw new IOException("Not able to create robots directory " + robotsDir);
+		}
+
+		final Set<String> names = new HashSet<String>();
+		final File[] jars = sourceDir.listFiles(new JarFilter());
+
+		if (jars != null) {
+			for (File jar : jars) {
+				names.add(jar.getName());
+
+				File link = new File(robotsDir, jar.getName());
+
+				if (link.lastModified() == jar.lastModified() && link.length() == jar.length()) {
+					continue;
+				}
+				Files.deleteIfExists(link.toPath());
+				try {
+					Files.createLink(link.toPath(), jar.toPath());
+				} catch (IOException e) {
+					Files.copy(jar.toPath(), link.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+				} catch (UnsupportedOperationException e) {
+					Files.copy(jar.toPath(), link.toPath(), StandardCopyOption.COPY_ATTRIBUTES);
+				}
+			}
+		}
+
+		final File[] links = robotsDir.listFiles(new JarFilter());
+
+		if (links != null) {
+			for (File link : links) {
+				if (!names.contains(link.getName())) {
+					Files.deleteIfExists(link.toPath());
+				}
+			}
+		}
+	}
+
+	private static String getEnemies(RumbleBattle rumbleBattle) {
+		StringBuilder enemies = new StringBuilder();
+
+		for (String bot : rumbleBattle.getBots()) {
+			if (enemies.length() > 0) {
+				enemies.append(',');
+			}
+			enemies.append(bot);
+		}
+		return enemies.toString();
+	}
+
+	private static final class JarFilter implements FileFilter {
+		public boolean accept(File pathname) {
+			String path = pathname.getName().toLowerCase();
+
+			return pathname.isFile() && (path.endsWith(".jar") || path.endsWith(".zip"));
+		}
+	}
+}
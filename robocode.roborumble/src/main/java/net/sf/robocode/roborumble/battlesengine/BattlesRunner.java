@@ -13,8 +13,13 @@ import robocode.control.*;
 import robocode.control.events.BattleAdaptor;
 import robocode.control.events.BattleCompletedEvent;
 import robocode.control.events.BattleErrorEvent;
+import robocode.control.events.BattleEvent;
+import robocode.control.events.ISelectiveBattleListener;
+import robocode.control.events.TurnSnapshotDetail;
 
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.*;
 
 
@@ -62,12 +67,23 @@ public class BattlesRunner {
 	public String getVersion() {
 		return (engine != null) ? engine.getVersion() : null;
 	}
-	
-	public void runBattlesImpl(boolean melee) {
-		// Initialize objects
-		BattlefieldSpecification field = new BattlefieldSpecification(fieldlen, fieldhei);
-		BattleSpecification battle = new BattleSpecification(numrounds, field, (new RobotSpecification[2]));
 
+	/**
+	 * Disables the -DPARALLEL and -DRANDOMSEED options, as robots must not be deterministic in tournaments.
+	 * Parallel robots are kept when their turns are measured in the CPU time of their threads (-DCPUTIMEBUDGET),
+	 * as they would otherwise lose turns in wall clock time while waiting for a free CPU core.
+	 */
+	public static void disableUnfairOptions() {
+		final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+		if (!System.getProperty("CPUTIMEBUDGET", "false").equals("true") || !threadMXBean.isThreadCpuTimeSupported()
+				|| !threadMXBean.isThreadCpuTimeEnabled()) {
+			System.setProperty("PARALLEL", "false");
+		}
+		System.setProperty("RANDOMSEED", "none");
+	}
+
+	public void runBattlesImpl(boolean melee) {
 		// Read input file
 		ArrayList<RumbleBattle> rumbleBattles = new ArrayList<RumbleBattle>();
 		if (inputfile.readRumbleBattles(rumbleBattles)) {
@@ -86,29 +102,9 @@ public class BattlesRunner {
 		while (index < rumbleBattles.size()) {
 			RumbleBattle rumbleBattle = rumbleBattles.get(index);
 
-			String enemies = getEnemies(melee, rumbleBattle.getBots());
-
-			System.out.println("Fighting battle " + (index) + " ... " + enemies);
+			System.out.println("Fighting battle " + (index) + " ... " + getEnemies(melee, rumbleBattle.getBots()));
 
-			final RobotSpecification[] robotsList = engine.getLocalRepository(enemies);
-
-			if (robotsList.length > 1) {
-				final String team0 = robotsList[0].getTeamId();
-				final String teamLast = robotsList[robotsList.length - 1].getTeamId();
-
-				if (team0 == null || !team0.equals(teamLast)) {
-					final BattleSpecification specification = new BattleSpecification(battle.getNumRounds(),
-							battle.getBattlefield(), robotsList);
-
-					lastResults = null;
-					engine.runBattle(specification, true);
-					if (lastResults != null && lastResults.length > 1) {
-						dumpResults(outtxt, lastResults, rumbleBattle, melee);
-					}
-				}
-			} else {
-				System.err.println("Skipping battle because can't load robots: " + enemies);
-			}
+			runBattle(rumbleBattle, melee, outtxt);
 			index++;
 		}
 
@@ -116,7 +112,38 @@ public class BattlesRunner {
 		outtxt.close();
 	}
 
-	private String getEnemies(boolean melee, String[] bots) {
+	/**
+	 * Runs a single battle and writes its results to the output.
+	 *
+	 * @param rumbleBattle the battle to run.
+	 * @param melee true if the battle is a melee battle; false otherwise.
+	 * @param outtxt the output the results are written to.
+	 */
+	void runBattle(RumbleBattle rumbleBattle, boolean melee, PrintStream outtxt) {
+		String enemies = getEnemies(melee, rumbleBattle.getBots());
+
+		final RobotSpecification[] robotsList = engine.getLocalRepository(enemies);
+
+		if (robotsList.length > 1) {
+			final String team0 = robotsList[0].getTeamId();
+			final String teamLast = robotsList[robotsList.length - 1].getTeamId();
+
+			if (team0 == null || !team0.equals(teamLast)) {
+				final BattleSpecification specification = new BattleSpecification(numrounds,
+						new BattlefieldSpecification(fieldlen, fieldhei), robotsList);
+
+				lastResults = null;
+				engine.runBattle(specification, true);
+				if (lastResults != null && lastResults.length > 1) {
+					dumpResults(outtxt, lastResults, rumbleBattle, melee);
+				}
+			}
+		} else {
+			System.err.println("Skipping battle because can't load robots: " + enemies);
+		}
+	}
+
+	String getEnemies(boolean melee, String[] bots) {
 		String enemies;
 
 		if (melee) {
@@ -193,7 +220,15 @@ public class BattlesRunner {
 		}
 	}
 
-	class BattleObserver extends BattleAdaptor {
+	class BattleObserver extends BattleAdaptor implements ISelectiveBattleListener {
+		public boolean isListening(Class<? extends BattleEvent> eventClass) {
+			return eventClass == BattleErrorEvent.class || eventClass == BattleCompletedEvent.class;
+		}
+
+		public TurnSnapshotDetail getTurnSnapshotDetail() {
+			return TurnSnapshotDetail.NONE;
+		}
+
 		@Override
 		public void onBattleError(final BattleErrorEvent event) {
 			Logger.realErr.println(event.getError());
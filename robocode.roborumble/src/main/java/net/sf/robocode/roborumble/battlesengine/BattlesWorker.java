@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.battlesengine;
+
+
+import static net.sf.robocode.roborumble.util.PropertiesUtil.getProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Properties;
+
+
+/**
+ * The BattlesWorker is the process started by the {@link BattlesCoordinator} for running a share of the battles.
+ * Reads the battles file given by the INPUT property and writes the results to the standard output, where the
+ * results of a battle are written when the battle is done, followed by a line that marks the battle as done.
+ */
+public final class BattlesWorker {
+
+	static final String BATTLE_PREFIX = "@BATTLE ";
+	static final String RESULT_PREFIX = "@RESULT ";
+	static final String DONE_PREFIX = "@DONE ";
+
+	private BattlesWorker() {}
+
+	/**
+	 * Runs the battles.
+	 *
+	 * @param args the game, the properties file, and "true" if the battles are melee battles.
+	 */
+	public static void main(String[] args) {
+		if (args.length < 3) {
+			System.err.println("Usage: BattlesWorker <game> <properties file> <melee>");
+			System.exit(2);
+		}
+
+		// The engine may redirect the standard output, so the results are written to the original one
+		final PrintStream out = System.out;
+
+		final Properties properties = getProperties(args[1]);
+		if (properties == null) {
+			System.exit(1);
+		}
+		final boolean melee = Boolean.parseBoolean(args[2]);
+
+		// Disable the -DRANDOMSEED option, and -DPARALLEL unless robot turns are measured in CPU time
+		BattlesRunner.disableUnfairOptions();
+
+		ArrayList<RumbleBattle> rumbleBattles = new ArrayList<RumbleBattle>();
+		if (new BattlesFile(properties.getProperty("INPUT", "")).readRumbleBattles(rumbleBattles)) {
+			System.exit(1);
+		}
+
+		final BattlesRunner runner = new BattlesRunner(args[0], properties);
+
+		for (int index = 0; index < rumbleBattles.size(); index++) {
+			out.println(BATTLE_PREFIX + index);
+
+			ByteArrayOutputStream results = new ByteArrayOutputStream();
+			PrintStream resultsOut = new PrintStream(results, true);
+
+			runner.runBattle(rumbleBattles.get(index), melee, resultsOut);
+			resultsOut.close();
+
+			for (String line : results.toString().split("\r?\n")) {
+				if (line.length() > 0) {
+					out.println(RESULT_PREFIX + line);
+				}
+			}
+			out.println(DONE_PREFIX + index);
+		}
+		out.flush();
+
+		// The engine threads would keep the process alive
+		System.exit(0);
+	}
+}
@@ -8,6 +8,7 @@
 package roborumble;
 
 
+import net.sf.robocode.roborumble.battlesengine.BattlesCoordinator;
 import net.sf.robocode.roborumble.battlesengine.BattlesRunner;
 import net.sf.robocode.roborumble.battlesengine.PrepareBattles;
 import net.sf.robocode.roborumble.netengine.BotsDownload;
@@ -75,6 +76,7 @@ public class RoboRumbleAtHome {
         String iterates = properties.getProperty("ITERATE", "NOT");
         String runonly = properties.getProperty("RUNONLY", "GENERAL");
         String melee = properties.getProperty("MELEE", "NOT");
+        int workers = Integer.parseInt(properties.getProperty("WORKERS", "1"));
 
         int iterations = 0;
         long lastdownload = 0;
@@ -142,9 +144,8 @@ public class RoboRumbleAtHome {
                     }
                 }
 
-                // Disable the -DPRARALLEL and -DRANDOMSEED options
-                System.setProperty("PARALLEL", "false"); // TODO: Remove when robot thread CPU time can be measured
-                System.setProperty("RANDOMSEED", "none"); // In tournaments, robots should not be deterministic!
+                // Disable the -DRANDOMSEED option, and -DPARALLEL unless robot turns are measured in CPU time
+                BattlesRunner.disableUnfairOptions();
 
                 // Execute battles
                 if (ready) {
@@ -154,7 +155,12 @@ public class RoboRumbleAtHome {
                         System.out.println("Executing battles ...");
                     }
 
-                    engine.runBattlesImpl(isMelee);
+                    if (workers > 1) {
+                        // Run the battles in worker processes, each with its own engine
+                        new BattlesCoordinator(game, properties).runBattlesImpl(isMelee);
+                    } else {
+                        engine.runBattlesImpl(isMelee);
+                    }
                 }
             }
 
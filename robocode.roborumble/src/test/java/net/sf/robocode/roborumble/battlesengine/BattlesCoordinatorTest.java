@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.battlesengine;
+
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class BattlesCoordinatorTest {
+
+	private File tempDir;
+	private String robotPath;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		tempDir = Files.createTempDirectory("battles").toFile();
+
+		// the workers get links to the robots of this directory
+		robotPath = System.getProperty("ROBOTPATH");
+		System.setProperty("ROBOTPATH", new File(tempDir, "robots").getPath());
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		if (robotPath == null) {
+			System.clearProperty("ROBOTPATH");
+		} else {
+			System.setProperty("ROBOTPATH", robotPath);
+		}
+		delete(tempDir);
+	}
+
+	@Test
+	public void shardsBattlesOverWorkers() {
+		assertEquals(Arrays.asList(Arrays.asList(0, 3, 6), Arrays.asList(1, 4), Arrays.asList(2, 5)),
+				BattlesCoordinator.shard(7, 3));
+
+		// no worker is started without battles
+		assertEquals(Arrays.asList(Collections.singletonList(0), Collections.singletonList(1)),
+				BattlesCoordinator.shard(2, 4));
+		assertEquals(Collections.singletonList(Collections.<Integer>emptyList()), BattlesCoordinator.shard(0, 4));
+	}
+
+	@Test
+	public void mergesResultsOfWorkers() throws IOException {
+		final List<String> battles = battles("sample.Bot0", "sample.Bot1", "sample.Bot2", "sample.Bot3", "sample.Bot4");
+
+		assertEquals(results(battles), run(battles, 3, 600));
+	}
+
+	@Test
+	public void restartsDeadWorker() throws IOException {
+		final List<String> battles = battles("sample.Bot0", "crash.Once", "sample.Bot2", "sample.Bot3");
+
+		// the battle is run again, and the worker continues with the battles after it
+		assertEquals(results(battles), run(battles, 2, 600));
+	}
+
+	@Test
+	public void skipsBattleWhenWorkerDiesTwice() throws IOException {
+		final List<String> battles = battles("sample.Bot0", "crash.Always", "sample.Bot2", "sample.Bot3");
+		final List<String> expected = results(battles);
+
+		expected.remove("roborumble," + battles.get(1));
+		assertEquals(expected, run(battles, 1, 600));
+	}
+
+	@Test
+	public void stopsHangingWorker() throws IOException {
+		final List<String> battles = battles("sample.Bot0", "hang.Once", "sample.Bot2");
+		final long start = System.currentTimeMillis();
+
+		assertEquals(results(battles), run(battles, 1, 1));
+		assertTrue(System.currentTimeMillis() - start < 60000);
+	}
+
+	@Test
+	public void startsWorkersWithoutDebuggerAndAgents() {
+		final List<String> options = Arrays.asList("-Xmx512M", "-agentlib:jdwp=transport=dt_socket,server=y,address=5005",
+				"-agentpath:/opt/profiler/libagent.so", "-javaagent:/opt/agent.jar", "-Xdebug",
+				"-Xrunjdwp:transport=dt_socket,address=5006", "-DROBOTPATH=robots", "-Djava.security.manager=allow");
+
+		assertEquals(Arrays.asList("-Xmx512M", "-DROBOTPATH=robots", "-Djava.security.manager=allow"),
+				BattlesCoordinator.getWorkerOptions(options));
+	}
+
+	/**
+	 * Runs the battles with the fake worker, and returns the lines of the output file in the order of the battles.
+	 */
+	private List<String> run(List<String> battles, int workers, int battleTimeout) throws IOException {
+		final File input = new File(tempDir, "battles.txt");
+		final File output = new File(tempDir, "results.txt");
+
+		Files.write(input.toPath(), battles);
+
+		final Properties parameters = new Properties();
+
+		parameters.setProperty("INPUT", input.getPath());
+		parameters.setProperty("OUTPUT", output.getPath());
+		parameters.setProperty("TEMP", tempDir.getPath());
+		parameters.setProperty("WORKERS", String.valueOf(workers));
+		parameters.setProperty("BATTLETIMEOUT", String.valueOf(battleTimeout));
+
+		new BattlesCoordinator("roborumble", parameters, FakeBattlesWorker.class.getName()).runBattlesImpl(false);
+
+		final List<String> results = new ArrayList<String>(Files.readAllLines(output.toPath()));
+
+		Collections.sort(results);
+		return results;
+	}
+
+	private static List<String> battles(String... bots) {
+		final List<String> battles = new ArrayList<String>();
+
+		for (String bot : bots) {
+			battles.add(new RumbleBattle(new String[] {bot, "sample.Enemy"}, "SERVER", true).toString());
+		}
+		return battles;
+	}
+
+	private static List<String> results(List<String> battles) {
+		final List<String> results = new ArrayList<String>();
+
+		for (String battle : battles) {
+			results.add("roborumble," + battle);
+		}
+		Collections.sort(results);
+		return results;
+	}
+
+	private static void delete(File file) throws IOException {
+		final File[] files = file.listFiles();
+
+		if (files != null) {
+			for (File child : files) {
+				delete(child);
+			}
+		}
+		Files.delete(file.toPath());
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.roborumble.battlesengine;
+
+
+import static net.sf.robocode.roborumble.util.PropertiesUtil.getProperties;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Properties;
+
+
+/**
+ * Worker process for the {@link BattlesCoordinatorTest}, which writes a result for every battle like the
+ * {@link BattlesWorker}, but without running the battle. Dies on battles with a first robot named "crash.Always",
+ * and dies or hangs on battles with a first robot named "crash.Once" or "hang.Once" the first time only.
+ */
+public final class FakeBattlesWorker {
+
+	private FakeBattlesWorker() {}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		final Properties properties = getProperties(args[1]);
+		final File tempDir = new File(properties.getProperty("TEMP"));
+
+		ArrayList<RumbleBattle> rumbleBattles = new ArrayList<RumbleBattle>();
+		if (new BattlesFile(properties.getProperty("INPUT", "")).readRumbleBattles(rumbleBattles)) {
+			System.exit(1);
+		}
+
+		for (int index = 0; index < rumbleBattles.size(); index++) {
+			final RumbleBattle battle = rumbleBattles.get(index);
+			final String bot = battle.getBots()[0];
+
+			System.out.println(BattlesWorker.BATTLE_PREFIX + index);
+			System.out.flush();
+
+			// the marker file is left by the first attempt
+			final boolean first = new File(tempDir, bot).createNewFile();
+
+			if (bot.equals("crash.Always") || (first && bot.equals("crash.Once"))) {
+				System.exit(1);
+			}
+			if (first && bot.equals("hang.Once")) {
+				Thread.sleep(Long.MAX_VALUE);
+			}
+			System.out.println("Some output of the battle");
+			System.out.println(BattlesWorker.RESULT_PREFIX + args[0] + "," + battle);
+			System.out.println(BattlesWorker.DONE_PREFIX + index);
+		}
+		System.out.flush();
+		System.exit(0);
+	}
+}
@@ -12,9 +12,12 @@ import net.sf.robocode.battle.IBattleManager;
 import net.sf.robocode.settings.ISettingsListener;
 import net.sf.robocode.settings.ISettingsManager;
 import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleEvent;
 import robocode.control.events.BattleFinishedEvent;
 import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.ISelectiveBattleListener;
 import robocode.control.events.TurnEndedEvent;
+import robocode.control.events.TurnSnapshotDetail;
 import robocode.control.snapshot.IBulletSnapshot;
 import robocode.control.snapshot.IRobotSnapshot;
 import robocode.control.snapshot.RobotState;
@@ -330,7 +333,18 @@ public class SoundManager implements ISoundManager {
 		return (float) (bp.getPower() / robocode.Rules.MAX_BULLET_POWER);
 	}
 
-	private class BattleObserver extends BattleAdaptor {
+	private class BattleObserver extends BattleAdaptor implements ISelectiveBattleListener {
+		public boolean isListening(Class<? extends BattleEvent> eventClass) {
+			return eventClass == BattleStartedEvent.class
+					|| eventClass == BattleFinishedEvent.class
+					|| eventClass == TurnEndedEvent.class;
+		}
+
+		// the sounds are played for the bullets and robots, and not for their console output
+		public TurnSnapshotDetail getTurnSnapshotDetail() {
+			return TurnSnapshotDetail.NO_OUTPUT;
+		}
+
 		@Override
 		public void onBattleStarted(BattleStartedEvent event) {
 			if (isSoundEnabled()) {
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package tested.robots;
+
+
+/**
+ * Like {@link BusySkipTurns}, but waits without consuming CPU time.
+ */
+public class BlockedSkipTurns extends BusySkipTurns {
+
+	private final Object w = new Object();
+
+	@Override
+	protected void slowResponse() {
+		if (isSatisfied()) {
+			return;
+		}
+		synchronized (w) {
+			try {
+				w.wait(130);
+			} catch (InterruptedException e) {
+				// eat interrupt
+				e.printStackTrace(out);
+			}
+		}
+	}
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package tested.robots;
+
+
+import robocode.AdvancedRobot;
+import robocode.Rules;
+
+
+/**
+ * Stands still and fires the weakest bullets as fast as possible all around,
+ * so a battle has as many bullets in the air as the gun cooling rate allows.
+ */
+public class BulletStorm extends AdvancedRobot {
+
+	public void run() {
+		setAdjustGunForRobotTurn(true);
+		while (true) {
+			setTurnGunRight(Rules.GUN_TURN_RATE);
+			setFire(Rules.MIN_BULLET_POWER);
+			execute();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package tested.robots;
+
+
+import robocode.AdvancedRobot;
+import robocode.StatusEvent;
+
+
+/**
+ * Consumes about the same CPU time in every round, in its first turns, and is idle for the rest of the round.
+ */
+public class BusyRounds extends AdvancedRobot {
+	private volatile double sink;
+
+	static final int BUSY_TURNS = 10;
+
+	@Override
+	public void run() {
+		// noinspection InfiniteLoopStatement
+		for (;;) {
+			turnLeft(10);
+			ahead(1);
+			turnLeft(10);
+			back(1);
+		}
+	}
+
+	@Override
+	public void onStatus(StatusEvent e) {
+		if (e.getTime() >= BUSY_TURNS) {
+			return;
+		}
+		final long end = System.nanoTime() + 10 * 1000000L;
+		double x = 0;
+
+		while (System.nanoTime() < end) {
+			x += Math.sqrt(x + 1);
+		}
+		sink = x;
+	}
+}
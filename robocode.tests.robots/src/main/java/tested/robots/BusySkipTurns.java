@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package tested.robots;
+
+
+import robocode.AdvancedRobot;
+import robocode.SkippedTurnEvent;
+import robocode.StatusEvent;
+
+
+/**
+ * Like {@link SkipTurns}, but consumes CPU time instead of waiting, and takes its turns in time again when it has
+ * skipped enough turns, instead of ending the battle with an error.
+ */
+public class BusySkipTurns extends AdvancedRobot {
+	private volatile int skipped = 0;
+	private volatile double sink;
+
+	static final int LIMIT = 5;
+
+	@Override
+	public void run() {
+		// noinspection InfiniteLoopStatement
+		for (;;) {
+			turnLeft(10);
+			ahead(1);
+			turnLeft(10);
+			back(1);
+		}
+	}
+
+	@Override
+	public void onStatus(StatusEvent e) {
+		out.println("live");
+		slowResponse();
+	}
+
+	@Override
+	public void onSkippedTurn(SkippedTurnEvent event) {
+		out.println("Skipped!!!");
+
+		skipped++;
+	}
+
+	protected boolean isSatisfied() {
+		return skipped > LIMIT;
+	}
+
+	protected void slowResponse() {
+		if (isSatisfied()) {
+			return;
+		}
+		final long end = System.nanoTime() + 130 * 1000000L;
+		double x = 0;
+
+		while (System.nanoTime() < end) {
+			x += Math.sqrt(x + 1);
+		}
+		sink = x;
+	}
+}
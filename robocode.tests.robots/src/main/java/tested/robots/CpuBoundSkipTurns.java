@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package tested.robots;
+
+
+import robocode.AdvancedRobot;
+import robocode.StatusEvent;
+
+
+/**
+ * Like {@link BusySkipTurns}, but does the same amount of work in its first turns of every round, regardless of how
+ * long that takes, so it consumes the same CPU time whether the machine is busy or not.
+ * The work of a turn is about 2.4 times the work that is allowed by the CPU constant of the turn.
+ */
+public class CpuBoundSkipTurns extends AdvancedRobot {
+	private volatile double sink;
+
+	static final int BUSY_TURNS = 20;
+
+	// The CPU constant allows 6250 iterations of the same calculation
+	static final int ITERATIONS = 15000;
+
+	@Override
+	public void run() {
+		// noinspection InfiniteLoopStatement
+		for (;;) {
+			turnLeft(10);
+			ahead(1);
+			turnLeft(10);
+			back(1);
+		}
+	}
+
+	@Override
+	public void onStatus(StatusEvent e) {
+		if (e.getTime() >= BUSY_TURNS) {
+			return;
+		}
+		double d = 0;
+
+		for (int i = 0; i < ITERATIONS; i++) {
+			d += Math.hypot(Math.sqrt(Math.abs(Math.log(Math.atan(Math.random())))),
+					Math.cbrt(Math.abs(Math.random() * 10))) / Math.exp(Math.random());
+		}
+		sink = d;
+	}
+}
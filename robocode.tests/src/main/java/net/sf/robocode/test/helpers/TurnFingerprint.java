@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.helpers;
+
+
+import robocode.control.snapshot.IBulletSnapshot;
+import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.IScoreSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.util.List;
+
+
+/**
+ * Describes a turn by the state of its robots and bullets in a string, so the turns of two battles that must be
+ * the same can be compared, e.g. with -DRANDOMSEED.
+ */
+public final class TurnFingerprint {
+
+	private TurnFingerprint() {}
+
+	/**
+	 * Returns the fingerprint of a turn.
+	 *
+	 * @param turn the turn.
+	 * @return the positions, headings, energy, state and scores of the robots, and the positions, state and
+	 *         victims of the bullets.
+	 */
+	public static String of(ITurnSnapshot turn) {
+		final StringBuilder sb = new StringBuilder();
+
+		sb.append(turn.getRound()).append('/').append(turn.getTurn());
+		for (IRobotSnapshot robot : turn.getRobots()) {
+			final IScoreSnapshot score = robot.getScoreSnapshot();
+
+			sb.append(' ').append(robot.getName()).append(':').append(robot.getX()).append(',').append(robot.getY());
+			sb.append(',').append(robot.getEnergy()).append(',').append(robot.getBodyHeading());
+			sb.append(',').append(robot.getGunHeading()).append(',').append(robot.getRadarHeading());
+			sb.append(',').append(robot.getState()).append(',').append(score.getTotalScore());
+			sb.append(',').append(score.getCurrentBulletDamageScore()).append(',').append(score.getCurrentBulletKillBonus());
+		}
+		for (IBulletSnapshot bullet : turn.getBullets()) {
+			sb.append(" #").append(bullet.getBulletId()).append(':').append(bullet.getOwnerIndex());
+			sb.append(',').append(bullet.getX()).append(',').append(bullet.getY()).append(',').append(bullet.getState());
+			sb.append(',').append(bullet.getVictimIndex());
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Asserts that two battles have the same turns.
+	 *
+	 * @param expected the fingerprints of the turns of the first battle.
+	 * @param actual   the fingerprints of the turns of the second battle.
+	 */
+	public static void assertSameTurns(List<String> expected, List<String> actual) {
+		Assert.assertTrue(expected.size() > 0);
+		Assert.assertEquals("number of turns", expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			Assert.assertEquals("turn #" + i, expected.get(i), actual.get(i));
+		}
+	}
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.battle;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.recording.AsyncRecordWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+
+public class AsyncRecordWriterTest {
+
+	@Test
+	public void writesAllTurnsInOrder() {
+		final List<ITurnSnapshot> turns = createTurns(1000);
+		final List<ITurnSnapshot> written = Collections.synchronizedList(new ArrayList<ITurnSnapshot>());
+		final AsyncRecordWriter writer = new AsyncRecordWriter(written::add, 16, AsyncRecordWriter.Backpressure.BLOCK);
+
+		for (ITurnSnapshot turn : turns) {
+			writer.writeTurn(turn);
+		}
+		writer.close();
+
+		Assert.assertEquals(turns, written);
+		Assert.assertEquals(1000, writer.getWrittenTurns());
+		Assert.assertEquals(0, writer.getDroppedTurns());
+		Assert.assertEquals(0, writer.getQueueDepth());
+		Assert.assertFalse(writer.isIncomplete());
+		Assert.assertTrue(writer.getMaxQueueDepth() <= writer.getCapacity());
+		Assert.assertTrue(writer.getMaxLatency() >= writer.getMeanLatency());
+	}
+
+	@Test
+	public void blocksWhenFull() throws InterruptedException {
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<ITurnSnapshot> written = Collections.synchronizedList(new ArrayList<ITurnSnapshot>());
+		final AsyncRecordWriter writer = new AsyncRecordWriter(turn -> {
+			awaitUninterruptibly(release);
+			written.add(turn);
+		}, 4, AsyncRecordWriter.Backpressure.BLOCK);
+
+		Assert.assertEquals(4, writer.getCapacity());
+
+		final List<ITurnSnapshot> turns = createTurns(10);
+		final Thread producer = new Thread(() -> {
+			for (ITurnSnapshot turn : turns) {
+				writer.writeTurn(turn);
+			}
+		});
+
+		producer.start();
+		producer.join(500);
+
+		// the writer is stalled on the first turn, so the buffer fills up and the battle thread waits
+		Assert.assertTrue(producer.isAlive());
+		Assert.assertEquals(4, writer.getQueueDepth());
+
+		release.countDown();
+		producer.join();
+		writer.close();
+
+		Assert.assertEquals(turns, written);
+		Assert.assertFalse(writer.isIncomplete());
+	}
+
+	@Test
+	public void dropsWhenFull() {
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<ITurnSnapshot> written = Collections.synchronizedList(new ArrayList<ITurnSnapshot>());
+		final AsyncRecordWriter writer = new AsyncRecordWriter(turn -> {
+			awaitUninterruptibly(release);
+			written.add(turn);
+		}, 4, AsyncRecordWriter.Backpressure.DROP);
+
+		final List<ITurnSnapshot> turns = createTurns(100);
+
+		for (ITurnSnapshot turn : turns) {
+			writer.writeTurn(turn);
+		}
+		release.countDown();
+		writer.close();
+
+		Assert.assertTrue(writer.isIncomplete());
+		Assert.assertTrue(writer.getDroppedTurns() > 0);
+		Assert.assertEquals(100, writer.getWrittenTurns() + writer.getDroppedTurns());
+		Assert.assertEquals(writer.getWrittenTurns(), written.size());
+
+		// the turns written keep their order
+		int last = -1;
+
+		for (ITurnSnapshot turn : written) {
+			final int index = turns.indexOf(turn);
+
+			Assert.assertTrue(index > last);
+			last = index;
+		}
+	}
+
+	@Test
+	public void dropsTurnsAfterWriteFailure() {
+		final AsyncRecordWriter writer = new AsyncRecordWriter(turn -> {
+			throw new IOException("Disk full");
+		}, 4, AsyncRecordWriter.Backpressure.BLOCK);
+
+		// must not block once the writer has failed
+		for (ITurnSnapshot turn : createTurns(100)) {
+			writer.writeTurn(turn);
+		}
+		writer.close();
+
+		Assert.assertTrue(writer.isIncomplete());
+		Assert.assertEquals(0, writer.getWrittenTurns());
+		Assert.assertEquals(100, writer.getDroppedTurns());
+	}
+
+	@Test(timeout = 10000)
+	public void dropsTurnsAfterWriteError() {
+		final AsyncRecordWriter writer = new AsyncRecordWriter(turn -> {
+			throw new OutOfMemoryError("Turn too large");
+		}, 4, AsyncRecordWriter.Backpressure.BLOCK);
+
+		// must not block the battle thread forever once the writer has failed with an error
+		for (ITurnSnapshot turn : createTurns(100)) {
+			writer.writeTurn(turn);
+		}
+		writer.close();
+
+		Assert.assertTrue(writer.isIncomplete());
+		Assert.assertEquals(0, writer.getWrittenTurns());
+		Assert.assertEquals(100, writer.getDroppedTurns());
+	}
+
+	private static List<ITurnSnapshot> createTurns(int count) {
+		final List<ITurnSnapshot> turns = new ArrayList<ITurnSnapshot>();
+
+		for (int i = 0; i < count; i++) {
+			turns.add(new TurnSnapshot());
+		}
+		return turns;
+	}
+
+	private static void awaitUninterruptibly(CountDownLatch latch) {
+		while (true) {
+			try {
+				latch.await();
+				return;
+			} catch (InterruptedException e) {
+				// keeps waiting
+			}
+		}
+	}
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.battle;
+
+
+import net.sf.robocode.battle.events.BattleEventDispatcher;
+import net.sf.robocode.battle.events.BattleTimings;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.BattleEvent;
+import robocode.control.events.ISelectiveBattleListener;
+import robocode.control.events.ITurnTimingListener;
+import robocode.control.events.RoundEndedEvent;
+import robocode.control.events.TimingHistogram;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.events.TurnPhase;
+import robocode.control.events.TurnSnapshotDetail;
+import robocode.control.events.TurnStartedEvent;
+import robocode.control.events.TurnTimedEvent;
+
+import javax.management.Attribute;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+
+public class BattleEventDispatcherTest {
+
+	@Test
+	public void noListenersNeedNothing() {
+		Assert.assertEquals(TurnSnapshotDetail.NONE, new BattleEventDispatcher().getTurnSnapshotDetail());
+	}
+
+	@Test
+	public void listenerNotTellingNeedsEverything() {
+		final BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+
+		dispatcher.addListener(new BattleAdaptor() {
+			@Override
+			public void onBattleCompleted(BattleCompletedEvent event) {}
+		});
+		Assert.assertEquals(TurnSnapshotDetail.FULL, dispatcher.getTurnSnapshotDetail());
+		Assert.assertTrue(dispatcher.isListened(TurnStartedEvent.class));
+		Assert.assertTrue(dispatcher.isListened(TurnEndedEvent.class));
+		Assert.assertFalse(dispatcher.isListened(TurnTimedEvent.class));
+	}
+
+	@Test
+	public void mostNeededDetailWins() {
+		final BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+		final BattleAdaptor turnListener = new BattleAdaptor() {
+			@Override
+			public void onTurnEnded(TurnEndedEvent event) {}
+		};
+
+		dispatcher.addListener(new SelectiveListener(TurnSnapshotDetail.NO_OUTPUT));
+		Assert.assertEquals(TurnSnapshotDetail.NO_OUTPUT, dispatcher.getTurnSnapshotDetail());
+
+		dispatcher.addListener(turnListener);
+		Assert.assertEquals(TurnSnapshotDetail.FULL, dispatcher.getTurnSnapshotDetail());
+
+		dispatcher.removeListener(turnListener);
+		Assert.assertEquals(TurnSnapshotDetail.NO_OUTPUT, dispatcher.getTurnSnapshotDetail());
+	}
+
+	@Test
+	public void selectiveListenerMayNeedNothing() {
+		final BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+
+		dispatcher.addListener(new SelectiveListener(TurnSnapshotDetail.NONE));
+		Assert.assertEquals(TurnSnapshotDetail.NONE, dispatcher.getTurnSnapshotDetail());
+	}
+
+	@Test
+	public void listenerNotListeningToTurnsNeedsNoSnapshots() {
+		final BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+
+		dispatcher.addListener(new SelectiveListener(TurnSnapshotDetail.FULL, RoundEndedEvent.class));
+		Assert.assertEquals(TurnSnapshotDetail.NONE, dispatcher.getTurnSnapshotDetail());
+	}
+
+	@Test
+	public void sendsOnlyListenedEvents() {
+		final BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+		final SelectiveListener roundListener = new SelectiveListener(TurnSnapshotDetail.NONE, RoundEndedEvent.class);
+		final SelectiveListener turnListener = new SelectiveListener(TurnSnapshotDetail.FULL, TurnEndedEvent.class);
+
+		dispatcher.addListener(roundListener);
+		Assert.assertTrue(dispatcher.isListened(RoundEndedEvent.class));
+		Assert.assertFalse(dispatcher.isListened(TurnStartedEvent.class));
+		Assert.assertFalse(dispatcher.isListened(TurnEndedEvent.class));
+
+		dispatcher.addListener(turnListener);
+		Assert.assertTrue(dispatcher.isListened(TurnEndedEvent.class));
+		Assert.assertFalse(dispatcher.isListened(TurnStartedEvent.class));
+
+		dispatcher.onTurnStarted(new TurnStartedEvent());
+		dispatcher.onTurnEnded(new TurnEndedEvent(null));
+		dispatcher.onRoundEnded(new RoundEndedEvent(0, 1, 1));
+
+		Assert.assertEquals(1, roundListener.received);
+		Assert.assertEquals(1, turnListener.received);
+
+		dispatcher.removeListener(turnListener);
+		Assert.assertFalse(dispatcher.isListened(TurnEndedEvent.class));
+	}
+
+	@Test
+	public void timedWhileTimingListenerIsAdded() {
+		final BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+		final TimingListener timingListener = new TimingListener();
+
+		Assert.assertFalse(dispatcher.getTimings().isEnabled());
+
+		dispatcher.addListener(timingListener);
+		Assert.assertTrue(dispatcher.getTimings().isEnabled());
+
+		dispatcher.removeListener(timingListener);
+		Assert.assertFalse(dispatcher.getTimings().isEnabled());
+	}
+
+	@Test
+	public void timesListeners() {
+		final BattleEventDispatcher dispatcher = new BattleEventDispatcher();
+		final TimingListener timingListener = new TimingListener();
+
+		dispatcher.addListener(timingListener);
+		dispatcher.onTurnEnded(new TurnEndedEvent(null));
+		dispatcher.onTurnEnded(new TurnEndedEvent(null));
+
+		final TimingHistogram histogram = dispatcher.getTimings().getListenerHistograms().get(
+				"onTurnEnded " + TimingListener.class.getName());
+
+		Assert.assertNotNull(histogram);
+		Assert.assertEquals(2, histogram.getCount());
+		Assert.assertTrue(histogram.getMaxNanos() >= 1000000);
+	}
+
+	@Test
+	public void timingsEnabledAndUnregisteredThroughJmx() throws Exception {
+		final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		final BattleTimings first = new BattleEventDispatcher().getTimings();
+		final BattleTimings second = new BattleEventDispatcher().getTimings();
+
+		first.registerMBean();
+		second.registerMBean();
+		try {
+			final ObjectName name = first.getMBeanName();
+
+			Assert.assertNotNull(name);
+			Assert.assertNotEquals(name, second.getMBeanName());
+			Assert.assertTrue(server.isRegistered(name));
+
+			Assert.assertFalse(first.isEnabled());
+			server.setAttribute(name, new Attribute("Enabled", true));
+			Assert.assertTrue(first.isEnabled());
+			Assert.assertFalse(second.isEnabled());
+
+			first.unregisterMBean();
+			Assert.assertNull(first.getMBeanName());
+			Assert.assertFalse(server.isRegistered(name));
+		} finally {
+			first.unregisterMBean();
+			second.unregisterMBean();
+		}
+	}
+
+	@Test
+	public void resetIsDoneWhenRecording() {
+		final BattleTimings timings = new BattleEventDispatcher().getTimings();
+		final TimingHistogram histogram = timings.getPhaseHistograms().get(TurnPhase.FINALIZE_TURN);
+
+		timings.record(TurnPhase.FINALIZE_TURN, System.nanoTime());
+		timings.record(TurnPhase.FINALIZE_TURN, System.nanoTime());
+		timings.reset();
+
+		// the histograms are only cleared by the thread that records the times
+		Assert.assertEquals(2, histogram.getCount());
+
+		timings.record(TurnPhase.FINALIZE_TURN, System.nanoTime());
+		Assert.assertEquals(1, histogram.getCount());
+	}
+
+	private static class TimingListener extends BattleAdaptor implements ITurnTimingListener {
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		public void onTurnTimed(TurnTimedEvent event) {}
+	}
+
+	private static class SelectiveListener extends BattleAdaptor implements ISelectiveBattleListener {
+		private final TurnSnapshotDetail detail;
+		private final List<Class<? extends BattleEvent>> eventClasses;
+		int received;
+
+		SelectiveListener(TurnSnapshotDetail detail) {
+			this(detail, TurnEndedEvent.class);
+		}
+
+		@SafeVarargs
+		SelectiveListener(TurnSnapshotDetail detail, Class<? extends BattleEvent>... eventClasses) {
+			this.detail = detail;
+			this.eventClasses = Arrays.asList(eventClasses);
+		}
+
+		@Override
+		public void onTurnStarted(TurnStartedEvent event) {
+			received++;
+		}
+
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {
+			received++;
+		}
+
+		@Override
+		public void onRoundEnded(RoundEndedEvent event) {
+			received++;
+		}
+
+		public boolean isListening(Class<? extends BattleEvent> eventClass) {
+			return eventClasses.contains(eventClass);
+		}
+
+		public TurnSnapshotDetail getTurnSnapshotDetail() {
+			return detail;
+		}
+	}
+}
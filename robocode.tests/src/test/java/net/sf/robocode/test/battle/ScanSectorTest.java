@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.battle;
+
+
+import net.sf.robocode.battle.peer.ScanSector;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.Rules;
+
+import java.awt.geom.Arc2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Random;
+
+
+/**
+ * Checks on many random scans that the fast test of ScanSector never disagrees with the exact Java2D check.
+ */
+public class ScanSectorTest {
+
+	private static final int SCANS = 20000;
+	private static final int ROBOTS_PER_SCAN = 20;
+
+	private static final double ROBOT_SIZE = 36;
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void neverDisagreesWithExactCheck() {
+		final Arc2D arc = new Arc2D.Double();
+		final Rectangle2D rect = new Rectangle2D.Double();
+		final ScanSector sector = new ScanSector();
+		int rejected = 0;
+		int hits = 0;
+
+		for (int i = 0; i < SCANS; i++) {
+			final double x = randomCoordinate(800);
+			final double y = randomCoordinate(600);
+
+			arc.setArc(x - Rules.RADAR_SCAN_RADIUS, y - Rules.RADAR_SCAN_RADIUS, 2 * Rules.RADAR_SCAN_RADIUS,
+					2 * Rules.RADAR_SCAN_RADIUS, randomStart(), randomExtent(), Arc2D.PIE);
+			sector.setArc(arc);
+
+			for (int j = 0; j < ROBOTS_PER_SCAN; j++) {
+				placeRobot(rect, x, y);
+
+				final boolean expected = ScanSector.intersectsExactly(arc, rect);
+
+				Assert.assertEquals("Disagreement for " + describe(arc) + " and " + rect, expected,
+						sector.intersects(arc, rect));
+				if (!sector.mayIntersect(rect)) {
+					rejected++;
+				}
+				if (expected) {
+					hits++;
+				}
+			}
+		}
+		// the fast test must reject most robots outside of the scan arc, or it would be pointless
+		Assert.assertTrue("Only " + rejected + " robots rejected", rejected > (SCANS * ROBOTS_PER_SCAN - hits) / 2);
+	}
+
+	@Test
+	public void wideSectorIsNotCulledByEdges() {
+		final Arc2D arc = new Arc2D.Double(400 - Rules.RADAR_SCAN_RADIUS, 300 - Rules.RADAR_SCAN_RADIUS,
+				2 * Rules.RADAR_SCAN_RADIUS, 2 * Rules.RADAR_SCAN_RADIUS, 0, 270, Arc2D.PIE);
+		final ScanSector sector = new ScanSector();
+
+		sector.setArc(arc);
+
+		for (int i = 0; i < 1000; i++) {
+			final Rectangle2D rect = new Rectangle2D.Double();
+
+			placeRobot(rect, 400, 300);
+			Assert.assertEquals(ScanSector.intersectsExactly(arc, rect), sector.intersects(arc, rect));
+		}
+	}
+
+	@Test
+	public void robotBeyondScanRadiusIsRejected() {
+		final Arc2D arc = new Arc2D.Double(0 - Rules.RADAR_SCAN_RADIUS, 0 - Rules.RADAR_SCAN_RADIUS,
+				2 * Rules.RADAR_SCAN_RADIUS, 2 * Rules.RADAR_SCAN_RADIUS, -90, 90, Arc2D.PIE);
+		final ScanSector sector = new ScanSector();
+
+		sector.setArc(arc);
+
+		Assert.assertTrue(sector.mayIntersect(new Rectangle2D.Double(1100, 0, ROBOT_SIZE, ROBOT_SIZE)));
+		Assert.assertFalse(sector.mayIntersect(new Rectangle2D.Double(1300, 0, ROBOT_SIZE, ROBOT_SIZE)));
+		Assert.assertFalse(sector.mayIntersect(new Rectangle2D.Double(-500, 0, ROBOT_SIZE, ROBOT_SIZE)));
+	}
+
+	private double randomCoordinate(double size) {
+		switch (random.nextInt(4)) {
+		case 0:
+			// on the grid, so edges and corners of robots end up exactly on the scan lines
+			return ROBOT_SIZE * random.nextInt((int) (size / ROBOT_SIZE));
+
+		default:
+			return random.nextDouble() * size;
+		}
+	}
+
+	private double randomStart() {
+		switch (random.nextInt(3)) {
+		case 0:
+			return 45 * random.nextInt(8);
+
+		default:
+			return random.nextDouble() * 360;
+		}
+	}
+
+	private double randomExtent() {
+		switch (random.nextInt(5)) {
+		case 0:
+			return 0;
+
+		case 1:
+			return random.nextBoolean() ? 180 : -180;
+
+		case 2:
+			// the widest scan possible within one turn
+			return random.nextBoolean() ? 75 : -75;
+
+		default:
+			return (random.nextDouble() * 2 - 1) * 180;
+		}
+	}
+
+	private void placeRobot(Rectangle2D rect, double x, double y) {
+		final double dx;
+		final double dy;
+
+		switch (random.nextInt(4)) {
+		case 0:
+			// close to the scanning robot, maybe overlapping its center
+			dx = (random.nextDouble() * 2 - 1) * ROBOT_SIZE * 2;
+			dy = (random.nextDouble() * 2 - 1) * ROBOT_SIZE * 2;
+			break;
+
+		case 1:
+			// aligned with the axes through the center of the scanning robot
+			dx = random.nextBoolean() ? 0 : (random.nextDouble() * 2 - 1) * Rules.RADAR_SCAN_RADIUS;
+			dy = dx != 0 ? -ROBOT_SIZE / 2 : (random.nextDouble() * 2 - 1) * Rules.RADAR_SCAN_RADIUS;
+			break;
+
+		default:
+			dx = (random.nextDouble() * 2 - 1) * Rules.RADAR_SCAN_RADIUS * 1.2;
+			dy = (random.nextDouble() * 2 - 1) * Rules.RADAR_SCAN_RADIUS * 1.2;
+		}
+		rect.setRect(x + dx - ROBOT_SIZE / 2, y + dy - ROBOT_SIZE / 2, ROBOT_SIZE, ROBOT_SIZE);
+	}
+
+	private static String describe(Arc2D arc) {
+		return "arc center (" + arc.getCenterX() + ", " + arc.getCenterY() + "), start " + arc.getAngleStart()
+				+ ", extent " + arc.getAngleExtent();
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.battle;
+
+
+import net.sf.robocode.battle.ShuffledList;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+public class ShuffledListTest {
+
+	@Test
+	public void sameOrderAndRandomDrawsAsCollectionsShuffle() {
+		final ShuffledList<Integer> shuffled = new ShuffledList<Integer>();
+
+		for (int seed = 0; seed < 20; seed++) {
+			final Random expectedRandom = new Random(seed);
+			final Random actualRandom = new Random(seed);
+
+			// shrink and grow the reused list in the same sequence as a battle does
+			for (int size = 0; size < 50; size += 1 + seed % 7) {
+				final List<Integer> source = createList(size);
+				final List<Integer> expected = new ArrayList<Integer>(source);
+
+				Collections.shuffle(expected, expectedRandom);
+				shuffled.shuffle(source, actualRandom);
+
+				Assert.assertEquals(expected, shuffled);
+				Assert.assertEquals("same numbers must be drawn", expectedRandom.nextInt(), actualRandom.nextInt());
+			}
+		}
+	}
+
+	@Test
+	public void isSnapshotOfSource() {
+		final List<Integer> source = new CopyOnWriteArrayList<Integer>(createList(10));
+		final ShuffledList<Integer> shuffled = new ShuffledList<Integer>().shuffle(source, new Random(0));
+
+		for (Integer element : shuffled) {
+			source.remove(element);
+		}
+		Assert.assertTrue(source.isEmpty());
+		Assert.assertEquals(10, shuffled.size());
+	}
+
+	@Test
+	public void releasesElementsWhenShrinking() {
+		final ShuffledList<Integer> shuffled = new ShuffledList<Integer>();
+
+		shuffled.shuffle(createList(30), new Random(0));
+		shuffled.shuffle(createList(3), new Random(0));
+		Assert.assertEquals(3, shuffled.size());
+		Assert.assertFalse(shuffled.contains(3));
+
+		shuffled.clear();
+		Assert.assertTrue(shuffled.isEmpty());
+	}
+
+	private static List<Integer> createList(int size) {
+		final List<Integer> list = new ArrayList<Integer>(size);
+
+		for (int i = 0; i < size; i++) {
+			list.add(i);
+		}
+		return list;
+	}
+}
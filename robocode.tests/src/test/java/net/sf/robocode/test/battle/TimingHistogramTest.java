@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.battle;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.control.events.TimingHistogram;
+
+
+public class TimingHistogramTest {
+
+	@Test
+	public void statistics() {
+		final TimingHistogram histogram = new TimingHistogram();
+
+		for (long nanos = 1; nanos <= 1000; nanos++) {
+			histogram.record(nanos);
+		}
+		Assert.assertEquals(1000, histogram.getCount());
+		Assert.assertEquals(500500, histogram.getTotalNanos());
+		Assert.assertEquals(500.5, histogram.getMeanNanos(), 0);
+		Assert.assertEquals(1000, histogram.getMaxNanos());
+
+		// within the 25% of the buckets, and never below the percentile
+		assertPercentile(500, histogram.getPercentileNanos(50));
+		assertPercentile(990, histogram.getPercentileNanos(99));
+		Assert.assertEquals(1000, histogram.getPercentileNanos(100));
+		Assert.assertEquals(1, histogram.getPercentileNanos(0));
+
+		histogram.reset();
+		Assert.assertEquals(0, histogram.getCount());
+		Assert.assertEquals(0, histogram.getPercentileNanos(50));
+	}
+
+	@Test
+	public void add() {
+		final TimingHistogram low = new TimingHistogram();
+		final TimingHistogram high = new TimingHistogram();
+
+		for (long nanos = 1; nanos <= 500; nanos++) {
+			low.record(nanos);
+			high.record(nanos + 500);
+		}
+		final TimingHistogram histogram = new TimingHistogram();
+
+		histogram.add(low);
+		histogram.add(high);
+
+		Assert.assertEquals(1000, histogram.getCount());
+		Assert.assertEquals(500500, histogram.getTotalNanos());
+		Assert.assertEquals(1000, histogram.getMaxNanos());
+		assertPercentile(990, histogram.getPercentileNanos(99));
+		Assert.assertEquals(500, low.getCount());
+	}
+
+	@Test
+	public void bucketsCoverAllTimes() {
+		final TimingHistogram histogram = new TimingHistogram();
+		final long[] times = { 0, 3, 4, 5, 7, 8, 9, 1000000, Long.MAX_VALUE };
+
+		for (long nanos : times) {
+			histogram.record(nanos);
+		}
+		final long[] counts = histogram.getBucketCounts();
+		long lowerBound = 0;
+		int time = 0;
+
+		for (int bucket = 0; bucket < counts.length; bucket++) {
+			final long upperBound = TimingHistogram.getUpperBound(bucket);
+
+			for (int i = 0; i < counts[bucket]; i++, time++) {
+				Assert.assertTrue(times[time] + " in bucket " + bucket, times[time] >= lowerBound);
+				Assert.assertTrue(times[time] + " in bucket " + bucket, times[time] <= upperBound);
+			}
+			if (upperBound == Long.MAX_VALUE) {
+				break;
+			}
+			lowerBound = upperBound + 1;
+		}
+		Assert.assertEquals(times.length, time);
+	}
+
+	private static void assertPercentile(long expected, long actual) {
+		Assert.assertTrue(actual + " < " + expected, actual >= expected);
+		Assert.assertTrue(actual + " > " + expected + " + 25%", actual <= expected * 1.25);
+	}
+}
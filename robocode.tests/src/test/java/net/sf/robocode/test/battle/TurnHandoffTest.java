@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.battle;
+
+
+import net.sf.robocode.battle.peer.TurnHandoff;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+
+/**
+ * Checks the CPU time budget of the turns of a robot with a fake CPU clock, so the checks do not depend on how
+ * fast the machine is or how busy it is.
+ */
+public class TurnHandoffTest {
+
+	// Long enough that the tests fail by their own timeout instead if the CPU time budget is not checked
+	private static final long TIMEOUT_NANOS = 60000000000L;
+
+	@Test(timeout = 10000)
+	public void endsTurnWhenCpuTimeIsConsumed() {
+		final TurnHandoff handoff = new TurnHandoff(new AtomicBoolean(true));
+		final FakeCpuClock cpuClock = new FakeCpuClock(100);
+
+		Assert.assertTrue(handoff.awaitSleeping(cpuClock, 300, TIMEOUT_NANOS));
+
+		// the robot never went to sleep, so the turn was ended by the CPU time of the robot
+		Assert.assertFalse(handoff.isSleeping());
+		Assert.assertEquals(3, cpuClock.getReads());
+	}
+
+	@Test(timeout = 10000)
+	public void endsTurnAtTimeoutWithoutCpuTime() {
+		final TurnHandoff handoff = new TurnHandoff(new AtomicBoolean(true));
+		final FakeCpuClock cpuClock = new FakeCpuClock(0);
+
+		// a robot that is blocked consumes no CPU time, so its turn is ended by the timeout
+		Assert.assertTrue(handoff.awaitSleeping(cpuClock, 300, 10000000));
+
+		Assert.assertFalse(handoff.isSleeping());
+		Assert.assertTrue(cpuClock.getReads() > 0);
+	}
+
+	@Test(timeout = 10000)
+	public void doesNotWaitForStoppedRobot() {
+		final TurnHandoff handoff = new TurnHandoff(new AtomicBoolean(false));
+		final FakeCpuClock cpuClock = new FakeCpuClock(100);
+
+		Assert.assertTrue(handoff.awaitSleeping(cpuClock, 300, TIMEOUT_NANOS));
+		Assert.assertEquals(0, cpuClock.getReads());
+	}
+
+	@Test(timeout = 10000)
+	public void endsTurnWhenRobotSleeps() throws InterruptedException {
+		final TurnHandoff handoff = new TurnHandoff(new AtomicBoolean(true));
+		final FakeCpuClock cpuClock = new FakeCpuClock(0);
+		final Thread robot = new Thread(handoff::sleep, "Robot");
+
+		robot.start();
+
+		// the CPU time of the robot never reaches the budget, so only the robot going to sleep ends the turn
+		Assert.assertTrue(handoff.awaitSleeping(cpuClock, 300, TIMEOUT_NANOS));
+		Assert.assertTrue(handoff.isSleeping());
+
+		handoff.wakeup(TIMEOUT_NANOS);
+		robot.join();
+
+		Assert.assertFalse(handoff.isSleeping());
+	}
+
+	@Test(timeout = 10000)
+	public void returnsFalseWhenInterrupted() {
+		final TurnHandoff handoff = new TurnHandoff(new AtomicBoolean(true));
+
+		Thread.currentThread().interrupt();
+		try {
+			Assert.assertFalse(handoff.awaitSleeping(new FakeCpuClock(0), 300, TIMEOUT_NANOS));
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	/**
+	 * CPU clock that advances by a fixed step every time it is read.
+	 */
+	private static final class FakeCpuClock implements LongSupplier {
+		private final long step;
+		private final AtomicInteger reads = new AtomicInteger();
+
+		FakeCpuClock(long step) {
+			this.step = step;
+		}
+
+		public long getAsLong() {
+			return step * reads.incrementAndGet();
+		}
+
+		int getReads() {
+			return reads.get();
+		}
+	}
+}
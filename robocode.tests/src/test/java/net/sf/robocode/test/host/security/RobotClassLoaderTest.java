@@ -21,6 +21,8 @@ import org.junit.Test;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
 
 
 /**
@@ -92,4 +94,19 @@ public class RobotClassLoaderTest {
 
 		cl.loadClass("robocode.control.RobocodeEngine");
 	}
+
+	@Test
+	public void robotMainClassPerLoader() throws ClassNotFoundException {
+		RobotClassLoader first = new RobotClassLoader(classPath, goodRobot);
+		final Class<?> firstClass = first.loadRobotMainClass(true);
+
+		// the second loader takes the class from the cache, but must still define its own class
+		RobotClassLoader second = new RobotClassLoader(classPath, goodRobot);
+		final Class<?> secondClass = second.loadRobotMainClass(true);
+
+		Assert.assertNotSame(firstClass, secondClass);
+		Assert.assertEquals(second, secondClass.getClassLoader());
+		Assert.assertEquals(new HashSet<String>(Arrays.asList(first.getReferencedClasses())),
+				new HashSet<String>(Arrays.asList(second.getReferencedClasses())));
+	}
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.host.security;
+
+
+import net.sf.robocode.host.IHostedThread;
+import net.sf.robocode.host.security.ThreadManager;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Proxy;
+
+
+/**
+ * Checks that threads are only attributed to the robots of their own battle, when several battles are loading
+ * robots at the same time on threads of the same thread group, like in the batch engine.
+ */
+public class ThreadManagerTest {
+
+	@Test
+	public void loadingThreadIsAttributedToItsRobot() {
+		final ThreadManager threadManager = new ThreadManager();
+		final IHostedThread robot = createRobot();
+
+		threadManager.setLoadingRobot(robot);
+		try {
+			Assert.assertSame(robot, threadManager.getLoadingRobot());
+			Assert.assertSame(robot, threadManager.getLoadedOrLoadingRobotProxy(Thread.currentThread()));
+		} finally {
+			threadManager.setLoadingRobot(null);
+		}
+		Assert.assertNull(threadManager.getLoadedOrLoadingRobotProxy(Thread.currentThread()));
+	}
+
+	@Test
+	public void threadOfSharedGroupIsNotAttributedToLoadingRobot() {
+		final ThreadManager threadManager = new ThreadManager();
+
+		// e.g. a thread started by a static initializer in another battle of the batch engine
+		final Thread otherBattleThread = new Thread(Thread.currentThread().getThreadGroup(), "Other battle");
+
+		threadManager.setLoadingRobot(createRobot());
+		try {
+			Assert.assertNull(threadManager.getLoadingRobotProxy(otherBattleThread));
+			Assert.assertNull(threadManager.getLoadedOrLoadingRobotProxy(otherBattleThread));
+		} finally {
+			threadManager.setLoadingRobot(null);
+		}
+	}
+
+	@Test
+	public void threadOfRobotGroupIsAttributedToRobot() {
+		final ThreadManager threadManager = new ThreadManager();
+		final IHostedThread robot = createRobot();
+		final IHostedThread otherRobot = createRobot();
+		final ThreadGroup robotGroup = new ThreadGroup("Robot");
+		final ThreadGroup otherRobotGroup = new ThreadGroup("Other robot");
+
+		threadManager.addThreadGroup(robotGroup, robot);
+		threadManager.addThreadGroup(otherRobotGroup, otherRobot);
+		try {
+			// a thread started by the robot while it is loaded on its own thread
+			Assert.assertSame(robot, threadManager.getLoadedOrLoadingRobotProxy(new Thread(robotGroup, "Started")));
+			Assert.assertSame(otherRobot,
+					threadManager.getLoadedOrLoadingRobotProxy(new Thread(otherRobotGroup, "Other started")));
+		} finally {
+			threadManager.removeThreadGroups(robot);
+			threadManager.removeThreadGroups(otherRobot);
+		}
+		Assert.assertNull(threadManager.getLoadedOrLoadingRobotProxy(new Thread(robotGroup, "Started")));
+	}
+
+	private static IHostedThread createRobot() {
+		return (IHostedThread) Proxy.newProxyInstance(IHostedThread.class.getClassLoader(),
+				new Class<?>[] { IHostedThread.class }, (proxy, method, args) -> {
+					if (method.getName().equals("equals")) {
+						return proxy == args[0];
+					}
+					if (method.getName().equals("hashCode")) {
+						return System.identityHashCode(proxy);
+					}
+					return null;
+				});
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.battle.IBattleManager;
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.io.URLJarCollector;
+import net.sf.robocode.repository.IRepositoryManager;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.BattleResults;
+import robocode.control.BattleSpecification;
+import robocode.control.RobocodeBatchEngine;
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.BattleCompletedEvent;
+import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.RoundStartedEvent;
+import robocode.control.snapshot.IRobotSnapshot;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Runs several battles at the same time with the batch engine, and checks that each battle only
+ * reports its own robots and results to its own listener, and that reloading the robots or cleaning up
+ * another battle does not enable the collection of the JARs used by the running battles.
+ */
+public class TestBatchEngine extends RobocodeTestBed {
+
+	private static final String[] BATTLES = {
+		"sample.Fire,sample.SittingDuck", "sample.Crazy,sample.Target", "sample.Walls,sample.SpinBot",
+		"sample.Corners,sample.TrackFire"
+	};
+
+	private static final int NUM_ROUNDS = 2;
+
+	@Test
+	public void runConcurrentBattles() throws InterruptedException, ExecutionException {
+		final RobocodeBatchEngine batchEngine = new RobocodeBatchEngine(2);
+
+		try {
+			final List<Future<BattleResults[]>> futures = new ArrayList<Future<BattleResults[]>>();
+			final List<BattleListener> listeners = new ArrayList<BattleListener>();
+
+			for (String robots : BATTLES) {
+				final BattleListener listener = new BattleListener();
+
+				listeners.add(listener);
+				futures.add(batchEngine.submit(new BattleSpecification(NUM_ROUNDS, battleFieldSpec,
+						batchEngine.getLocalRepository(robots)), listener));
+			}
+
+			for (int i = 0; i < BATTLES.length; i++) {
+				final Set<String> robots = new HashSet<String>(Arrays.asList(BATTLES[i].split(",")));
+				final BattleResults[] results = futures.get(i).get();
+				final BattleListener listener = listeners.get(i);
+
+				Assert.assertNotNull("results of " + BATTLES[i], results);
+				Assert.assertEquals("results of " + BATTLES[i], robots.size(), results.length);
+				for (BattleResults result : results) {
+					Assert.assertTrue(result.getTeamLeaderName() + " in " + BATTLES[i],
+							robots.contains(result.getTeamLeaderName()));
+				}
+				Assert.assertEquals("battles started", 1, listener.battlesStarted);
+				Assert.assertEquals("battles completed", 1, listener.battlesCompleted);
+				Assert.assertEquals("rounds started", NUM_ROUNDS, listener.roundsStarted);
+				Assert.assertEquals("robots seen", robots, listener.robots);
+			}
+		} finally {
+			batchEngine.close();
+		}
+	}
+
+	@Test
+	public void reloadDuringConcurrentBattles() throws InterruptedException, ExecutionException {
+		final RobocodeBatchEngine batchEngine = new RobocodeBatchEngine(2);
+
+		try {
+			final ReloadingListener reloadingListener = new ReloadingListener();
+			final Future<BattleResults[]> reloading = batchEngine.submit(new BattleSpecification(NUM_ROUNDS,
+					battleFieldSpec, batchEngine.getLocalRepository(BATTLES[0])), reloadingListener);
+			final Future<BattleResults[]> other = batchEngine.submit(new BattleSpecification(NUM_ROUNDS,
+					battleFieldSpec, batchEngine.getLocalRepository(BATTLES[1])));
+
+			Assert.assertEquals(2, reloading.get().length);
+			Assert.assertEquals(2, other.get().length);
+			Assert.assertNull(String.valueOf(reloadingListener.error), reloadingListener.error);
+			Assert.assertEquals("reloads", NUM_ROUNDS, reloadingListener.disabledCounts.size());
+			for (int disabledCount : reloadingListener.disabledCounts) {
+				Assert.assertTrue("collection disabled " + disabledCount + " times", disabledCount >= 1);
+			}
+		} finally {
+			batchEngine.close();
+		}
+	}
+
+	@Test
+	public void cleanupDuringConcurrentBattles() throws InterruptedException, ExecutionException {
+		// The battle of the engine has already cleaned up itself when it is over, and is cleaned up again later
+		engine.runBattle(new BattleSpecification(1, battleFieldSpec, engine.getLocalRepository(BATTLES[2])), true);
+
+		final RobocodeBatchEngine batchEngine = new RobocodeBatchEngine(2);
+
+		try {
+			final CyclicBarrier barrier = new CyclicBarrier(2);
+			final CleaningListener cleaningListener = new CleaningListener(barrier, true);
+			final CleaningListener otherListener = new CleaningListener(barrier, false);
+			final Future<BattleResults[]> cleaning = batchEngine.submit(new BattleSpecification(NUM_ROUNDS,
+					battleFieldSpec, batchEngine.getLocalRepository(BATTLES[0])), cleaningListener);
+			final Future<BattleResults[]> other = batchEngine.submit(new BattleSpecification(NUM_ROUNDS,
+					battleFieldSpec, batchEngine.getLocalRepository(BATTLES[1])), otherListener);
+
+			Assert.assertEquals(2, cleaning.get().length);
+			Assert.assertEquals(2, other.get().length);
+			Assert.assertNull(String.valueOf(cleaningListener.error), cleaningListener.error);
+			Assert.assertNull(String.valueOf(otherListener.error), otherListener.error);
+			Assert.assertTrue("collection disabled " + cleaningListener.disabledCount + " times",
+					cleaningListener.disabledCount >= 2);
+		} finally {
+			batchEngine.close();
+		}
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Fire";
+	}
+
+	private static class BattleListener extends BattleAdaptor {
+		int battlesStarted;
+		int battlesCompleted;
+		int roundsStarted;
+		final Set<String> robots = new HashSet<String>();
+
+		@Override
+		public void onBattleStarted(BattleStartedEvent event) {
+			battlesStarted++;
+		}
+
+		@Override
+		public void onRoundStarted(RoundStartedEvent event) {
+			roundsStarted++;
+			for (IRobotSnapshot robot : event.getStartSnapshot().getRobots()) {
+				robots.add(robot.getName());
+			}
+		}
+
+		@Override
+		public void onBattleCompleted(BattleCompletedEvent event) {
+			battlesCompleted++;
+		}
+	}
+
+	/**
+	 * Reloads the robots at the start of every round, and keeps how many times the collection of JARs is disabled
+	 * right after. The repository manager lives in the class loader of the engine, so it must be called by reflection.
+	 */
+	private static class ReloadingListener extends BattleAdaptor {
+		final List<Integer> disabledCounts = new ArrayList<Integer>();
+		Exception error;
+
+		@Override
+		public void onRoundStarted(RoundStartedEvent event) {
+			final ClassLoader engineLoader = event.getStartSnapshot().getClass().getClassLoader();
+
+			try {
+				final Class<?> managerClass = engineLoader.loadClass(IRepositoryManager.class.getName());
+
+				managerClass.getMethod("reload", boolean.class).invoke(ContainerBase.getComponent(managerClass), false);
+
+				final Field disabledCount = engineLoader.loadClass(URLJarCollector.class.getName()).getDeclaredField(
+						"disabledCount");
+
+				disabledCount.setAccessible(true);
+				disabledCounts.add(disabledCount.getInt(null));
+			} catch (Exception e) {
+				error = e;
+			}
+		}
+	}
+
+	/**
+	 * Waits until both battles have started their first round, and then one of them cleans up the battle of the engine, which is over,
+	 * and keeps how many times the collection of JARs is disabled right after, while the other battle waits.
+	 */
+	private static class CleaningListener extends BattleAdaptor {
+		private final CyclicBarrier barrier;
+		private final boolean isCleaning;
+		int disabledCount = -1;
+		Exception error;
+
+		CleaningListener(CyclicBarrier barrier, boolean isCleaning) {
+			this.barrier = barrier;
+			this.isCleaning = isCleaning;
+		}
+
+		@Override
+		public void onRoundStarted(RoundStartedEvent event) {
+			if (event.getRound() != 0) {
+				return;
+			}
+			try {
+				barrier.await(30, TimeUnit.SECONDS);
+				if (isCleaning) {
+					final ClassLoader engineLoader = event.getStartSnapshot().getClass().getClassLoader();
+					final Class<?> managerClass = engineLoader.loadClass(IBattleManager.class.getName());
+
+					managerClass.getMethod("cleanup").invoke(ContainerBase.getComponent(managerClass));
+
+					final Field disabledCountField = engineLoader.loadClass(URLJarCollector.class.getName())
+							.getDeclaredField("disabledCount");
+
+					disabledCountField.setAccessible(true);
+					disabledCount = disabledCountField.getInt(null);
+				}
+				barrier.await(30, TimeUnit.SECONDS);
+			} catch (Exception e) {
+				error = e;
+			}
+		}
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import net.sf.robocode.test.helpers.TurnFingerprint;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.BulletState;
+import robocode.control.snapshot.IBulletSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Runs the same melee battle with many bullets and a sentry with -DRANDOMSEED, once with the collision grid and
+ * once without the grid, where every robot and bullet is checked for every bullet. Every turn must be the
+ * same, including which bullets hit which robots and bullets, in which order the robots took damage, and the bullets
+ * of robots in the safe zone of the sentry.
+ */
+public class TestCollisionGrid extends RobocodeTestBed {
+
+	private List<String> turns = new ArrayList<String>();
+	private int hits;
+
+	@Test
+	public void run() throws Exception {
+		final List<String> gridBattle;
+
+		System.setProperty("RANDOMSEED", "4711");
+		try {
+			super.run();
+			gridBattle = turns;
+			turns = new ArrayList<String>();
+
+			setCollisionGridEnabled(false);
+			super.run();
+		} finally {
+			setCollisionGridEnabled(true);
+			System.setProperty("RANDOMSEED", "none");
+		}
+
+		Assert.assertTrue("bullets hit " + hits + " times", hits > 0);
+		TurnFingerprint.assertSameTurns(gridBattle, turns);
+	}
+
+	// The battle manager is loaded by the engine class loader, so it is only reached by reflection
+	private static void setCollisionGridEnabled(boolean enable) throws Exception {
+		final ClassLoader engineLoader = ContainerBase.instance.getClass().getClassLoader();
+		final Class<?> managerClass = Class.forName("net.sf.robocode.battle.IBattleManager", true, engineLoader);
+
+		managerClass.getMethod("setCollisionGridEnabled", boolean.class).invoke(ContainerBase.getComponent(managerClass),
+				enable);
+	}
+
+	@Override
+	public String getRobotName() {
+		return "samplesentry.BorderGuard";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "tested.robots.BulletStorm,tested.robots.BulletStorm,sample.Fire,sample.SpinBot,sample.Crazy,sample.TrackFire,sample.Walls,sample.Corners";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+
+		for (IBulletSnapshot bullet : event.getTurnSnapshot().getBullets()) {
+			if (bullet.getState() == BulletState.HIT_VICTIM || bullet.getState() == BulletState.HIT_BULLET) {
+				hits++;
+			}
+		}
+		turns.add(TurnFingerprint.of(event.getTurnSnapshot()));
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.recording.BattleRecordFormat;
+import net.sf.robocode.recording.ColumnarRecordReader;
+import net.sf.robocode.recording.ColumnarRecordReader.BulletColumn;
+import net.sf.robocode.recording.ColumnarRecordReader.RobotColumn;
+import net.sf.robocode.recording.IRecordManager;
+import net.sf.robocode.serialization.SerializableOptions;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.control.events.RoundStartedEvent;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.IBulletSnapshot;
+import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Exports a battle into a columnar record, with and without compression, and checks that the columns read back
+ * hold the values of the turns that were played.
+ */
+public class TestColumnarRecord extends RobocodeTestBed {
+
+	protected final List<ITurnSnapshot> turns = new ArrayList<ITurnSnapshot>();
+	private ClassLoader engineLoader;
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Crazy";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	public boolean isEnableRecording() {
+		return true;
+	}
+
+	@Override
+	public void onRoundStarted(RoundStartedEvent event) {
+		super.onRoundStarted(event);
+		engineLoader = event.getStartSnapshot().getClass().getClassLoader();
+		turns.add(event.getStartSnapshot());
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+		turns.add(event.getTurnSnapshot());
+	}
+
+	@Override
+	protected void runTeardown() {
+		try {
+			final File plain = File.createTempFile("robocode-test", ".rbc");
+			final File compressed = File.createTempFile("robocode-test", ".rbc");
+
+			try {
+				saveRecord(plain, "COLUMNAR");
+				saveRecord(compressed, "COLUMNAR_ZIP");
+
+				checkRecord(plain);
+				checkRecord(compressed);
+				Assert.assertTrue(compressed.length() < plain.length());
+			} finally {
+				Assert.assertTrue(plain.delete());
+				Assert.assertTrue(compressed.delete());
+			}
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	// The record manager lives in the class loader of the engine, so it must be called by reflection
+	@SuppressWarnings({ "unchecked", "rawtypes"})
+	private void saveRecord(File file, String format) throws Exception {
+		final Class<?> managerClass = engineLoader.loadClass(IRecordManager.class.getName());
+		final Class formatClass = engineLoader.loadClass(BattleRecordFormat.class.getName());
+		final Class<?> optionsClass = engineLoader.loadClass(SerializableOptions.class.getName());
+		final Object recordManager = ContainerBase.getComponent(managerClass);
+
+		managerClass.getMethod("saveRecord", String.class, formatClass, optionsClass).invoke(recordManager,
+				file.getPath(), Enum.valueOf(formatClass, format), optionsClass.getConstructor(boolean.class).newInstance(false));
+	}
+
+	// The reader does not depend on the engine, so it is used the way an analysis tool would use it
+	private void checkRecord(File file) throws Exception {
+		try (ColumnarRecordReader reader = new ColumnarRecordReader(file)) {
+			Assert.assertEquals(getNumRounds(), reader.getRoundCount());
+			Assert.assertEquals(800, reader.getBattlefieldWidth());
+
+			final String[] names = reader.getRobotNames();
+
+			Assert.assertEquals(2, names.length);
+			Assert.assertEquals(getRobotName(), names[0]);
+			Assert.assertEquals(getEnemyName(), names[1]);
+
+			int next = 0;
+
+			for (int segment = 0; segment < reader.getSegmentCount(); segment++) {
+				final int[] turnNumbers = reader.readTurns(segment);
+				final int[] bulletTurns = reader.readBulletIntColumn(segment, BulletColumn.TURN);
+				final int[] bulletIds = reader.readBulletIntColumn(segment, BulletColumn.BULLET_ID);
+				final int[] owners = reader.readBulletIntColumn(segment, BulletColumn.OWNER_INDEX);
+				final double[] bulletX = reader.readBulletColumn(segment, BulletColumn.X);
+				int bullet = 0;
+
+				for (int i = 0; i < turnNumbers.length; i++) {
+					final ITurnSnapshot turn = turns.get(next + i);
+
+					Assert.assertEquals(turn.getRound(), reader.getSegmentRound(segment));
+					Assert.assertEquals(turn.getTurn(), turnNumbers[i]);
+					for (IBulletSnapshot expected : turn.getBullets()) {
+						Assert.assertEquals(turn.getTurn(), bulletTurns[bullet]);
+						Assert.assertEquals(expected.getBulletId(), bulletIds[bullet]);
+						Assert.assertEquals(expected.getOwnerIndex(), owners[bullet]);
+						Assert.assertEquals(expected.getPaintX(), bulletX[bullet], 0);
+						bullet++;
+					}
+				}
+				Assert.assertEquals(reader.getSegmentBulletCount(segment), bullet);
+
+				for (int robot = 0; robot < names.length; robot++) {
+					final double[] x = reader.readRobotColumn(segment, robot, RobotColumn.X);
+					final double[] y = reader.readRobotColumn(segment, robot, RobotColumn.Y);
+					final double[] energy = reader.readRobotColumn(segment, robot, RobotColumn.ENERGY);
+					final double[] score = reader.readRobotColumn(segment, robot, RobotColumn.SCORE);
+					final int[] state = reader.readRobotIntColumn(segment, robot, RobotColumn.STATE);
+
+					for (int i = 0; i < turnNumbers.length; i++) {
+						final IRobotSnapshot expected = turns.get(next + i).getRobots()[robot];
+
+						Assert.assertEquals(expected.getX(), x[i], 0);
+						Assert.assertEquals(expected.getY(), y[i], 0);
+						Assert.assertEquals(expected.getEnergy(), energy[i], 0);
+						Assert.assertEquals(expected.getScoreSnapshot().getCurrentScore(), score[i], 0);
+						Assert.assertEquals(expected.getState().getValue(), state[i]);
+					}
+				}
+				next += turnNumbers.length;
+			}
+			Assert.assertEquals(turns.size(), next);
+		}
+	}
+}
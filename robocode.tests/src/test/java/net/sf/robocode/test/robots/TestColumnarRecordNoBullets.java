@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import org.junit.Assert;
+
+import robocode.control.snapshot.ITurnSnapshot;
+
+
+/**
+ * Exports a battle where nobody fires, so the first segment has empty bullet columns, which must read back from
+ * the compressed record too. Only the explosions at the end of the round are bullets.
+ */
+public class TestColumnarRecordNoBullets extends TestColumnarRecord {
+
+	@Override
+	public String getRobotName() {
+		return "sample.SittingDuck";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Target";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 1;
+	}
+
+	@Override
+	protected void runTeardown() {
+		// the first segment holds 1024 turns
+		Assert.assertTrue(turns.size() > 1024);
+		for (ITurnSnapshot turn : turns.subList(0, 1024)) {
+			Assert.assertEquals(0, turn.getBullets().length);
+		}
+		super.runTeardown();
+	}
+}
@@ -0,0 +1,368 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.battle.IBattleManager;
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.recording.BattleRecordFormat;
+import net.sf.robocode.recording.IRecordManager;
+import net.sf.robocode.recording.IndexedRecordReader;
+import net.sf.robocode.recording.RecordConverter;
+import net.sf.robocode.serialization.SerializableOptions;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.control.events.BattlePausedEvent;
+import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.RoundStartedEvent;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.IBulletSnapshot;
+import robocode.control.snapshot.IDebugProperty;
+import robocode.control.snapshot.IRobotSnapshot;
+import robocode.control.snapshot.IScoreSnapshot;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.awt.geom.Arc2D;
+import java.io.Closeable;
+import java.io.File;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Records a battle into an indexed record, directly, by converting a binary record, and by loading a binary
+ * record, and checks that turns read in order and in random order from the index are the turns that were played.
+ * Then replays the record, and checks that jumping forward and backward in the replay shows the turns played.
+ */
+public class TestIndexedRecord extends RobocodeTestBed {
+
+	private final List<List<String>> rounds = new ArrayList<List<String>>();
+	private ClassLoader engineLoader;
+
+	private int paintedTurns;
+	private int debuggedTurns;
+	private int outputTurns;
+
+	private volatile boolean replaying;
+	private final CountDownLatch replayPaused = new CountDownLatch(1);
+	private final BlockingQueue<String> replayedTurns = new LinkedBlockingQueue<String>();
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public String getEnemyName() {
+		// paints, and has debug properties and console output
+		return "sample.PaintingRobot";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	public boolean isEnableRecording() {
+		return true;
+	}
+
+	@Override
+	public void onBattleStarted(BattleStartedEvent event) {
+		super.onBattleStarted(event);
+		if (replaying) {
+			// the replay is paused before its first turn, so it only moves when jumping to turns
+			invokeBattleManager("pauseBattle");
+		}
+	}
+
+	@Override
+	public void onBattlePaused(BattlePausedEvent event) {
+		super.onBattlePaused(event);
+		if (replaying) {
+			replayPaused.countDown();
+		}
+	}
+
+	@Override
+	public void onRoundStarted(RoundStartedEvent event) {
+		super.onRoundStarted(event);
+		if (replaying) {
+			return;
+		}
+		final ITurnSnapshot turn = event.getStartSnapshot();
+
+		engineLoader = turn.getClass().getClassLoader();
+
+		// the graphics calls of the robot are only recorded when its painting is enabled
+		enablePaint(1);
+
+		rounds.add(new ArrayList<String>());
+		rounds.get(event.getRound()).add(describe(turn));
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+		final ITurnSnapshot turn = event.getTurnSnapshot();
+
+		if (replaying) {
+			replayedTurns.add(describe(turn));
+		} else {
+			rounds.get(turn.getRound()).add(describe(turn));
+		}
+	}
+
+	@Override
+	protected void runTeardown() {
+		try {
+			final File indexed = File.createTempFile("robocode-test", ".ibr");
+			final File binary = File.createTempFile("robocode-test", ".zip.br");
+			final File converted = File.createTempFile("robocode-test", ".ibr");
+			final File reloaded = File.createTempFile("robocode-test", ".ibr");
+
+			// the battle must have changed all fields of the robots
+			Assert.assertTrue("painted turns " + paintedTurns, paintedTurns > 0);
+			Assert.assertTrue("debugged turns " + debuggedTurns, debuggedTurns > 0);
+			Assert.assertTrue("output turns " + outputTurns, outputTurns > 0);
+
+			try {
+				saveRecord(indexed, "INDEXED");
+				saveRecord(binary, "BINARY_ZIP");
+				engineLoader.loadClass(RecordConverter.class.getName()).getMethod("convert", File.class, File.class).invoke(
+						null, binary, converted);
+
+				checkRecord(indexed);
+				checkRecord(converted);
+
+				// the turns are stored as compressed deltas, so the record is smaller than a zipped binary record
+				Assert.assertTrue(indexed.length() < binary.length());
+
+				// a loaded binary record is replayed from a mapped indexed copy
+				loadRecord(binary, "BINARY_ZIP");
+				saveRecord(reloaded, "INDEXED");
+				checkRecord(reloaded);
+
+				loadRecord(indexed, "INDEXED");
+				checkReplay();
+			} finally {
+				Assert.assertTrue(indexed.delete());
+				Assert.assertTrue(binary.delete());
+				Assert.assertTrue(converted.delete());
+				Assert.assertTrue(reloaded.delete());
+			}
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private void checkReplay() throws Exception {
+		final int middle = rounds.get(1).size() / 2;
+		final int last = rounds.get(0).size() - 1;
+
+		replaying = true;
+		invokeBattleManager("replay");
+		try {
+			Assert.assertTrue(replayPaused.await(10, TimeUnit.SECONDS));
+
+			// the painting is enabled by the player, like when it was recorded
+			enablePaint(1);
+
+			// forward and backward in the round, then to later and earlier rounds, and to their first and last turns
+			checkSeek(0, 5);
+			checkSeek(0, 3);
+			checkSeek(1, middle);
+			checkSeek(1, middle + 10);
+			checkSeek(2, 1);
+			checkSeek(0, last);
+			checkSeek(2, 0);
+			checkSeek(1, middle - 10);
+		} finally {
+			final Class<?> managerClass = engineLoader.loadClass(IBattleManager.class.getName());
+			final Object battleManager = ContainerBase.getComponent(managerClass);
+
+			managerClass.getMethod("stop", boolean.class).invoke(battleManager, true);
+			invokeBattleManager("resumeBattle");
+			replaying = false;
+		}
+	}
+
+	private void checkSeek(int round, int turn) throws Exception {
+		final Class<?> managerClass = engineLoader.loadClass(IBattleManager.class.getName());
+
+		managerClass.getMethod("seekTurn", int.class, int.class).invoke(ContainerBase.getComponent(managerClass), round,
+				turn);
+
+		Assert.assertEquals(rounds.get(round).get(turn), replayedTurns.poll(10, TimeUnit.SECONDS));
+		Assert.assertNull(replayedTurns.poll(100, TimeUnit.MILLISECONDS));
+	}
+
+	private void enablePaint(int robotIndex) {
+		try {
+			final Class<?> managerClass = engineLoader.loadClass(IBattleManager.class.getName());
+
+			managerClass.getMethod("setPaintEnabled", int.class, boolean.class).invoke(
+					ContainerBase.getComponent(managerClass), robotIndex, true);
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private void invokeBattleManager(String method) {
+		try {
+			final Class<?> managerClass = engineLoader.loadClass(IBattleManager.class.getName());
+
+			managerClass.getMethod(method).invoke(ContainerBase.getComponent(managerClass));
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	// The recording classes live in the class loader of the engine, so they must be called by reflection
+	@SuppressWarnings({ "unchecked", "rawtypes"})
+	private void saveRecord(File file, String format) throws Exception {
+		final Class<?> managerClass = engineLoader.loadClass(IRecordManager.class.getName());
+		final Class formatClass = engineLoader.loadClass(BattleRecordFormat.class.getName());
+		final Class<?> optionsClass = engineLoader.loadClass(SerializableOptions.class.getName());
+		final Object recordManager = ContainerBase.getComponent(managerClass);
+
+		managerClass.getMethod("saveRecord", String.class, formatClass, optionsClass).invoke(recordManager,
+				file.getPath(), Enum.valueOf(formatClass, format), optionsClass.getConstructor(boolean.class).newInstance(false));
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes"})
+	private void loadRecord(File file, String format) throws Exception {
+		final Class<?> managerClass = engineLoader.loadClass(IRecordManager.class.getName());
+		final Class formatClass = engineLoader.loadClass(BattleRecordFormat.class.getName());
+		final Object recordManager = ContainerBase.getComponent(managerClass);
+
+		managerClass.getMethod("loadRecord", String.class, formatClass).invoke(recordManager, file.getPath(),
+				Enum.valueOf(formatClass, format));
+	}
+
+	private void checkRecord(File file) throws Exception {
+		final Class<?> readerClass = engineLoader.loadClass(IndexedRecordReader.class.getName());
+		final Method getTurnCount = readerClass.getMethod("getTurnCount", int.class);
+		final Method readTurn = readerClass.getMethod("readTurn", int.class, int.class);
+		final Closeable reader = (Closeable) readerClass.getConstructor(File.class).newInstance(file);
+		final Random random = new Random(42);
+
+		try {
+			for (int round = 0; round < getNumRounds(); round++) {
+				Assert.assertEquals(rounds.get(round).size(), getTurnCount.invoke(reader, round));
+
+				// in order, like a replay, where the turns are decoded from the turn before them
+				for (int turn = 0; turn < rounds.get(round).size(); turn++) {
+					Assert.assertEquals(rounds.get(round).get(turn), describe((ITurnSnapshot) readTurn.invoke(reader, round, turn)));
+				}
+			}
+			for (int i = 0; i < 500; i++) {
+				final int round = random.nextInt(getNumRounds());
+				final int turn = random.nextInt(rounds.get(round).size());
+
+				Assert.assertEquals(rounds.get(round).get(turn), describe((ITurnSnapshot) readTurn.invoke(reader, round, turn)));
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	/**
+	 * Describes every field of the turn that is written to the indexed record.
+	 */
+	private String describe(ITurnSnapshot turn) {
+		final StringBuilder sb = new StringBuilder();
+
+		sb.append(turn.getRound()).append('/').append(turn.getTurn());
+		for (IRobotSnapshot robot : turn.getRobots()) {
+			sb.append("\n").append(robot.getName()).append(' ').append(robot.getShortName()).append(' ').append(
+					robot.getVeryShortName()).append(" team ").append(robot.getTeamName()).append(' ').append(
+					robot.getRobotIndex()).append(' ').append(robot.getTeamIndex()).append(' ').append(
+					robot.getContestantIndex());
+			sb.append(' ').append(robot.getState()).append(' ').append(robot.getX()).append(',').append(robot.getY()).append(' ').append(
+					robot.getEnergy()).append(' ').append(robot.getVelocity()).append(' ').append(robot.getBodyHeading()).append(' ').append(
+					robot.getGunHeading()).append(' ').append(robot.getRadarHeading()).append(' ').append(robot.getGunHeat());
+			sb.append(" colors ").append(robot.getBodyColor()).append(' ').append(robot.getGunColor()).append(' ').append(
+					robot.getRadarColor()).append(' ').append(robot.getScanColor());
+			sb.append(" flags ").append(robot.isDroid()).append(' ').append(robot.isSentryRobot()).append(' ').append(
+					robot.isPaintRobot()).append(' ').append(robot.isPaintEnabled()).append(' ').append(robot.isSGPaintEnabled());
+
+			// the arc is mostly written as centered on the robot, and read back from the position of the robot
+			final Arc2D scanArc = (Arc2D) invoke(robot, "getScanArc");
+
+			if (scanArc != null) {
+				sb.append(" arc ").append(scanArc.getX()).append(',').append(scanArc.getY()).append(' ').append(
+						scanArc.getWidth()).append(',').append(scanArc.getHeight()).append(' ').append(
+						scanArc.getAngleStart()).append(' ').append(scanArc.getAngleExtent()).append(' ').append(
+						scanArc.getArcType());
+			}
+			final byte[] graphicsCalls = (byte[]) invoke(robot, "getGraphicsCalls");
+
+			if (graphicsCalls != null) {
+				sb.append(" graphics ").append(graphicsCalls.length).append(' ').append(Arrays.hashCode(graphicsCalls));
+				paintedTurns++;
+			}
+			if (robot.getDebugProperties() != null) {
+				for (IDebugProperty property : robot.getDebugProperties()) {
+					sb.append(" debug ").append(property.getKey()).append('=').append(property.getValue());
+					debuggedTurns++;
+				}
+			}
+			if (robot.getOutputStreamSnapshot() != null && robot.getOutputStreamSnapshot().length() > 0) {
+				sb.append(" output ").append(robot.getOutputStreamSnapshot());
+				outputTurns++;
+			}
+
+			final IScoreSnapshot score = robot.getScoreSnapshot();
+
+			sb.append(" score ").append(score.getName()).append(' ').append(score.getTotalScore()).append(' ').append(
+					score.getTotalSurvivalScore()).append(' ').append(score.getTotalLastSurvivorBonus()).append(' ').append(
+					score.getTotalBulletDamageScore()).append(' ').append(score.getTotalBulletKillBonus()).append(' ').append(
+					score.getTotalRammingDamageScore()).append(' ').append(score.getTotalRammingKillBonus()).append(' ').append(
+					score.getTotalFirsts()).append(' ').append(score.getTotalSeconds()).append(' ').append(
+					score.getTotalThirds()).append(' ').append(score.getCurrentScore()).append(' ').append(
+					score.getCurrentSurvivalScore()).append(' ').append(score.getCurrentSurvivalBonus()).append(' ').append(
+					score.getCurrentBulletDamageScore()).append(' ').append(score.getCurrentBulletKillBonus()).append(' ').append(
+					score.getCurrentRammingDamageScore()).append(' ').append(score.getCurrentRammingKillBonus());
+		}
+		for (IBulletSnapshot bullet : turn.getBullets()) {
+			sb.append("\nbullet ").append(bullet.getBulletId()).append(' ').append(bullet.getState()).append(' ').append(
+					bullet.getFrame()).append(' ').append(bullet.isExplosion()).append(' ').append(
+					bullet.getExplosionImageIndex()).append(' ').append(bullet.getX()).append(',').append(bullet.getY()).append(' ').append(
+					bullet.getPaintX()).append(',').append(bullet.getPaintY()).append(' ').append(bullet.getPower()).append(' ').append(
+					bullet.getColor()).append(' ').append(bullet.getOwnerIndex()).append(' ').append(bullet.getVictimIndex()).append(' ').append(
+					bullet.getHeading());
+		}
+		return sb.toString();
+	}
+
+	// The scan arc and the graphics calls are not part of the snapshot interface
+	private static Object invoke(IRobotSnapshot robot, String method) {
+		try {
+			return robot.getClass().getMethod(method).invoke(robot);
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+import net.sf.robocode.test.helpers.TurnFingerprint;
+
+import org.junit.Test;
+
+import robocode.control.events.TurnEndedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Runs the same melee battle twice with -DRANDOMSEED and checks that every turn is replayed exactly,
+ * which includes the random order used by the battle for fair play.
+ */
+public class TestRandomSeedReplay extends RobocodeTestBed {
+
+	private List<String> turns = new ArrayList<String>();
+
+	@Test
+	public void run() {
+		final List<String> firstBattle;
+
+		System.setProperty("RANDOMSEED", "4711");
+		try {
+			super.run();
+			firstBattle = turns;
+			turns = new ArrayList<String>();
+			super.run();
+		} finally {
+			System.setProperty("RANDOMSEED", "none");
+		}
+
+		TurnFingerprint.assertSameTurns(firstBattle, turns);
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Crazy,sample.SpinBot,sample.RamFire,sample.Walls,sample.TrackFire,sample.Corners,sample.Tracker,sample.VelociRobot,sample.MyFirstRobot";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 3;
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+		turns.add(TurnFingerprint.of(event.getTurnSnapshot()));
+	}
+}
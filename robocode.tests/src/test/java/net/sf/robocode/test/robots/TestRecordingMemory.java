@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.battle.snapshot.TurnSnapshot;
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.recording.IRecordManager;
+import net.sf.robocode.recording.RecordingStatisticsMXBean;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.BattleRules;
+import robocode.control.events.BattleStartedEvent;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.snapshot.ITurnSnapshot;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * Records a long round with many robots through the record manager, like a recorded battle does, and checks that
+ * the memory used by the recorder does not grow with the length of the round. The turns of a short battle of 30
+ * robots are handed to the recorder over and over as the turns of a single round of 20,000 turns.
+ * <p>
+ * The heap is compared after the first turns and at the end of the round, while the recorder is still open.
+ * Keeping every turn would take hundreds of megabytes, so the bound is generous.
+ */
+public class TestRecordingMemory extends RobocodeTestBed {
+
+	private static final int ROBOTS = 30;
+	private static final int TURNS = 20000;
+	private static final int WARMUP_TURNS = 2000;
+	private static final int TEMPLATE_TURNS = 200;
+
+	/** The heap may grow by this many bytes per turn recorded after the first turns */
+	private static final long MAX_HEAP_GROWTH_PER_TURN = 1024;
+
+	private final List<ITurnSnapshot> templates = new ArrayList<ITurnSnapshot>();
+	private BattleRules battleRules;
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public String getEnemyName() {
+		final StringBuilder enemies = new StringBuilder("sample.Crazy");
+
+		for (int i = 2; i < ROBOTS; i++) {
+			enemies.append(i % 2 == 0 ? ",sample.SpinBot" : ",sample.Crazy");
+		}
+		return enemies.toString();
+	}
+
+	@Override
+	public boolean isEnableRecording() {
+		return true;
+	}
+
+	@Override
+	public void onBattleStarted(BattleStartedEvent event) {
+		super.onBattleStarted(event);
+		battleRules = event.getBattleRules();
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+		if (templates.size() < TEMPLATE_TURNS) {
+			templates.add(event.getTurnSnapshot());
+		}
+	}
+
+	@Override
+	protected void runTeardown() {
+		Assert.assertEquals(ROBOTS, templates.get(0).getRobots().length);
+		try {
+			recordLongRound();
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	// The record manager lives in the class loader of the engine, so it must be called by reflection
+	private void recordLongRound() throws Exception {
+		final ClassLoader engineLoader = templates.get(0).getClass().getClassLoader();
+		final Class<?> turnClass = engineLoader.loadClass(TurnSnapshot.class.getName());
+		final Class<?> managerInterface = engineLoader.loadClass(IRecordManager.class.getName());
+		final Object recordManager = ContainerBase.getComponent(managerInterface);
+		final Class<?> managerClass = recordManager.getClass();
+
+		final Constructor<?> copyTurn = turnClass.getConstructor(turnClass);
+		final Field turnNumber = turnClass.getDeclaredField("turn");
+		final Method createRecordInfo = managerClass.getDeclaredMethod("createRecordInfo", BattleRules.class, int.class,
+				UUID.class);
+		final Method writeTurn = managerClass.getDeclaredMethod("writeTurn", ITurnSnapshot.class, int.class, int.class);
+		final Method cleanupStreams = managerClass.getDeclaredMethod("cleanupStreams");
+
+		turnNumber.setAccessible(true);
+		createRecordInfo.setAccessible(true);
+		writeTurn.setAccessible(true);
+		cleanupStreams.setAccessible(true);
+
+		createRecordInfo.invoke(recordManager, battleRules, ROBOTS, UUID.randomUUID());
+		try {
+			long heapAfterWarmup = 0;
+
+			for (int i = 0; i < TURNS; i++) {
+				final Object turn = copyTurn.newInstance(templates.get(i % templates.size()));
+
+				turnNumber.setInt(turn, i);
+				writeTurn.invoke(recordManager, turn, 0, i);
+				if (i == WARMUP_TURNS) {
+					heapAfterWarmup = usedHeapAfterGc();
+				}
+			}
+			final long heapGrowth = usedHeapAfterGc() - heapAfterWarmup;
+			final long maxHeapGrowth = (TURNS - WARMUP_TURNS) * MAX_HEAP_GROWTH_PER_TURN;
+
+			Assert.assertTrue("The heap grew by " + heapGrowth + " bytes, more than " + maxHeapGrowth,
+					heapGrowth < maxHeapGrowth);
+		} finally {
+			cleanupStreams.invoke(recordManager);
+		}
+
+		final Object statistics = managerInterface.getMethod("getRecordingStatistics").invoke(recordManager);
+		final Class<?> statisticsClass = engineLoader.loadClass(RecordingStatisticsMXBean.class.getName());
+
+		Assert.assertEquals((long) TURNS, statisticsClass.getMethod("getWrittenTurns").invoke(statistics));
+	}
+
+	private static long usedHeapAfterGc() {
+		final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+		for (int i = 0; i < 3; i++) {
+			memory.gc();
+		}
+		return memory.getHeapMemoryUsage().getUsed();
+	}
+}
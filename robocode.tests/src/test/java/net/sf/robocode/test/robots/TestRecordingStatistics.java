@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.recording.IRecordManager;
+import net.sf.robocode.recording.RecordingStatisticsMXBean;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.control.events.RoundStartedEvent;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+
+
+/**
+ * Records a battle, and checks that the queue depth and write latency of the recorder can be read through the
+ * record manager and through JMX afterwards.
+ */
+public class TestRecordingStatistics extends RobocodeTestBed {
+
+	private ClassLoader engineLoader;
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Crazy";
+	}
+
+	@Override
+	public boolean isEnableRecording() {
+		return true;
+	}
+
+	@Override
+	public void onRoundStarted(RoundStartedEvent event) {
+		super.onRoundStarted(event);
+		engineLoader = event.getStartSnapshot().getClass().getClassLoader();
+	}
+
+	@Override
+	protected void runTeardown() {
+		try {
+			final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			final Set<ObjectName> names = server.queryNames(new ObjectName("net.sf.robocode:type=RecordingStatistics,*"),
+					null);
+
+			Assert.assertEquals(1, names.size());
+
+			final ObjectName name = names.iterator().next();
+			final long writtenTurns = (Long) server.getAttribute(name, "WrittenTurns");
+			final int capacity = (Integer) server.getAttribute(name, "QueueCapacity");
+			final int maxQueueDepth = (Integer) server.getAttribute(name, "MaxQueueDepth");
+			final long meanLatency = (Long) server.getAttribute(name, "MeanLatencyNanos");
+			final long maxLatency = (Long) server.getAttribute(name, "MaxLatencyNanos");
+
+			Assert.assertTrue("written turns " + writtenTurns, writtenTurns > 0);
+			Assert.assertEquals(0L, server.getAttribute(name, "DroppedTurns"));
+			Assert.assertTrue("capacity " + capacity, capacity > 0);
+			Assert.assertTrue("max queue depth " + maxQueueDepth, maxQueueDepth >= 1 && maxQueueDepth <= capacity);
+			// the recorder has written all turns when the battle is finished
+			Assert.assertEquals(0, server.getAttribute(name, "QueueDepth"));
+			Assert.assertTrue("mean latency " + meanLatency, meanLatency > 0);
+			Assert.assertTrue("max latency " + maxLatency, maxLatency >= meanLatency);
+
+			// the record manager lives in the class loader of the engine, so it must be called by reflection
+			final Class<?> managerClass = engineLoader.loadClass(IRecordManager.class.getName());
+			final Class<?> statisticsClass = engineLoader.loadClass(RecordingStatisticsMXBean.class.getName());
+			final Object statistics = managerClass.getMethod("getRecordingStatistics").invoke(
+					ContainerBase.getComponent(managerClass));
+
+			Assert.assertEquals(writtenTurns, statisticsClass.getMethod("getWrittenTurns").invoke(statistics));
+		} catch (Exception e) {
+			throw new AssertionError(e);
+		}
+	}
+}
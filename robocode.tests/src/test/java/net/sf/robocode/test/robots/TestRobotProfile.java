@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.BattleResults;
+import robocode.control.RobotProfile;
+import robocode.control.RobotResults;
+import robocode.control.events.BattleCompletedEvent;
+
+
+/**
+ * Checks that the results of a battle contain the profile of a robot that is skipping turns.
+ */
+public class TestRobotProfile extends RobocodeTestBed {
+
+	private static final long BUSY_NANOS = 130 * 1000000L;
+
+	private RobotProfile busyProfile;
+	private RobotProfile fireProfile;
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.BusySkipTurns";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 2;
+	}
+
+	@Override
+	public void onBattleCompleted(BattleCompletedEvent event) {
+		for (BattleResults results : event.getIndexedResults()) {
+			final RobotResults robotResults = (RobotResults) results;
+
+			if (robotResults.getTeamLeaderName().startsWith("tested.robots.BusySkipTurns")) {
+				busyProfile = robotResults.getProfile();
+			} else {
+				fireProfile = robotResults.getProfile();
+			}
+		}
+	}
+
+	@Override
+	protected void runTeardown() {
+		Assert.assertNotNull(busyProfile);
+		Assert.assertNotNull(fireProfile);
+
+		for (RobotProfile profile : new RobotProfile[] { busyProfile, fireProfile }) {
+			Assert.assertTrue(profile.toString(), profile.getTurns() > 0);
+			Assert.assertTrue(profile.toString(), profile.getMedianTurnNanos() <= profile.getPercentile99TurnNanos());
+			Assert.assertTrue(profile.toString(), profile.getPercentile99TurnNanos() <= profile.getMaxTurnNanos());
+			Assert.assertTrue(profile.toString(), profile.getMaxEventQueueSize() > 0);
+		}
+
+		// The robot is busy in its turns until it has skipped more than 5 turns in the round
+		Assert.assertTrue(busyProfile.toString(), busyProfile.getSkippedTurns() > 2 * 5);
+		Assert.assertTrue(busyProfile.toString(), busyProfile.getMaxTurnNanos() >= BUSY_NANOS);
+		if (busyProfile.getCpuTimeNanos() >= 0) {
+			Assert.assertTrue(busyProfile.toString(), busyProfile.getCpuTimeNanos() >= 2 * BUSY_NANOS);
+		}
+		Assert.assertTrue(fireProfile.toString(), fireProfile.getMedianTurnNanos() < BUSY_NANOS);
+	}
+}
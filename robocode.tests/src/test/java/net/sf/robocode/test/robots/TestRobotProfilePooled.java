@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.core.ContainerBase;
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.BattleResults;
+import robocode.control.RobotProfile;
+import robocode.control.RobotResults;
+import robocode.control.events.BattleCompletedEvent;
+
+
+/**
+ * Checks with pooled threads, like with -DPOOLEDTHREADS, where the thread of a robot runs all rounds, that the CPU time in the profile of
+ * the robot is the sum of the CPU time of its rounds, and does not count the earlier rounds again.
+ */
+public class TestRobotProfilePooled extends RobocodeTestBed {
+
+	// The robot is busy for 10 turns of 10 ms in every round
+	private static final long ROUND_BUSY_NANOS = 10 * 10 * 1000000L;
+
+	// CPU time allowed for the rest of a round, where the robot is idle
+	private static final long ROUND_IDLE_NANOS = 60 * 1000000L;
+
+	private static final int NUM_ROUNDS = 6;
+
+	private RobotProfile busyProfile;
+
+	@Test
+	public void run() throws Exception {
+		final boolean wasPooledThreads = setPooledThreads(true);
+
+		try {
+			super.run();
+		} finally {
+			setPooledThreads(wasPooledThreads);
+		}
+	}
+
+	// The host manager is loaded by the engine class loader, so it is only reached by reflection
+	private static boolean setPooledThreads(boolean isPooledThreads) throws Exception {
+		final ClassLoader engineLoader = ContainerBase.instance.getClass().getClassLoader();
+		final Class<?> managerClass = Class.forName("net.sf.robocode.host.IHostManager", true, engineLoader);
+		final Object hostManager = ContainerBase.getComponent(managerClass);
+		final boolean wasPooledThreads = (Boolean) managerClass.getMethod("isPooledThreads").invoke(hostManager);
+
+		managerClass.getMethod("setPooledThreads", boolean.class).invoke(hostManager, isPooledThreads);
+		return wasPooledThreads;
+	}
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.BusyRounds";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return NUM_ROUNDS;
+	}
+
+	@Override
+	public void onBattleCompleted(BattleCompletedEvent event) {
+		for (BattleResults results : event.getIndexedResults()) {
+			final RobotResults robotResults = (RobotResults) results;
+
+			if (robotResults.getTeamLeaderName().startsWith("tested.robots.BusyRounds")) {
+				busyProfile = robotResults.getProfile();
+			}
+		}
+	}
+
+	@Override
+	protected void runTeardown() {
+		Assert.assertNotNull(busyProfile);
+
+		if (busyProfile.getCpuTimeNanos() >= 0) {
+			// Counting the earlier rounds again would add up to 21 rounds of CPU time for 6 rounds
+			Assert.assertTrue(busyProfile.toString(),
+					busyProfile.getCpuTimeNanos() <= NUM_ROUNDS * (ROUND_BUSY_NANOS + ROUND_IDLE_NANOS));
+			Assert.assertTrue(busyProfile.toString(), busyProfile.getCpuTimeNanos() >= NUM_ROUNDS * ROUND_BUSY_NANOS / 2);
+		}
+	}
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import org.junit.Ignore;
+import org.junit.Test;
+import robocode.control.events.TurnEndedEvent;
+
+
+/**
+ * Runs {@link TestSkippedTurns} with -DCPUTIMEBUDGET, where a robot that waits instead of consuming CPU time
+ * must still skip turns. The battle is ended when the robot has skipped a turn.
+ */
+@Ignore("is very timing sensitive test, so it usually fails on different machines, please run explicitly if you did something to security or timing")
+public class TestSkippedTurnsCpuTime extends TestSkippedTurns {
+
+	@Test
+	public void run() {
+		System.setProperty("CPUTIMEBUDGET", "true");
+		try {
+			super.run();
+		} finally {
+			System.setProperty("CPUTIMEBUDGET", "false");
+		}
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+
+		if (messagedEvent) {
+			engine.abortCurrentBattle(false);
+		}
+	}
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.BlockedSkipTurns";
+	}
+}
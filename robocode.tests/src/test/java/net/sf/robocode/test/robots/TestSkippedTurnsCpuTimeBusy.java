@@ -0,0 +1,24 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import org.junit.Ignore;
+
+
+/**
+ * Runs {@link TestSkippedTurnsCpuTime} with a robot that consumes more CPU time than a turn has.
+ */
+@Ignore("is very timing sensitive test, so it usually fails on different machines, please run explicitly if you did something to security or timing")
+public class TestSkippedTurnsCpuTimeBusy extends TestSkippedTurnsCpuTime {
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.BusySkipTurns";
+	}
+}
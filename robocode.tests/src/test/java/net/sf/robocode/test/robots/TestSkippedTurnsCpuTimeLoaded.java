@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import robocode.BattleResults;
+import robocode.control.RobotResults;
+import robocode.control.events.BattleCompletedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+/**
+ * Runs a robot that does more work than its turns allow with -DCPUTIMEBUDGET, once on an idle machine and once
+ * while all processors are kept busy by other threads. Its turns are measured in the CPU time of its thread, so it
+ * must skip about as many turns in both battles.
+ */
+@Ignore("is very timing sensitive test, so it usually fails on different machines, please run explicitly if you did something to security or timing")
+public class TestSkippedTurnsCpuTimeLoaded extends RobocodeTestBed {
+
+	private final List<Integer> skippedTurns = new ArrayList<Integer>();
+
+	private volatile boolean isLoading;
+	private volatile double sink;
+
+	@Test
+	public void run() throws InterruptedException {
+		System.setProperty("CPUTIMEBUDGET", "true");
+		try {
+			super.run();
+			runLoaded();
+		} finally {
+			System.setProperty("CPUTIMEBUDGET", "false");
+		}
+
+		Assert.assertEquals(2, skippedTurns.size());
+
+		final int unloaded = skippedTurns.get(0);
+		final int loaded = skippedTurns.get(1);
+
+		Assert.assertTrue("skipped turns: " + unloaded, unloaded > 0);
+		Assert.assertTrue("skipped turns: " + unloaded + " unloaded, " + loaded + " loaded",
+				Math.abs(loaded - unloaded) <= 5 + unloaded / 3);
+	}
+
+	private void runLoaded() throws InterruptedException {
+		final List<Thread> loadThreads = new ArrayList<Thread>();
+
+		isLoading = true;
+		for (int i = 0; i < Runtime.getRuntime().availableProcessors(); i++) {
+			final Thread thread = new Thread(new Runnable() {
+				public void run() {
+					double x = 0;
+
+					while (isLoading) {
+						x += Math.sqrt(x + 1);
+					}
+					sink = x;
+				}
+			}, "Load " + i);
+
+			thread.setDaemon(true);
+			thread.start();
+			loadThreads.add(thread);
+		}
+		try {
+			super.run();
+		} finally {
+			isLoading = false;
+			for (Thread thread : loadThreads) {
+				thread.join();
+			}
+		}
+	}
+
+	@Override
+	public String getRobotName() {
+		return "tested.robots.CpuBoundSkipTurns";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public int getNumRounds() {
+		return 2;
+	}
+
+	@Override
+	public void onBattleCompleted(BattleCompletedEvent event) {
+		for (BattleResults results : event.getIndexedResults()) {
+			final RobotResults robotResults = (RobotResults) results;
+
+			if (robotResults.getTeamLeaderName().startsWith("tested.robots.CpuBoundSkipTurns")) {
+				skippedTurns.add(robotResults.getProfile().getSkippedTurns());
+			}
+		}
+	}
+}
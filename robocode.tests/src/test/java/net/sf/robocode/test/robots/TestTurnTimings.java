@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2001-2023 Mathew A. Nelson and Robocode contributors
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * https://robocode.sourceforge.io/license/epl-v10.html
+ */
+package net.sf.robocode.test.robots;
+
+
+import net.sf.robocode.test.helpers.RobocodeTestBed;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import robocode.control.events.BattleAdaptor;
+import robocode.control.events.ITurnTimingListener;
+import robocode.control.events.TimingHistogram;
+import robocode.control.events.TurnEndedEvent;
+import robocode.control.events.TurnPhase;
+import robocode.control.events.TurnTimedEvent;
+
+
+/**
+ * Checks that every phase of every turn is timed while an ITurnTimingListener is listening.
+ */
+public class TestTurnTimings extends RobocodeTestBed {
+
+	private final TimingListener timingListener = new TimingListener();
+	private int turns;
+
+	@Test
+	public void run() {
+		super.run();
+	}
+
+	@Override
+	public String getRobotName() {
+		return "sample.Fire";
+	}
+
+	@Override
+	public String getEnemyName() {
+		return "sample.Crazy";
+	}
+
+	@Override
+	protected void runSetup() {
+		engine.addBattleListener(timingListener);
+	}
+
+	@Override
+	public void onTurnEnded(TurnEndedEvent event) {
+		super.onTurnEnded(event);
+		turns++;
+	}
+
+	@Override
+	protected void runTeardown() {
+		engine.removeBattleListener(timingListener);
+
+		final TurnTimedEvent last = timingListener.lastEvent;
+
+		Assert.assertTrue(turns > 0);
+		Assert.assertEquals(turns, timingListener.timedTurns);
+		Assert.assertNotNull(last);
+		Assert.assertEquals(turns, last.getTurn());
+
+		for (TurnPhase phase : TurnPhase.values()) {
+			final TimingHistogram histogram = last.getPhaseHistogram(phase);
+
+			Assert.assertEquals(phase.name(), turns, histogram.getCount());
+			Assert.assertTrue(phase.name(), histogram.getMaxNanos() >= last.getPhaseNanos(phase));
+		}
+		Assert.assertTrue(last.getPhaseHistogram(TurnPhase.WAKEUP_ROBOTS).getTotalNanos() > 0);
+
+		final TimingHistogram listenerHistogram = last.getListenerHistograms().get(
+				"onTurnEnded " + TimingListener.class.getName());
+
+		Assert.assertNotNull(listenerHistogram);
+		Assert.assertEquals(turns, listenerHistogram.getCount());
+	}
+
+	private static class TimingListener extends BattleAdaptor implements ITurnTimingListener {
+		int timedTurns;
+		TurnTimedEvent lastEvent;
+
+		@Override
+		public void onTurnEnded(TurnEndedEvent event) {}
+
+		public void onTurnTimed(TurnTimedEvent event) {
+			timedTurns++;
+			lastEvent = event;
+		}
+	}
+}
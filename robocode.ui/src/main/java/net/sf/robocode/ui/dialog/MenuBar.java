@@ -901,8 +901,10 @@ public class MenuBar extends JMenuBar {
 			}
 
 			long cpuConstant = cpuManager.getCpuConstant();
+			long variation = Math.round(cpuManager.getCpuConstantVariation() * 100);
 
-			JOptionPane.showMessageDialog(this, "CPU constant: " + cpuConstant + " nanoseconds per turn",
+			JOptionPane.showMessageDialog(this,
+					"CPU constant: " + cpuConstant + " nanoseconds per turn (varied by " + variation + "%)",
 					"New CPU constant", JOptionPane.INFORMATION_MESSAGE);
 		}
 	}
@@ -81,6 +81,11 @@ public class RobocodeFrame extends JFrame {
 	private JSlider tpsSlider;
 	private JLabel tpsLabel;
 
+	// Jumps to a turn of the replayed round, and follows the replay otherwise
+	private JSlider turnSlider;
+	private int turnSliderRound;
+	private boolean isTurnSliderUpdating;
+
 	private boolean iconified;
 	private boolean exitOnClose = true;
 
@@ -491,6 +496,39 @@ public class RobocodeFrame extends JFrame {
 		return tpsSlider;
 	}
 
+	/**
+	 * Return the turnSlider, which is only visible while a battle is replayed
+	 *
+	 * @return JSlider
+	 */
+	private JSlider getTurnSlider() {
+		if (turnSlider == null) {
+			turnSlider = new JSlider(0, 0, 0);
+			turnSlider.setToolTipText("Jump to a turn of the replayed round");
+			turnSlider.setVisible(false);
+			turnSlider.addChangeListener(eventHandler);
+
+			WindowUtil.setFixedSize(turnSlider, new Dimension((MAX_TPS_SLIDER_VALUE + 1) * 4, 40));
+		}
+		return turnSlider;
+	}
+
+	/**
+	 * Moves the turnSlider to a turn of a round without jumping to the turn.
+	 */
+	private void setTurnOnSlider(int round, int turn) {
+		final JSlider slider = getTurnSlider();
+
+		isTurnSliderUpdating = true;
+		try {
+			turnSliderRound = round;
+			slider.setMaximum(Math.max(recordManager.getTurnsInRound(round) - 1, 0));
+			slider.setValue(turn);
+		} finally {
+			isTurnSliderUpdating = false;
+		}
+	}
+
 	/**
 	 * Return the tpsLabel
 	 *
@@ -524,6 +562,8 @@ public class RobocodeFrame extends JFrame {
 
 			toolBar.addSeparator();
 
+			toolBar.add(getTurnSlider());
+
 			toolBar.add(getStatusLabel());
 			WindowUtil.setDefaultStatusLabel(getStatusLabel());
 		}
@@ -782,6 +822,10 @@ public class RobocodeFrame extends JFrame {
 				}
 
 				tpsLabel.setText(getTpsFromSliderAsString());
+			} else if (e.getSource() == getTurnSlider()) {
+				if (!isTurnSliderUpdating) {
+					battleManager.seekTurn(turnSliderRound, getTurnSlider().getValue());
+				}
 			}
 		}
 	}
@@ -818,6 +862,10 @@ public class RobocodeFrame extends JFrame {
 			getStopButton().setEnabled(true);
 			getRestartButton().setEnabled(battleManager.getBattleProperties().getSelectedRobots() != null);
 			getReplayButton().setEnabled(event.isReplay());
+			if (isBattleReplay) {
+				setTurnOnSlider(0, 0);
+			}
+			getTurnSlider().setVisible(isBattleReplay);
 			menuBar.getBattleSaveRecordAsMenuItem().setEnabled(false);
 			menuBar.getBattleExportRecordMenuItem().setEnabled(false);
 			menuBar.getBattleSaveAsMenuItem().setEnabled(true);
@@ -881,6 +929,7 @@ public class RobocodeFrame extends JFrame {
 			getStopButton().setEnabled(false);
 			getReplayButton().setEnabled(canReplayRecord);
 			getNextTurnButton().setEnabled(false);
+			getTurnSlider().setVisible(false);
 
 			menuBar.getBattleSaveRecordAsMenuItem().setEnabled(enableSaveRecord);
 			menuBar.getBattleExportRecordMenuItem().setEnabled(enableSaveRecord);
@@ -928,6 +977,10 @@ public class RobocodeFrame extends JFrame {
 			currentRound = event.getTurnSnapshot().getRound();
 			currentTurn = event.getTurnSnapshot().getTurn();
 
+			if (isBattleReplay && !getTurnSlider().getValueIsAdjusting()) {
+				setTurnOnSlider(currentRound, currentTurn);
+			}
+
 			// Only update every half second to spare CPU cycles
 			if ((System.currentTimeMillis() - lastTitleUpdateTime) >= UPDATE_TITLE_INTERVAL) {
 				updateTitle();